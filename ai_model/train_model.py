@@ -1,8 +1,15 @@
 """
 AI Trading Model Training Script
 Generates synthetic market data, trains a RandomForestClassifier, and exports to ONNX format.
+
+With --from-npy DIR the data is instead read (memory-mapped) from a training set exported by the
+Java side, whose features come from the same code the trading bot runs:
+
+    java -cp target/classes com.tradingbot.model.TrainingSetExporter DIR --synthetic 100000000
+    python train_model.py --from-npy DIR [--max-rows N]
 """
 
+import argparse
 import pandas as pd
 import numpy as np
 from sklearn.ensemble import RandomForestClassifier
@@ -163,36 +170,72 @@ def create_labels(df):
     
     return pd.Series(labels, name='label')
 
+def load_exported_training_set(directory, max_rows=None):
+    """
+    Memory-maps a training set written by com.tradingbot.model.TrainingSetExporter.
+
+    Args:
+        directory: Exporter output directory (features.npy, labels.npy)
+        max_rows: Use only the most recent rows (default: all)
+
+    Returns:
+        Tuple (X, y): float32 features [RSI_14, SMA_Diff, Momentum] and 0/1 labels
+    """
+    X = np.load(os.path.join(directory, 'features.npy'), mmap_mode='r')
+    y = np.load(os.path.join(directory, 'labels.npy'), mmap_mode='r')
+    if len(X) != len(y):
+        raise ValueError(f"features.npy has {len(X)} rows but labels.npy has {len(y)}")
+    if max_rows is not None and len(X) > max_rows:
+        X = X[-max_rows:]
+        y = y[-max_rows:]
+    return np.asarray(X), np.asarray(y)
+
 def main():
+    parser = argparse.ArgumentParser(description="Train the trading model and export it to ONNX")
+    parser.add_argument('--from-npy', metavar='DIR',
+                        help="train on a training set exported by TrainingSetExporter instead of generating one")
+    parser.add_argument('--max-rows', type=int, default=None,
+                        help="with --from-npy: train on the most recent N rows only")
+    args = parser.parse_args()
+
     print("=" * 60)
     print("AI Trading Model Training")
     print("=" * 60)
     
-    # Step 1: Generate synthetic data
-    print("\n[1/5] Generating synthetic market data...")
-    df = generate_synthetic_market_data(n_rows=1000)
-    print(f"Generated {len(df)} rows of market data")
-    
-    # Step 2: Create features
-    print("\n[2/5] Creating features (RSI_14, SMA_Diff, Momentum)...")
-    df = create_features(df)
-    print("Features created:")
-    print(f"  - RSI_14: {df['RSI_14'].notna().sum()} valid values")
-    print(f"  - SMA_Diff: {df['SMA_Diff'].notna().sum()} valid values")
-    print(f"  - Momentum: {df['Momentum'].notna().sum()} valid values")
-    
-    # Step 3: Create labels
-    print("\n[3/5] Creating labels...")
-    labels = create_labels(df)
-    print(f"Label distribution:")
-    print(f"  - BUY (1): {labels.sum()} samples")
-    print(f"  - SELL (0): {(labels == 0).sum()} samples")
-    
-    # Step 4: Prepare data for training
-    print("\n[4/5] Preparing data for training...")
-    feature_cols = ['RSI_14', 'SMA_Diff', 'Momentum']
-    X = df[feature_cols].values
-    y = labels.values
+    if args.from_npy:
+        # Steps 1-3 were done by the Java exporter with the production feature code
+        print(f"\n[1-3/5] Loading exported training set from {args.from_npy}...")
+        X, y = load_exported_training_set(args.from_npy, args.max_rows)
+        print(f"Loaded {len(X)} rows")
+        print(f"  - BUY (1): {int(y.sum())} samples")
+        print(f"  - SELL (0): {int((y == 0).sum())} samples")
+        print("\n[4/5] Preparing data for training...")
+    else:
+        # Step 1: Generate synthetic data
+        print("\n[1/5] Generating synthetic market data...")
+        df = generate_synthetic_market_data(n_rows=1000)
+        print(f"Generated {len(df)} rows of market data")
+        
+        # Step 2: Create features
+        print("\n[2/5] Creating features (RSI_14, SMA_Diff, Momentum)...")
+        df = create_features(df)
+        print("Features created:")
+        print(f"  - RSI_14: {df['RSI_14'].notna().sum()} valid values")
+        print(f"  - SMA_Diff: {df['SMA_Diff'].notna().sum()} valid values")
+        print(f"  - Momentum: {df['Momentum'].notna().sum()} valid values")
+        
+        # Step 3: Create labels
+        print("\n[3/5] Creating labels...")
+        labels = create_labels(df)
+        print(f"Label distribution:")
+        print(f"  - BUY (1): {labels.sum()} samples")
+        print(f"  - SELL (0): {(labels == 0).sum()} samples")
+        
+        # Step 4: Prepare data for training
+        print("\n[4/5] Preparing data for training...")
+        feature_cols = ['RSI_14', 'SMA_Diff', 'Momentum']
+        X = df[feature_cols].values
+        y = labels.values
     
     # Remove rows with NaN values
     valid_mask = ~np.isnan(X).any(axis=1)
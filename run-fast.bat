@@ -0,0 +1,43 @@
+@echo off
+rem Startup-optimized launch from the packaged jar and its AppCDS archive.
+rem Usage: run-fast.bat [cli ^| gui ^| headless [config]]
+rem The GUI records its own archive on its first run and starts from it afterwards.
+
+set MODE=%1
+if "%MODE%"=="" set MODE=cli
+set JAR=target\ai-trading-bot-1.0.0.jar
+set ARCHIVE=target\app-cds.jsa
+
+if not exist "%JAR%" goto build
+if not exist "%ARCHIVE%" goto build
+goto run
+
+:build
+echo Building jar and AppCDS archive...
+call mvn -q -Pfast-startup -DskipTests package
+if %errorlevel% neq 0 (
+    echo Build failed!
+    pause
+    exit /b 1
+)
+
+:run
+if /i "%MODE%"=="cli" (
+    java -XX:SharedArchiveFile=%ARCHIVE% -cp %JAR% com.tradingbot.TradingBotMain
+) else if /i "%MODE%"=="headless" (
+    if "%2"=="" (
+        java -XX:SharedArchiveFile=%ARCHIVE% -cp %JAR% com.tradingbot.runner.HeadlessRunner config\bots.properties
+    ) else (
+        java -XX:SharedArchiveFile=%ARCHIVE% -cp %JAR% com.tradingbot.runner.HeadlessRunner %2
+    )
+) else if /i "%MODE%"=="gui" (
+    if exist "target\gui-cds.jsa" (
+        java -XX:SharedArchiveFile=target\gui-cds.jsa -cp %JAR% com.tradingbot.gui.TradingBotGUI
+    ) else (
+        echo First GUI run: recording target\gui-cds.jsa on exit
+        java -XX:ArchiveClassesAtExit=target\gui-cds.jsa -cp %JAR% com.tradingbot.gui.TradingBotGUI
+    )
+) else (
+    echo Usage: run-fast.bat [cli ^| gui ^| headless [config]]
+    exit /b 2
+)
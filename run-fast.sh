@@ -0,0 +1,42 @@
+#!/bin/bash
+
+# Startup-optimized launch from the packaged jar and its AppCDS archive.
+# Usage: ./run-fast.sh [cli | gui | headless [config]]
+#
+# The CLI and headless runner share target/app-cds.jsa, built by the first step below. The GUI
+# records its own archive (Swing classes included) on its first run and starts from it afterwards.
+
+MODE=${1:-cli}
+JAR=target/ai-trading-bot-1.0.0.jar
+ARCHIVE=target/app-cds.jsa
+
+if [ ! -f "$JAR" ] || [ ! -f "$ARCHIVE" ]; then
+    echo "Building jar and AppCDS archive..."
+    mvn -q -Pfast-startup -DskipTests package
+    if [ $? -ne 0 ]; then
+        echo "Build failed!"
+        exit 1
+    fi
+fi
+
+case "$MODE" in
+    cli)
+        exec java -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" com.tradingbot.TradingBotMain
+        ;;
+    headless)
+        exec java -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" com.tradingbot.runner.HeadlessRunner \
+            "${2:-config/bots.properties}"
+        ;;
+    gui)
+        GUI_ARCHIVE=target/gui-cds.jsa
+        if [ -f "$GUI_ARCHIVE" ]; then
+            exec java -XX:SharedArchiveFile="$GUI_ARCHIVE" -cp "$JAR" com.tradingbot.gui.TradingBotGUI
+        fi
+        echo "First GUI run: recording $GUI_ARCHIVE on exit"
+        exec java -XX:ArchiveClassesAtExit="$GUI_ARCHIVE" -cp "$JAR" com.tradingbot.gui.TradingBotGUI
+        ;;
+    *)
+        echo "Usage: $0 [cli | gui | headless [config]]"
+        exit 2
+        ;;
+esac
@@ -0,0 +1,14 @@
+#!/bin/bash
+
+# Runs all bots declared in a config file without a terminal.
+# Stop with SIGTERM (kill <pid>) or Ctrl+C; the final state is flushed to the journal.
+
+CONFIG=${1:-config/bots.properties}
+
+mvn -q compile
+if [ $? -ne 0 ]; then
+    echo "Build failed!"
+    exit 1
+fi
+
+exec mvn -q exec:java -Dexec.mainClass="com.tradingbot.runner.HeadlessRunner" -Dexec.args="$CONFIG"
@@ -3,10 +3,14 @@ package com.tradingbot;
 import com.tradingbot.bot.BotObserver;
 import com.tradingbot.domain.Wallet;
 import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.metrics.MetricsHttpServer;
+import com.tradingbot.metrics.MetricsRegistry;
+import com.tradingbot.metrics.StartupClock;
 import com.tradingbot.observer.MarketDataSubject;
 import com.tradingbot.strategy.AIStrategy;
 import com.tradingbot.strategy.TradingStrategy;
 
+import java.io.IOException;
 import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
@@ -91,6 +95,9 @@ public class TradingBotMain {
         // Register bot as observer
         marketData.registerObserver(bot);
         System.out.println("✓ Bot registered as observer");
+
+        // Optional metrics endpoint: -Dmetrics.port=9404
+        MetricsHttpServer metricsServer = startMetricsServer(marketData, bot);
         System.out.println();
 
         // Display initial wallet state
@@ -108,6 +115,7 @@ public class TradingBotMain {
         System.out.println("=".repeat(60));
         System.out.println();
 
+        StartupClock.onFirstSignal(millis -> System.out.println("⏱ Time to first signal: " + millis + " ms"));
         marketData.start();
 
         // Wait for user to stop
@@ -132,8 +140,36 @@ public class TradingBotMain {
             ((AIStrategy) strategy).close();
         }
 
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+
         scanner.close();
         System.out.println("\n✓ Trading bot stopped. Goodbye!");
     }
+
+    /**
+     * Starts the metrics endpoint if the "metrics.port" system property is set.
+     * @return The running server, or null if disabled or the port could not be bound
+     */
+    private static MetricsHttpServer startMetricsServer(MarketDataSubject marketData, BotObserver bot) {
+        String port = System.getProperty("metrics.port");
+        if (port == null || port.isBlank()) {
+            return null;
+        }
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.registerBot(bot.getMetrics());
+        registry.registerCounter("tradingbot_feed_candles_total", "Candles published by the market data feed",
+                "", marketData::getCandleCount);
+        try {
+            MetricsHttpServer server = new MetricsHttpServer(registry, Integer.parseInt(port.trim()));
+            server.start();
+            System.out.println("✓ Metrics endpoint on http://127.0.0.1:" + server.getPort() + "/metrics");
+            return server;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("❌ Failed to start metrics endpoint: " + e.getMessage());
+            return null;
+        }
+    }
 }
 
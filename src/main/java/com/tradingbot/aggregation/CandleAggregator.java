@@ -0,0 +1,222 @@
+package com.tradingbot.aggregation;
+
+import com.tradingbot.domain.MarketCandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Turns the trade ticks of one symbol into candles of several timeframes (e.g. 1s, 1m, 5m, 1h)
+ * in a single pass.
+ *
+ * Only the finest timeframe looks at ticks: a tick inside its open bucket updates a few primitive
+ * fields and allocates nothing. When a bucket closes, its candle is published and rolled up into
+ * the next timeframe's open bucket, which closes the same way, so each coarser timeframe costs one
+ * merge per finer candle rather than work per tick. Every timeframe must be a multiple of the
+ * previous one; buckets are aligned to the epoch (UTC), so a 1m bucket always holds whole 1s buckets.
+ *
+ * A bucket closes when a tick at or past its end arrives, or when {@link #advanceTime(long)} or
+ * {@link #flush()} is called. Buckets without ticks produce no candle. A late tick (older than the
+ * open bucket) is folded into the open bucket. Candle timestamps are the bucket start in UTC.
+ *
+ * Not thread-safe: feed one aggregator from one thread.
+ */
+public class CandleAggregator {
+    /** 1s, 1m, 5m and 1h. */
+    public static final long[] STANDARD_TIMEFRAMES = {1_000L, 60_000L, 300_000L, 3_600_000L};
+
+    private final String symbol;
+    private final int levels;
+    private final long[] lengths;
+    private final TimeframeSubject[] subjects;
+
+    // Open bucket per timeframe (structure of arrays), indexed by level
+    private final boolean[] hasBucket;
+    private final long[] starts;
+    private final long[] ends;
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final double[] volumes;
+
+    private long tickCount;
+
+    /**
+     * Creates an aggregator for 1s, 1m, 5m and 1h candles.
+     * @param symbol The symbol name (informational, e.g. "BTCUSDT")
+     */
+    public CandleAggregator(String symbol) {
+        this(symbol, STANDARD_TIMEFRAMES);
+    }
+
+    /**
+     * @param symbol The symbol name (informational, e.g. "BTCUSDT")
+     * @param timeframeMillis Candle lengths in milliseconds, ascending, each a multiple of the previous
+     */
+    public CandleAggregator(String symbol, long... timeframeMillis) {
+        if (timeframeMillis.length == 0) {
+            throw new IllegalArgumentException("At least one timeframe is required");
+        }
+        for (int i = 0; i < timeframeMillis.length; i++) {
+            if (timeframeMillis[i] <= 0) {
+                throw new IllegalArgumentException("Timeframe must be positive: " + timeframeMillis[i]);
+            }
+            if (i > 0 && (timeframeMillis[i] <= timeframeMillis[i - 1] || timeframeMillis[i] % timeframeMillis[i - 1] != 0)) {
+                throw new IllegalArgumentException("Timeframe " + timeframeMillis[i]
+                        + " must be a larger multiple of " + timeframeMillis[i - 1]);
+            }
+        }
+        this.symbol = symbol;
+        this.levels = timeframeMillis.length;
+        this.lengths = timeframeMillis.clone();
+        this.subjects = new TimeframeSubject[levels];
+        for (int i = 0; i < levels; i++) {
+            subjects[i] = new TimeframeSubject(lengths[i]);
+        }
+        this.hasBucket = new boolean[levels];
+        this.starts = new long[levels];
+        this.ends = new long[levels];
+        this.opens = new double[levels];
+        this.highs = new double[levels];
+        this.lows = new double[levels];
+        this.closes = new double[levels];
+        this.volumes = new double[levels];
+        ends[0] = Long.MIN_VALUE; // The first tick opens a bucket
+    }
+
+    /**
+     * Adds one trade.
+     * @param timestampMillis Trade time in epoch milliseconds
+     * @param price Trade price
+     * @param quantity Traded quantity
+     */
+    public void onTick(long timestampMillis, double price, double quantity) {
+        tickCount++;
+        if (timestampMillis < ends[0]) {
+            // Hot path: the tick falls in the open finest bucket
+            if (price > highs[0]) {
+                highs[0] = price;
+            } else if (price < lows[0]) {
+                lows[0] = price;
+            }
+            closes[0] = price;
+            volumes[0] += quantity;
+            return;
+        }
+        closeBuckets(timestampMillis);
+        long start = Math.floorDiv(timestampMillis, lengths[0]) * lengths[0];
+        hasBucket[0] = true;
+        starts[0] = start;
+        ends[0] = start + lengths[0];
+        opens[0] = price;
+        highs[0] = price;
+        lows[0] = price;
+        closes[0] = price;
+        volumes[0] = quantity;
+    }
+
+    /**
+     * Closes every bucket that ends at or before the given time, e.g. from a timer when the
+     * market is quiet so candles are not held back until the next tick.
+     * @param nowMillis The current time in epoch milliseconds
+     */
+    public void advanceTime(long nowMillis) {
+        if (nowMillis >= ends[0]) {
+            closeBuckets(nowMillis);
+        }
+    }
+
+    /**
+     * Closes and publishes all open buckets, including partial ones (e.g. at the end of a replay).
+     */
+    public void flush() {
+        closeBuckets(Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes each open bucket that ends at or before the given time and rolls it into the next
+     * timeframe. A coarser bucket can only end where a finer one ends, so the scan stops at the
+     * first bucket still open.
+     */
+    private void closeBuckets(long timestampMillis) {
+        for (int level = 0; level < levels; level++) {
+            if (!hasBucket[level]) {
+                continue;
+            }
+            if (timestampMillis < ends[level]) {
+                break;
+            }
+            publish(level);
+            if (level + 1 < levels) {
+                rollUp(level, level + 1);
+            }
+            hasBucket[level] = false;
+            ends[level] = Long.MIN_VALUE;
+        }
+    }
+
+    private void rollUp(int from, int to) {
+        if (!hasBucket[to]) {
+            long start = Math.floorDiv(starts[from], lengths[to]) * lengths[to];
+            hasBucket[to] = true;
+            starts[to] = start;
+            ends[to] = start + lengths[to];
+            opens[to] = opens[from];
+            highs[to] = highs[from];
+            lows[to] = lows[from];
+            closes[to] = closes[from];
+            volumes[to] = volumes[from];
+            return;
+        }
+        highs[to] = Math.max(highs[to], highs[from]);
+        lows[to] = Math.min(lows[to], lows[from]);
+        closes[to] = closes[from];
+        volumes[to] += volumes[from];
+    }
+
+    private void publish(int level) {
+        TimeframeSubject subject = subjects[level];
+        if (!subject.hasObservers()) {
+            return;
+        }
+        long start = starts[level];
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(start, 1000L),
+                (int) Math.floorMod(start, 1000L) * 1_000_000, ZoneOffset.UTC);
+        subject.notifyObservers(new MarketCandle(opens[level], highs[level], lows[level], closes[level],
+                volumes[level], timestamp));
+    }
+
+    /**
+     * Gets the candle stream of one timeframe.
+     * @param timeframeMillis A timeframe this aggregator was created with
+     * @return The subject publishing that timeframe's candles
+     */
+    public TimeframeSubject getTimeframe(long timeframeMillis) {
+        for (int i = 0; i < levels; i++) {
+            if (lengths[i] == timeframeMillis) {
+                return subjects[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown timeframe: " + timeframeMillis);
+    }
+
+    /**
+     * @param level Index into the timeframes, 0 = finest
+     * @return The subject publishing that timeframe's candles
+     */
+    public TimeframeSubject getTimeframeAt(int level) {
+        return subjects[level];
+    }
+
+    public int getTimeframeCount() {
+        return levels;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tradingbot.aggregation;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.observer.Subject;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The candle stream of one timeframe produced by a {@link CandleAggregator}.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Subject - strategies register on the timeframe they trade (e.g. 1m) and receive
+ * each candle of that timeframe once it closes.
+ * Reason: One aggregator feeds every timeframe in a single pass over the ticks; exposing each
+ * timeframe as its own Subject keeps strategies unaware of ticks and of the other timeframes.
+ *
+ * Candles are published on the thread that feeds ticks to the aggregator.
+ */
+public class TimeframeSubject implements Subject {
+    private final long lengthMillis;
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+    private volatile long candleCount;
+
+    TimeframeSubject(long lengthMillis) {
+        this.lengthMillis = lengthMillis;
+    }
+
+    @Override
+    public void registerObserver(Observer observer) {
+        if (observer != null) {
+            observers.addIfAbsent(observer);
+        }
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void notifyObservers(MarketCandle candle) {
+        for (Observer observer : observers) {
+            observer.update(candle);
+        }
+        candleCount++;
+    }
+
+    /**
+     * @return true if any observer is registered, so the aggregator can skip building candles nobody reads
+     */
+    boolean hasObservers() {
+        return !observers.isEmpty();
+    }
+
+    public long getLengthMillis() {
+        return lengthMillis;
+    }
+
+    public int getObserverCount() {
+        return observers.size();
+    }
+
+    /**
+     * Gets the number of candles published on this timeframe.
+     * @return The count of published candles
+     */
+    public long getCandleCount() {
+        return candleCount;
+    }
+}
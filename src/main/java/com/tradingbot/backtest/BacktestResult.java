@@ -0,0 +1,53 @@
+package com.tradingbot.backtest;
+
+/**
+ * Outcome of one strategy run over one price path.
+ */
+public final class BacktestResult {
+    private final long pathIndex;
+    private final double finalValue;
+    private final double pnlPercent;
+    private final double maxDrawdownPercent;
+    private final int tradeCount;
+
+    public BacktestResult(long pathIndex, double finalValue, double pnlPercent, double maxDrawdownPercent,
+                          int tradeCount) {
+        this.pathIndex = pathIndex;
+        this.finalValue = finalValue;
+        this.pnlPercent = pnlPercent;
+        this.maxDrawdownPercent = maxDrawdownPercent;
+        this.tradeCount = tradeCount;
+    }
+
+    public long getPathIndex() {
+        return pathIndex;
+    }
+
+    /**
+     * @return Portfolio value in USDT at the last close
+     */
+    public double getFinalValue() {
+        return finalValue;
+    }
+
+    public double getPnlPercent() {
+        return pnlPercent;
+    }
+
+    /**
+     * @return Largest peak-to-trough fall of the portfolio value, in percent of the peak
+     */
+    public double getMaxDrawdownPercent() {
+        return maxDrawdownPercent;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BacktestResult{path=%d, PnL=%.2f%%, maxDD=%.2f%%, trades=%d}",
+                pathIndex, pnlPercent, maxDrawdownPercent, tradeCount);
+    }
+}
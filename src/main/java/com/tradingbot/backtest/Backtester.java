@@ -0,0 +1,87 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.simulation.SyntheticCandleStream;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import com.tradingbot.strategy.TradeListener;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a strategy candle by candle and measures PnL, maximum drawdown (marked to each close) and
+ * the number of fills. Candles come either from a synthetic path generated on the fly or from a
+ * range of a shared, read-only {@link CandleColumns} history.
+ */
+public final class Backtester {
+
+    private Backtester() {
+    }
+
+    /**
+     * @param pathIndex Identifier reported in the result
+     * @param strategy The strategy, with its own wallet; output should be disabled with setVerbose(false)
+     * @param stream The price path
+     * @param candles Number of candles to run
+     * @return The outcome
+     */
+    public static BacktestResult run(long pathIndex, BaseTradingStrategy strategy, SyntheticCandleStream stream,
+                                     int candles) {
+        return run(pathIndex, strategy, index -> stream.next(), 0, candles, null);
+    }
+
+    /**
+     * Runs a strategy over part of a candle history. Candles from warmUpFrom to from are only passed
+     * to the strategy's analysis (indicator warm-up), without trading.
+     * @param id Identifier reported in the result
+     * @param strategy The strategy, with its own wallet
+     * @param history The candles; only read
+     * @param warmUpFrom First warm-up candle (== from for none)
+     * @param from First traded candle
+     * @param to End of the range (exclusive)
+     * @param equityCurve If not null, receives the portfolio value at each traded close, starting at index 0
+     * @return The outcome
+     */
+    public static BacktestResult run(long id, BaseTradingStrategy strategy, CandleColumns history, int warmUpFrom,
+                                     int from, int to, double[] equityCurve) {
+        if (warmUpFrom < 0 || warmUpFrom > from || from > to || to > history.size()) {
+            throw new IllegalArgumentException("Invalid range " + warmUpFrom + "/" + from + ".." + to);
+        }
+        for (int i = warmUpFrom; i < from; i++) {
+            strategy.analyze(history.toCandle(i));
+        }
+        return run(id, strategy, history::toCandle, from, to, equityCurve);
+    }
+
+    private static BacktestResult run(long id, BaseTradingStrategy strategy, IntFunction<MarketCandle> candles,
+                                      int from, int to, double[] equityCurve) {
+        Wallet wallet = strategy.getWallet();
+        int[] trades = new int[1];
+        TradeListener counter = (side, price, amount) -> trades[0]++;
+        strategy.addTradeListener(counter);
+        try {
+            double peak = wallet.getInitialUsdtBalance();
+            double maxDrawdown = 0;
+            double value = peak;
+            double lastClose = 0;
+            for (int i = from; i < to; i++) {
+                MarketCandle candle = candles.apply(i);
+                strategy.executeStrategyTemplate(candle);
+                lastClose = candle.getClose();
+                value = wallet.getTotalValue(lastClose);
+                if (equityCurve != null) {
+                    equityCurve[i - from] = value;
+                }
+                if (value > peak) {
+                    peak = value;
+                } else if (peak > 0) {
+                    maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+                }
+            }
+            double pnl = from == to ? 0 : wallet.getPnLPercentage(lastClose);
+            return new BacktestResult(id, value, pnl, maxDrawdown * 100.0, trades[0]);
+        } finally {
+            strategy.removeTradeListener(counter);
+        }
+    }
+}
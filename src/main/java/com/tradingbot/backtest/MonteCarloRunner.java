@@ -0,0 +1,193 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.simulation.SyntheticMarketGenerator;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs one strategy configuration over thousands of independently seeded synthetic paths and
+ * aggregates the distributions of final PnL, maximum drawdown and trade count.
+ *
+ * Each path gets a fresh {@link Wallet} and strategy instance from the factory and is generated
+ * candle by candle while it runs, so memory stays constant however many paths are requested.
+ * Paths are split recursively on a {@link ForkJoinPool}, whose work stealing keeps all cores busy
+ * even when some paths trade (and cost) more than others. Each leaf task aggregates its paths into
+ * its own statistics, and sibling results are merged as the tasks join, so workers share no state
+ * per path. Each finished leaf is also folded into a running total (one lock per leaf), so
+ * {@link #snapshot()} can be polled from any thread while a run is in progress; an optional
+ * listener sees every path result.
+ *
+ * Path i always uses {@link SyntheticMarketGenerator#stream(int)} i, so results are reproducible
+ * from the generator seed regardless of scheduling.
+ */
+public class MonteCarloRunner {
+    private final SyntheticMarketGenerator generator;
+    private final Function<Wallet, ? extends BaseTradingStrategy> strategyFactory;
+    private final double initialBalance;
+    private final int candlesPerPath;
+    private static final int LEAF_PATHS = 16;
+
+    private final ForkJoinPool pool;
+    private volatile Consumer<BacktestResult> pathListener;
+    private Aggregate progress; // Leaves finished so far, guarded by this
+
+    /**
+     * Creates a runner on the common ForkJoin pool.
+     */
+    public MonteCarloRunner(SyntheticMarketGenerator generator, Function<Wallet, ? extends BaseTradingStrategy> strategyFactory,
+                            double initialBalance, int candlesPerPath) {
+        this(generator, strategyFactory, initialBalance, candlesPerPath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param generator Source of the price paths
+     * @param strategyFactory Creates the strategy under test for a path's wallet
+     * @param initialBalance USDT balance of each path's wallet
+     * @param candlesPerPath Length of each path
+     * @param pool Pool to run the paths on
+     */
+    public MonteCarloRunner(SyntheticMarketGenerator generator, Function<Wallet, ? extends BaseTradingStrategy> strategyFactory,
+                            double initialBalance, int candlesPerPath, ForkJoinPool pool) {
+        if (candlesPerPath <= 0) {
+            throw new IllegalArgumentException("Candles per path must be positive: " + candlesPerPath);
+        }
+        if (!(initialBalance > 0)) {
+            throw new IllegalArgumentException("Initial balance must be positive: " + initialBalance);
+        }
+        this.generator = generator;
+        this.strategyFactory = strategyFactory;
+        this.initialBalance = initialBalance;
+        this.candlesPerPath = candlesPerPath;
+        this.pool = pool;
+        this.progress = new Aggregate();
+    }
+
+    /**
+     * Runs paths 0..paths-1 and blocks until all have completed.
+     * @param paths Number of paths
+     * @return The final summary
+     */
+    public MonteCarloSummary run(int paths) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("Path count must be positive: " + paths);
+        }
+        synchronized (this) {
+            progress = new Aggregate();
+        }
+        Aggregate total = pool.invoke(new PathRange(0, paths));
+        synchronized (this) {
+            progress = total;
+        }
+        return total.toSummary();
+    }
+
+    /**
+     * Runs a single path without recording it in the aggregates.
+     * @param pathIndex The path
+     * @return Its result
+     */
+    public BacktestResult runPath(int pathIndex) {
+        BaseTradingStrategy strategy = strategyFactory.apply(new Wallet(initialBalance));
+        strategy.setVerbose(false);
+        return Backtester.run(pathIndex, strategy, generator.stream(pathIndex), candlesPerPath);
+    }
+
+    private synchronized void publish(Aggregate leaf) {
+        progress.merge(leaf);
+    }
+
+    /**
+     * @return The distributions over the paths completed so far
+     */
+    public synchronized MonteCarloSummary snapshot() {
+        return progress.copy().toSummary();
+    }
+
+    /**
+     * Sets a listener called on the worker thread after each path completes.
+     * @param pathListener The listener, or null
+     */
+    public void setPathListener(Consumer<BacktestResult> pathListener) {
+        this.pathListener = pathListener;
+    }
+
+    /**
+     * Distributions over a set of paths. PnL has no upper limit, so its histogram grows as needed;
+     * drawdown and trade count are bounded by 100% and one trade per candle.
+     */
+    private final class Aggregate {
+        private long completedPaths;
+        private long losingPaths;
+        private final StreamingStatistics pnl = new StreamingStatistics(-100, 100, 800);
+        private final StreamingStatistics drawdown = new StreamingStatistics(0, 100, 400);
+        private final StreamingStatistics trades =
+                new StreamingStatistics(0, candlesPerPath + 1, Math.min(1000, candlesPerPath + 1));
+
+        private void add(BacktestResult result) {
+            completedPaths++;
+            if (result.getPnlPercent() < 0) {
+                losingPaths++;
+            }
+            pnl.add(result.getPnlPercent());
+            drawdown.add(result.getMaxDrawdownPercent());
+            trades.add(result.getTradeCount());
+        }
+
+        private void merge(Aggregate other) {
+            completedPaths += other.completedPaths;
+            losingPaths += other.losingPaths;
+            pnl.merge(other.pnl);
+            drawdown.merge(other.drawdown);
+            trades.merge(other.trades);
+        }
+
+        private Aggregate copy() {
+            Aggregate copy = new Aggregate();
+            copy.merge(this);
+            return copy;
+        }
+
+        private MonteCarloSummary toSummary() {
+            return new MonteCarloSummary(completedPaths, losingPaths, pnl, drawdown, trades);
+        }
+    }
+
+    private final class PathRange extends RecursiveTask<Aggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private PathRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            if (to - from <= LEAF_PATHS) {
+                Aggregate leaf = new Aggregate();
+                Consumer<BacktestResult> listener = pathListener;
+                for (int path = from; path < to; path++) {
+                    BacktestResult result = runPath(path);
+                    leaf.add(result);
+                    if (listener != null) {
+                        listener.accept(result);
+                    }
+                }
+                publish(leaf);
+                return leaf;
+            }
+            int middle = (from + to) >>> 1;
+            PathRange right = new PathRange(middle, to);
+            right.fork();
+            Aggregate left = new PathRange(from, middle).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tradingbot.backtest;
+
+/**
+ * Snapshot of the distributions aggregated by a {@link MonteCarloRunner} over the paths completed
+ * so far.
+ */
+public final class MonteCarloSummary {
+    private final long completedPaths;
+    private final long losingPaths;
+    private final StreamingStatistics pnlPercent;
+    private final StreamingStatistics maxDrawdownPercent;
+    private final StreamingStatistics tradeCount;
+
+    MonteCarloSummary(long completedPaths, long losingPaths, StreamingStatistics pnlPercent,
+                      StreamingStatistics maxDrawdownPercent, StreamingStatistics tradeCount) {
+        this.completedPaths = completedPaths;
+        this.losingPaths = losingPaths;
+        this.pnlPercent = pnlPercent;
+        this.maxDrawdownPercent = maxDrawdownPercent;
+        this.tradeCount = tradeCount;
+    }
+
+    public long getCompletedPaths() {
+        return completedPaths;
+    }
+
+    /**
+     * @return Fraction of paths that ended below the initial balance
+     */
+    public double getLossProbability() {
+        return completedPaths == 0 ? Double.NaN : (double) losingPaths / completedPaths;
+    }
+
+    public StreamingStatistics getPnlPercent() {
+        return pnlPercent;
+    }
+
+    public StreamingStatistics getMaxDrawdownPercent() {
+        return maxDrawdownPercent;
+    }
+
+    public StreamingStatistics getTradeCount() {
+        return tradeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MonteCarloSummary{paths=%d, P(loss)=%.3f%n  PnL%%:   %s%n  MaxDD%%: %s%n  Trades: %s}",
+                completedPaths, getLossProbability(), pnlPercent, maxDrawdownPercent, tradeCount);
+    }
+}
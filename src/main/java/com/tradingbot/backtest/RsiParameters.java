@@ -0,0 +1,93 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.strategy.RSIStrategy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One {@link RSIStrategy} configuration of a parameter search.
+ */
+public final class RsiParameters {
+    private final int period;
+    private final double oversold;
+    private final double overbought;
+
+    public RsiParameters(int period, double oversold, double overbought) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("RSI period must be positive: " + period);
+        }
+        if (oversold >= overbought) {
+            throw new IllegalArgumentException("Oversold level must be below overbought level");
+        }
+        this.period = period;
+        this.oversold = oversold;
+        this.overbought = overbought;
+    }
+
+    /**
+     * Builds every valid combination of the given values.
+     * @param periods RSI periods
+     * @param oversoldLevels Oversold thresholds
+     * @param overboughtLevels Overbought thresholds
+     * @return The grid, combinations with oversold >= overbought skipped
+     */
+    public static List<RsiParameters> grid(int[] periods, double[] oversoldLevels, double[] overboughtLevels) {
+        List<RsiParameters> grid = new ArrayList<>();
+        for (int period : periods) {
+            for (double oversold : oversoldLevels) {
+                for (double overbought : overboughtLevels) {
+                    if (oversold < overbought) {
+                        grid.add(new RsiParameters(period, oversold, overbought));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @param wallet The wallet to trade with
+     * @return A quiet strategy with these parameters
+     */
+    public RSIStrategy createStrategy(Wallet wallet) {
+        RSIStrategy strategy = new RSIStrategy(wallet, period, oversold, overbought);
+        strategy.setVerbose(false);
+        return strategy;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    public double getOversold() {
+        return oversold;
+    }
+
+    public double getOverbought() {
+        return overbought;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RsiParameters)) {
+            return false;
+        }
+        RsiParameters other = (RsiParameters) o;
+        return period == other.period && Double.compare(oversold, other.oversold) == 0
+                && Double.compare(overbought, other.overbought) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * period + Double.hashCode(oversold)) + Double.hashCode(overbought);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RSI(%d, %.1f, %.1f)", period, oversold, overbought);
+    }
+}
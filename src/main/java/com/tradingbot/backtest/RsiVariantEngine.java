@@ -0,0 +1,272 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.FixedPoint;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs thousands of {@link com.tradingbot.strategy.RSIStrategy} parameterizations on one candle
+ * stream for parameter research, with the same signals and fills as one RSIStrategy and
+ * {@link Wallet} per variant (direct fills at the close, no risk checks or matching engine).
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Observer - registers on a feed like a bot, but stands for every variant at once.
+ * Reason: Replaces an object graph of N strategies, N price-history lists and N wallets with
+ * parallel primitive arrays. Per candle the RSI is computed once per distinct period over a shared
+ * ring of price changes, the fixed-point cost and proceeds of a trade once for all variants, and
+ * then a single branch-light loop over the variant arrays updates every wallet.
+ *
+ * Not thread-safe.
+ */
+public class RsiVariantEngine implements Observer {
+    private static final long COST_DIVISOR = FixedPoint.scale(
+            Wallet.DEFAULT_PRICE_DECIMALS + Wallet.DEFAULT_BASE_DECIMALS - Wallet.DEFAULT_QUOTE_DECIMALS);
+    private static final long PRICE_SCALE = FixedPoint.scale(Wallet.DEFAULT_PRICE_DECIMALS);
+    private static final long QUOTE_SCALE = FixedPoint.scale(Wallet.DEFAULT_QUOTE_DECIMALS);
+
+    private final List<RsiParameters> variants;
+    private final int count;
+
+    // Per variant (structure of arrays)
+    private final int[] periodIndex;
+    private final double[] oversold;
+    private final double[] overbought;
+    private final long[] usdtUnits;
+    private final long[] coinUnits;
+    private final int[] tradeCounts;
+
+    // Per distinct period
+    private final int[] periods;
+    private final double[] periodRsi; // NaN until enough prices
+
+    // Shared ring of the last price changes, split into gains and losses
+    private final double[] gains;
+    private final double[] losses;
+    private final int ringMask;
+    private long changeCount;
+    private double lastClose = Double.NaN;
+
+    private final long initialUsdtUnits;
+    private final long tradeAmountUnits;
+    private long candleCount;
+
+    /**
+     * Creates an engine trading {@link BaseTradingStrategy#TRADE_AMOUNT} per signal.
+     */
+    public RsiVariantEngine(List<RsiParameters> variants, double initialUsdtBalance) {
+        this(variants, initialUsdtBalance, BaseTradingStrategy.TRADE_AMOUNT);
+    }
+
+    /**
+     * @param variants Parameter sets, one simulated bot each
+     * @param initialUsdtBalance Starting USDT balance of every variant
+     * @param tradeAmount Coins bought or sold per signal
+     */
+    public RsiVariantEngine(List<RsiParameters> variants, double initialUsdtBalance, double tradeAmount) {
+        if (variants.isEmpty()) {
+            throw new IllegalArgumentException("At least one variant is required");
+        }
+        this.variants = List.copyOf(variants);
+        this.count = variants.size();
+        this.periodIndex = new int[count];
+        this.oversold = new double[count];
+        this.overbought = new double[count];
+        this.usdtUnits = new long[count];
+        this.coinUnits = new long[count];
+        this.tradeCounts = new int[count];
+
+        Map<Integer, Integer> indexByPeriod = new LinkedHashMap<>();
+        int maxPeriod = 0;
+        for (int v = 0; v < count; v++) {
+            RsiParameters parameters = this.variants.get(v);
+            Integer index = indexByPeriod.computeIfAbsent(parameters.getPeriod(), p -> indexByPeriod.size());
+            periodIndex[v] = index;
+            oversold[v] = parameters.getOversold();
+            overbought[v] = parameters.getOverbought();
+            maxPeriod = Math.max(maxPeriod, parameters.getPeriod());
+        }
+        this.periods = indexByPeriod.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.periodRsi = new double[periods.length];
+        Arrays.fill(periodRsi, Double.NaN);
+
+        int ringSize = Integer.highestOneBit(Math.max(1, maxPeriod - 1)) << 1;
+        this.gains = new double[ringSize];
+        this.losses = new double[ringSize];
+        this.ringMask = ringSize - 1;
+
+        this.initialUsdtUnits = FixedPoint.toUnits(initialUsdtBalance, QUOTE_SCALE);
+        this.tradeAmountUnits = FixedPoint.toUnits(tradeAmount, FixedPoint.scale(Wallet.DEFAULT_BASE_DECIMALS));
+        Arrays.fill(usdtUnits, initialUsdtUnits);
+    }
+
+    /**
+     * Processes a candle; invalid candles are skipped as the strategy template does.
+     * @param candle The market candle
+     */
+    @Override
+    public void update(MarketCandle candle) {
+        if (candle == null || candle.getClose() <= 0 || candle.getVolume() <= 0 || candle.getHigh() < candle.getLow()) {
+            return;
+        }
+        onClose(candle.getClose());
+    }
+
+    /**
+     * Processes every valid candle of a history in order.
+     * @param history The candles
+     */
+    public void run(CandleColumns history) {
+        for (int i = 0; i < history.size(); i++) {
+            double close = history.getClose(i);
+            if (close > 0 && history.getVolume(i) > 0 && history.getHigh(i) >= history.getLow(i)) {
+                onClose(close);
+            }
+        }
+    }
+
+    /**
+     * Processes the close of a validated candle.
+     * @param close The close price
+     */
+    public void onClose(double close) {
+        candleCount++;
+        if (!Double.isNaN(lastClose)) {
+            double change = close - lastClose;
+            int slot = (int) (changeCount & ringMask);
+            if (change > 0) {
+                gains[slot] = change;
+                losses[slot] = 0.0;
+            } else {
+                gains[slot] = 0.0;
+                losses[slot] = -change;
+            }
+            changeCount++;
+            updateRsi();
+        }
+        lastClose = close;
+        trade(close);
+    }
+
+    /** Same summation order and formula as RSIStrategy.calculateRSI, so signals match exactly. */
+    private void updateRsi() {
+        for (int p = 0; p < periods.length; p++) {
+            int period = periods[p];
+            if (changeCount < period) {
+                continue;
+            }
+            double avgGain = 0.0;
+            double avgLoss = 0.0;
+            for (long k = changeCount - period; k < changeCount; k++) {
+                int slot = (int) (k & ringMask);
+                avgGain += gains[slot];
+                avgLoss += losses[slot];
+            }
+            avgGain /= period;
+            avgLoss /= period;
+            periodRsi[p] = avgLoss == 0 ? 100.0 : 100.0 - (100.0 / (1.0 + avgGain / avgLoss));
+        }
+    }
+
+    private void trade(double close) {
+        long priceUnits = FixedPoint.toUnits(close, PRICE_SCALE);
+        long cost = FixedPoint.multiplyDivide(priceUnits, tradeAmountUnits, COST_DIVISOR, true);
+        long proceeds = FixedPoint.multiplyDivide(priceUnits, tradeAmountUnits, COST_DIVISOR, false);
+        long amount = tradeAmountUnits;
+        int[] periodIndex = this.periodIndex;
+        double[] periodRsi = this.periodRsi;
+        double[] oversold = this.oversold;
+        double[] overbought = this.overbought;
+        long[] usdtUnits = this.usdtUnits;
+        long[] coinUnits = this.coinUnits;
+        int[] tradeCounts = this.tradeCounts;
+        for (int v = 0; v < count; v++) {
+            double rsi = periodRsi[periodIndex[v]]; // NaN (HOLD) while warming up
+            long usdt = usdtUnits[v];
+            long coins = coinUnits[v];
+            if (rsi < oversold[v]) {
+                if (cost <= usdt) {
+                    usdtUnits[v] = usdt - cost;
+                    coinUnits[v] = coins + amount;
+                    tradeCounts[v]++;
+                }
+            } else if (rsi > overbought[v]) {
+                if (amount <= coins) {
+                    usdtUnits[v] = usdt + proceeds;
+                    coinUnits[v] = coins - amount;
+                    tradeCounts[v]++;
+                }
+            }
+        }
+    }
+
+    public int getVariantCount() {
+        return count;
+    }
+
+    public RsiParameters getVariant(int variant) {
+        return variants.get(variant);
+    }
+
+    public long getUsdtUnits(int variant) {
+        return usdtUnits[variant];
+    }
+
+    public long getCoinUnits(int variant) {
+        return coinUnits[variant];
+    }
+
+    public int getTradeCount(int variant) {
+        return tradeCounts[variant];
+    }
+
+    /**
+     * @param variant Variant index
+     * @param price Current price
+     * @return Portfolio value in USDT, computed as {@link Wallet#getTotalValue(double)} does
+     */
+    public double getTotalValue(int variant, double price) {
+        return FixedPoint.toDouble(totalValueUnits(variant, FixedPoint.toUnits(price, PRICE_SCALE)), QUOTE_SCALE);
+    }
+
+    /**
+     * @param variant Variant index
+     * @param price Current price
+     * @return PnL percentage, computed as {@link Wallet#getPnLPercentage(double)} does
+     */
+    public double getPnLPercentage(int variant, double price) {
+        long value = totalValueUnits(variant, FixedPoint.toUnits(price, PRICE_SCALE));
+        return (double) (value - initialUsdtUnits) / initialUsdtUnits * 100.0;
+    }
+
+    private long totalValueUnits(int variant, long priceUnits) {
+        return usdtUnits[variant] + FixedPoint.multiplyDivide(coinUnits[variant], priceUnits, COST_DIVISOR, false);
+    }
+
+    /**
+     * @return Index of the variant with the highest portfolio value at the last close
+     */
+    public int getBestVariant() {
+        long priceUnits = FixedPoint.toUnits(Double.isNaN(lastClose) ? 0 : lastClose, PRICE_SCALE);
+        int best = 0;
+        long bestValue = Long.MIN_VALUE;
+        for (int v = 0; v < count; v++) {
+            long value = totalValueUnits(v, priceUnits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    public long getCandleCount() {
+        return candleCount;
+    }
+}
@@ -0,0 +1,196 @@
+package com.tradingbot.backtest;
+
+import java.util.Arrays;
+
+/**
+ * Constant-memory summary of a stream of values: exact count, mean, standard deviation, min and
+ * max (Welford's algorithm), plus a histogram for quantile estimates. The histogram starts over a
+ * configured range and grows upward when a value reaches its upper bound: adjacent bins are merged
+ * pairwise and the range doubles, so the bin count stays fixed and no value is clamped at the top.
+ * Values below the lower bound are counted in the first bin. Two summaries created with the same
+ * range can be merged (the finer one is coarsened first), so partial results from different
+ * threads combine exactly.
+ *
+ * Not thread-safe.
+ */
+public class StreamingStatistics {
+    private final double lower;
+    private final double initialBinWidth;
+    private double upper;
+    private double binWidth; // initialBinWidth times a power of two
+    private final long[] bins;
+    private long count;
+    private double mean;
+    private double sumSquaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param lower Lower bound of the histogram range
+     * @param upper Initial upper bound of the histogram range
+     * @param binCount Number of histogram bins
+     */
+    public StreamingStatistics(double lower, double upper, int binCount) {
+        if (!(upper > lower) || binCount <= 0) {
+            throw new IllegalArgumentException("Need lower < upper and a positive bin count");
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.initialBinWidth = (upper - lower) / binCount;
+        this.binWidth = initialBinWidth;
+        this.bins = new long[binCount];
+    }
+
+    private StreamingStatistics(StreamingStatistics source) {
+        this.lower = source.lower;
+        this.initialBinWidth = source.initialBinWidth;
+        this.upper = source.upper;
+        this.binWidth = source.binWidth;
+        this.bins = source.bins.clone();
+        this.count = source.count;
+        this.mean = source.mean;
+        this.sumSquaredDeviations = source.sumSquaredDeviations;
+        this.min = source.min;
+        this.max = source.max;
+    }
+
+    /**
+     * Adds one value.
+     * @param value The value (NaN is ignored)
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumSquaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        while (value >= upper && Double.isFinite(value)) {
+            grow();
+        }
+        bins[binIndex(value)]++;
+    }
+
+    /**
+     * Adds all values of another summary created with the same range (Chan et al. parallel variance).
+     * @param other The summary to merge in
+     */
+    public void merge(StreamingStatistics other) {
+        if (other.lower != lower || other.initialBinWidth != initialBinWidth || other.bins.length != bins.length) {
+            throw new IllegalArgumentException("Cannot merge statistics with different ranges");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (binWidth < other.binWidth) {
+            grow();
+        }
+        if (other.binWidth < binWidth) {
+            other = other.copy();
+            while (other.binWidth < binWidth) {
+                other.grow();
+            }
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        sumSquaredDeviations += other.sumSquaredDeviations + delta * delta * count * other.count / total;
+        mean += delta * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] += other.bins[i];
+        }
+    }
+
+    /**
+     * Doubles the histogram range by merging adjacent bins pairwise.
+     */
+    private void grow() {
+        int half = (bins.length + 1) / 2;
+        for (int i = 0; i < half; i++) {
+            bins[i] = bins[2 * i] + (2 * i + 1 < bins.length ? bins[2 * i + 1] : 0);
+        }
+        Arrays.fill(bins, half, bins.length, 0);
+        binWidth *= 2;
+        upper = lower + binWidth * bins.length;
+    }
+
+    private int binIndex(double value) {
+        int index = (int) ((value - lower) / binWidth);
+        return Math.max(0, Math.min(bins.length - 1, index));
+    }
+
+    /**
+     * Estimates a quantile by linear interpolation within the histogram bin holding it, clamped to
+     * the observed min and max.
+     * @param quantile Quantile in [0, 1]
+     * @return The estimate, or NaN if empty
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * count;
+        long seen = 0;
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] > 0 && seen + bins[i] >= rank) {
+                double fraction = (rank - seen) / bins[i];
+                double estimate = lower + (i + fraction) * binWidth;
+                return Math.max(min, Math.min(max, estimate));
+            }
+            seen += bins[i];
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return Sample standard deviation, or NaN with fewer than two values
+     */
+    public double getStandardDeviation() {
+        return count < 2 ? Double.NaN : Math.sqrt(sumSquaredDeviations / (count - 1));
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return Current upper bound of the histogram range
+     */
+    public double getUpperBound() {
+        return upper;
+    }
+
+    /**
+     * @return An independent copy
+     */
+    public StreamingStatistics copy() {
+        return new StreamingStatistics(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.2f sd=%.2f min=%.2f p5=%.2f p50=%.2f p95=%.2f max=%.2f",
+                count, getMean(), getStandardDeviation(), getMin(), getQuantile(0.05), getQuantile(0.5),
+                getQuantile(0.95), getMax());
+    }
+}
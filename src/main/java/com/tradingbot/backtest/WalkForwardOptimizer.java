@@ -0,0 +1,163 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.simulation.CandleColumns;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Walk-forward analysis of {@link com.tradingbot.strategy.RSIStrategy} parameters.
+ *
+ * The history is cut into rolling windows: each window picks the grid entry with the best
+ * objective on its train slice, then trades that choice on the test slice right after it; the next
+ * window is shifted by the test length. Only test slices contribute to the result, so the stitched
+ * equity curve shows how the optimisation would have done on data it had not seen.
+ *
+ * Every window and every grid evaluation within it is an independent ForkJoin task. All tasks read
+ * the same {@link CandleColumns} by reference; nothing is copied per window.
+ */
+public class WalkForwardOptimizer {
+    private final CandleColumns history;
+    private final int trainLength;
+    private final int testLength;
+    private final List<RsiParameters> grid;
+    private final double initialBalance;
+    private final ForkJoinPool pool;
+    private volatile ToDoubleFunction<BacktestResult> objective = BacktestResult::getPnlPercent;
+
+    /**
+     * Creates an optimizer on the common ForkJoin pool.
+     */
+    public WalkForwardOptimizer(CandleColumns history, int trainLength, int testLength, List<RsiParameters> grid,
+                                double initialBalance) {
+        this(history, trainLength, testLength, grid, initialBalance, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param history Candle history, must not change while the optimizer runs
+     * @param trainLength Candles per in-sample slice
+     * @param testLength Candles per out-of-sample slice (also the step between windows)
+     * @param grid Parameter sets to choose from
+     * @param initialBalance USDT balance each evaluation starts with
+     * @param pool Pool to run on
+     */
+    public WalkForwardOptimizer(CandleColumns history, int trainLength, int testLength, List<RsiParameters> grid,
+                                double initialBalance, ForkJoinPool pool) {
+        if (trainLength <= 0 || testLength <= 0) {
+            throw new IllegalArgumentException("Train and test lengths must be positive");
+        }
+        if (grid.isEmpty()) {
+            throw new IllegalArgumentException("Parameter grid cannot be empty");
+        }
+        if (!(initialBalance > 0)) {
+            throw new IllegalArgumentException("Initial balance must be positive: " + initialBalance);
+        }
+        this.history = history;
+        this.trainLength = trainLength;
+        this.testLength = testLength;
+        this.grid = List.copyOf(grid);
+        this.initialBalance = initialBalance;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets what the train slice maximises (default: PnL percent). Ties go to the earlier grid entry.
+     * @param objective Score of a train result, higher is better
+     */
+    public void setObjective(ToDoubleFunction<BacktestResult> objective) {
+        this.objective = objective;
+    }
+
+    /**
+     * Runs all windows and blocks until done.
+     * @return The windows and the stitched out-of-sample equity curve
+     * @throws IllegalArgumentException if the history is shorter than one train slice plus one candle
+     */
+    public WalkForwardResult run() {
+        int size = history.size();
+        if (size <= trainLength) {
+            throw new IllegalArgumentException("History of " + size + " candles is too short for a train slice of "
+                    + trainLength);
+        }
+        List<WindowTask> tasks = new ArrayList<>();
+        for (int trainFrom = 0; trainFrom + trainLength < size; trainFrom += testLength) {
+            int testFrom = trainFrom + trainLength;
+            tasks.add(new WindowTask(tasks.size(), trainFrom, testFrom, Math.min(testFrom + testLength, size)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<WalkForwardWindow> windows = new ArrayList<>(tasks.size());
+        int totalTest = 0;
+        for (WindowTask task : tasks) {
+            windows.add(task.join());
+            totalTest += task.testTo - task.testFrom;
+        }
+
+        // Stitch: scale each test curve (which starts from initialBalance) by the capital carried in
+        double[] equity = new double[totalTest];
+        double capital = initialBalance;
+        int offset = 0;
+        for (WindowTask task : tasks) {
+            double scale = capital / initialBalance;
+            for (double value : task.testEquity) {
+                equity[offset++] = value * scale;
+            }
+            capital = equity[offset - 1];
+        }
+        return new WalkForwardResult(windows, equity, initialBalance);
+    }
+
+    private BacktestResult evaluate(RsiParameters parameters, int id, int warmUpFrom, int from, int to,
+                                    double[] equityCurve) {
+        return Backtester.run(id, parameters.createStrategy(new Wallet(initialBalance)), history, warmUpFrom, from,
+                to, equityCurve);
+    }
+
+    private final class WindowTask extends RecursiveTask<WalkForwardWindow> {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final int trainFrom;
+        private final int testFrom;
+        private final int testTo;
+        private double[] testEquity;
+
+        private WindowTask(int index, int trainFrom, int testFrom, int testTo) {
+            this.index = index;
+            this.trainFrom = trainFrom;
+            this.testFrom = testFrom;
+            this.testTo = testTo;
+        }
+
+        @Override
+        protected WalkForwardWindow compute() {
+            List<ForkJoinTask<BacktestResult>> evaluations = new ArrayList<>(grid.size());
+            for (RsiParameters parameters : grid) {
+                evaluations.add(ForkJoinTask.adapt(() -> evaluate(parameters, index, trainFrom, trainFrom, testFrom, null)));
+            }
+            invokeAll(evaluations);
+
+            ToDoubleFunction<BacktestResult> score = objective;
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < evaluations.size(); i++) {
+                double value = score.applyAsDouble(evaluations.get(i).join());
+                if (value > bestScore) {
+                    bestScore = value;
+                    best = i;
+                }
+            }
+
+            // Warm the indicator up on the end of the train slice so the test slice trades from its first candle
+            RsiParameters chosen = grid.get(best);
+            int warmUpFrom = Math.max(trainFrom, testFrom - chosen.getPeriod() - 1);
+            testEquity = new double[testTo - testFrom];
+            BacktestResult test = evaluate(chosen, index, warmUpFrom, testFrom, testTo, testEquity);
+            return new WalkForwardWindow(index, trainFrom, testFrom, testTo, chosen, evaluations.get(best).join(), test);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.tradingbot.backtest;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Result of a walk-forward run: the windows in time order and the out-of-sample equity curve
+ * stitched from their test slices.
+ */
+public final class WalkForwardResult {
+    private final List<WalkForwardWindow> windows;
+    private final double[] outOfSampleEquity;
+    private final double initialBalance;
+
+    WalkForwardResult(List<WalkForwardWindow> windows, double[] outOfSampleEquity, double initialBalance) {
+        this.windows = List.copyOf(windows);
+        this.outOfSampleEquity = outOfSampleEquity;
+        this.initialBalance = initialBalance;
+    }
+
+    public List<WalkForwardWindow> getWindows() {
+        return windows;
+    }
+
+    /**
+     * Each test slice starts flat with the capital the previous one ended with, so the curve
+     * compounds the out-of-sample returns of all windows.
+     * @return Portfolio value at every test candle, in time order (a copy)
+     */
+    public double[] getOutOfSampleEquity() {
+        return outOfSampleEquity.clone();
+    }
+
+    /**
+     * @return Total out-of-sample return of the stitched curve, in percent
+     */
+    public double getOutOfSamplePnlPercent() {
+        if (outOfSampleEquity.length == 0) {
+            return 0;
+        }
+        return (outOfSampleEquity[outOfSampleEquity.length - 1] - initialBalance) / initialBalance * 100.0;
+    }
+
+    /**
+     * Mean out-of-sample return per candle divided by mean in-sample return per candle. Values far
+     * below 1 (or negative) indicate parameters that were fitted to noise.
+     * @return The walk-forward efficiency, NaN if the in-sample return is zero
+     */
+    public double getWalkForwardEfficiency() {
+        double trainRate = 0;
+        double testRate = 0;
+        for (WalkForwardWindow window : windows) {
+            trainRate += window.getTrainResult().getPnlPercent() / (window.getTestFrom() - window.getTrainFrom());
+            testRate += window.getTestResult().getPnlPercent() / (window.getTestTo() - window.getTestFrom());
+        }
+        return trainRate == 0 ? Double.NaN : testRate / trainRate;
+    }
+
+    /**
+     * @return Fraction of consecutive windows whose chosen parameters differ (0 = perfectly stable)
+     */
+    public double getParameterChangeRate() {
+        if (windows.size() < 2) {
+            return 0;
+        }
+        int changes = 0;
+        for (int i = 1; i < windows.size(); i++) {
+            if (!windows.get(i).getParameters().equals(windows.get(i - 1).getParameters())) {
+                changes++;
+            }
+        }
+        return (double) changes / (windows.size() - 1);
+    }
+
+    /**
+     * @param parameter Extracts one parameter, e.g. RsiParameters::getPeriod
+     * @return Standard deviation of that parameter across the windows' choices
+     */
+    public double getParameterStandardDeviation(ToDoubleFunction<RsiParameters> parameter) {
+        if (windows.size() < 2) {
+            return 0;
+        }
+        double mean = 0;
+        for (WalkForwardWindow window : windows) {
+            mean += parameter.applyAsDouble(window.getParameters());
+        }
+        mean /= windows.size();
+        double sum = 0;
+        for (WalkForwardWindow window : windows) {
+            double deviation = parameter.applyAsDouble(window.getParameters()) - mean;
+            sum += deviation * deviation;
+        }
+        return Math.sqrt(sum / (windows.size() - 1));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WalkForwardResult{windows=%d, OOS PnL=%.2f%%, efficiency=%.2f, parameter changes=%.0f%%}",
+                windows.size(), getOutOfSamplePnlPercent(), getWalkForwardEfficiency(), getParameterChangeRate() * 100);
+    }
+}
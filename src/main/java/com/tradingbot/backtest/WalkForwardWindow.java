@@ -0,0 +1,67 @@
+package com.tradingbot.backtest;
+
+/**
+ * One train/test window of a walk-forward run: the parameters chosen on the train slice and how
+ * they did on the following test slice.
+ */
+public final class WalkForwardWindow {
+    private final int index;
+    private final int trainFrom;
+    private final int testFrom;
+    private final int testTo;
+    private final RsiParameters parameters;
+    private final BacktestResult trainResult;
+    private final BacktestResult testResult;
+
+    WalkForwardWindow(int index, int trainFrom, int testFrom, int testTo, RsiParameters parameters,
+                      BacktestResult trainResult, BacktestResult testResult) {
+        this.index = index;
+        this.trainFrom = trainFrom;
+        this.testFrom = testFrom;
+        this.testTo = testTo;
+        this.parameters = parameters;
+        this.trainResult = trainResult;
+        this.testResult = testResult;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getTrainFrom() {
+        return trainFrom;
+    }
+
+    /**
+     * @return First test candle; the train slice ends here
+     */
+    public int getTestFrom() {
+        return testFrom;
+    }
+
+    public int getTestTo() {
+        return testTo;
+    }
+
+    /**
+     * @return The parameters that scored best in-sample
+     */
+    public RsiParameters getParameters() {
+        return parameters;
+    }
+
+    public BacktestResult getTrainResult() {
+        return trainResult;
+    }
+
+    public BacktestResult getTestResult() {
+        return testResult;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Window %d [%d, %d) -> [%d, %d): %s, in-sample %.2f%%, out-of-sample %.2f%%",
+                index, trainFrom, testFrom, testFrom, testTo, parameters, trainResult.getPnlPercent(),
+                testResult.getPnlPercent());
+    }
+}
@@ -2,8 +2,19 @@ package com.tradingbot.bot;
 
 import com.tradingbot.domain.MarketCandle;
 import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.metrics.BotMetrics;
+import com.tradingbot.metrics.StartupClock;
 import com.tradingbot.observer.Observer;
+import com.tradingbot.replay.EventLogWriter;
+import com.tradingbot.strategy.BaseTradingStrategy;
 import com.tradingbot.strategy.TradingStrategy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.logging.Logger;
 
 /**
  * Represents the 'Concrete Observer' in the Observer Pattern and the 'Context' in the Strategy Pattern.
@@ -18,16 +29,26 @@ import com.tradingbot.strategy.TradingStrategy;
  *     without modifying the bot's code. The bot depends only on the TradingStrategy interface, not concrete classes.
  */
 public class BotObserver implements Observer {
+    private static final Logger logger = Logger.getLogger(BotObserver.class.getName());
     private final TradingStrategy strategy;
     private final String botName;
+    private final BotMetrics metrics;
 
     public BotObserver(String botName, TradingStrategy strategy) {
         this.botName = botName;
         this.strategy = strategy;
+        this.metrics = new BotMetrics(botName);
+        if (strategy instanceof BaseTradingStrategy) {
+            ((BaseTradingStrategy) strategy).setBotName(botName);
+        }
     }
 
-    private Signal lastSignal = Signal.HOLD;
-    private MarketCandle lastCandle = null;
+    private volatile Signal lastSignal = Signal.HOLD;
+    private volatile MarketCandle lastCandle = null;
+    private long candleCount = 0;
+    private volatile boolean captureRequested = false;
+    private volatile byte[] capturedState = null;
+    private volatile EventLogWriter eventLog = null;
     
     /**
      * Called by the Subject (MarketDataSubject) when a new market candle is available.
@@ -37,22 +58,110 @@ public class BotObserver implements Observer {
      */
     @Override
     public void update(MarketCandle candle) {
+        long start = System.nanoTime();
         this.lastCandle = candle;
+        EventLogWriter log = eventLog;
+        if (log != null) {
+            log.candle(candle);
+        }
         
         // If strategy is BaseTradingStrategy, use the template method
-        if (strategy instanceof com.tradingbot.strategy.BaseTradingStrategy) {
-            com.tradingbot.strategy.BaseTradingStrategy baseStrategy = 
-                (com.tradingbot.strategy.BaseTradingStrategy) strategy;
-            baseStrategy.executeStrategyTemplate(candle);
-            
-            // Extract signal for GUI display
-            lastSignal = baseStrategy.analyze(candle);
+        Wallet wallet = null;
+        if (strategy instanceof BaseTradingStrategy) {
+            BaseTradingStrategy baseStrategy = (BaseTradingStrategy) strategy;
+            // The template method returns the analyzed signal, so analyze() runs once per candle
+            lastSignal = baseStrategy.executeStrategyTemplate(candle);
+            wallet = baseStrategy.getWallet();
         } else {
             // Fallback: just analyze and log (for custom strategies)
             lastSignal = strategy.analyze(candle);
             System.out.println(String.format("[%s] Signal: %s | Price: %.2f", 
                 botName, lastSignal, candle.getClose()));
         }
+
+        if (log != null && wallet != null) {
+            log.decision(lastSignal, wallet);
+        }
+        metrics.recordDecisionLatency(System.nanoTime() - start);
+        StartupClock.signalProduced();
+        candleCount++;
+        metrics.publish(takeSnapshot(wallet, candle));
+        if (captureRequested) {
+            captureRequested = false;
+            try {
+                capturedState = writeState();
+            } catch (IOException e) {
+                logger.warning("Failed to capture state of " + botName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Serializes the candle count and the strategy (wallet and warm-up state).
+     * Must be called on the thread that runs this bot, or while it receives no candles.
+     * @return The state, or null if the strategy does not support snapshots
+     * @throws IOException if the strategy cannot be written
+     */
+    public byte[] writeState() throws IOException {
+        if (!(strategy instanceof BaseTradingStrategy)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(candleCount);
+        ((BaseTradingStrategy) strategy).writeSnapshot(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores state written by {@link #writeState()} before this bot receives its first candle.
+     * The restored state also becomes the captured state until a newer one is captured.
+     * @param state The serialized state
+     * @throws IOException if the state is corrupt or belongs to another strategy type
+     */
+    public void restoreState(byte[] state) throws IOException {
+        if (!(strategy instanceof BaseTradingStrategy)) {
+            throw new IOException(botName + " does not support snapshots");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+        long candles = in.readLong();
+        ((BaseTradingStrategy) strategy).restoreSnapshot(in);
+        candleCount = candles;
+        capturedState = state;
+    }
+
+    /**
+     * Asks the bot to capture its state after the next candle, on its own thread, so that state
+     * can be saved while trading continues without locking.
+     */
+    public void requestStateCapture() {
+        captureRequested = true;
+    }
+
+    /**
+     * Records every following candle and decision of this bot, for replay. Set before the bot
+     * receives candles; the log's header must have been written from the strategy's current state.
+     * @param eventLog The log, or null to stop recording
+     */
+    public void setEventLog(EventLogWriter eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * @return The state captured most recently (or restored), or null if none yet
+     */
+    public byte[] getCapturedState() {
+        return capturedState;
+    }
+
+    private BotSnapshot takeSnapshot(Wallet wallet, MarketCandle candle) {
+        double price = candle.getClose();
+        if (wallet == null) {
+            return new BotSnapshot(botName, candleCount, 0.0, 0.0, price, 0.0, 0.0, lastSignal);
+        }
+        return new BotSnapshot(botName, candleCount, wallet.getUsdtBalance(), wallet.getCoinBalance(),
+                price, wallet.getTotalValue(price), wallet.getPnLPercentage(price), lastSignal);
     }
     
     public Signal getLastSignal() {
@@ -70,5 +179,22 @@ public class BotObserver implements Observer {
     public TradingStrategy getStrategy() {
         return strategy;
     }
+
+    /**
+     * Gets the bot's metrics, updated on the market data thread.
+     * @return The bot metrics
+     */
+    public BotMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the latest immutable state published after the last processed candle.
+     * Safe to call from any thread.
+     * @return The latest snapshot
+     */
+    public BotSnapshot getSnapshot() {
+        return metrics.getSnapshot();
+    }
 }
 
@@ -0,0 +1,78 @@
+package com.tradingbot.bot;
+
+import com.tradingbot.domain.Signal;
+
+/**
+ * Immutable view of a bot's state, published by the market data thread after every candle.
+ * Readers (metrics endpoint, GUI) only ever see a consistent snapshot and never touch the
+ * live Wallet or strategy fields, so they cannot race with the trading thread.
+ */
+public final class BotSnapshot {
+    private final String botName;
+    private final long candleCount;
+    private final double usdtBalance;
+    private final double coinBalance;
+    private final double lastPrice;
+    private final double totalValue;
+    private final double pnlPercentage;
+    private final Signal lastSignal;
+
+    public BotSnapshot(String botName, long candleCount, double usdtBalance, double coinBalance,
+                       double lastPrice, double totalValue, double pnlPercentage, Signal lastSignal) {
+        this.botName = botName;
+        this.candleCount = candleCount;
+        this.usdtBalance = usdtBalance;
+        this.coinBalance = coinBalance;
+        this.lastPrice = lastPrice;
+        this.totalValue = totalValue;
+        this.pnlPercentage = pnlPercentage;
+        this.lastSignal = lastSignal;
+    }
+
+    /**
+     * Snapshot used before the first candle arrives.
+     * @param botName The bot name
+     * @return An empty snapshot with HOLD as last signal
+     */
+    public static BotSnapshot empty(String botName) {
+        return new BotSnapshot(botName, 0, 0.0, 0.0, 0.0, 0.0, 0.0, Signal.HOLD);
+    }
+
+    public String getBotName() {
+        return botName;
+    }
+
+    public long getCandleCount() {
+        return candleCount;
+    }
+
+    public double getUsdtBalance() {
+        return usdtBalance;
+    }
+
+    public double getCoinBalance() {
+        return coinBalance;
+    }
+
+    public double getLastPrice() {
+        return lastPrice;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public double getPnLPercentage() {
+        return pnlPercentage;
+    }
+
+    public Signal getLastSignal() {
+        return lastSignal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BotSnapshot{bot=%s, candles=%d, USDT=%.2f, Coin=%.4f, Price=%.2f, PnL=%.2f%%, Signal=%s}",
+                botName, candleCount, usdtBalance, coinBalance, lastPrice, pnlPercentage, lastSignal);
+    }
+}
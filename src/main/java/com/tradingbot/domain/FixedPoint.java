@@ -0,0 +1,86 @@
+package com.tradingbot.domain;
+
+import java.math.BigInteger;
+
+/**
+ * Fixed-point helpers for amounts stored as scaled longs (value * 10^decimals).
+ *
+ * Products are computed exactly: the 128-bit result is checked with {@link Math#multiplyHigh} and
+ * only products that overflow a long fall back to BigInteger. Rounding direction is explicit so
+ * callers can round costs up and proceeds down.
+ */
+public final class FixedPoint {
+    /** Largest supported number of decimals. */
+    public static final int MAX_DECIMALS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * @param decimals Number of decimals, 0..{@value #MAX_DECIMALS}
+     * @return 10^decimals
+     */
+    public static long scale(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals must be in 0.." + MAX_DECIMALS + ", got " + decimals);
+        }
+        return POWERS_OF_TEN[decimals];
+    }
+
+    /**
+     * Converts a double to scaled units, rounding to the nearest unit.
+     * @param value The value
+     * @param scale 10^decimals
+     * @return value * scale, rounded
+     * @throws IllegalArgumentException if the value is not finite or does not fit
+     */
+    public static long toUnits(double value, long scale) {
+        double scaled = value * scale;
+        if (!(Math.abs(scaled) < 0x1p63)) {
+            throw new IllegalArgumentException("Value out of fixed-point range: " + value);
+        }
+        return Math.round(scaled);
+    }
+
+    /**
+     * @return units / scale as the nearest double
+     */
+    public static double toDouble(long units, long scale) {
+        return (double) units / scale;
+    }
+
+    /**
+     * Computes a * b / divisor exactly, rounded in the requested direction.
+     * @param a First factor
+     * @param b Second factor
+     * @param divisor Positive divisor
+     * @param roundUp true to round toward positive infinity, false toward negative infinity
+     * @return The rounded quotient
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long multiplyDivide(long a, long b, long divisor, boolean roundUp) {
+        long low = a * b;
+        long high = Math.multiplyHigh(a, b);
+        if (high == (low >> 63) && low != Long.MIN_VALUE) {
+            return roundUp ? -Math.floorDiv(-low, divisor) : Math.floorDiv(low, divisor);
+        }
+        // Product needs more than 64 bits
+        BigInteger[] qr = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                .divideAndRemainder(BigInteger.valueOf(divisor));
+        BigInteger quotient = qr[0];
+        if (qr[1].signum() != 0 && (qr[1].signum() > 0) == roundUp) {
+            quotient = quotient.add(roundUp ? BigInteger.ONE : BigInteger.ONE.negate());
+        }
+        return quotient.longValueExact();
+    }
+}
@@ -1,20 +1,62 @@
 package com.tradingbot.domain;
 
+import com.tradingbot.jfr.WalletTradeEvent;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Manages virtual portfolio with USDT and Coin balances.
  * Handles PnL (Profit and Loss) calculations and trade execution logic.
+ *
+ * Balances and prices are fixed-point longs with per-asset precision (defaults: USDT 6 decimals,
+ * coin 8 decimals, price 4 decimals), so millions of fills accumulate no rounding drift and balance
+ * checks are exact integer comparisons. Trade cost is rounded up and sale proceeds down to the
+ * quote unit, like an exchange. The double methods are a convenience facade that converts at the
+ * boundary; hot paths can use the *Units methods directly.
  */
 public class Wallet {
-    private double usdtBalance;
-    private double coinBalance;
-    private double initialUsdtBalance;
-    private double currentPrice;
+    public static final int DEFAULT_QUOTE_DECIMALS = 6;
+    public static final int DEFAULT_BASE_DECIMALS = 8;
+    public static final int DEFAULT_PRICE_DECIMALS = 4;
+
+    private final long quoteScale;
+    private final long baseScale;
+    private final long priceScale;
+    private final long costDivisor; // price units * base units -> quote units
+
+    private long usdtUnits;
+    private long coinUnits;
+    private long initialUsdtUnits;
+    private long currentPriceUnits;
 
     public Wallet(double initialUsdtBalance) {
-        this.usdtBalance = initialUsdtBalance;
-        this.initialUsdtBalance = initialUsdtBalance;
-        this.coinBalance = 0.0;
-        this.currentPrice = 0.0;
+        this(initialUsdtBalance, DEFAULT_QUOTE_DECIMALS, DEFAULT_BASE_DECIMALS, DEFAULT_PRICE_DECIMALS);
+    }
+
+    /**
+     * @param initialUsdtBalance Starting USDT balance
+     * @param quoteDecimals Decimals of the USDT balance
+     * @param baseDecimals Decimals of the coin balance and trade amounts
+     * @param priceDecimals Decimals of prices
+     */
+    public Wallet(double initialUsdtBalance, int quoteDecimals, int baseDecimals, int priceDecimals) {
+        if (priceDecimals + baseDecimals < quoteDecimals) {
+            throw new IllegalArgumentException("Price and coin decimals must together be at least the USDT decimals");
+        }
+        this.quoteScale = FixedPoint.scale(quoteDecimals);
+        this.baseScale = FixedPoint.scale(baseDecimals);
+        this.priceScale = FixedPoint.scale(priceDecimals);
+        this.costDivisor = FixedPoint.scale(priceDecimals + baseDecimals - quoteDecimals);
+        this.usdtUnits = FixedPoint.toUnits(initialUsdtBalance, quoteScale);
+        this.initialUsdtUnits = usdtUnits;
+    }
+
+    private Wallet(Wallet precision) {
+        this.quoteScale = precision.quoteScale;
+        this.baseScale = precision.baseScale;
+        this.priceScale = precision.priceScale;
+        this.costDivisor = precision.costDivisor;
     }
 
     /**
@@ -24,14 +66,27 @@ public class Wallet {
      * @return true if order was executed, false if insufficient funds
      */
     public boolean buy(double price, double amount) {
-        double cost = price * amount;
-        if (cost > usdtBalance) {
-            return false; // Insufficient funds
+        return buyUnits(toPriceUnits(price), toBaseUnits(amount));
+    }
+
+    /**
+     * Fixed-point BUY.
+     * @param priceUnits Price in price units
+     * @param amountUnits Amount in coin units
+     * @return true if order was executed, false if insufficient funds
+     */
+    public boolean buyUnits(long priceUnits, long amountUnits) {
+        WalletTradeEvent event = new WalletTradeEvent();
+        event.begin();
+        long cost = FixedPoint.multiplyDivide(priceUnits, amountUnits, costDivisor, true);
+        boolean executed = cost <= usdtUnits; // Otherwise insufficient funds
+        if (executed) {
+            this.usdtUnits -= cost;
+            this.coinUnits = Math.addExact(coinUnits, amountUnits);
+            this.currentPriceUnits = priceUnits;
         }
-        this.usdtBalance -= cost;
-        this.coinBalance += amount;
-        this.currentPrice = price;
-        return true;
+        commit(event, "BUY", priceUnits, amountUnits, executed);
+        return executed;
     }
 
     /**
@@ -41,13 +96,38 @@ public class Wallet {
      * @return true if order was executed, false if insufficient coins
      */
     public boolean sell(double price, double amount) {
-        if (amount > coinBalance) {
-            return false; // Insufficient coins
+        return sellUnits(toPriceUnits(price), toBaseUnits(amount));
+    }
+
+    /**
+     * Fixed-point SELL.
+     * @param priceUnits Price in price units
+     * @param amountUnits Amount in coin units
+     * @return true if order was executed, false if insufficient coins
+     */
+    public boolean sellUnits(long priceUnits, long amountUnits) {
+        WalletTradeEvent event = new WalletTradeEvent();
+        event.begin();
+        boolean executed = amountUnits <= coinUnits; // Otherwise insufficient coins
+        if (executed) {
+            long proceeds = FixedPoint.multiplyDivide(priceUnits, amountUnits, costDivisor, false);
+            this.coinUnits -= amountUnits;
+            this.usdtUnits = Math.addExact(usdtUnits, proceeds);
+            this.currentPriceUnits = priceUnits;
+        }
+        commit(event, "SELL", priceUnits, amountUnits, executed);
+        return executed;
+    }
+
+    private static void commit(WalletTradeEvent event, String side, long priceUnits, long amountUnits,
+                               boolean executed) {
+        if (event.shouldCommit()) {
+            event.side = side;
+            event.priceUnits = priceUnits;
+            event.amountUnits = amountUnits;
+            event.executed = executed;
+            event.commit();
         }
-        this.coinBalance -= amount;
-        this.usdtBalance += price * amount;
-        this.currentPrice = price;
-        return true;
     }
 
     /**
@@ -56,7 +136,15 @@ public class Wallet {
      * @return Total value (USDT balance + coin value in USDT)
      */
     public double getTotalValue(double currentPrice) {
-        return usdtBalance + (coinBalance * currentPrice);
+        return FixedPoint.toDouble(getTotalValueUnits(toPriceUnits(currentPrice)), quoteScale);
+    }
+
+    /**
+     * @param priceUnits Current price in price units
+     * @return Total value in USDT units, coin value rounded down
+     */
+    public long getTotalValueUnits(long priceUnits) {
+        return usdtUnits + FixedPoint.multiplyDivide(coinUnits, priceUnits, costDivisor, false);
     }
 
     /**
@@ -65,30 +153,119 @@ public class Wallet {
      * @return PnL percentage
      */
     public double getPnLPercentage(double currentPrice) {
-        double currentValue = getTotalValue(currentPrice);
-        return ((currentValue - initialUsdtBalance) / initialUsdtBalance) * 100.0;
+        long currentValue = getTotalValueUnits(toPriceUnits(currentPrice));
+        return (double) (currentValue - initialUsdtUnits) / initialUsdtUnits * 100.0;
+    }
+
+    /**
+     * @param price A price
+     * @return The price in this wallet's price units (rounded to the nearest unit)
+     */
+    public long toPriceUnits(double price) {
+        return FixedPoint.toUnits(price, priceScale);
+    }
+
+    /**
+     * @param amount A coin amount
+     * @return The amount in this wallet's coin units (rounded to the nearest unit)
+     */
+    public long toBaseUnits(double amount) {
+        return FixedPoint.toUnits(amount, baseScale);
+    }
+
+    /**
+     * Writes the balances, PnL baseline and last price in binary form, prefixed by the precision
+     * they are expressed in.
+     * @param out The destination
+     * @throws IOException if writing fails
+     */
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeLong(quoteScale);
+        out.writeLong(baseScale);
+        out.writeLong(priceScale);
+        out.writeLong(usdtUnits);
+        out.writeLong(coinUnits);
+        out.writeLong(initialUsdtUnits);
+        out.writeLong(currentPriceUnits);
+    }
+
+    /**
+     * Replaces this wallet's state with one written by {@link #writeSnapshot}. Nothing is changed
+     * if the snapshot cannot be read or was taken with a different precision.
+     * @param in The source
+     * @throws IOException if reading fails or the precision does not match
+     */
+    public void restoreSnapshot(DataInput in) throws IOException {
+        long quote = in.readLong();
+        long base = in.readLong();
+        long price = in.readLong();
+        long usdt = in.readLong();
+        long coin = in.readLong();
+        long initial = in.readLong();
+        long current = in.readLong();
+        if (quote != quoteScale || base != baseScale || price != priceScale) {
+            throw new IOException("Wallet snapshot precision does not match this wallet");
+        }
+        if (usdt < 0 || coin < 0 || initial < 0) {
+            throw new IOException("Corrupt wallet snapshot");
+        }
+        this.usdtUnits = usdt;
+        this.coinUnits = coin;
+        this.initialUsdtUnits = initial;
+        this.currentPriceUnits = current;
+    }
+
+    /**
+     * Creates an empty wallet with this wallet's precision, e.g. to read a snapshot into before
+     * deciding to apply it with {@link #restoreFrom(Wallet)}.
+     * @return The new wallet
+     */
+    public Wallet emptyCopy() {
+        return new Wallet(this);
+    }
+
+    /**
+     * Replaces this wallet's state with another's.
+     * @param other A wallet with the same precision, e.g. from {@link #emptyCopy()}
+     */
+    public void restoreFrom(Wallet other) {
+        if (other.quoteScale != quoteScale || other.baseScale != baseScale || other.priceScale != priceScale) {
+            throw new IllegalArgumentException("Wallet precision does not match");
+        }
+        this.usdtUnits = other.usdtUnits;
+        this.coinUnits = other.coinUnits;
+        this.initialUsdtUnits = other.initialUsdtUnits;
+        this.currentPriceUnits = other.currentPriceUnits;
     }
 
     public double getUsdtBalance() {
-        return usdtBalance;
+        return FixedPoint.toDouble(usdtUnits, quoteScale);
     }
 
     public double getCoinBalance() {
-        return coinBalance;
+        return FixedPoint.toDouble(coinUnits, baseScale);
     }
 
     public double getInitialUsdtBalance() {
-        return initialUsdtBalance;
+        return FixedPoint.toDouble(initialUsdtUnits, quoteScale);
     }
 
     public double getCurrentPrice() {
-        return currentPrice;
+        return FixedPoint.toDouble(currentPriceUnits, priceScale);
+    }
+
+    public long getUsdtUnits() {
+        return usdtUnits;
+    }
+
+    public long getCoinUnits() {
+        return coinUnits;
     }
 
     @Override
     public String toString() {
+        double currentPrice = getCurrentPrice();
         return String.format("Wallet{USDT=%.2f, Coin=%.2f, Total=%.2f, PnL=%.2f%%}",
-                usdtBalance, coinBalance, getTotalValue(currentPrice), getPnLPercentage(currentPrice));
+                getUsdtBalance(), getCoinBalance(), getTotalValue(currentPrice), getPnLPercentage(currentPrice));
     }
 }
-
@@ -0,0 +1,480 @@
+package com.tradingbot.exchange;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Reads exchange market-data messages (Binance-style kline and trade events, and REST kline
+ * arrays) straight into primitive fields, without building a JSON tree.
+ *
+ * A message is walked once. Nested objects are flattened (a kline's fields live in a nested "k"
+ * object, combined streams wrap events in "data"), arrays and unknown keys are skipped, and the
+ * single-letter keys of interest are decoded in place. Decimal strings such as "0.01634790" are
+ * converted without creating a String: when the digits fit exactly in a double the result is a
+ * single correctly rounded division, identical to {@link Double#parseDouble(String)}; anything
+ * else falls back to it. Symbols are matched against the registered names character by character,
+ * so a message of a known symbol allocates nothing.
+ *
+ * Not thread-safe: use one parser per connection.
+ */
+public class ExchangeMessageParser {
+    public static final int NONE = 0;
+    public static final int KLINE = 1;
+    public static final int TRADE = 2;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    /**
+     * Receives the rows of a REST kline response.
+     */
+    @FunctionalInterface
+    public interface KlineHandler {
+        void onKline(long openTime, long closeTime, double open, double high, double low, double close, double volume);
+    }
+
+    // Registered symbols (open addressing, indexed by String.hashCode)
+    private final String[] symbolTable;
+    private final int[] symbolIds;
+    private final int tableMask;
+
+    private CharSequence text;
+    private int position;
+
+    // Fields of the last parsed message
+    private int eventType;
+    private int symbolId;
+    private int symbolStart;
+    private int symbolEnd;
+    private long t;
+    private long bigT;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private double price;
+    private double quantity;
+    private boolean closed;
+
+    /**
+     * @param symbols Symbols to resolve, upper case; their ids are their positions in iteration order
+     */
+    public ExchangeMessageParser(Collection<String> symbols) {
+        int capacity = Integer.highestOneBit(Math.max(1, symbols.size()) * 2 - 1) << 1;
+        this.symbolTable = new String[capacity];
+        this.symbolIds = new int[capacity];
+        this.tableMask = capacity - 1;
+        int id = 0;
+        for (String symbol : symbols) {
+            String name = symbol.toUpperCase(Locale.ROOT);
+            int slot = spread(name.hashCode()) & tableMask;
+            while (symbolTable[slot] != null) {
+                if (symbolTable[slot].equals(name)) {
+                    throw new IllegalArgumentException("Duplicate symbol: " + name);
+                }
+                slot = (slot + 1) & tableMask;
+            }
+            symbolTable[slot] = name;
+            symbolIds[slot] = id++;
+        }
+    }
+
+    /**
+     * Parses one event message.
+     * @param message A complete JSON text frame
+     * @return {@link #KLINE}, {@link #TRADE}, or {@link #NONE} for anything else (e.g. subscription replies)
+     * @throws IllegalArgumentException if the message is not valid JSON of the expected shape
+     */
+    public int parse(CharSequence message) {
+        text = message;
+        position = 0;
+        eventType = NONE;
+        symbolId = -1;
+        symbolStart = -1;
+        symbolEnd = -1;
+        closed = false;
+        try {
+            int length = message.length();
+            while (position < length) {
+                if (message.charAt(position) != '"') {
+                    // Braces, commas and whitespace between members; '{' descends into nested objects
+                    position++;
+                    continue;
+                }
+                int keyStart = position + 1;
+                skipString();
+                int keyLength = position - keyStart - 1;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (keyLength == 1) {
+                    readMember(message.charAt(keyStart));
+                } else {
+                    skipValue();
+                }
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed message at offset " + position, e);
+        } finally {
+            text = null;
+        }
+        if (eventType != NONE && symbolStart >= 0) {
+            symbolId = lookup(message, symbolStart, symbolEnd);
+        }
+        return eventType;
+    }
+
+    private void readMember(char key) {
+        switch (key) {
+            case 'e' -> {
+                int start = position + 1;
+                skipString();
+                eventType = matches(start, position - 1, "kline") ? KLINE
+                        : matches(start, position - 1, "trade") ? TRADE : NONE;
+            }
+            case 's' -> {
+                symbolStart = position + 1;
+                skipString();
+                symbolEnd = position - 1;
+            }
+            case 't' -> t = readLong();
+            case 'T' -> bigT = readLong();
+            case 'o' -> open = readDecimal();
+            case 'h' -> high = readDecimal();
+            case 'l' -> low = readDecimal();
+            case 'c' -> close = readDecimal();
+            case 'v' -> volume = readDecimal();
+            case 'p' -> price = readDecimal();
+            case 'q' -> quantity = readDecimal();
+            case 'x' -> closed = readBoolean();
+            default -> skipValue();
+        }
+    }
+
+    /**
+     * Parses a REST kline response: an array of rows [openTime, "open", "high", "low", "close",
+     * "volume", closeTime, ...]. Extra columns are ignored.
+     * @param body The response body
+     * @param handler Receives each row in order
+     * @return Number of rows
+     * @throws IllegalArgumentException if the body is not a kline array
+     */
+    public int parseKlines(CharSequence body, KlineHandler handler) {
+        text = body;
+        position = 0;
+        int rows = 0;
+        try {
+            skipWhitespace();
+            expect('[');
+            while (true) {
+                skipWhitespace();
+                char c = body.charAt(position);
+                if (c == ']') {
+                    break;
+                }
+                if (c == ',') {
+                    position++;
+                    continue;
+                }
+                expect('[');
+                skipWhitespace();
+                long openTime = readLong();
+                double rowOpen = nextDecimal();
+                double rowHigh = nextDecimal();
+                double rowLow = nextDecimal();
+                double rowClose = nextDecimal();
+                double rowVolume = nextDecimal();
+                nextField();
+                long closeTime = readLong();
+                skipWhitespace();
+                while (body.charAt(position) == ',') {
+                    position++;
+                    skipWhitespace();
+                    skipValue();
+                    skipWhitespace();
+                }
+                expect(']');
+                handler.onKline(openTime, closeTime, rowOpen, rowHigh, rowLow, rowClose, rowVolume);
+                rows++;
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed kline response at offset " + position, e);
+        } finally {
+            text = null;
+        }
+        return rows;
+    }
+
+    private double nextDecimal() {
+        nextField();
+        return readDecimal();
+    }
+
+    private void nextField() {
+        skipWhitespace();
+        expect(',');
+        skipWhitespace();
+    }
+
+    /**
+     * Reads a number, quoted or not. Up to 15 significant digits with up to 22 decimals are
+     * exact in a double, so one division gives the correctly rounded value.
+     */
+    private double readDecimal() {
+        boolean quoted = text.charAt(position) == '"';
+        if (quoted) {
+            position++;
+        }
+        int start = position;
+        boolean negative = text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean exact = true;
+        while (true) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (fraction) {
+                        scale++;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E' || c == '+' || (c == '-' && position > start)) {
+                exact = false;
+            } else {
+                break;
+            }
+            position++;
+        }
+        int end = position;
+        if (quoted) {
+            expect('"');
+        }
+        if (end == start) {
+            throw new NumberFormatException("Empty number");
+        }
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text.subSequence(start, end).toString());
+    }
+
+    private long readLong() {
+        boolean quoted = text.charAt(position) == '"';
+        if (quoted) {
+            position++;
+        }
+        boolean negative = text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int start = position;
+        long value = 0;
+        char c;
+        while ((c = text.charAt(position)) >= '0' && c <= '9') {
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            position++;
+        }
+        if (position == start) {
+            throw new NumberFormatException("Expected digits");
+        }
+        if (quoted) {
+            expect('"');
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean readBoolean() {
+        if (matches(position, position + 4, "true")) {
+            position += 4;
+            return true;
+        }
+        if (matches(position, position + 5, "false")) {
+            position += 5;
+            return false;
+        }
+        throw new NumberFormatException("Expected boolean");
+    }
+
+    /**
+     * Skips a scalar, string or array. An object is entered rather than skipped, so its members
+     * are read as if they belonged to the enclosing object.
+     */
+    private void skipValue() {
+        char c = text.charAt(position);
+        if (c == '"') {
+            skipString();
+        } else if (c == '[') {
+            int depth = 0;
+            do {
+                c = text.charAt(position);
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ']' || c == '}') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        } else if (c == '{') {
+            position++;
+        } else {
+            while ((c = text.charAt(position)) != ',' && c != '}' && c != ']') {
+                position++;
+            }
+        }
+    }
+
+    /** Moves past the string starting at the current quote. */
+    private void skipString() {
+        position++;
+        char c;
+        while ((c = text.charAt(position)) != '"') {
+            position += c == '\\' ? 2 : 1;
+        }
+        position++;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && text.charAt(position) <= ' ') {
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (text.charAt(position) != expected) {
+            throw new NumberFormatException("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    private boolean matches(int start, int end, String expected) {
+        if (end - start != expected.length() || end > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lookup(CharSequence message, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + message.charAt(i);
+        }
+        int slot = spread(hash) & tableMask;
+        String candidate;
+        while ((candidate = symbolTable[slot]) != null) {
+            if (candidate.length() == end - start && regionEquals(message, start, candidate)) {
+                return symbolIds[slot];
+            }
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(CharSequence message, int start, String candidate) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (message.charAt(start + i) != candidate.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return Id of the last message's symbol, or -1 if it is not registered
+     */
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    /**
+     * @return Start of the symbol name within the last message, or -1 if it had none
+     */
+    public int getSymbolStart() {
+        return symbolStart;
+    }
+
+    /**
+     * @return End (exclusive) of the symbol name within the last message
+     */
+    public int getSymbolEnd() {
+        return symbolEnd;
+    }
+
+    /** @return Kline open time in epoch milliseconds */
+    public long getOpenTime() {
+        return t;
+    }
+
+    /** @return Kline close time in epoch milliseconds (the last millisecond of the kline) */
+    public long getCloseTime() {
+        return bigT;
+    }
+
+    /** @return Trade time in epoch milliseconds */
+    public long getTradeTime() {
+        return bigT;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    /** @return true if the kline is final; open klines are updated by later messages */
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tradingbot.exchange;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.observer.Subject;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The candles of one symbol received by an {@link ExchangeWebSocketFeed}.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Subject - bots register on the symbol they trade, exactly as on a simulated
+ * MarketDataSubject.
+ * Reason: One WebSocket connection carries thousands of symbols; exposing each symbol as its own
+ * Subject keeps strategies unaware of the exchange, its message format and its reconnects.
+ *
+ * Candles are published on the connection's callback thread, one closed candle at a time and in
+ * open-time order, including candles recovered after a reconnect.
+ */
+public class ExchangeSymbolSubject implements Subject {
+    private final String symbol;
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+    private volatile long candleCount;
+
+    ExchangeSymbolSubject(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public void registerObserver(Observer observer) {
+        if (observer != null) {
+            observers.addIfAbsent(observer);
+        }
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void notifyObservers(MarketCandle candle) {
+        for (Observer observer : observers) {
+            observer.update(candle);
+        }
+        candleCount++;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getObserverCount() {
+        return observers.size();
+    }
+
+    /**
+     * Gets the number of candles published so far. Lock-free, safe to call from any thread.
+     * @return The count of published candles
+     */
+    public long getCandleCount() {
+        return candleCount;
+    }
+}
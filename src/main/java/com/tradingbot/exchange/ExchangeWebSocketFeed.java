@@ -0,0 +1,498 @@
+package com.tradingbot.exchange;
+
+import com.tradingbot.aggregation.CandleAggregator;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.simulation.CandleColumns;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Live market data from an exchange WebSocket (Binance-style streams), using the JDK
+ * {@link HttpClient} WebSocket API. One connection carries every symbol; each symbol is exposed as an
+ * {@link ExchangeSymbolSubject} that bots register on.
+ *
+ * Stream types:
+ *   KLINE - the exchange's own candles; only closed klines are published
+ *   TRADE - individual trades, aggregated into candles locally with a {@link CandleAggregator}; a
+ *           timer closes each candle {@value #CLOSE_GRACE_MILLIS} ms after its interval ends, so
+ *           candles are not held back until the next trade in a quiet market
+ *
+ * Messages are parsed in place by an {@link ExchangeMessageParser} on the connection's callback
+ * thread, and the next message is requested only after the current one has been published, so the
+ * socket itself applies back-pressure instead of an unbounded queue building up.
+ *
+ * When the connection drops (closed, failed, or silent for longer than {@value #STALE_TIMEOUT_MILLIS}
+ * ms) it is re-established with exponential backoff. For kline streams the candles that closed in
+ * the meantime are then fetched from the REST API (/api/v3/klines) and published, in order, before
+ * live messages are read again; candles already published are dropped, so bots see every candle
+ * exactly once. Trades missed during an outage cannot be recovered.
+ */
+public class ExchangeWebSocketFeed implements Closeable {
+    private static final Logger logger = Logger.getLogger(ExchangeWebSocketFeed.class.getName());
+    static final long STALE_TIMEOUT_MILLIS = 30_000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final int SUBSCRIBE_BATCH = 200;
+    private static final int GAP_FILL_PAGE = 1000;
+    static final long CLOSE_GRACE_MILLIS = 250; // Lets trades stamped just before a boundary arrive
+
+    /** What the feed subscribes to. */
+    public enum StreamType { KLINE, TRADE }
+
+    private final URI webSocketUri;
+    private final URI restUri;
+    private final StreamType streamType;
+    private final long intervalMillis;
+    private final String intervalName;
+    private final String[] symbols;
+    private final ExchangeSymbolSubject[] subjects;
+    private final CandleAggregator[] aggregators; // TRADE streams only, each guarded by its own monitor
+    private final long[] lastOpenTimes; // Open time of the last published kline, per symbol
+    private final ExchangeMessageParser parser; // Callback thread only
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean running;
+    private volatile WebSocket webSocket;
+    private volatile long lastMessageMillis;
+    private long backoffMillis = INITIAL_BACKOFF_MILLIS;
+
+    private volatile long messageCount;
+    private volatile long reconnectCount;
+    private volatile long recoveredCount;
+    private volatile long duplicateCount;
+    private volatile long parseErrorCount;
+
+    /**
+     * @param webSocketUri Raw stream endpoint, e.g. wss://stream.binance.com:9443/ws
+     * @param restUri REST base URI for gap-fill, e.g. https://api.binance.com, or null to disable it
+     * @param streamType Klines or trades
+     * @param intervalMillis Candle length (an exchange kline interval such as 1m)
+     * @param symbols Symbols to subscribe to, e.g. "BTCUSDT"
+     */
+    public ExchangeWebSocketFeed(URI webSocketUri, URI restUri, StreamType streamType, long intervalMillis,
+                                 Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        this.webSocketUri = webSocketUri;
+        this.restUri = restUri;
+        this.streamType = streamType;
+        this.intervalMillis = intervalMillis;
+        this.intervalName = intervalName(intervalMillis);
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            names.add(symbol.toUpperCase(Locale.ROOT));
+        }
+        this.symbols = names.toArray(new String[0]);
+        this.subjects = new ExchangeSymbolSubject[this.symbols.length];
+        this.aggregators = streamType == StreamType.TRADE ? new CandleAggregator[this.symbols.length] : null;
+        this.lastOpenTimes = new long[this.symbols.length];
+        for (int i = 0; i < this.symbols.length; i++) {
+            subjects[i] = new ExchangeSymbolSubject(this.symbols[i]);
+            lastOpenTimes[i] = Long.MIN_VALUE;
+            if (aggregators != null) {
+                aggregators[i] = new CandleAggregator(this.symbols[i], intervalMillis);
+                aggregators[i].getTimeframeAt(0).registerObserver(subjects[i]::notifyObservers);
+            }
+        }
+        this.parser = new ExchangeMessageParser(names);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ExchangeFeedScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Converts a candle length to the exchange's interval name.
+     * @param intervalMillis Candle length in milliseconds
+     * @return e.g. "1s", "1m", "4h", "1d"
+     */
+    static String intervalName(long intervalMillis) {
+        if (intervalMillis <= 0 || intervalMillis % 1000 != 0) {
+            throw new IllegalArgumentException("Interval must be a positive number of seconds: " + intervalMillis);
+        }
+        if (intervalMillis % 86_400_000 == 0) {
+            return intervalMillis / 86_400_000 + "d";
+        }
+        if (intervalMillis % 3_600_000 == 0) {
+            return intervalMillis / 3_600_000 + "h";
+        }
+        if (intervalMillis % 60_000 == 0) {
+            return intervalMillis / 60_000 + "m";
+        }
+        return intervalMillis / 1000 + "s";
+    }
+
+    /**
+     * Opens the connection and subscribes to every symbol. Later connection losses are handled
+     * in the background.
+     * @throws IOException if the first connection cannot be established
+     */
+    public void start() throws IOException {
+        synchronized (this) {
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        // Not holding the lock: onOpen takes it before the connection future completes
+        try {
+            openConnection().get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            running = false;
+            throw new IOException("Cannot connect to " + webSocketUri, e.getCause() != null ? e.getCause() : e);
+        } catch (InterruptedException e) {
+            running = false;
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while connecting to " + webSocketUri, e);
+        }
+        scheduler.scheduleWithFixedDelay(this::checkStale, STALE_TIMEOUT_MILLIS / 2, STALE_TIMEOUT_MILLIS / 2,
+                TimeUnit.MILLISECONDS);
+        if (aggregators != null) {
+            long untilBoundary = intervalMillis - Math.floorMod(System.currentTimeMillis(), intervalMillis);
+            scheduler.scheduleAtFixedRate(() -> advanceTime(System.currentTimeMillis() - CLOSE_GRACE_MILLIS),
+                    untilBoundary + CLOSE_GRACE_MILLIS, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Exchange feed connected to " + webSocketUri + " for " + symbols.length + " symbol(s)");
+    }
+
+    private CompletableFuture<WebSocket> openConnection() {
+        return httpClient.newWebSocketBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(webSocketUri, new Connection());
+    }
+
+    private void reconnect() {
+        if (!running) {
+            return;
+        }
+        openConnection().whenComplete((ws, error) -> {
+            if (error != null) {
+                logger.log(Level.WARNING, "Reconnect to " + webSocketUri + " failed", error);
+                scheduleReconnect();
+            }
+        });
+    }
+
+    private synchronized void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        long delay = backoffMillis;
+        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        scheduler.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void connectionLost(WebSocket ws, String reason) {
+        if (ws != webSocket) {
+            return; // Already handled, or a connection that never became current
+        }
+        webSocket = null;
+        if (!running) {
+            return;
+        }
+        reconnectCount++;
+        logger.warning("Exchange feed " + webSocketUri + " lost (" + reason + "), reconnecting");
+        scheduleReconnect();
+    }
+
+    private void checkStale() {
+        WebSocket ws = webSocket;
+        if (ws != null && System.currentTimeMillis() - lastMessageMillis > STALE_TIMEOUT_MILLIS) {
+            ws.abort();
+            connectionLost(ws, "no data for " + STALE_TIMEOUT_MILLIS + " ms");
+        }
+    }
+
+    /**
+     * Sends the subscriptions in batches; each send must complete before the next may start.
+     */
+    private CompletableFuture<?> subscribe(WebSocket ws) {
+        String suffix = streamType == StreamType.KLINE ? "@kline_" + intervalName : "@trade";
+        CompletableFuture<?> chain = CompletableFuture.completedFuture(null);
+        for (int from = 0, id = 1; from < symbols.length; from += SUBSCRIBE_BATCH, id++) {
+            StringBuilder message = new StringBuilder("{\"method\":\"SUBSCRIBE\",\"params\":[");
+            for (int i = from; i < Math.min(from + SUBSCRIBE_BATCH, symbols.length); i++) {
+                if (i > from) {
+                    message.append(',');
+                }
+                message.append('"').append(symbols[i].toLowerCase(Locale.ROOT)).append(suffix).append('"');
+            }
+            message.append("],\"id\":").append(id).append('}');
+            chain = chain.thenCompose(ignored -> ws.sendText(message, true));
+        }
+        return chain;
+    }
+
+    /**
+     * Fetches the klines that closed after the last published one, for every symbol, and
+     * publishes them in order once all requests have completed.
+     */
+    private CompletableFuture<Void> gapFill() {
+        if (streamType != StreamType.KLINE || restUri == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        CandleColumns[] missing = new CandleColumns[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            if (lastOpenTimes[i] != Long.MIN_VALUE) {
+                missing[i] = new CandleColumns(16);
+                requests.add(fetchKlines(i, lastOpenTimes[i] + intervalMillis, missing[i]));
+            }
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> {
+            if (error != null) {
+                logger.log(Level.WARNING, "Gap-fill incomplete, some candles are missing", error);
+            }
+            for (int i = 0; i < symbols.length; i++) {
+                CandleColumns candles = missing[i];
+                for (int row = 0; candles != null && row < candles.size(); row++) {
+                    if (publishKline(i, candles.getTimestamp(row), candles.getOpen(row), candles.getHigh(row),
+                            candles.getLow(row), candles.getClose(row), candles.getVolume(row))) {
+                        recoveredCount++;
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> fetchKlines(int index, long startTime, CandleColumns into) {
+        URI uri = restUri.resolve("/api/v3/klines?symbol=" + symbols[index] + "&interval=" + intervalName
+                + "&startTime=" + startTime + "&limit=" + GAP_FILL_PAGE);
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(CONNECT_TIMEOUT).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenCompose(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("HTTP " + response.statusCode() + " from " + uri));
+            }
+            long now = System.currentTimeMillis();
+            long[] next = {Long.MIN_VALUE};
+            int rows = new ExchangeMessageParser(List.of()).parseKlines(response.body(),
+                    (openTime, closeTime, open, high, low, close, volume) -> {
+                        if (closeTime < now) { // The last row may be the kline still in progress
+                            into.add(openTime, open, high, low, close, volume);
+                            next[0] = openTime + intervalMillis;
+                        }
+                    });
+            if (rows == GAP_FILL_PAGE && next[0] != Long.MIN_VALUE) {
+                return fetchKlines(index, next[0], into);
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private void handle(CharSequence message) {
+        messageCount++;
+        int type;
+        try {
+            type = parser.parse(message);
+        } catch (IllegalArgumentException e) {
+            parseErrorCount++;
+            logger.log(Level.FINE, "Unparseable message skipped", e);
+            return;
+        }
+        int index = parser.getSymbolId();
+        if (index < 0) {
+            return;
+        }
+        if (type == ExchangeMessageParser.KLINE) {
+            if (parser.isClosed()) {
+                publishKline(index, parser.getOpenTime(), parser.getOpen(), parser.getHigh(), parser.getLow(),
+                        parser.getClose(), parser.getVolume());
+            }
+        } else if (type == ExchangeMessageParser.TRADE && aggregators != null) {
+            CandleAggregator aggregator = aggregators[index];
+            synchronized (aggregator) {
+                aggregator.onTick(parser.getTradeTime(), parser.getPrice(), parser.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Closes the aggregated candles that ended at or before the given time (TRADE streams).
+     * @param nowMillis Exchange time in epoch milliseconds
+     */
+    void advanceTime(long nowMillis) {
+        if (aggregators == null) {
+            return;
+        }
+        for (CandleAggregator aggregator : aggregators) {
+            synchronized (aggregator) {
+                aggregator.advanceTime(nowMillis);
+            }
+        }
+    }
+
+    /**
+     * @return false if the kline was already published
+     */
+    private boolean publishKline(int index, long openTime, double open, double high, double low, double close,
+                                 double volume) {
+        if (openTime <= lastOpenTimes[index]) {
+            duplicateCount++;
+            return false;
+        }
+        lastOpenTimes[index] = openTime;
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(openTime, 1000L),
+                (int) Math.floorMod(openTime, 1000L) * 1_000_000, ZoneOffset.UTC);
+        subjects[index].notifyObservers(new MarketCandle(open, high, low, close, volume, timestamp));
+        return true;
+    }
+
+    /**
+     * Receives the messages of one connection. A new instance is used for every reconnect, so
+     * callbacks of a dead connection cannot touch the current one.
+     */
+    private final class Connection implements WebSocket.Listener {
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            synchronized (ExchangeWebSocketFeed.this) {
+                webSocket = ws;
+                lastMessageMillis = System.currentTimeMillis();
+            }
+            // Subscribe first, so nothing closes between the REST snapshot and the live stream;
+            // the overlap is dropped as duplicates
+            subscribe(ws).thenCompose(ignored -> gapFill()).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.log(Level.WARNING, "Subscribing to " + webSocketUri + " failed", error);
+                    ws.abort();
+                    connectionLost(ws, "subscribe failed");
+                    return;
+                }
+                synchronized (ExchangeWebSocketFeed.this) {
+                    backoffMillis = INITIAL_BACKOFF_MILLIS;
+                }
+                lastMessageMillis = System.currentTimeMillis();
+                ws.request(1);
+            });
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            lastMessageMillis = System.currentTimeMillis();
+            if (!last) {
+                partial.append(data);
+            } else if (partial.length() > 0) {
+                handle(partial.append(data));
+                partial.setLength(0);
+            } else {
+                handle(data);
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            connectionLost(ws, "closed " + statusCode + (reason.isEmpty() ? "" : " " + reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            connectionLost(ws, String.valueOf(error));
+        }
+    }
+
+    /**
+     * Closes the connection and stops reconnecting.
+     */
+    @Override
+    public void close() {
+        WebSocket ws;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            ws = webSocket;
+            webSocket = null;
+        }
+        scheduler.shutdownNow();
+        if (ws != null) {
+            try {
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "").get(1, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                logger.log(Level.FINE, "Close handshake failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ws.abort();
+        }
+    }
+
+    /**
+     * Gets the candle stream of one symbol.
+     * @param symbol A symbol this feed was created with
+     * @return The subject publishing that symbol's candles
+     */
+    public ExchangeSymbolSubject getSubject(String symbol) {
+        String name = symbol.toUpperCase(Locale.ROOT);
+        for (ExchangeSymbolSubject subject : subjects) {
+            if (subject.getSymbol().equals(name)) {
+                return subject;
+            }
+        }
+        throw new IllegalArgumentException("Unknown symbol: " + symbol);
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public boolean isConnected() {
+        return webSocket != null;
+    }
+
+    /** @return Text messages received, including non-market messages */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount;
+    }
+
+    /** @return Candles published from the REST API after reconnects */
+    public long getRecoveredCount() {
+        return recoveredCount;
+    }
+
+    /** @return Closed klines dropped because they had been published already */
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public long getParseErrorCount() {
+        return parseErrorCount;
+    }
+}
@@ -0,0 +1,583 @@
+package com.tradingbot.exchange;
+
+import com.tradingbot.simulation.CandleColumns;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A local stand-in for an exchange, for tests and benchmarks: a minimal RFC 6455 WebSocket server
+ * that replays recorded market-data frames, plus the REST kline endpoint used for gap-fill.
+ *
+ * Endpoints (one port, loopback only):
+ *   GET /ws             - WebSocket; clients send Binance-style SUBSCRIBE requests
+ *   GET /api/v3/klines  - closed klines already replayed, as JSON arrays (symbol, startTime, limit)
+ *
+ * Frames are replayed by {@link #replay(int)} on the calling thread, at a configurable rate or as
+ * fast as the sockets accept them, and each frame goes only to clients subscribed to its symbol.
+ * Frames are encoded once up front, so the server is not the bottleneck of a throughput test.
+ * {@link #dropConnections()} cuts every client without a close handshake to exercise reconnects.
+ */
+public class MockExchangeServer implements Closeable {
+    private static final Logger logger = Logger.getLogger(MockExchangeServer.class.getName());
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    // Recorded frames, indexed by replay position
+    private final byte[][] encodedFrames;
+    private final String[] frameSymbols;
+    private final String[] frameRows; // REST row of a closed kline frame, otherwise null
+    private final long[] frameOpenTimes;
+    private final Map<String, int[]> klineFramesBySymbol = new HashMap<>();
+
+    private final CopyOnWriteArrayList<Client> clients = new CopyOnWriteArrayList<>();
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+    private volatile boolean running;
+    private volatile int position;
+    private double framesPerSecond;
+
+    /**
+     * @param frames JSON text frames in replay order (kline or trade events)
+     */
+    public MockExchangeServer(List<String> frames) {
+        int count = frames.size();
+        this.encodedFrames = new byte[count][];
+        this.frameSymbols = new String[count];
+        this.frameRows = new String[count];
+        this.frameOpenTimes = new long[count];
+        ExchangeMessageParser parser = new ExchangeMessageParser(List.of());
+        Map<String, String> symbolNames = new HashMap<>();
+        Map<String, List<Integer>> klines = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String frame = frames.get(i);
+            encodedFrames[i] = encodeFrame(OPCODE_TEXT, frame.getBytes(StandardCharsets.UTF_8));
+            int type = parser.parse(frame);
+            if (type == ExchangeMessageParser.NONE || parser.getSymbolStart() < 0) {
+                continue;
+            }
+            String symbol = symbolNames.computeIfAbsent(
+                    frame.substring(parser.getSymbolStart(), parser.getSymbolEnd()), name -> name);
+            frameSymbols[i] = symbol;
+            if (type == ExchangeMessageParser.KLINE && parser.isClosed()) {
+                frameOpenTimes[i] = parser.getOpenTime();
+                frameRows[i] = "[" + parser.getOpenTime() + ",\"" + parser.getOpen() + "\",\"" + parser.getHigh()
+                        + "\",\"" + parser.getLow() + "\",\"" + parser.getClose() + "\",\"" + parser.getVolume()
+                        + "\"," + parser.getCloseTime() + ",\"0\",0,\"0\",\"0\",\"0\"]";
+                klines.computeIfAbsent(symbol, k -> new ArrayList<>()).add(i);
+            }
+        }
+        klines.forEach((symbol, indices) ->
+                klineFramesBySymbol.put(symbol, indices.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Loads recorded frames, one JSON message per line.
+     * @param file The recording
+     * @return The frames, blank lines skipped
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> loadFrames(Path file) throws IOException {
+        List<String> frames = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                frames.add(line.trim());
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Records candles as kline frames, interleaving symbols candle by candle. Each candle is sent
+     * as a number of in-progress updates followed by its closing frame, like a live kline stream.
+     * @param candlesBySymbol Candles per symbol, with open times in the timestamp column
+     * @param intervalMillis Candle length
+     * @param updatesPerCandle Frames per candle, the last one closing it (at least 1)
+     * @return The frames in replay order
+     */
+    public static List<String> recordKlines(Map<String, CandleColumns> candlesBySymbol, long intervalMillis,
+                                            int updatesPerCandle) {
+        if (updatesPerCandle < 1) {
+            throw new IllegalArgumentException("At least one update per candle is required: " + updatesPerCandle);
+        }
+        int maxCandles = 0;
+        for (CandleColumns candles : candlesBySymbol.values()) {
+            maxCandles = Math.max(maxCandles, candles.size());
+        }
+        List<String> frames = new ArrayList<>();
+        for (int i = 0; i < maxCandles; i++) {
+            for (int update = 1; update <= updatesPerCandle; update++) {
+                for (Map.Entry<String, CandleColumns> entry : candlesBySymbol.entrySet()) {
+                    CandleColumns candles = entry.getValue();
+                    if (i < candles.size()) {
+                        frames.add(klineFrame(entry.getKey(), intervalMillis, candles.getTimestamp(i),
+                                candles.getOpen(i), candles.getHigh(i), candles.getLow(i), candles.getClose(i),
+                                candles.getVolume(i), update == updatesPerCandle));
+                    }
+                }
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Formats a kline event the way the exchange sends it.
+     * @return The JSON text of the event
+     */
+    public static String klineFrame(String symbol, long intervalMillis, long openTime, double open, double high,
+                                    double low, double close, double volume, boolean closed) {
+        long closeTime = openTime + intervalMillis - 1;
+        return "{\"e\":\"kline\",\"E\":" + closeTime + ",\"s\":\"" + symbol + "\",\"k\":{\"t\":" + openTime
+                + ",\"T\":" + closeTime + ",\"s\":\"" + symbol + "\",\"i\":\""
+                + ExchangeWebSocketFeed.intervalName(intervalMillis) + "\",\"f\":100,\"L\":200,\"o\":\"" + open
+                + "\",\"c\":\"" + close + "\",\"h\":\"" + high + "\",\"l\":\"" + low + "\",\"v\":\"" + volume
+                + "\",\"n\":100,\"x\":" + closed + ",\"q\":\"0\",\"V\":\"0\",\"Q\":\"0\",\"B\":\"0\"}}";
+    }
+
+    /**
+     * Formats a trade event the way the exchange sends it.
+     * @return The JSON text of the event
+     */
+    public static String tradeFrame(String symbol, long tradeId, long time, double price, double quantity) {
+        return "{\"e\":\"trade\",\"E\":" + time + ",\"s\":\"" + symbol + "\",\"t\":" + tradeId + ",\"p\":\""
+                + price + "\",\"q\":\"" + quantity + "\",\"T\":" + time + ",\"m\":true,\"M\":true}";
+    }
+
+    /**
+     * @param framesPerSecond Replay rate across all symbols, 0 = as fast as possible
+     */
+    public void setFramesPerSecond(double framesPerSecond) {
+        if (framesPerSecond < 0) {
+            throw new IllegalArgumentException("Rate cannot be negative: " + framesPerSecond);
+        }
+        this.framesPerSecond = framesPerSecond;
+    }
+
+    /**
+     * Binds a free loopback port and starts accepting connections.
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        running = true;
+        acceptThread = new Thread(this::acceptLoop, "MockExchangeAccept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Sends the next frames to their subscribers, pacing them at the configured rate.
+     * @param count Maximum number of frames
+     * @return Number of frames replayed, 0 once the recording is exhausted
+     */
+    public int replay(int count) {
+        int from = position;
+        int to = (int) Math.min(encodedFrames.length, (long) from + count);
+        long startNanos = System.nanoTime();
+        double nanosPerFrame = framesPerSecond > 0 ? 1e9 / framesPerSecond : 0;
+        for (int i = from; i < to; i++) {
+            if (nanosPerFrame > 0) {
+                long due = startNanos + (long) ((i - from) * nanosPerFrame);
+                if (System.nanoTime() < due) {
+                    flushClients();
+                    LockSupport.parkNanos(due - System.nanoTime());
+                }
+            }
+            String symbol = frameSymbols[i];
+            for (Client client : clients) {
+                if (symbol == null || client.streams.contains(symbol)) {
+                    client.send(encodedFrames[i]);
+                }
+            }
+            position = i + 1; // Published after the send, so REST never serves a kline not yet streamed
+        }
+        flushClients();
+        return to - from;
+    }
+
+    /**
+     * Replays the rest of the recording.
+     * @return Number of frames replayed
+     */
+    public int replayAll() {
+        return replay(encodedFrames.length);
+    }
+
+    private void flushClients() {
+        for (Client client : clients) {
+            client.flush();
+        }
+    }
+
+    /**
+     * Waits until the given number of clients have subscribed to at least one stream.
+     * @param count Number of subscribed clients to wait for
+     * @param timeoutMillis Maximum time to wait
+     * @return true if that many clients are subscribed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitSubscribers(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (getSubscriberCount() < count) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Closes every client connection abruptly, without a close frame.
+     */
+    public void dropConnections() {
+        for (Client client : clients) {
+            client.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread handler = new Thread(() -> handle(socket), "MockExchangeClient");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.log(Level.WARNING, "Accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            String requestLine = readLine(in);
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while (!(line = readLine(in)).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+            String[] parts = requestLine.split(" ");
+            URI target = URI.create(parts.length > 1 ? parts[1] : "/");
+            OutputStream out = socket.getOutputStream();
+            if ("/ws".equals(target.getPath()) && "websocket".equalsIgnoreCase(headers.get("upgrade"))) {
+                serveWebSocket(socket, in, headers.get("sec-websocket-key"));
+            } else if ("/api/v3/klines".equals(target.getPath())) {
+                respond(out, "200 OK", klines(parseQuery(target.getRawQuery())));
+            } else {
+                respond(out, "404 Not Found", "{\"code\":-1,\"msg\":\"Not found\"}");
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Client connection ended", e);
+        }
+    }
+
+    private void serveWebSocket(Socket socket, InputStream in, String key) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        if (key == null) {
+            respond(out, "400 Bad Request", "{\"code\":-1,\"msg\":\"Missing Sec-WebSocket-Key\"}");
+            return;
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        Client client = new Client(socket);
+        clients.add(client);
+        try {
+            DataInputStream frames = new DataInputStream(in);
+            while (true) {
+                int first = frames.readUnsignedByte();
+                int second = frames.readUnsignedByte();
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = frames.readUnsignedShort();
+                } else if (length == 127) {
+                    length = frames.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    frames.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                frames.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+                int opcode = first & 0x0F;
+                if (opcode == OPCODE_TEXT) {
+                    onRequest(client, new String(payload, StandardCharsets.UTF_8));
+                } else if (opcode == OPCODE_PING) {
+                    client.sendNow(encodeFrame(OPCODE_PONG, payload));
+                } else if (opcode == OPCODE_CLOSE) {
+                    client.sendNow(encodeFrame(OPCODE_CLOSE, payload.length >= 2 ? new byte[]{payload[0], payload[1]} : new byte[0]));
+                    break;
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // Client went away or was dropped
+        } finally {
+            clients.remove(client);
+            client.close();
+        }
+    }
+
+    /**
+     * Handles a SUBSCRIBE request: {"method":"SUBSCRIBE","params":["btcusdt@kline_1m",...],"id":1}.
+     */
+    private void onRequest(Client client, String request) {
+        int id = request.indexOf("\"id\":");
+        String idValue = id < 0 ? "null" : request.substring(id + 5).replaceAll("[^0-9].*$", "");
+        if (request.contains("\"SUBSCRIBE\"")) {
+            int from = request.indexOf('[');
+            int to = request.indexOf(']', from);
+            for (String stream : request.substring(from + 1, to).split(",")) {
+                String name = stream.trim().replace("\"", "");
+                int at = name.indexOf('@');
+                if (at > 0) {
+                    client.streams.add(name.substring(0, at).toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        client.sendNow(encodeFrame(OPCODE_TEXT,
+                ("{\"result\":null,\"id\":" + idValue + "}").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Builds the REST kline response from the closed klines replayed so far.
+     */
+    private String klines(Map<String, String> query) {
+        int[] indices = klineFramesBySymbol.get(query.getOrDefault("symbol", "").toUpperCase(Locale.ROOT));
+        long startTime = Long.parseLong(query.getOrDefault("startTime", "0"));
+        int limit = Integer.parseInt(query.getOrDefault("limit", "500"));
+        int replayed = position;
+        StringBuilder body = new StringBuilder("[");
+        int rows = 0;
+        for (int i = 0; indices != null && i < indices.length && rows < limit; i++) {
+            int frame = indices[i];
+            if (frame >= replayed) {
+                break;
+            }
+            if (frameOpenTimes[frame] >= startTime) {
+                if (rows++ > 0) {
+                    body.append(',');
+                }
+                body.append(frameRows[frame]);
+            }
+        }
+        return body.append(']').toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static void respond(OutputStream out, String status, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        out.write(("HTTP/1.1 " + status + "\r\nContent-Type: application/json\r\nContent-Length: " + content.length
+                + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.write(content);
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("Connection closed during request");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    static String acceptKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Encodes an unmasked server frame (FIN set).
+     */
+    private static byte[] encodeFrame(int opcode, byte[] payload) {
+        int header = payload.length < 126 ? 2 : payload.length <= 0xFFFF ? 4 : 10;
+        byte[] frame = new byte[header + payload.length];
+        frame[0] = (byte) (0x80 | opcode);
+        if (header == 2) {
+            frame[1] = (byte) payload.length;
+        } else if (header == 4) {
+            frame[1] = 126;
+            frame[2] = (byte) (payload.length >>> 8);
+            frame[3] = (byte) payload.length;
+        } else {
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                frame[2 + i] = (byte) ((long) payload.length >>> (56 - 8 * i));
+            }
+        }
+        System.arraycopy(payload, 0, frame, header, payload.length);
+        return frame;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return ws://127.0.0.1:port/ws */
+    public URI getWebSocketUri() {
+        return URI.create("ws://" + serverSocket.getInetAddress().getHostAddress() + ":" + getPort() + "/ws");
+    }
+
+    /** @return http://127.0.0.1:port */
+    public URI getRestUri() {
+        return URI.create("http://" + serverSocket.getInetAddress().getHostAddress() + ":" + getPort());
+    }
+
+    public int getFrameCount() {
+        return encodedFrames.length;
+    }
+
+    /** @return Number of frames replayed so far */
+    public int getPosition() {
+        return position;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Client client : clients) {
+            if (client.open && !client.streams.isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Error closing server socket", e);
+        }
+        dropConnections();
+    }
+
+    /**
+     * One WebSocket connection. Frames are written by the replaying thread and by the
+     * connection's reader (replies, pongs), hence the lock.
+     */
+    private static final class Client {
+        private final Socket socket;
+        private final OutputStream out;
+        private final Set<String> streams = ConcurrentHashMap.newKeySet();
+        private volatile boolean open = true;
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+
+        synchronized void send(byte[] frame) {
+            if (!open) {
+                return;
+            }
+            try {
+                out.write(frame);
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        synchronized void sendNow(byte[] frame) {
+            send(frame);
+            flush();
+        }
+
+        synchronized void flush() {
+            if (!open) {
+                return;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Error closing client", e);
+            }
+        }
+    }
+}
@@ -14,17 +14,16 @@ import com.tradingbot.strategy.TradingStrategy;
  * needs to be updated.
  */
 public class AIStrategyFactory extends StrategyFactory {
-    
-    private static final String DEFAULT_MODEL_PATH = "ai_model/trading_model.onnx";
-    
+
+    /**
+     * @param config [0] model path (default {@value #DEFAULT_MODEL_PATH}), [1] inference engine
+     *               (java | onnx, default java)
+     */
     @Override
     public TradingStrategy createStrategy(Wallet wallet, String... config) {
         // Extract model path from config, use default if not provided
-        String modelPath = (config != null && config.length > 0 && !config[0].trim().isEmpty())
-                ? config[0].trim()
-                : DEFAULT_MODEL_PATH;
-        
-        return new AIStrategy(wallet, modelPath);
+        String modelPath = hasValue(config, 0) ? config[0].trim() : DEFAULT_MODEL_PATH;
+        return new AIStrategy(wallet, modelPath, parseEngine(config, 1));
     }
 }
 
@@ -0,0 +1,53 @@
+package com.tradingbot.factory;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.strategy.CascadingStrategy;
+import com.tradingbot.strategy.TradingStrategy;
+
+/**
+ * Represents the 'Concrete Creator' in the Factory Method Pattern.
+ *
+ * Pattern Name: Factory Method Pattern
+ * Role: Concrete Creator - implements the factory method to create CascadingStrategy instances
+ * Reason: Encapsulates parsing of the cascade's zone and sampling parameters, so the runner
+ * configures it like any other strategy.
+ */
+public class CascadingStrategyFactory extends StrategyFactory {
+
+    /**
+     * @param config [0] model path, [1] inference engine (java | onnx), [2] oversold, [3] overbought,
+     *               [4] neutral band, [5] regime threshold, [6] shadow sampling interval; missing or
+     *               blank entries fall back to the defaults
+     */
+    @Override
+    public TradingStrategy createStrategy(Wallet wallet, String... config) {
+        String modelPath = hasValue(config, 0) ? config[0].trim() : DEFAULT_MODEL_PATH;
+
+        double oversold = CascadingStrategy.DEFAULT_OVERSOLD;
+        double overbought = CascadingStrategy.DEFAULT_OVERBOUGHT;
+        double neutralBand = CascadingStrategy.DEFAULT_NEUTRAL_BAND;
+        double regimeThreshold = CascadingStrategy.DEFAULT_REGIME_THRESHOLD;
+        int shadowEvery = CascadingStrategy.DEFAULT_SHADOW_EVERY;
+        try {
+            if (hasValue(config, 2)) {
+                oversold = Double.parseDouble(config[2].trim());
+            }
+            if (hasValue(config, 3)) {
+                overbought = Double.parseDouble(config[3].trim());
+            }
+            if (hasValue(config, 4)) {
+                neutralBand = Double.parseDouble(config[4].trim());
+            }
+            if (hasValue(config, 5)) {
+                regimeThreshold = Double.parseDouble(config[5].trim());
+            }
+            if (hasValue(config, 6)) {
+                shadowEvery = Integer.parseInt(config[6].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cascade parameters: " + String.join(",", config), e);
+        }
+        return new CascadingStrategy(wallet, modelPath, parseEngine(config, 1), oversold, overbought, neutralBand,
+                regimeThreshold, shadowEvery);
+    }
+}
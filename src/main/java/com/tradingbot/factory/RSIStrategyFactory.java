@@ -14,10 +14,30 @@ import com.tradingbot.strategy.TradingStrategy;
  */
 public class RSIStrategyFactory extends StrategyFactory {
     
+    /**
+     * Creates an RSIStrategy. Optional positional config: [period, oversold, overbought];
+     * missing or blank entries fall back to the strategy defaults (14, 30, 70).
+     */
     @Override
     public TradingStrategy createStrategy(Wallet wallet, String... config) {
-        // RSIStrategy doesn't need additional configuration
-        return new RSIStrategy(wallet);
+        int period = RSIStrategy.DEFAULT_RSI_PERIOD;
+        double oversold = RSIStrategy.DEFAULT_RSI_OVERSOLD;
+        double overbought = RSIStrategy.DEFAULT_RSI_OVERBOUGHT;
+
+        try {
+            if (hasValue(config, 0)) {
+                period = Integer.parseInt(config[0].trim());
+            }
+            if (hasValue(config, 1)) {
+                oversold = Double.parseDouble(config[1].trim());
+            }
+            if (hasValue(config, 2)) {
+                overbought = Double.parseDouble(config[2].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid RSI parameters: " + String.join(",", config), e);
+        }
+        return new RSIStrategy(wallet, period, oversold, overbought);
     }
 }
 
@@ -4,6 +4,7 @@ import com.tradingbot.domain.Wallet;
 import com.tradingbot.strategy.TradingStrategy;
 import com.tradingbot.strategy.RSIStrategy;
 import com.tradingbot.strategy.AIStrategy;
+import java.util.Locale;
 
 /**
  * Represents the 'Creator' in the Factory Method Pattern.
@@ -15,7 +16,10 @@ import com.tradingbot.strategy.AIStrategy;
  * extension (new strategies), closed for modification (main code doesn't change).
  */
 public abstract class StrategyFactory {
-    
+
+    /** Model used by the model strategies when no path is configured. */
+    protected static final String DEFAULT_MODEL_PATH = "ai_model/trading_model.onnx";
+
     /**
      * Factory Method - creates a TradingStrategy instance.
      * This is the abstract factory method that subclasses must implement.
@@ -43,7 +47,7 @@ public abstract class StrategyFactory {
      * Static factory method to get the appropriate factory based on strategy type.
      * This is a convenience method for the client.
      * 
-     * @param strategyType The type of strategy ("RSI" or "AI")
+     * @param strategyType The type of strategy ("RSI", "AI" or "CASCADE")
      * @return The appropriate StrategyFactory instance
      */
     public static StrategyFactory getFactory(String strategyType) {
@@ -51,17 +55,46 @@ public abstract class StrategyFactory {
             throw new IllegalArgumentException("Strategy type cannot be null");
         }
         
-        switch (strategyType.toUpperCase()) {
+        switch (strategyType.toUpperCase(Locale.ROOT)) {
             case "RSI":
             case "1":
                 return new RSIStrategyFactory();
             case "AI":
             case "2":
                 return new AIStrategyFactory();
+            case "CASCADE":
+                return new CascadingStrategyFactory();
             default:
                 throw new IllegalArgumentException("Unknown strategy type: " + strategyType);
         }
     }
+
+    /**
+     * @param config Configuration parameters, may be null
+     * @param index Position of the parameter
+     * @return true if the parameter is present and not blank
+     */
+    protected static boolean hasValue(String[] config, int index) {
+        return config != null && config.length > index && config[index] != null && !config[index].trim().isEmpty();
+    }
+
+    /**
+     * Parses an inference engine parameter.
+     * @param config Configuration parameters, may be null
+     * @param index Position of the engine (java | onnx)
+     * @return The engine, JAVA if the parameter is missing or blank
+     */
+    protected static AIStrategy.InferenceEngine parseEngine(String[] config, int index) {
+        if (!hasValue(config, index)) {
+            return AIStrategy.InferenceEngine.JAVA;
+        }
+        try {
+            return AIStrategy.InferenceEngine.valueOf(config[index].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown inference engine: " + config[index]
+                    + " (expected java or onnx)");
+        }
+    }
 }
 
 
@@ -0,0 +1,430 @@
+package com.tradingbot.feed;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publishes candles of local feeds to bots in other JVMs over TCP, and optionally UDP, as
+ * {@link CandleMessage}s.
+ *
+ * Publishers encode each message once into a shared ring in a direct buffer. A single selector
+ * thread sends it from there to every client without copying: each client only keeps its byte
+ * position in the ring, and a write hands the socket read-only views of the ring that cover
+ * everything the client has not received yet. A client that has fallen behind therefore catches up
+ * with one batched write, and a slow client does not slow down the publishers or the other clients.
+ * A client that falls a full ring behind is disconnected, since the messages it still needs are
+ * being overwritten. The slot a publisher is encoding into is not committed yet, so a client may
+ * lag by at most capacity - 2 messages; a ring of capacity n keeps n - 2 messages for slow clients.
+ *
+ * New clients receive the symbol definitions first, then live messages; there is no replay.
+ * UDP subscribers get the same messages packed into datagrams, best effort.
+ */
+public class CandleFeedServer implements Closeable {
+    private static final Logger logger = Logger.getLogger(CandleFeedServer.class.getName());
+    private static final int MESSAGES_PER_DATAGRAM = 16;
+
+    private final InetSocketAddress bindAddress;
+    private final ByteBuffer ring;
+    private final long ringBytes;
+    private final CandleMessage encoder = new CandleMessage(); // Guarded by this
+    private final Map<String, Integer> symbolIds = new LinkedHashMap<>(); // Guarded by this
+    private volatile long publishedBytes;
+
+    private final List<InetSocketAddress> udpSubscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private DatagramChannel datagramChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    // Selector thread state
+    private final List<Client> clients = new ArrayList<>();
+    private long udpPosition;
+    private final ByteBuffer[] udpViews;
+    private final ByteBuffer datagram = ByteBuffer.allocateDirect(MESSAGES_PER_DATAGRAM * CandleMessage.LENGTH);
+    private volatile int clientCount;
+    private volatile long slowClientDisconnects;
+    private volatile long droppedDatagramMessages;
+
+    /**
+     * @param bindAddress TCP address to listen on, e.g. 127.0.0.1:0 for any free loopback port
+     * @param ringCapacity Ring size in messages, rounded up to a power of two; clients may fall up to
+     *     capacity - 2 messages behind
+     */
+    public CandleFeedServer(InetSocketAddress bindAddress, int ringCapacity) {
+        if (ringCapacity < 4 || ringCapacity > (1 << 24)) {
+            throw new IllegalArgumentException("Ring capacity must be in 4..2^24: " + ringCapacity);
+        }
+        int capacity = Integer.highestOneBit(ringCapacity - 1) << 1;
+        this.bindAddress = bindAddress;
+        this.ring = ByteBuffer.allocateDirect(capacity * CandleMessage.LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        this.ringBytes = ring.capacity();
+        this.udpViews = new ByteBuffer[] {ring.asReadOnlyBuffer(), ring.asReadOnlyBuffer()};
+    }
+
+    /**
+     * Binds the socket and starts the selector thread.
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(bindAddress);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        datagramChannel = DatagramChannel.open();
+        datagramChannel.configureBlocking(false);
+        udpPosition = publishedBytes;
+        running = true;
+        selectorThread = new Thread(this::runSelector, "CandleFeedServer");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        logger.info("Candle feed server listening on " + serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Creates an observer that publishes a local feed's candles under the given symbol.
+     * @param symbol The symbol name
+     * @return An observer to register on the feed
+     */
+    public Observer publisher(String symbol) {
+        int symbolId = defineSymbol(symbol);
+        return candle -> publish(symbolId, candle);
+    }
+
+    /**
+     * Assigns an id to a symbol, announcing it to connected clients.
+     * @param symbol The symbol name
+     * @return The symbol id
+     */
+    public synchronized int defineSymbol(String symbol) {
+        Integer existing = symbolIds.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int symbolId = symbolIds.size();
+        symbolIds.put(symbol, symbolId);
+        encoder.wrap(ring, nextSlot()).encodeSymbol(symbolId, sequence(), symbol);
+        commit();
+        return symbolId;
+    }
+
+    /**
+     * Publishes a candle. Safe to call from several feed threads.
+     * @param symbolId Id from {@link #defineSymbol(String)}
+     * @param candle The candle
+     */
+    public synchronized void publish(int symbolId, MarketCandle candle) {
+        encoder.wrap(ring, nextSlot()).encodeCandle(symbolId, sequence(), candle);
+        commit();
+    }
+
+    private int nextSlot() {
+        return (int) (publishedBytes & (ringBytes - 1));
+    }
+
+    private long sequence() {
+        return publishedBytes / CandleMessage.LENGTH;
+    }
+
+    private void commit() {
+        publishedBytes += CandleMessage.LENGTH;
+        if (running && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Adds a UDP destination that receives all messages published from now on. The symbols defined
+     * so far are announced again so the new subscriber can resolve their ids.
+     * @param target The destination
+     */
+    public synchronized void addUdpSubscriber(InetSocketAddress target) {
+        udpSubscribers.add(target);
+        for (Map.Entry<String, Integer> entry : symbolIds.entrySet()) {
+            encoder.wrap(ring, nextSlot()).encodeSymbol(entry.getValue(), sequence(), entry.getKey());
+            commit();
+        }
+    }
+
+    private void runSelector() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        drainInput((Client) key.attachment());
+                    }
+                }
+                long published = publishedBytes;
+                for (int i = clients.size() - 1; i >= 0; i--) {
+                    flush(clients.get(i), published);
+                }
+                sendDatagrams(published);
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                logger.log(Level.WARNING, "Candle feed server stopped", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Client client = newClient(channel);
+        client.key = channel.register(selector, SelectionKey.OP_READ, client);
+        clients.add(client);
+        clientCount = clients.size();
+    }
+
+    /**
+     * Creates the state of a new client: it first receives every symbol defined so far, then live
+     * messages from the current position. Both are taken under the publish lock so none is missed.
+     */
+    private synchronized Client newClient(SocketChannel channel) {
+        ByteBuffer preamble = ByteBuffer.allocate(symbolIds.size() * CandleMessage.LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        CandleMessage message = new CandleMessage();
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : symbolIds.entrySet()) {
+            // Sequence -1: not part of the live sequence
+            message.wrap(preamble, index++ * CandleMessage.LENGTH).encodeSymbol(entry.getValue(), -1, entry.getKey());
+        }
+        return new Client(channel, preamble, publishedBytes, ring);
+    }
+
+    private void drainInput(Client client) {
+        try {
+            client.scratch.clear();
+            if (client.channel.read(client.scratch) < 0) {
+                disconnect(client);
+            }
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    private void flush(Client client, long published) {
+        if (!client.channel.isOpen()) {
+            return;
+        }
+        try {
+            if (client.preamble != null) {
+                client.channel.write(client.preamble);
+                if (client.preamble.hasRemaining()) {
+                    client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                client.preamble = null;
+            }
+            long start = client.position;
+            if (start == published) {
+                client.key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+            if (isLapped(start, published, ringBytes)) {
+                slowClientDisconnects++;
+                logger.warning("Disconnecting slow feed client " + client.channel.getRemoteAddress());
+                disconnect(client);
+                return;
+            }
+            int views = ringViews(start, published, client.views);
+            long written = client.channel.write(client.views, 0, views);
+            client.position = start + written;
+            if (isLapped(start, publishedBytes, ringBytes)) {
+                // Publishers lapped the ring while the views were being written: the bytes sent may be torn
+                slowClientDisconnects++;
+                disconnect(client);
+                return;
+            }
+            client.key.interestOps(client.position == published
+                    ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    /**
+     * Whether bytes from position on may already be overwritten. The publisher encodes the message
+     * at published before committing it, into the slot that held published - ring; the message after
+     * it may start as soon as the caller looks away, so a lag of ring - one message counts as lapped.
+     * @param position First stream byte still needed
+     * @param published Committed stream bytes
+     * @param ringBytes Ring size in bytes
+     * @return true if the bytes from position on can no longer be trusted
+     */
+    static boolean isLapped(long position, long published, long ringBytes) {
+        return published + CandleMessage.LENGTH - position >= ringBytes;
+    }
+
+    /**
+     * Points up to two read-only views of the ring at [from, to), split where the ring wraps.
+     * @return The number of views used
+     */
+    private int ringViews(long from, long to, ByteBuffer[] views) {
+        int begin = (int) (from & (ringBytes - 1));
+        long length = to - from;
+        int first = (int) Math.min(length, ringBytes - begin);
+        views[0].clear().position(begin).limit(begin + first);
+        if (first == length) {
+            return 1;
+        }
+        views[1].clear().limit((int) (length - first));
+        return 2;
+    }
+
+    /**
+     * Sends the messages published since the last call to every UDP subscriber. Each datagram is
+     * copied out of the ring and checked for a lap before it is sent, so a subscriber never receives
+     * torn bytes; messages that were overwritten are counted as dropped instead.
+     */
+    private void sendDatagrams(long published) throws IOException {
+        if (udpSubscribers.isEmpty()) {
+            udpPosition = published;
+            return;
+        }
+        while (udpPosition < published) {
+            if (isLapped(udpPosition, publishedBytes, ringBytes)) {
+                // Resume at the oldest message that cannot be overwritten before it is copied
+                long resume = Math.min(published, publishedBytes - ringBytes + 2L * CandleMessage.LENGTH);
+                droppedDatagramMessages += (resume - udpPosition) / CandleMessage.LENGTH;
+                udpPosition = resume;
+                continue;
+            }
+            long end = Math.min(published, udpPosition + (long) MESSAGES_PER_DATAGRAM * CandleMessage.LENGTH);
+            // A datagram must not straddle the ring's wrap point
+            long wrap = (udpPosition | (ringBytes - 1)) + 1;
+            end = Math.min(end, wrap);
+            ringViews(udpPosition, end, udpViews);
+            datagram.clear();
+            datagram.put(udpViews[0]).flip();
+            if (isLapped(udpPosition, publishedBytes, ringBytes)) {
+                continue; // Overwritten while copying: dropped above
+            }
+            for (InetSocketAddress target : udpSubscribers) {
+                datagram.rewind();
+                if (datagramChannel.send(datagram, target) == 0) {
+                    droppedDatagramMessages += (end - udpPosition) / CandleMessage.LENGTH;
+                }
+            }
+            udpPosition = end;
+        }
+    }
+
+    private void disconnect(Client client) {
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+        clients.remove(client);
+        clientCount = clients.size();
+    }
+
+    /**
+     * @return The bound TCP port
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    /**
+     * @return Number of messages (candles and symbol definitions) published so far
+     */
+    public long getPublishedCount() {
+        return publishedBytes / CandleMessage.LENGTH;
+    }
+
+    public long getSlowClientDisconnects() {
+        return slowClientDisconnects;
+    }
+
+    public long getDroppedDatagramMessages() {
+        return droppedDatagramMessages;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        selector.wakeup();
+        try {
+            selectorThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Client client : new ArrayList<>(clients)) {
+            disconnect(client);
+        }
+        try {
+            serverChannel.close();
+            datagramChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing candle feed server", e);
+        }
+    }
+
+    private static final class Client {
+        private final SocketChannel channel;
+        private final ByteBuffer[] views;
+        private final ByteBuffer scratch = ByteBuffer.allocate(256);
+        private ByteBuffer preamble; // Symbol definitions still to send, null once sent
+        private SelectionKey key;
+        private long position; // Next ring byte to send
+
+        private Client(SocketChannel channel, ByteBuffer preamble, long position, ByteBuffer ring) {
+            this.channel = channel;
+            this.preamble = preamble;
+            this.position = position;
+            this.views = new ByteBuffer[] {ring.asReadOnlyBuffer(), ring.asReadOnlyBuffer()};
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.tradingbot.feed;
+
+import com.tradingbot.domain.MarketCandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Flyweight over one fixed-layout 64-byte feed message in a little-endian {@link ByteBuffer}.
+ *
+ * The flyweight holds no data of its own: {@link #wrap(ByteBuffer, int)} points it at a message in
+ * a (typically direct) buffer and the accessors read and write fields in place at fixed offsets,
+ * so messages are encoded straight into send buffers and decoded straight out of receive buffers.
+ *
+ * <pre>
+ * Candle (template 1)                 Symbol definition (template 2)
+ *  0 short  template                   0 short  template
+ *  2 short  version                    2 short  version
+ *  4 int    symbol id                  4 int    symbol id
+ *  8 long   sequence                   8 long   sequence
+ * 16 long   timestamp (epoch ms, UTC) 16 byte   name length
+ * 24 double open                      17 byte[] name (ASCII, up to 47)
+ * 32 double high
+ * 40 double low
+ * 48 double close
+ * 56 double volume
+ * </pre>
+ * Sequences are assigned by the server across all symbols, so a receiver can detect lost messages.
+ */
+public final class CandleMessage {
+    public static final int LENGTH = 64;
+    public static final short TEMPLATE_CANDLE = 1;
+    public static final short TEMPLATE_SYMBOL = 2;
+    public static final short VERSION = 1;
+    public static final int MAX_SYMBOL_LENGTH = LENGTH - 17;
+
+    private static final int TEMPLATE_OFFSET = 0;
+    private static final int VERSION_OFFSET = 2;
+    private static final int SYMBOL_ID_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int TIMESTAMP_OFFSET = 16;
+    private static final int OPEN_OFFSET = 24;
+    private static final int HIGH_OFFSET = 32;
+    private static final int LOW_OFFSET = 40;
+    private static final int CLOSE_OFFSET = 48;
+    private static final int VOLUME_OFFSET = 56;
+    private static final int NAME_LENGTH_OFFSET = 16;
+    private static final int NAME_OFFSET = 17;
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Points this flyweight at a message.
+     * @param buffer A little-endian buffer
+     * @param offset Offset of the message in the buffer
+     * @return this
+     */
+    public CandleMessage wrap(ByteBuffer buffer, int offset) {
+        if (buffer.order() != ByteOrder.LITTLE_ENDIAN) {
+            throw new IllegalArgumentException("Feed buffers must be little-endian");
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Writes a candle message.
+     * @param symbolId Symbol id announced by a symbol definition
+     * @param sequence Message sequence number
+     * @param candle The candle
+     */
+    public void encodeCandle(int symbolId, long sequence, MarketCandle candle) {
+        encodeCandle(symbolId, sequence, candle.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(), candle.getVolume());
+    }
+
+    /**
+     * Writes a candle message from primitive fields.
+     */
+    public void encodeCandle(int symbolId, long sequence, long timestampMillis, double open, double high, double low,
+                             double close, double volume) {
+        writeHeader(TEMPLATE_CANDLE, symbolId, sequence);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestampMillis);
+        buffer.putDouble(offset + OPEN_OFFSET, open);
+        buffer.putDouble(offset + HIGH_OFFSET, high);
+        buffer.putDouble(offset + LOW_OFFSET, low);
+        buffer.putDouble(offset + CLOSE_OFFSET, close);
+        buffer.putDouble(offset + VOLUME_OFFSET, volume);
+    }
+
+    /**
+     * Writes a symbol definition message binding a symbol id to its name.
+     * @param symbolId The id
+     * @param sequence Message sequence number
+     * @param symbol The name, ASCII, at most {@value #MAX_SYMBOL_LENGTH} characters
+     */
+    public void encodeSymbol(int symbolId, long sequence, String symbol) {
+        byte[] name = symbol.getBytes(StandardCharsets.US_ASCII);
+        if (name.length > MAX_SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("Symbol too long: " + symbol);
+        }
+        writeHeader(TEMPLATE_SYMBOL, symbolId, sequence);
+        buffer.put(offset + NAME_LENGTH_OFFSET, (byte) name.length);
+        buffer.put(offset + NAME_OFFSET, name);
+        for (int i = NAME_OFFSET + name.length; i < LENGTH; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+    }
+
+    private void writeHeader(short template, int symbolId, long sequence) {
+        buffer.putShort(offset + TEMPLATE_OFFSET, template);
+        buffer.putShort(offset + VERSION_OFFSET, VERSION);
+        buffer.putInt(offset + SYMBOL_ID_OFFSET, symbolId);
+        buffer.putLong(offset + SEQUENCE_OFFSET, sequence);
+    }
+
+    public short getTemplate() {
+        return buffer.getShort(offset + TEMPLATE_OFFSET);
+    }
+
+    public short getVersion() {
+        return buffer.getShort(offset + VERSION_OFFSET);
+    }
+
+    public int getSymbolId() {
+        return buffer.getInt(offset + SYMBOL_ID_OFFSET);
+    }
+
+    public long getSequence() {
+        return buffer.getLong(offset + SEQUENCE_OFFSET);
+    }
+
+    public long getTimestampMillis() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public double getOpen() {
+        return buffer.getDouble(offset + OPEN_OFFSET);
+    }
+
+    public double getHigh() {
+        return buffer.getDouble(offset + HIGH_OFFSET);
+    }
+
+    public double getLow() {
+        return buffer.getDouble(offset + LOW_OFFSET);
+    }
+
+    public double getClose() {
+        return buffer.getDouble(offset + CLOSE_OFFSET);
+    }
+
+    public double getVolume() {
+        return buffer.getDouble(offset + VOLUME_OFFSET);
+    }
+
+    /**
+     * @return The name of a symbol definition message
+     */
+    public String getSymbolName() {
+        int length = buffer.get(offset + NAME_LENGTH_OFFSET);
+        byte[] name = new byte[length];
+        buffer.get(offset + NAME_OFFSET, name);
+        return new String(name, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return The candle of a candle message as a domain object
+     */
+    public MarketCandle toCandle() {
+        long millis = getTimestampMillis();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return new MarketCandle(getOpen(), getHigh(), getLow(), getClose(), getVolume(), timestamp);
+    }
+}
@@ -0,0 +1,211 @@
+package com.tradingbot.feed;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.observer.Subject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in for a feed published by a {@link CandleFeedServer} in another JVM.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Subject - bots register on it exactly as on a local MarketDataSubject.
+ * Reason: Lets bots be sharded across processes and hosts without changing any strategy code;
+ * only the runner decides whether a feed is generated locally or received over the network.
+ *
+ * A reader thread receives into a direct buffer and decodes messages in place with a
+ * {@link CandleMessage} flyweight; each read usually yields a batch of messages. Candles of the
+ * configured symbol (or all symbols) are published to observers on that thread. Sequence numbers
+ * are checked, so lost UDP datagrams or skipped messages show up in {@link #getGapCount()}.
+ */
+public class RemoteFeedSubject implements Subject, Runnable {
+    private static final Logger logger = Logger.getLogger(RemoteFeedSubject.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InetSocketAddress address;
+    private final boolean udp;
+    private final String symbol;
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+    private final Map<Integer, String> symbolNames = new HashMap<>(); // Reader thread only
+    private ByteChannel channel;
+    private Thread readerThread;
+    private volatile boolean running;
+    private volatile long candleCount;
+    private volatile long gapCount;
+    private long expectedSequence = -1;
+
+    private RemoteFeedSubject(InetSocketAddress address, boolean udp, String symbol) {
+        this.address = address;
+        this.udp = udp;
+        this.symbol = symbol;
+    }
+
+    /**
+     * @param server Address of the feed server
+     * @param symbol Symbol to receive, or null for all
+     * @return A feed that connects over TCP when started
+     */
+    public static RemoteFeedSubject tcp(InetSocketAddress server, String symbol) {
+        return new RemoteFeedSubject(server, false, symbol);
+    }
+
+    /**
+     * @param bindAddress Local address the server sends datagrams to
+     * @param symbol Symbol to receive, or null for all
+     * @return A feed that listens for UDP datagrams when started
+     */
+    public static RemoteFeedSubject udp(InetSocketAddress bindAddress, String symbol) {
+        return new RemoteFeedSubject(bindAddress, true, symbol);
+    }
+
+    @Override
+    public void registerObserver(Observer observer) {
+        if (observer != null) {
+            observers.addIfAbsent(observer);
+        }
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void notifyObservers(MarketCandle candle) {
+        for (Observer observer : observers) {
+            observer.update(candle);
+        }
+        candleCount++;
+    }
+
+    /**
+     * Connects (TCP) or binds (UDP) and starts the reader thread.
+     * @throws IOException if the connection cannot be established
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        if (udp) {
+            DatagramChannel datagramChannel = DatagramChannel.open();
+            datagramChannel.bind(address);
+            channel = datagramChannel;
+        } else {
+            channel = SocketChannel.open(address);
+        }
+        running = true;
+        readerThread = new Thread(this, "RemoteFeed-" + (symbol == null ? "all" : symbol));
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Closes the connection and waits for the reader thread to finish.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        try {
+            channel.close();
+            readerThread.join(2000);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Error closing remote feed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        CandleMessage message = new CandleMessage();
+        try {
+            while (running) {
+                if (udp) {
+                    buffer.clear();
+                    ((DatagramChannel) channel).receive(buffer);
+                } else if (channel.read(buffer) < 0) {
+                    break;
+                }
+                buffer.flip();
+                int offset = 0;
+                while (buffer.limit() - offset >= CandleMessage.LENGTH) {
+                    dispatch(message.wrap(buffer, offset));
+                    offset += CandleMessage.LENGTH;
+                }
+                // Keep a partial TCP message for the next read
+                buffer.position(offset);
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            if (running) {
+                logger.log(Level.WARNING, "Remote feed " + address + " failed", e);
+            }
+        }
+        if (running) {
+            logger.warning("Remote feed " + address + " closed by server");
+        }
+    }
+
+    private void dispatch(CandleMessage message) {
+        long sequence = message.getSequence();
+        if (sequence >= 0) {
+            if (expectedSequence >= 0 && sequence > expectedSequence) {
+                gapCount += sequence - expectedSequence;
+            }
+            expectedSequence = sequence + 1;
+        }
+        if (message.getTemplate() == CandleMessage.TEMPLATE_SYMBOL) {
+            symbolNames.put(message.getSymbolId(), message.getSymbolName());
+        } else if (message.getTemplate() == CandleMessage.TEMPLATE_CANDLE) {
+            if (symbol == null || symbol.equals(symbolNames.get(message.getSymbolId()))) {
+                notifyObservers(message.toCandle());
+            }
+        }
+    }
+
+    public int getObserverCount() {
+        return observers.size();
+    }
+
+    /**
+     * @return The symbol received, or null for all
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the number of candles published so far. Lock-free, safe to call from any thread.
+     * @return The count of published candles
+     */
+    public long getCandleCount() {
+        return candleCount;
+    }
+
+    /**
+     * @return Number of messages missing from the received sequence
+     */
+    public long getGapCount() {
+        return gapCount;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,403 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.matching.OrderStatus;
+import com.tradingbot.risk.OrderRateWindow;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous order entry: strategies submit orders and get a {@link CompletableFuture} of the
+ * final {@link OrderReport}, plus optional per-order callbacks for the acknowledgement and fills.
+ *
+ * Pattern Name: Bridge Pattern
+ * Role: Abstraction - owns order state and delegates the wire to a {@link Venue}.
+ * Reason: Lets strategies trade against a simulated venue or a real exchange through one API that
+ * never blocks on a round-trip.
+ *
+ * Orders in flight live in a pre-allocated table indexed by client order id: ids are sequential,
+ * so id & (capacity - 1) is a slot, and a report is matched to its order with one array read. A
+ * slot still in use when its id comes round again means the table is full, and the order is refused
+ * rather than waiting. Venue reports are queued lock-free from the venue's threads and applied by
+ * {@link #poll()} on the owning thread: fills settle on the wallet there (fees folded into the
+ * price, as in the matching engine), callbacks run there and futures complete there, so wallets
+ * are only touched by the thread that trades them. Orders not completed within the timeout are
+ * cancelled at the venue and completed as {@link OrderOutcome#TIMED_OUT}; reports arriving after
+ * that are ignored and counted. The report queue never blocks the venue: if more reports arrive
+ * between two polls than it holds, excess acknowledgements are dropped and counted (a fill
+ * acknowledges the order too), while fills and rejects spill into an overflow queue, so a fill the
+ * venue executed always reaches the wallet.
+ *
+ * The unfilled quantity of orders in flight is tracked per side, so pre-trade risk checks can count
+ * exposure that has not reached the wallet yet.
+ *
+ * Not thread-safe: submit and poll from the one thread that owns the traded wallets (e.g. the
+ * feed or worker thread of a bot). Only the venue callbacks may come from other threads.
+ */
+public class OrderGateway {
+    private static final Logger logger = Logger.getLogger(OrderGateway.class.getName());
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double QUANTITY_EPSILON = 1e-12;
+    private static final Signal[] SIDES = {Signal.BUY, Signal.SELL};
+    private static final byte BUY = 0;
+    private static final byte SELL = 1;
+
+    private final Venue venue;
+    private final LongSupplier nanoClock;
+    private final long timeoutNanos;
+    private final OrderRateWindow orderRate; // null = unlimited
+    private final ReportRing inbox;
+    private final VenueListener venueListener = new VenueListener() {
+        @Override
+        public void onAck(long clientOrderId) {
+            inbox.offer(ReportRing.ACK, clientOrderId, 0, 0, 0);
+        }
+
+        @Override
+        public void onFill(long clientOrderId, double price, double quantity, double fee) {
+            inbox.offer(ReportRing.FILL, clientOrderId, price, quantity, fee);
+        }
+
+        @Override
+        public void onReject(long clientOrderId) {
+            inbox.offer(ReportRing.REJECT, clientOrderId, 0, 0, 0);
+        }
+    };
+
+    // In-flight order table (structure of arrays), indexed by clientOrderId & mask; id 0 = free
+    private final int mask;
+    private final long[] orderIds;
+    private final byte[] sides;
+    private final double[] quantities;
+    private final double[] filled;
+    private final double[] notionals;
+    private final double[] feeTotals;
+    private final long[] submitNanos;
+    private final boolean[] acked;
+    private final Wallet[] wallets;
+    private final OrderListener[] listeners;
+    private final CompletableFuture<OrderReport>[] futures;
+
+    private long nextOrderId = 1;
+    private int inFlight;
+    private double pendingBuyQuantity;
+    private double pendingSellQuantity;
+    private long earliestDeadline = Long.MAX_VALUE;
+
+    private long submittedCount;
+    private long filledCount;
+    private long rejectedCount;
+    private long timedOutCount;
+    private long rateLimitedCount;
+    private long tableFullCount;
+    private long lateReportCount;
+
+    public OrderGateway(Venue venue) {
+        this(venue, DEFAULT_CAPACITY, 0, DEFAULT_TIMEOUT_MILLIS, System::nanoTime);
+    }
+
+    /**
+     * @param venue Where orders are sent
+     * @param capacity Maximum orders in flight (power of two)
+     * @param maxOrdersPerSecond Order rate limit, 0 = unlimited
+     * @param timeoutMillis Time an order may take to complete
+     * @param nanoClock Monotonic clock in nanoseconds for timeouts, latencies and the rate limit
+     */
+    public OrderGateway(Venue venue, int capacity, int maxOrdersPerSecond, long timeoutMillis, LongSupplier nanoClock) {
+        if (venue == null || nanoClock == null) {
+            throw new IllegalArgumentException("Venue and clock must not be null");
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got " + capacity);
+        }
+        if (maxOrdersPerSecond < 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit " + maxOrdersPerSecond + " or timeout " + timeoutMillis);
+        }
+        this.venue = venue;
+        this.nanoClock = nanoClock;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.orderRate = maxOrdersPerSecond > 0 ? new OrderRateWindow(maxOrdersPerSecond, ONE_SECOND_NANOS) : null;
+        // An order produces an ack, fills and possibly a reject: room for a few reports per slot
+        this.inbox = new ReportRing(capacity * 4);
+        this.mask = capacity - 1;
+        this.orderIds = new long[capacity];
+        this.sides = new byte[capacity];
+        this.quantities = new double[capacity];
+        this.filled = new double[capacity];
+        this.notionals = new double[capacity];
+        this.feeTotals = new double[capacity];
+        this.submitNanos = new long[capacity];
+        this.acked = new boolean[capacity];
+        this.wallets = new Wallet[capacity];
+        this.listeners = new OrderListener[capacity];
+        this.futures = newFutureArray(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T>[] newFutureArray(int length) {
+        return (CompletableFuture<T>[]) new CompletableFuture<?>[length];
+    }
+
+    /**
+     * Sends a market order to the venue. Never blocks; an order that cannot be sent completes
+     * immediately as {@link OrderOutcome#RATE_LIMITED} or {@link OrderOutcome#TABLE_FULL}.
+     * @param side BUY or SELL
+     * @param quantity Coin quantity
+     * @param wallet Wallet to settle fills against
+     * @param listener Receives the acknowledgement and fills, may be null
+     * @return The final report, completed by {@link #poll()}
+     */
+    public CompletableFuture<OrderReport> submit(Signal side, double quantity, Wallet wallet, OrderListener listener) {
+        if (side != Signal.BUY && side != Signal.SELL) {
+            throw new IllegalArgumentException("Order side must be BUY or SELL, got " + side);
+        }
+        if (!(quantity > 0) || Double.isInfinite(quantity)) {
+            throw new IllegalArgumentException("Quantity must be positive, got " + quantity);
+        }
+        if (wallet == null) {
+            throw new IllegalArgumentException("Wallet must not be null");
+        }
+        long now = nanoClock.getAsLong();
+        if (orderRate != null && !orderRate.tryAcquire(now)) {
+            rateLimitedCount++;
+            return CompletableFuture.completedFuture(
+                    new OrderReport(0, side, OrderOutcome.RATE_LIMITED, quantity, 0, Double.NaN, 0, 0));
+        }
+        long orderId = nextOrderId;
+        int slot = (int) orderId & mask;
+        if (orderIds[slot] != 0) {
+            tableFullCount++;
+            return CompletableFuture.completedFuture(
+                    new OrderReport(0, side, OrderOutcome.TABLE_FULL, quantity, 0, Double.NaN, 0, 0));
+        }
+        nextOrderId++;
+        CompletableFuture<OrderReport> future = new CompletableFuture<>();
+        orderIds[slot] = orderId;
+        sides[slot] = side == Signal.BUY ? BUY : SELL;
+        quantities[slot] = quantity;
+        filled[slot] = 0;
+        notionals[slot] = 0;
+        feeTotals[slot] = 0;
+        submitNanos[slot] = now;
+        acked[slot] = false;
+        wallets[slot] = wallet;
+        listeners[slot] = listener;
+        futures[slot] = future;
+        inFlight++;
+        if (side == Signal.BUY) {
+            pendingBuyQuantity += quantity;
+        } else {
+            pendingSellQuantity += quantity;
+        }
+        earliestDeadline = Math.min(earliestDeadline, now + timeoutNanos);
+        submittedCount++;
+        try {
+            venue.send(orderId, side, quantity, venueListener);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Venue refused order #" + orderId, e);
+            close(slot, OrderOutcome.REJECTED, now);
+        }
+        return future;
+    }
+
+    /**
+     * Applies the reports received since the last call and expires overdue orders. Never blocks.
+     * @return Number of reports applied
+     */
+    public int poll() {
+        long now = nanoClock.getAsLong();
+        int count = 0;
+        for (int index = inbox.peek(); index >= 0; index = inbox.peek()) {
+            apply(inbox.kind(index), inbox.orderId(index), inbox.price(index), inbox.quantity(index),
+                    inbox.fee(index), now);
+            inbox.advance();
+            count++;
+        }
+        for (ReportRing.Report report = inbox.pollOverflow(); report != null; report = inbox.pollOverflow()) {
+            apply(report.kind, report.orderId, report.price, report.quantity, report.fee, now);
+            count++;
+        }
+        if (inFlight > 0 && now >= earliestDeadline) {
+            expire(now);
+        }
+        return count;
+    }
+
+    private void apply(byte kind, long orderId, double price, double quantity, double fee, long now) {
+        int slot = (int) orderId & mask;
+        if (orderId <= 0 || orderIds[slot] != orderId) {
+            lateReportCount++;
+            return;
+        }
+        OrderListener listener = listeners[slot];
+        if (!acked[slot] && kind != ReportRing.REJECT) {
+            // A fill implies the order was accepted, even if the ack is still on its way
+            acked[slot] = true;
+            if (listener != null) {
+                listener.onAck(orderId, now - submitNanos[slot]);
+            }
+        }
+        if (kind == ReportRing.FILL) {
+            fill(slot, price, Math.min(quantity, quantities[slot] - filled[slot]), fee, now);
+        } else if (kind == ReportRing.REJECT) {
+            close(slot, OrderOutcome.REJECTED, now);
+        }
+    }
+
+    private void fill(int slot, double price, double quantity, double fee, long now) {
+        if (!(quantity > 0)) {
+            return;
+        }
+        boolean buy = sides[slot] == BUY;
+        // Fees are folded into the settlement price, as in the matching engine
+        double feePerCoin = fee / quantity;
+        boolean settled = buy
+                ? wallets[slot].buy(price + feePerCoin, quantity)
+                : wallets[slot].sell(price - feePerCoin, quantity);
+        if (!settled) {
+            logger.warning("Order #" + orderIds[slot] + " fill of " + quantity + " cannot be settled on the wallet");
+            venue.cancel(orderIds[slot]);
+            close(slot, OrderOutcome.REJECTED, now);
+            return;
+        }
+        filled[slot] += quantity;
+        reducePending(buy, quantity);
+        notionals[slot] += price * quantity;
+        feeTotals[slot] += fee;
+        OrderListener listener = listeners[slot];
+        if (listener != null) {
+            listener.onFill(orderIds[slot], SIDES[sides[slot]], price, quantity, fee, false);
+        }
+        if (filled[slot] >= quantities[slot] - QUANTITY_EPSILON) {
+            close(slot, OrderOutcome.FILLED, now);
+        }
+    }
+
+    /**
+     * Times out every overdue order and finds the next deadline.
+     */
+    private void expire(long now) {
+        long next = Long.MAX_VALUE;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (orderIds[slot] == 0) {
+                continue;
+            }
+            long deadline = submitNanos[slot] + timeoutNanos;
+            if (now >= deadline) {
+                venue.cancel(orderIds[slot]);
+                close(slot, OrderOutcome.TIMED_OUT, now);
+            } else {
+                next = Math.min(next, deadline);
+            }
+        }
+        earliestDeadline = next;
+    }
+
+    private void close(int slot, OrderOutcome outcome, long now) {
+        long orderId = orderIds[slot];
+        double filledQuantity = filled[slot];
+        OrderReport report = new OrderReport(orderId, SIDES[sides[slot]], outcome, quantities[slot], filledQuantity,
+                filledQuantity > 0 ? notionals[slot] / filledQuantity : Double.NaN, feeTotals[slot],
+                now - submitNanos[slot]);
+        OrderListener listener = listeners[slot];
+        CompletableFuture<OrderReport> future = futures[slot];
+        orderIds[slot] = 0;
+        wallets[slot] = null;
+        listeners[slot] = null;
+        futures[slot] = null;
+        inFlight--;
+        reducePending(sides[slot] == BUY, quantities[slot] - filledQuantity);
+        switch (outcome) {
+            case FILLED -> filledCount++;
+            case TIMED_OUT -> timedOutCount++;
+            default -> rejectedCount++;
+        }
+        if (listener != null) {
+            listener.onOrderClosed(orderId, outcome == OrderOutcome.FILLED ? OrderStatus.FILLED
+                    : outcome == OrderOutcome.TIMED_OUT ? OrderStatus.CANCELLED : OrderStatus.REJECTED, filledQuantity);
+        }
+        future.complete(report);
+    }
+
+    private void reducePending(boolean buy, double quantity) {
+        if (inFlight == 0) {
+            // Nothing in flight: drop rounding residue
+            pendingBuyQuantity = 0;
+            pendingSellQuantity = 0;
+        } else if (buy) {
+            pendingBuyQuantity = Math.max(0, pendingBuyQuantity - quantity);
+        } else {
+            pendingSellQuantity = Math.max(0, pendingSellQuantity - quantity);
+        }
+    }
+
+    public Venue getVenue() {
+        return venue;
+    }
+
+    /** @return Orders sent and not yet completed */
+    public int getInFlightCount() {
+        return inFlight;
+    }
+
+    /** @return Unfilled quantity of BUY orders in flight */
+    public double getPendingBuyQuantity() {
+        return pendingBuyQuantity;
+    }
+
+    /** @return Unfilled quantity of SELL orders in flight */
+    public double getPendingSellQuantity() {
+        return pendingSellQuantity;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /** @return Orders sent to the venue */
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public long getFilledCount() {
+        return filledCount;
+    }
+
+    /** @return Orders refused by the venue or not settled on the wallet */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+
+    public long getTableFullCount() {
+        return tableFullCount;
+    }
+
+    /** @return Reports for orders already completed (e.g. fills after a timeout) */
+    public long getLateReportCount() {
+        return lateReportCount;
+    }
+
+    /** @return Acknowledgements dropped because more reports arrived between two polls than the queue holds */
+    public long getDroppedReportCount() {
+        return inbox.getDroppedCount();
+    }
+
+    /** @return Fills and rejects that did not fit into the report queue and went to its overflow queue */
+    public long getOverflowReportCount() {
+        return inbox.getOverflowCount();
+    }
+}
@@ -0,0 +1,19 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.matching.ExecutionListener;
+
+/**
+ * Receives the execution reports of an order submitted to an {@link OrderGateway}, on the thread
+ * that polls the gateway. Fills and the final status arrive as for the matching engine; the
+ * acknowledgement is specific to a venue round-trip.
+ */
+@FunctionalInterface
+public interface OrderListener extends ExecutionListener {
+    /**
+     * Called once when the venue accepts the order.
+     * @param orderId Id returned on submission
+     * @param latencyNanos Time from submission to the acknowledgement
+     */
+    default void onAck(long orderId, long latencyNanos) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.tradingbot.gateway;
+
+/**
+ * Final state of an order sent through an {@link OrderGateway}.
+ */
+public enum OrderOutcome {
+    FILLED,
+    /** Refused by the venue, or a fill the wallet could not cover; the unfilled part is dropped. */
+    REJECTED,
+    /** Not completed within the gateway timeout; a cancel was sent to the venue. */
+    TIMED_OUT,
+    /** Not sent: the gateway's order rate limit was reached. */
+    RATE_LIMITED,
+    /** Not sent: the in-flight order table is full. */
+    TABLE_FULL;
+
+    /**
+     * @return true if the order reached the venue
+     */
+    public boolean wasSent() {
+        return this != RATE_LIMITED && this != TABLE_FULL;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.domain.Signal;
+
+/**
+ * Final result of an order sent through an {@link OrderGateway}.
+ */
+public final class OrderReport {
+    private final long orderId;
+    private final Signal side;
+    private final OrderOutcome outcome;
+    private final double quantity;
+    private final double filledQuantity;
+    private final double averagePrice;
+    private final double fees;
+    private final long latencyNanos;
+
+    /**
+     * @param orderId Client order id, 0 if the order was never sent
+     * @param side BUY or SELL
+     * @param outcome Final state
+     * @param quantity Requested coin quantity
+     * @param filledQuantity Executed coin quantity
+     * @param averagePrice Volume-weighted execution price before fees, NaN if nothing filled
+     * @param fees Total fees in quote currency
+     * @param latencyNanos Time from submission to the final state
+     */
+    public OrderReport(long orderId, Signal side, OrderOutcome outcome, double quantity, double filledQuantity,
+                       double averagePrice, double fees, long latencyNanos) {
+        this.orderId = orderId;
+        this.side = side;
+        this.outcome = outcome;
+        this.quantity = quantity;
+        this.filledQuantity = filledQuantity;
+        this.averagePrice = averagePrice;
+        this.fees = fees;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public Signal getSide() {
+        return side;
+    }
+
+    public OrderOutcome getOutcome() {
+        return outcome;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    public double getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public double getFees() {
+        return fees;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderReport{id=%d, %s, %s, filled=%.8f/%.8f, avgPrice=%.2f, fees=%.4f, latency=%dus}",
+                orderId, side, outcome, filledQuantity, quantity, averagePrice, fees, latencyNanos / 1000);
+    }
+}
@@ -0,0 +1,153 @@
+package com.tradingbot.gateway;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer / single-consumer queue of venue reports in parallel arrays.
+ *
+ * Venue threads claim a sequence with a CAS, write the fields and publish the entry with a
+ * release store of its sequence; the gateway drains entries in sequence order when polled. Neither
+ * side ever waits: the gateway polls only once per candle, and a venue reporting from inside
+ * send() runs on the polling thread itself, so a full ring cannot block. Instead, an ACK that does
+ * not fit is dropped and counted (the order's first fill implies it), while FILL and REJECT reports
+ * go to an unbounded overflow queue, drained after the ring: the venue has already acted on them.
+ * Once the overflow queue holds a report, later FILL and REJECT reports queue behind it, so each
+ * order's reports stay in order. No allocation per report unless the ring overflows.
+ */
+final class ReportRing {
+    static final byte ACK = 0;
+    static final byte FILL = 1;
+    static final byte REJECT = 2;
+
+    private final int mask;
+    private final AtomicLongArray published; // Holds sequence + 1 once the entry is readable
+    private final byte[] kinds;
+    private final long[] orderIds;
+    private final double[] prices;
+    private final double[] quantities;
+    private final double[] fees;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ConcurrentLinkedQueue<Report> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicLong overflowed = new AtomicLong();
+    private volatile long consumed;
+    private long cursor; // Consumer only
+
+    ReportRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        this.kinds = new byte[capacity];
+        this.orderIds = new long[capacity];
+        this.prices = new double[capacity];
+        this.quantities = new double[capacity];
+        this.fees = new double[capacity];
+    }
+
+    /** A FILL or REJECT report that did not fit into the ring. */
+    static final class Report {
+        final byte kind;
+        final long orderId;
+        final double price;
+        final double quantity;
+        final double fee;
+
+        Report(byte kind, long orderId, double price, double quantity, double fee) {
+            this.kind = kind;
+            this.orderId = orderId;
+            this.price = price;
+            this.quantity = quantity;
+            this.fee = fee;
+        }
+    }
+
+    /**
+     * Queues a report. Never blocks.
+     * @return false if the ring was full and the report, an ACK, was dropped
+     */
+    boolean offer(byte kind, long orderId, double price, double quantity, double fee) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            boolean full = sequence - consumed > mask;
+            if (kind == ACK ? full : full || !overflow.isEmpty()) {
+                if (kind == ACK) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                overflow.add(new Report(kind, orderId, price, quantity, fee));
+                overflowed.incrementAndGet();
+                return true;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        kinds[index] = kind;
+        orderIds[index] = orderId;
+        prices[index] = price;
+        quantities[index] = quantity;
+        fees[index] = fee;
+        published.setRelease(index, sequence + 1);
+        return true;
+    }
+
+    /**
+     * @return ACK reports dropped because the ring was full
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return FILL and REJECT reports queued in the overflow queue
+     */
+    long getOverflowCount() {
+        return overflowed.get();
+    }
+
+    /**
+     * Takes the oldest overflowed report. Drain the ring first.
+     * @return The report, or null if none is waiting
+     */
+    Report pollOverflow() {
+        return overflow.poll();
+    }
+
+    /**
+     * @return Index of the next published entry, or -1 if none is ready
+     */
+    int peek() {
+        int index = (int) cursor & mask;
+        return published.getAcquire(index) == cursor + 1 ? index : -1;
+    }
+
+    /**
+     * Releases the entry returned by {@link #peek()} to producers.
+     */
+    void advance() {
+        consumed = ++cursor;
+    }
+
+    byte kind(int index) {
+        return kinds[index];
+    }
+
+    long orderId(int index) {
+        return orderIds[index];
+    }
+
+    double price(int index) {
+        return prices[index];
+    }
+
+    double quantity(int index) {
+        return quantities[index];
+    }
+
+    double fee(int index) {
+        return fees[index];
+    }
+}
@@ -0,0 +1,123 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.observer.Observer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local venue with network-like latency, for exercising the asynchronous order path without an
+ * exchange.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Observer - registered on a symbol's feed, it tracks the last traded price.
+ * Reason: Orders fill at the market price current when they arrive at the venue, not when they
+ * were sent, so strategies see the same price drift a real round-trip causes.
+ *
+ * Each order is acknowledged after one latency draw and filled in full after a second one, at the
+ * last close plus a taker fee; latencies are uniform in [latency, latency + jitter]. A share of
+ * orders can be rejected instead, and orders are rejected while no price has been seen. Reports are
+ * delivered from the venue's own timer thread.
+ */
+public class SimulatedVenue implements Venue, Observer, AutoCloseable {
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double feeRate;
+    private final SplittableRandom random; // Guarded by itself
+    private final ScheduledExecutorService timer;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet(); // Sent, not filled or cancelled
+    private volatile double lastPrice = Double.NaN;
+    private volatile double rejectRate;
+
+    /**
+     * @param latency One-way delay before each report
+     * @param jitter Maximum extra random delay
+     * @param feeRate Taker fee rate charged on fills (e.g. 0.0005 = 5 bps)
+     * @param seed Seed for latencies and rejections
+     */
+    public SimulatedVenue(Duration latency, Duration jitter, double feeRate, long seed) {
+        if (latency.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("Latency and jitter cannot be negative");
+        }
+        if (feeRate < 0 || feeRate >= 1) {
+            throw new IllegalArgumentException("Fee rate must be in [0, 1), got " + feeRate);
+        }
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.feeRate = feeRate;
+        this.random = new SplittableRandom(seed);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SimulatedVenue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void update(MarketCandle candle) {
+        lastPrice = candle.getClose();
+    }
+
+    @Override
+    public void send(long clientOrderId, Signal side, double quantity, VenueListener listener) {
+        long ackDelay;
+        long fillDelay;
+        boolean reject;
+        synchronized (random) {
+            ackDelay = delay();
+            fillDelay = ackDelay + delay();
+            reject = random.nextDouble() < rejectRate;
+        }
+        if (reject || Double.isNaN(lastPrice)) {
+            timer.schedule(() -> listener.onReject(clientOrderId), ackDelay, TimeUnit.NANOSECONDS);
+            return;
+        }
+        pending.add(clientOrderId);
+        timer.schedule(() -> listener.onAck(clientOrderId), ackDelay, TimeUnit.NANOSECONDS);
+        timer.schedule(() -> {
+            if (!pending.remove(clientOrderId)) {
+                listener.onReject(clientOrderId);
+                return;
+            }
+            double price = lastPrice;
+            listener.onFill(clientOrderId, price, quantity, price * quantity * feeRate);
+        }, fillDelay, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void cancel(long clientOrderId) {
+        pending.remove(clientOrderId);
+    }
+
+    private long delay() {
+        return latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos + 1) : 0);
+    }
+
+    /**
+     * @param rejectRate Share of orders the venue refuses, in [0, 1]
+     */
+    public void setRejectRate(double rejectRate) {
+        if (rejectRate < 0 || rejectRate > 1) {
+            throw new IllegalArgumentException("Reject rate must be in [0, 1], got " + rejectRate);
+        }
+        this.rejectRate = rejectRate;
+    }
+
+    public double getLastPrice() {
+        return lastPrice;
+    }
+
+    /**
+     * Stops the timer thread; reports still pending are dropped.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.domain.Signal;
+
+/**
+ * Connection to a trading venue (an exchange API or a simulation) used by an {@link OrderGateway}.
+ *
+ * Pattern Name: Bridge Pattern
+ * Role: Implementor - the gateway holds order state, timeouts and rate limits; a venue only moves
+ * orders and reports over the wire.
+ * Reason: Strategies and the gateway stay the same whether orders go to a simulated venue in a
+ * backtest or to a real exchange.
+ *
+ * Implementations must not block: {@link #send} queues the order and returns, and reports are
+ * delivered later, from any thread, to the {@link VenueListener}.
+ */
+public interface Venue {
+    /**
+     * Sends a market order.
+     * @param clientOrderId Gateway-assigned id, echoed in every report
+     * @param side BUY or SELL
+     * @param quantity Coin quantity
+     * @param listener Receives the acknowledgement, fills and rejection
+     */
+    void send(long clientOrderId, Signal side, double quantity, VenueListener listener);
+
+    /**
+     * Requests cancellation of an order the gateway gave up on (e.g. after a timeout).
+     * @param clientOrderId Id passed to {@link #send}
+     */
+    default void cancel(long clientOrderId) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.tradingbot.gateway;
+
+/**
+ * Receives reports from a {@link Venue}. Thread-safe: venues call it from their own threads.
+ */
+public interface VenueListener {
+    /**
+     * The venue accepted the order.
+     * @param clientOrderId Id of the order
+     */
+    void onAck(long clientOrderId);
+
+    /**
+     * Part or all of the order executed.
+     * @param clientOrderId Id of the order
+     * @param price Execution price before fees
+     * @param quantity Filled coin quantity
+     * @param fee Fee charged in quote currency
+     */
+    void onFill(long clientOrderId, double price, double quantity, double fee);
+
+    /**
+     * The venue refused the order, or the rest of it.
+     * @param clientOrderId Id of the order
+     */
+    void onReject(long clientOrderId);
+}
@@ -0,0 +1,153 @@
+package com.tradingbot.gui;
+
+import javax.swing.JPanel;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Live candlestick + equity chart with BUY/SELL fill markers.
+ *
+ * Each repaint copies the bounded {@link SeriesBuffer} and decimates it to one min/max column per
+ * pixel, so drawing cost depends on the panel width, not on how many bars have been replayed.
+ * Painting happens only on the EDT; call {@link #repaint()} from the GUI refresh timer.
+ */
+public class ChartPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int MARGIN_LEFT = 70;
+    private static final int MARGIN_RIGHT = 10;
+    private static final int MARGIN_TOP = 20;
+    private static final int MARGIN_BOTTOM = 10;
+    private static final int GAP = 10;
+    private static final double PRICE_AREA_RATIO = 0.7;
+    private static final Color BACKGROUND = new Color(20, 20, 24);
+    private static final Color GRID = new Color(60, 60, 70);
+    private static final Color UP = new Color(38, 166, 91);
+    private static final Color DOWN = new Color(214, 69, 65);
+    private static final Color EQUITY = new Color(90, 160, 230);
+
+    private final SeriesBuffer series;
+    private final SeriesBuffer.View view;
+
+    public ChartPanel(SeriesBuffer series) {
+        this.series = series;
+        this.view = series.newView();
+        setBackground(BACKGROUND);
+        setPreferredSize(new Dimension(600, 300));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        int plotWidth = getWidth() - MARGIN_LEFT - MARGIN_RIGHT;
+        int plotHeight = getHeight() - MARGIN_TOP - MARGIN_BOTTOM - GAP;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+        int priceHeight = (int) (plotHeight * PRICE_AREA_RATIO);
+        int equityTop = MARGIN_TOP + priceHeight + GAP;
+        int equityHeight = plotHeight - priceHeight;
+
+        series.copyTo(view);
+        int columns = view.decimate(plotWidth);
+
+        g2.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        g2.setColor(Color.LIGHT_GRAY);
+        g2.drawString(String.format("%,d bars  (%d per slot)", view.getTotalBars(), view.barsPerSlot),
+                MARGIN_LEFT, MARGIN_TOP - 6);
+        g2.setColor(GRID);
+        g2.drawRect(MARGIN_LEFT, MARGIN_TOP, plotWidth, priceHeight);
+        g2.drawRect(MARGIN_LEFT, equityTop, plotWidth, equityHeight);
+        if (columns == 0) {
+            return;
+        }
+
+        double priceMin = Double.POSITIVE_INFINITY;
+        double priceMax = Double.NEGATIVE_INFINITY;
+        double equityMin = Double.POSITIVE_INFINITY;
+        double equityMax = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < columns; c++) {
+            priceMin = Math.min(priceMin, view.colLow[c]);
+            priceMax = Math.max(priceMax, view.colHigh[c]);
+            equityMin = Math.min(equityMin, view.colEquityMin[c]);
+            equityMax = Math.max(equityMax, view.colEquityMax[c]);
+        }
+        Scale price = new Scale(priceMin, priceMax, MARGIN_TOP, priceHeight);
+        Scale equity = new Scale(equityMin, equityMax, equityTop, equityHeight);
+
+        g2.setColor(Color.LIGHT_GRAY);
+        g2.drawString(String.format("%.2f", priceMax), 2, MARGIN_TOP + 10);
+        g2.drawString(String.format("%.2f", priceMin), 2, MARGIN_TOP + priceHeight);
+        g2.drawString(String.format("%.2f", equityMax), 2, equityTop + 10);
+        g2.drawString(String.format("%.2f", equityMin), 2, equityTop + equityHeight);
+
+        double columnWidth = (double) plotWidth / columns;
+        int bodyWidth = Math.max(1, (int) (columnWidth * 0.7));
+        for (int c = 0; c < columns; c++) {
+            int x = MARGIN_LEFT + (int) (c * columnWidth + columnWidth / 2);
+            boolean up = view.colClose[c] >= view.colOpen[c];
+            g2.setColor(up ? UP : DOWN);
+
+            // Wick: full min/max range of the column
+            g2.drawLine(x, price.y(view.colHigh[c]), x, price.y(view.colLow[c]));
+            if (bodyWidth > 2) {
+                int top = price.y(Math.max(view.colOpen[c], view.colClose[c]));
+                int bottom = price.y(Math.min(view.colOpen[c], view.colClose[c]));
+                g2.fillRect(x - bodyWidth / 2, top, bodyWidth, Math.max(1, bottom - top));
+            }
+
+            // Equity: min/max band per column
+            g2.setColor(EQUITY);
+            g2.drawLine(x, equity.y(view.colEquityMax[c]), x, equity.y(view.colEquityMin[c]));
+
+            if (!Double.isNaN(view.colBuy[c])) {
+                drawMarker(g2, x, price.y(view.colBuy[c]), true);
+            }
+            if (!Double.isNaN(view.colSell[c])) {
+                drawMarker(g2, x, price.y(view.colSell[c]), false);
+            }
+        }
+    }
+
+    private static void drawMarker(Graphics2D g2, int x, int y, boolean buy) {
+        int size = 5;
+        g2.setStroke(new BasicStroke(1f));
+        if (buy) {
+            // Up triangle below the fill price
+            g2.setColor(Color.GREEN);
+            g2.fillPolygon(new int[]{x - size, x + size, x}, new int[]{y + 2 * size, y + 2 * size, y}, 3);
+        } else {
+            // Down triangle above the fill price
+            g2.setColor(Color.RED);
+            g2.fillPolygon(new int[]{x - size, x + size, x}, new int[]{y - 2 * size, y - 2 * size, y}, 3);
+        }
+    }
+
+    /**
+     * Linear mapping from values to pixel rows (top = max).
+     */
+    private static final class Scale {
+        private final double min;
+        private final double range;
+        private final int top;
+        private final int height;
+
+        private Scale(double min, double max, int top, int height) {
+            this.min = min;
+            this.range = max > min ? max - min : 1.0;
+            this.top = top;
+            this.height = height;
+        }
+
+        private int y(double value) {
+            return top + (int) Math.round((1.0 - (value - min) / range) * height);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tradingbot.gui;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.strategy.TradeListener;
+
+/**
+ * Feeds a {@link SeriesBuffer} from the market data thread.
+ *
+ * Registered as a trade listener on the bot's strategy and as an observer on the feed after the
+ * bot, so fills executed while processing a candle are attached to that same candle's bar.
+ */
+public class ChartRecorder implements Observer, TradeListener {
+    private final SeriesBuffer series;
+    private final BotObserver bot;
+    private double pendingBuy = Double.NaN;
+    private double pendingSell = Double.NaN;
+
+    public ChartRecorder(SeriesBuffer series, BotObserver bot) {
+        this.series = series;
+        this.bot = bot;
+    }
+
+    @Override
+    public void onTrade(Signal side, double price, double amount) {
+        if (side == Signal.BUY) {
+            pendingBuy = price;
+        } else if (side == Signal.SELL) {
+            pendingSell = price;
+        }
+    }
+
+    @Override
+    public void update(MarketCandle candle) {
+        series.append(candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(),
+                bot.getSnapshot().getTotalValue(), pendingBuy, pendingSell);
+        pendingBuy = Double.NaN;
+        pendingSell = Double.NaN;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tradingbot.gui;
+
+/**
+ * Bounded, thread-safe ring of log lines between producer threads and the Swing EDT.
+ *
+ * Producers only copy a reference into the ring; when they outpace the GUI, the oldest lines are
+ * overwritten instead of queuing unbounded work on the EDT. The EDT periodically pulls every line
+ * written since its last read in one batch.
+ */
+public class LogRingBuffer {
+    private final String[] lines;
+    private long written; // total lines ever added; guarded by this
+
+    public LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Adds a line, overwriting the oldest one when full. Callable from any thread.
+     * @param line The log line
+     */
+    public synchronized void add(String line) {
+        lines[(int) (written % lines.length)] = line;
+        written++;
+    }
+
+    /**
+     * Total number of lines added so far; used as a read cursor.
+     * @return The write sequence
+     */
+    public synchronized long getSequence() {
+        return written;
+    }
+
+    /**
+     * Copies the lines added after the given cursor, newline-terminated.
+     * @param fromSequence Cursor returned by a previous call (0 initially)
+     * @param out Receives the lines
+     * @return The new cursor; if lines were overwritten before being read, fewer lines are copied
+     *         and {@link #lostSince(long)} reports the gap
+     */
+    public synchronized long drainSince(long fromSequence, StringBuilder out) {
+        long start = Math.max(fromSequence, written - lines.length);
+        for (long seq = start; seq < written; seq++) {
+            out.append(lines[(int) (seq % lines.length)]).append('\n');
+        }
+        return written;
+    }
+
+    /**
+     * Number of lines overwritten before a reader at the given cursor could see them.
+     * @param fromSequence Reader cursor
+     * @return Lost line count (0 if the reader is within the ring)
+     */
+    public synchronized long lostSince(long fromSequence) {
+        return Math.max(0L, (written - lines.length) - fromSequence);
+    }
+
+    public int getCapacity() {
+        return lines.length;
+    }
+}
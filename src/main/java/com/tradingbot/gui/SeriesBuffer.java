@@ -0,0 +1,244 @@
+package com.tradingbot.gui;
+
+import java.util.Arrays;
+
+/**
+ * Bounded price/equity series for the live chart.
+ *
+ * The buffer holds at most {@code capacity} slots. Each slot aggregates the same power-of-two
+ * number of bars (OHLC merged, equity min/max, last BUY/SELL fill price). When all slots are in
+ * use, adjacent pairs are merged and the bars-per-slot doubles, so memory stays constant while the
+ * whole history remains visible at progressively coarser resolution. Appends are amortized O(1).
+ *
+ * Written by the market data thread, read by the EDT through {@link #copyTo(View)}, which copies
+ * at most {@code capacity} slots under the lock; rendering then works on the private copy.
+ */
+public class SeriesBuffer {
+    private final int capacity;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] equityMin;
+    private final double[] equityMax;
+    private final double[] buyPrice;
+    private final double[] sellPrice;
+    private final int[] bars;
+    private int size;
+    private int barsPerSlot = 1;
+    private long totalBars;
+
+    /**
+     * @param capacity Maximum number of slots; should be at least twice the chart width in pixels
+     */
+    public SeriesBuffer(int capacity) {
+        if (capacity < 2 || capacity % 2 != 0) {
+            throw new IllegalArgumentException("Capacity must be an even number >= 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.open = new double[capacity];
+        this.high = new double[capacity];
+        this.low = new double[capacity];
+        this.close = new double[capacity];
+        this.equityMin = new double[capacity];
+        this.equityMax = new double[capacity];
+        this.buyPrice = new double[capacity];
+        this.sellPrice = new double[capacity];
+        this.bars = new int[capacity];
+    }
+
+    /**
+     * Appends one bar.
+     * @param o Open
+     * @param h High
+     * @param l Low
+     * @param c Close
+     * @param equity Portfolio value at the close
+     * @param buy Price of a BUY fill on this bar, or NaN
+     * @param sell Price of a SELL fill on this bar, or NaN
+     */
+    public synchronized void append(double o, double h, double l, double c, double equity, double buy, double sell) {
+        totalBars++;
+        if (size > 0 && bars[size - 1] < barsPerSlot) {
+            int i = size - 1;
+            high[i] = Math.max(high[i], h);
+            low[i] = Math.min(low[i], l);
+            close[i] = c;
+            equityMin[i] = Math.min(equityMin[i], equity);
+            equityMax[i] = Math.max(equityMax[i], equity);
+            if (!Double.isNaN(buy)) {
+                buyPrice[i] = buy;
+            }
+            if (!Double.isNaN(sell)) {
+                sellPrice[i] = sell;
+            }
+            bars[i]++;
+            return;
+        }
+        if (size == capacity) {
+            compact();
+        }
+        int i = size++;
+        open[i] = o;
+        high[i] = h;
+        low[i] = l;
+        close[i] = c;
+        equityMin[i] = equity;
+        equityMax[i] = equity;
+        buyPrice[i] = buy;
+        sellPrice[i] = sell;
+        bars[i] = 1;
+    }
+
+    /**
+     * Merges slot pairs (2k, 2k+1) into slot k, halving resolution.
+     */
+    private void compact() {
+        for (int k = 0; k < capacity / 2; k++) {
+            int a = 2 * k;
+            int b = a + 1;
+            open[k] = open[a];
+            high[k] = Math.max(high[a], high[b]);
+            low[k] = Math.min(low[a], low[b]);
+            close[k] = close[b];
+            equityMin[k] = Math.min(equityMin[a], equityMin[b]);
+            equityMax[k] = Math.max(equityMax[a], equityMax[b]);
+            buyPrice[k] = Double.isNaN(buyPrice[b]) ? buyPrice[a] : buyPrice[b];
+            sellPrice[k] = Double.isNaN(sellPrice[b]) ? sellPrice[a] : sellPrice[b];
+            bars[k] = bars[a] + bars[b];
+        }
+        size = capacity / 2;
+        barsPerSlot *= 2;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        barsPerSlot = 1;
+        totalBars = 0;
+    }
+
+    public synchronized long getTotalBars() {
+        return totalBars;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies the current slots into a reusable view.
+     * @param view Destination, created with {@link #newView()}
+     */
+    public synchronized void copyTo(View view) {
+        System.arraycopy(open, 0, view.open, 0, size);
+        System.arraycopy(high, 0, view.high, 0, size);
+        System.arraycopy(low, 0, view.low, 0, size);
+        System.arraycopy(close, 0, view.close, 0, size);
+        System.arraycopy(equityMin, 0, view.equityMin, 0, size);
+        System.arraycopy(equityMax, 0, view.equityMax, 0, size);
+        System.arraycopy(buyPrice, 0, view.buyPrice, 0, size);
+        System.arraycopy(sellPrice, 0, view.sellPrice, 0, size);
+        view.size = size;
+        view.barsPerSlot = barsPerSlot;
+        view.totalBars = totalBars;
+    }
+
+    public View newView() {
+        return new View(capacity);
+    }
+
+    /**
+     * Reader-side copy of the slots, plus min/max decimation to a pixel width.
+     */
+    public static final class View {
+        final double[] open;
+        final double[] high;
+        final double[] low;
+        final double[] close;
+        final double[] equityMin;
+        final double[] equityMax;
+        final double[] buyPrice;
+        final double[] sellPrice;
+        int size;
+        int barsPerSlot;
+        long totalBars;
+
+        // Per-column output of decimate()
+        int columns;
+        double[] colOpen = new double[0];
+        double[] colHigh = new double[0];
+        double[] colLow = new double[0];
+        double[] colClose = new double[0];
+        double[] colEquityMin = new double[0];
+        double[] colEquityMax = new double[0];
+        double[] colBuy = new double[0];
+        double[] colSell = new double[0];
+
+        private View(int capacity) {
+            open = new double[capacity];
+            high = new double[capacity];
+            low = new double[capacity];
+            close = new double[capacity];
+            equityMin = new double[capacity];
+            equityMax = new double[capacity];
+            buyPrice = new double[capacity];
+            sellPrice = new double[capacity];
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getTotalBars() {
+            return totalBars;
+        }
+
+        /**
+         * Aggregates the slots into at most {@code width} columns, keeping per column the min low,
+         * max high, first open, last close, equity range and the last fill prices. Extremes are never
+         * averaged away, so spikes stay visible however many bars share a pixel.
+         * @param width Available width in pixels
+         * @return Number of columns produced (min(width, slots))
+         */
+        public int decimate(int width) {
+            columns = Math.max(0, Math.min(width, size));
+            if (colHigh.length < columns) {
+                colOpen = new double[columns];
+                colHigh = new double[columns];
+                colLow = new double[columns];
+                colClose = new double[columns];
+                colEquityMin = new double[columns];
+                colEquityMax = new double[columns];
+                colBuy = new double[columns];
+                colSell = new double[columns];
+            }
+            Arrays.fill(colHigh, 0, columns, Double.NEGATIVE_INFINITY);
+            Arrays.fill(colLow, 0, columns, Double.POSITIVE_INFINITY);
+            Arrays.fill(colEquityMax, 0, columns, Double.NEGATIVE_INFINITY);
+            Arrays.fill(colEquityMin, 0, columns, Double.POSITIVE_INFINITY);
+            Arrays.fill(colBuy, 0, columns, Double.NaN);
+            Arrays.fill(colSell, 0, columns, Double.NaN);
+
+            int previous = -1;
+            for (int i = 0; i < size; i++) {
+                int c = (int) ((long) i * columns / size);
+                if (c != previous) {
+                    colOpen[c] = open[i];
+                    previous = c;
+                }
+                colHigh[c] = Math.max(colHigh[c], high[i]);
+                colLow[c] = Math.min(colLow[c], low[i]);
+                colClose[c] = close[i];
+                colEquityMin[c] = Math.min(colEquityMin[c], equityMin[i]);
+                colEquityMax[c] = Math.max(colEquityMax[c], equityMax[i]);
+                if (!Double.isNaN(buyPrice[i])) {
+                    colBuy[c] = buyPrice[i];
+                }
+                if (!Double.isNaN(sellPrice[i])) {
+                    colSell[c] = sellPrice[i];
+                }
+            }
+            return columns;
+        }
+    }
+}
@@ -1,35 +1,47 @@
 package com.tradingbot.gui;
 
 import com.tradingbot.bot.BotObserver;
-import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.bot.BotSnapshot;
 import com.tradingbot.domain.Signal;
 import com.tradingbot.domain.Wallet;
 import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.metrics.StartupClock;
 import com.tradingbot.observer.MarketDataSubject;
+import com.tradingbot.observer.Observer;
 import com.tradingbot.strategy.BaseTradingStrategy;
 import com.tradingbot.strategy.TradingStrategy;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.text.DecimalFormat;
-import java.time.format.DateTimeFormatter;
 
 /**
  * GUI for the AI Trading Bot using Swing (Java's built-in GUI framework).
  * Provides a user-friendly interface to control and monitor the trading bot.
+ *
+ * The GUI never reads live trading state: it renders the immutable BotSnapshot the bot publishes
+ * after each candle, and log lines go through a bounded LogRingBuffer. A single Swing timer
+ * coalesces all updates into at most one repaint per tick, so a feed running at any speed
+ * cannot flood the EDT or grow memory without limit.
  */
 public class TradingBotGUI extends JFrame {
     private static final double INITIAL_BALANCE = 10000.0;
+    private static final int REFRESH_MILLIS = 100; // at most 10 repaints per second
+    private static final int MAX_LOG_LINES = 1000;
+    private static final String[] SPEED_LABELS = {"1 candle/sec", "10 candles/sec", "1000 candles/sec", "Max speed"};
+    private static final long[] SPEED_INTERVALS = {1000, 100, 1, 0};
+    private static final int CHART_CAPACITY = 4096; // slots, at least twice the chart width
     
     private MarketDataSubject marketData;
     private BotObserver bot;
+    private Observer signalLogger;
+    private ChartRecorder chartRecorder;
     private TradingStrategy strategy;
     private Wallet wallet;
     
     // GUI Components
     private JComboBox<String> strategyComboBox;
+    private JComboBox<String> speedComboBox;
     private JTextField modelPathField;
     private JButton startButton;
     private JButton stopButton;
@@ -40,11 +52,17 @@ public class TradingBotGUI extends JFrame {
     private JLabel pnlLabel;
     
     private JTextArea logArea;
+    private final SeriesBuffer chartSeries = new SeriesBuffer(CHART_CAPACITY);
+    private ChartPanel chartPanel;
     private JLabel currentPriceLabel;
     private JLabel lastSignalLabel;
     
     private javax.swing.Timer updateTimer;
     private boolean isRunning = false;
+
+    private final LogRingBuffer logBuffer = new LogRingBuffer(MAX_LOG_LINES);
+    private long logCursor = 0;
+    private BotSnapshot renderedSnapshot = null;
     
     private DecimalFormat df = new DecimalFormat("#,##0.00");
     
@@ -60,7 +78,7 @@ public class TradingBotGUI extends JFrame {
         setTitle("AI Trading Bot - Design Patterns Demo");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
-        setSize(900, 700);
+        setSize(1100, 850);
         setLocationRelativeTo(null);
         
         // Top Panel - Strategy Selection
@@ -75,11 +93,10 @@ public class TradingBotGUI extends JFrame {
         JPanel bottomPanel = createBottomPanel();
         add(bottomPanel, BorderLayout.SOUTH);
         
-        // Initialize market data
-        marketData = new MarketDataSubject();
-        
-        // Setup update timer (update GUI every 500ms)
-        updateTimer = new javax.swing.Timer(500, e -> updateGUI());
+        // Setup refresh timer; it runs on the EDT and coalesces all pending updates
+        updateTimer = new javax.swing.Timer(REFRESH_MILLIS, e -> updateGUI());
+        updateTimer.setCoalesce(true);
+        updateTimer.start();
     }
     
     private JPanel createTopPanel() {
@@ -113,20 +130,38 @@ public class TradingBotGUI extends JFrame {
         modelPathField = new JTextField("ai_model/trading_model.onnx", 30);
         modelPathField.setEnabled(false);
         panel.add(modelPathField, gbc);
+
+        // Feed speed
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Feed Speed:"), gbc);
+
+        gbc.gridx = 1;
+        speedComboBox = new JComboBox<>(SPEED_LABELS);
+        panel.add(speedComboBox, gbc);
         
         return panel;
     }
     
     private JPanel createCenterPanel() {
         JPanel panel = new JPanel(new BorderLayout());
+        JPanel statusPanel = new JPanel(new BorderLayout());
         
         // Left Panel - Wallet Status
         JPanel walletPanel = createWalletPanel();
-        panel.add(walletPanel, BorderLayout.WEST);
+        statusPanel.add(walletPanel, BorderLayout.WEST);
         
         // Right Panel - Market Info
         JPanel marketPanel = createMarketPanel();
-        panel.add(marketPanel, BorderLayout.CENTER);
+        statusPanel.add(marketPanel, BorderLayout.CENTER);
+        panel.add(statusPanel, BorderLayout.NORTH);
+
+        // Center - Price and equity chart
+        chartPanel = new ChartPanel(chartSeries);
+        chartPanel.setBorder(BorderFactory.createTitledBorder("Price & Equity"));
+        panel.add(chartPanel, BorderLayout.CENTER);
         
         // Bottom - Logs
         JPanel logPanel = createLogPanel();
@@ -138,7 +173,7 @@ public class TradingBotGUI extends JFrame {
     private JPanel createWalletPanel() {
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Wallet Status"));
-        panel.setPreferredSize(new Dimension(300, 200));
+        panel.setPreferredSize(new Dimension(300, 160));
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(5, 5, 5, 5);
         gbc.anchor = GridBagConstraints.WEST;
@@ -271,20 +306,49 @@ public class TradingBotGUI extends JFrame {
             String botName = strategyType + "-Bot";
             bot = new BotObserver(botName, strategy);
             
-            // Register observer
+            // Fast replays would spend most of their time printing every candle to the console
+            long interval = SPEED_INTERVALS[speedComboBox.getSelectedIndex()];
+            if (interval < 100 && strategy instanceof BaseTradingStrategy) {
+                ((BaseTradingStrategy) strategy).setVerbose(false);
+            }
+
+            // Register observers; the signal logger runs after the bot and only reads its snapshot
+            marketData = new MarketDataSubject("BTCUSDT", interval);
             marketData.registerObserver(bot);
+            BotObserver loggedBot = bot;
+            signalLogger = candle -> {
+                BotSnapshot snapshot = loggedBot.getSnapshot();
+                if (snapshot.getLastSignal() != Signal.HOLD) {
+                    // Runs on the feed thread: String.format, since DecimalFormat is not thread-safe
+                    log(String.format("[%s] %s @ %.2f | USDT: %.2f | Coin: %.2f", snapshot.getBotName(),
+                            snapshot.getLastSignal(), snapshot.getLastPrice(),
+                            snapshot.getUsdtBalance(), snapshot.getCoinBalance()));
+                }
+            };
+            marketData.registerObserver(signalLogger);
+
+            // Chart: fills are reported by the strategy, bars are appended after the bot has run
+            chartSeries.clear();
+            chartRecorder = new ChartRecorder(chartSeries, bot);
+            if (strategy instanceof BaseTradingStrategy) {
+                ((BaseTradingStrategy) strategy).addTradeListener(chartRecorder);
+            }
+            marketData.registerObserver(chartRecorder);
+            renderedSnapshot = null;
+            chartPanel.repaint();
             
             // Start market data feed
+            if (StartupClock.getTimeToFirstSignalMillis() < 0) { // First start since launch
+                StartupClock.onFirstSignal(millis -> log("Time to first signal: " + millis + " ms after launch"));
+            }
             marketData.start();
-            
-            // Start GUI updates
-            updateTimer.start();
             isRunning = true;
             
             // Update UI
             startButton.setEnabled(false);
             stopButton.setEnabled(true);
             strategyComboBox.setEnabled(false);
+            speedComboBox.setEnabled(false);
             modelPathField.setEnabled(false);
             
             log("✓ " + strategyType + " Strategy started using Factory Method Pattern");
@@ -309,80 +373,105 @@ public class TradingBotGUI extends JFrame {
         
         // Stop market data feed
         marketData.stop();
-        
-        // Stop GUI updates
-        updateTimer.stop();
+        marketData.removeObserver(bot);
+        marketData.removeObserver(signalLogger);
+        marketData.removeObserver(chartRecorder);
+        if (strategy instanceof BaseTradingStrategy) {
+            ((BaseTradingStrategy) strategy).removeTradeListener(chartRecorder);
+        }
         isRunning = false;
         
         // Update UI
         startButton.setEnabled(true);
         stopButton.setEnabled(false);
         strategyComboBox.setEnabled(true);
+        speedComboBox.setEnabled(true);
         modelPathField.setEnabled(strategyComboBox.getSelectedIndex() == 1);
         
-        // Display final stats
-        if (strategy instanceof BaseTradingStrategy) {
-            Wallet strategyWallet = ((BaseTradingStrategy) strategy).getWallet();
-            log("=".repeat(60));
-            log("Final Wallet State:");
-            log("  USDT Balance: " + df.format(strategyWallet.getUsdtBalance()));
-            log("  Coin Balance: " + df.format(strategyWallet.getCoinBalance()));
-            log("  Total Value: " + df.format(strategyWallet.getTotalValue(strategyWallet.getCurrentPrice())));
-            log("  PnL: " + df.format(strategyWallet.getPnLPercentage(strategyWallet.getCurrentPrice())) + "%");
-        }
+        // Display final stats from the last published snapshot
+        BotSnapshot snapshot = bot.getSnapshot();
+        log("=".repeat(60));
+        log("Final Wallet State:");
+        log("  Candles processed: " + snapshot.getCandleCount());
+        log("  USDT Balance: " + df.format(snapshot.getUsdtBalance()));
+        log("  Coin Balance: " + df.format(snapshot.getCoinBalance()));
+        log("  Total Value: " + df.format(snapshot.getTotalValue()));
+        log("  PnL: " + df.format(snapshot.getPnLPercentage()) + "%");
         
         log("✓ Trading bot stopped");
     }
     
+    /**
+     * Timer callback (on the EDT): renders the latest snapshot if it changed and flushes pending log lines.
+     */
     private void updateGUI() {
-        if (!isRunning || strategy == null || bot == null) {
+        flushLogs();
+
+        if (bot == null) {
             return;
         }
-        
-        SwingUtilities.invokeLater(() -> {
-            if (strategy instanceof BaseTradingStrategy) {
-                Wallet strategyWallet = ((BaseTradingStrategy) strategy).getWallet();
-                
-                // Update wallet labels
-                usdtBalanceLabel.setText(df.format(strategyWallet.getUsdtBalance()));
-                coinBalanceLabel.setText(df.format(strategyWallet.getCoinBalance()));
-                
-                // Get last candle from bot
-                MarketCandle lastCandle = bot.getLastCandle();
-                if (lastCandle != null) {
-                    double currentPrice = lastCandle.getClose();
-                    double totalValue = strategyWallet.getTotalValue(currentPrice);
-                    totalValueLabel.setText(df.format(totalValue));
-                    
-                    double pnl = strategyWallet.getPnLPercentage(currentPrice);
-                    pnlLabel.setText(df.format(pnl) + "%");
-                    pnlLabel.setForeground(pnl >= 0 ? Color.GREEN : Color.RED);
-                    
-                    currentPriceLabel.setText(df.format(currentPrice));
-                    
-                    // Update signal label
-                    Signal signal = bot.getLastSignal();
-                    lastSignalLabel.setText(signal.toString());
-                    switch (signal) {
-                        case BUY:
-                            lastSignalLabel.setForeground(Color.GREEN);
-                            break;
-                        case SELL:
-                            lastSignalLabel.setForeground(Color.RED);
-                            break;
-                        default:
-                            lastSignalLabel.setForeground(Color.GRAY);
-                    }
-                }
-            }
-        });
+        BotSnapshot snapshot = bot.getSnapshot();
+        if (snapshot == renderedSnapshot || snapshot.getCandleCount() == 0) {
+            return; // nothing new since the last repaint
+        }
+        renderedSnapshot = snapshot;
+        chartPanel.repaint();
+
+        usdtBalanceLabel.setText(df.format(snapshot.getUsdtBalance()));
+        coinBalanceLabel.setText(df.format(snapshot.getCoinBalance()));
+        totalValueLabel.setText(df.format(snapshot.getTotalValue()));
+
+        double pnl = snapshot.getPnLPercentage();
+        pnlLabel.setText(df.format(pnl) + "%");
+        pnlLabel.setForeground(pnl >= 0 ? Color.GREEN : Color.RED);
+
+        currentPriceLabel.setText(df.format(snapshot.getLastPrice()));
+
+        // Update signal label
+        Signal signal = snapshot.getLastSignal();
+        lastSignalLabel.setText(signal.toString());
+        switch (signal) {
+            case BUY:
+                lastSignalLabel.setForeground(Color.GREEN);
+                break;
+            case SELL:
+                lastSignalLabel.setForeground(Color.RED);
+                break;
+            default:
+                lastSignalLabel.setForeground(Color.GRAY);
+        }
+    }
+
+    /**
+     * Appends all lines logged since the last flush in one batch and trims the text area
+     * to MAX_LOG_LINES, so the document never grows without limit.
+     */
+    private void flushLogs() {
+        if (logBuffer.getSequence() == logCursor) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder();
+        long lost = logBuffer.lostSince(logCursor);
+        if (lost > 0) {
+            batch.append("... ").append(lost).append(" log lines dropped ...\n");
+        }
+        logCursor = logBuffer.drainSince(logCursor, batch);
+        logArea.append(batch.toString());
+
+        javax.swing.text.Element root = logArea.getDocument().getDefaultRootElement();
+        int excessLines = root.getElementCount() - MAX_LOG_LINES;
+        if (excessLines > 0) {
+            logArea.replaceRange(null, 0, root.getElement(excessLines - 1).getEndOffset());
+        }
+        logArea.setCaretPosition(logArea.getDocument().getLength());
     }
     
+    /**
+     * Queues a log line; callable from any thread. Lines are shown on the next timer tick.
+     * @param message The line to log
+     */
     private void log(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        logBuffer.add(message);
     }
     
     public static void main(String[] args) {
@@ -0,0 +1,34 @@
+package com.tradingbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Delivery of one candle from a feed to all of its observers; its duration is the time the feed
+ * thread spent in the bots it serves.
+ *
+ * The events of this package are committed only while a recording enables them, so they can stay
+ * on in production (e.g. -XX:StartFlightRecording:settings=default,maxage=1h). Per-candle events
+ * default to a 1 ms threshold so that only slow candles are stored; their durations can then be
+ * correlated with GC, safepoint and native-method events in the same recording.
+ */
+@Name("com.tradingbot.CandleDispatch")
+@Label("Candle Dispatch")
+@Description("A market data subject notifying its observers of a candle")
+@Category("Trading Bot")
+@Threshold("1 ms")
+@StackTrace(false)
+public class CandleDispatchEvent extends jdk.jfr.Event {
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Observers")
+    public int observers;
+
+    @Label("Close")
+    public double close;
+}
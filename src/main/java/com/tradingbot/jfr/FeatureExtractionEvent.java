@@ -0,0 +1,28 @@
+package com.tradingbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Computation of the model's input features for one candle.
+ */
+@Name("com.tradingbot.FeatureExtraction")
+@Label("Feature Extraction")
+@Description("An AI strategy computing the model input features of a candle")
+@Category({"Trading Bot", "Model"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class FeatureExtractionEvent extends jdk.jfr.Event {
+    @Label("Bot")
+    public String bot;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Features")
+    public int features;
+}
@@ -0,0 +1,33 @@
+package com.tradingbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One model evaluation: the compiled forest, or onnxruntime from tensor creation to the session
+ * result (native time included).
+ */
+@Name("com.tradingbot.ModelInference")
+@Label("Model Inference")
+@Description("An AI strategy evaluating its model for one candle")
+@Category({"Trading Bot", "Model"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class ModelInferenceEvent extends jdk.jfr.Event {
+    @Label("Bot")
+    public String bot;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Engine")
+    @Description("JAVA (compiled forest) or ONNX (onnxruntime session)")
+    public String engine;
+
+    @Label("Signal")
+    public String signal;
+}
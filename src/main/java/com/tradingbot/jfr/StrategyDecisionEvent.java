@@ -0,0 +1,31 @@
+package com.tradingbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One run of the strategy template method: validation, risk checks, analysis, execution and logging.
+ */
+@Name("com.tradingbot.StrategyDecision")
+@Label("Strategy Decision")
+@Description("A strategy processing one candle, from validation to trade execution")
+@Category("Trading Bot")
+@Threshold("1 ms")
+@StackTrace(false)
+public class StrategyDecisionEvent extends jdk.jfr.Event {
+    @Label("Bot")
+    public String bot;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Signal")
+    public String signal;
+}
@@ -0,0 +1,30 @@
+package com.tradingbot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A buy or sell applied to a wallet. Wallets do not know their bot: the event is recorded on the
+ * bot's thread inside its {@link StrategyDecisionEvent}, which identifies it.
+ */
+@Name("com.tradingbot.WalletTrade")
+@Label("Wallet Trade")
+@Description("A buy or sell against a wallet, executed or rejected for insufficient balance")
+@Category("Trading Bot")
+@StackTrace(false)
+public class WalletTradeEvent extends jdk.jfr.Event {
+    @Label("Side")
+    public String side;
+
+    @Label("Price Units")
+    public long priceUnits;
+
+    @Label("Amount Units")
+    public long amountUnits;
+
+    @Label("Executed")
+    public boolean executed;
+}
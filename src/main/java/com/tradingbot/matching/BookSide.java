@@ -0,0 +1,107 @@
+package com.tradingbot.matching;
+
+import java.util.Arrays;
+
+/**
+ * One side of a price-level book: distinct limit prices in a sorted array, each level owning a
+ * FIFO list of order slots (doubly linked through the engine's prev/next arrays).
+ *
+ * Keys are the price for bids and the negated price for asks, so the best level is always the
+ * last one and the levels a candle trades through form a suffix. Not thread-safe.
+ */
+final class BookSide {
+    private final boolean bid;
+    private double[] keys = new double[16];
+    private int[] heads = new int[16];
+    private int[] tails = new int[16];
+    private int size;
+
+    BookSide(boolean bid) {
+        this.bid = bid;
+    }
+
+    void add(int slot, double price, int[] prev, int[] next) {
+        double key = bid ? price : -price;
+        int level = lowerBound(key);
+        next[slot] = -1;
+        if (level < size && keys[level] == key) {
+            prev[slot] = tails[level];
+            next[tails[level]] = slot;
+            tails[level] = slot;
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            heads = Arrays.copyOf(heads, size * 2);
+            tails = Arrays.copyOf(tails, size * 2);
+        }
+        System.arraycopy(keys, level, keys, level + 1, size - level);
+        System.arraycopy(heads, level, heads, level + 1, size - level);
+        System.arraycopy(tails, level, tails, level + 1, size - level);
+        keys[level] = key;
+        heads[level] = slot;
+        tails[level] = slot;
+        prev[slot] = -1;
+        size++;
+    }
+
+    void remove(int slot, double price, int[] prev, int[] next) {
+        int level = lowerBound(bid ? price : -price);
+        int before = prev[slot];
+        int after = next[slot];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[level] = after;
+        }
+        if (after >= 0) {
+            prev[after] = before;
+        } else {
+            tails[level] = before;
+        }
+        if (heads[level] < 0) {
+            System.arraycopy(keys, level + 1, keys, level, size - level - 1);
+            System.arraycopy(heads, level + 1, heads, level, size - level - 1);
+            System.arraycopy(tails, level + 1, tails, level, size - level - 1);
+            size--;
+        }
+    }
+
+    /**
+     * @return Number of price levels
+     */
+    int levelCount() {
+        return size;
+    }
+
+    /**
+     * @return Price of the best level (highest bid / lowest ask), NaN if empty
+     */
+    double bestPrice() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        return bid ? keys[size - 1] : -keys[size - 1];
+    }
+
+    /**
+     * @return First order slot at the best level, -1 if empty
+     */
+    int bestHead() {
+        return size == 0 ? -1 : heads[size - 1];
+    }
+
+    private int lowerBound(double key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tradingbot.matching;
+
+import com.tradingbot.domain.Signal;
+
+/**
+ * Receives execution reports for orders submitted to a {@link MatchingEngine}.
+ * Called on the thread that delivers candles to the engine.
+ */
+public interface ExecutionListener {
+    /**
+     * @param orderId Id returned on submission
+     * @param side BUY or SELL
+     * @param price Execution price before fees
+     * @param quantity Filled coin quantity
+     * @param fee Fee charged in quote currency
+     * @param maker true for a resting limit order filled by the market, false for a taker fill
+     */
+    void onFill(long orderId, Signal side, double price, double quantity, double fee, boolean maker);
+
+    /**
+     * Called once when an order is done.
+     * @param orderId Id returned on submission
+     * @param status Final status
+     * @param filledQuantity Total quantity filled
+     */
+    default void onOrderClosed(long orderId, OrderStatus status, double filledQuantity) {
+    }
+}
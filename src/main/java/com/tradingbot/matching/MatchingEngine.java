@@ -0,0 +1,368 @@
+package com.tradingbot.matching;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.observer.Observer;
+import java.util.Arrays;
+
+/**
+ * Simulated exchange for backtests: market, limit and IOC orders against a candle feed, with
+ * maker/taker fees and volume-based slippage.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Observer - registered on a symbol's feed (before the bots), each candle executes
+ * the orders submitted since the previous one.
+ * Reason: Strategies submit from any thread without waiting for fills; orders placed after seeing
+ * candle t execute on candle t+1, so the simulation never trades on prices the strategy could not
+ * have seen.
+ *
+ * Execution model per candle:
+ * <ol>
+ *   <li>New orders, in submission order, take liquidity at the open. A taker of quantity q fills at
+ *   {@code open * (1 +/- slippage * q / volume)}, clamped to the bar's range. IOC and LIMIT orders
+ *   take only the quantity whose price stays within their limit; IOC cancels the rest, LIMIT rests
+ *   it in the book.</li>
+ *   <li>Resting orders fill at their limit price, best price first and FIFO within a level, when the
+ *   bar trades through them (bid &gt; low, ask &lt; high). Each side may fill at most
+ *   {@code participationRate * volume} per bar.</li>
+ * </ol>
+ * Orders never match each other; the candle tape is the only counterparty. Fees are charged in
+ * quote currency by adjusting the price passed to {@link Wallet#buy}/{@link Wallet#sell}. A fill the
+ * wallet cannot cover rejects the rest of the order.
+ *
+ * Submission is thread-safe; {@link #update(MarketCandle)} must be called from a single thread,
+ * the same one as any code touching the traded wallets.
+ */
+public class MatchingEngine implements Observer {
+    public static final double DEFAULT_MAKER_FEE = 0.0002;
+    public static final double DEFAULT_TAKER_FEE = 0.0005;
+    public static final double DEFAULT_SLIPPAGE = 0.1;
+    public static final double DEFAULT_PARTICIPATION_RATE = 0.1;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+    private static final Signal[] SIDES = {Signal.BUY, Signal.SELL};
+    private static final OrderType[] TYPES = OrderType.values();
+    private static final byte BUY = 0;
+    private static final byte SELL = 1;
+
+    private final double makerFee;
+    private final double takerFee;
+    private final double slippage;
+    private final double participationRate;
+    private final OrderRing ring;
+
+    // Open order storage (structure of arrays), indexed by slot
+    private long[] ids = new long[64];
+    private byte[] sides = new byte[64];
+    private double[] limitPrices = new double[64];
+    private double[] remaining = new double[64];
+    private double[] filled = new double[64];
+    private Wallet[] wallets = new Wallet[64];
+    private ExecutionListener[] listeners = new ExecutionListener[64];
+    private int[] prev = new int[64];
+    private int[] next = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private final OrderIndex resting = new OrderIndex();
+
+    private long processedOrders;
+    private long fillCount;
+
+    public MatchingEngine() {
+        this(DEFAULT_MAKER_FEE, DEFAULT_TAKER_FEE, DEFAULT_SLIPPAGE, DEFAULT_PARTICIPATION_RATE,
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param makerFee Fee rate for resting limit fills (e.g. 0.0002 = 2 bps)
+     * @param takerFee Fee rate for fills at the open
+     * @param slippage Price impact per unit of order quantity / bar volume
+     * @param participationRate Share of bar volume resting orders of one side may fill
+     * @param queueCapacity Maximum orders waiting for the next candle (power of two)
+     */
+    public MatchingEngine(double makerFee, double takerFee, double slippage, double participationRate,
+                          int queueCapacity) {
+        if (makerFee < 0 || takerFee < 0 || makerFee >= 1 || takerFee >= 1) {
+            throw new IllegalArgumentException("Fee rates must be in [0, 1)");
+        }
+        if (slippage < 0 || participationRate < 0 || participationRate > 1) {
+            throw new IllegalArgumentException("Invalid slippage " + slippage + " or participation " + participationRate);
+        }
+        this.makerFee = makerFee;
+        this.takerFee = takerFee;
+        this.slippage = slippage;
+        this.participationRate = participationRate;
+        this.ring = new OrderRing(queueCapacity);
+    }
+
+    /**
+     * Submits a market order.
+     * @return Order id, or -1 if the submission queue is full
+     */
+    public long submitMarket(Signal side, double quantity, Wallet wallet, ExecutionListener listener) {
+        return submit(OrderType.MARKET, side, Double.NaN, quantity, wallet, listener);
+    }
+
+    /**
+     * Submits an order for execution on the next candle. Never blocks.
+     * @param type MARKET, LIMIT or IOC
+     * @param side BUY or SELL
+     * @param limitPrice Limit price (ignored for MARKET)
+     * @param quantity Coin quantity
+     * @param wallet Wallet to settle fills against
+     * @param listener Receives execution reports, may be null
+     * @return Order id, or -1 if the submission queue is full
+     */
+    public long submit(OrderType type, Signal side, double limitPrice, double quantity, Wallet wallet,
+                       ExecutionListener listener) {
+        if (side != Signal.BUY && side != Signal.SELL) {
+            throw new IllegalArgumentException("Order side must be BUY or SELL, got " + side);
+        }
+        if (!(quantity > 0) || Double.isInfinite(quantity)) {
+            throw new IllegalArgumentException("Quantity must be positive, got " + quantity);
+        }
+        if (type != OrderType.MARKET && (!(limitPrice > 0) || Double.isInfinite(limitPrice))) {
+            throw new IllegalArgumentException("Limit price must be positive, got " + limitPrice);
+        }
+        if (wallet == null) {
+            throw new IllegalArgumentException("Wallet must not be null");
+        }
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return -1;
+        }
+        ring.write(sequence, (byte) type.ordinal(), side == Signal.BUY ? BUY : SELL, limitPrice, quantity, 0,
+                wallet, listener);
+        return sequence + 1;
+    }
+
+    /**
+     * Requests cancellation of a resting order, applied on the next candle in submission order.
+     * @param orderId Id returned on submission
+     * @return false if the submission queue is full
+     */
+    public boolean cancel(long orderId) {
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        ring.write(sequence, OrderRing.KIND_CANCEL, BUY, Double.NaN, 0, orderId, null, null);
+        return true;
+    }
+
+    /**
+     * Executes queued orders at the candle's open, then fills resting orders it trades through.
+     * @param candle The new market candle
+     */
+    @Override
+    public void update(MarketCandle candle) {
+        double open = candle.getOpen();
+        double high = candle.getHigh();
+        double low = candle.getLow();
+        double volume = candle.getVolume();
+
+        for (int index = ring.peek(); index >= 0; index = ring.peek()) {
+            long id = ring.sequence() + 1;
+            byte kind = ring.kind(index);
+            if (kind == OrderRing.KIND_CANCEL) {
+                cancelResting(ring.cancelTarget(index));
+            } else {
+                int slot = allocate(id, ring.side(index), ring.price(index), ring.quantity(index),
+                        ring.wallet(index), ring.listener(index));
+                executeArrival(slot, TYPES[kind], open, high, low, volume);
+            }
+            ring.advance(index);
+            processedOrders++;
+        }
+        ring.commit();
+
+        double budget = participationRate * volume;
+        sweep(bids, budget, low, true);
+        sweep(asks, budget, high, false);
+    }
+
+    private void executeArrival(int slot, OrderType type, double open, double high, double low, double volume) {
+        boolean buy = sides[slot] == BUY;
+        double quantity = remaining[slot];
+        double limit = limitPrices[slot];
+        double impact = volume > 0 ? slippage / volume : 0;
+
+        double takeQuantity = quantity;
+        if (type != OrderType.MARKET) {
+            // Largest quantity whose impacted price stays within the limit
+            double room = buy ? limit / open - 1 : 1 - limit / open;
+            if (room < 0) {
+                takeQuantity = 0;
+            } else if (impact > 0) {
+                takeQuantity = Math.min(quantity, room / impact);
+            }
+        }
+
+        if (takeQuantity > 0) {
+            double price = buy ? open * (1 + impact * takeQuantity) : open * (1 - impact * takeQuantity);
+            price = Math.max(low, Math.min(high, price));
+            if (type != OrderType.MARKET) {
+                price = buy ? Math.min(price, limit) : Math.max(price, limit);
+            }
+            OrderStatus status = fill(slot, price, takeQuantity, false);
+            if (status != null) {
+                close(slot, status);
+                return;
+            }
+        }
+
+        if (type == OrderType.LIMIT) {
+            (buy ? bids : asks).add(slot, limit, prev, next);
+            resting.put(ids[slot], slot);
+        } else {
+            close(slot, OrderStatus.CANCELLED);
+        }
+    }
+
+    /**
+     * Fills resting orders of one side that the bar traded through, best price first.
+     */
+    private void sweep(BookSide side, double budget, double through, boolean bid) {
+        while (budget > 0 && side.levelCount() > 0) {
+            double price = side.bestPrice();
+            if (bid ? !(price > through) : !(price < through)) {
+                return;
+            }
+            int slot = side.bestHead();
+            double quantity = Math.min(remaining[slot], budget);
+            OrderStatus status = fill(slot, price, quantity, true);
+            if (status == null) {
+                return; // Partially filled: the budget is used up
+            }
+            if (status == OrderStatus.FILLED) {
+                budget -= quantity;
+            }
+            side.remove(slot, limitPrices[slot], prev, next);
+            resting.remove(ids[slot]);
+            close(slot, status);
+        }
+    }
+
+    /**
+     * Settles a fill against the wallet and reports it.
+     * @return FILLED or REJECTED if the order is done, null if quantity remains
+     */
+    private OrderStatus fill(int slot, double price, double quantity, boolean maker) {
+        double feeRate = maker ? makerFee : takerFee;
+        boolean settled = sides[slot] == BUY
+                ? wallets[slot].buy(price * (1 + feeRate), quantity)
+                : wallets[slot].sell(price * (1 - feeRate), quantity);
+        if (!settled) {
+            return OrderStatus.REJECTED;
+        }
+        fillCount++;
+        filled[slot] += quantity;
+        remaining[slot] -= quantity;
+        ExecutionListener listener = listeners[slot];
+        if (listener != null) {
+            listener.onFill(ids[slot], SIDES[sides[slot]], price, quantity, price * quantity * feeRate, maker);
+        }
+        return remaining[slot] <= 0 ? OrderStatus.FILLED : null;
+    }
+
+    private void cancelResting(long orderId) {
+        int slot = resting.get(orderId);
+        if (slot < 0) {
+            return;
+        }
+        (sides[slot] == BUY ? bids : asks).remove(slot, limitPrices[slot], prev, next);
+        resting.remove(orderId);
+        close(slot, OrderStatus.CANCELLED);
+    }
+
+    private void close(int slot, OrderStatus status) {
+        ExecutionListener listener = listeners[slot];
+        long id = ids[slot];
+        double filledQuantity = filled[slot];
+        wallets[slot] = null;
+        listeners[slot] = null;
+        freeSlots[freeCount++] = slot;
+        if (listener != null) {
+            listener.onOrderClosed(id, status, filledQuantity);
+        }
+    }
+
+    private int allocate(long id, byte side, double limitPrice, double quantity, Wallet wallet,
+                         ExecutionListener listener) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == ids.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+        ids[slot] = id;
+        sides[slot] = side;
+        limitPrices[slot] = limitPrice;
+        remaining[slot] = quantity;
+        filled[slot] = 0;
+        wallets[slot] = wallet;
+        listeners[slot] = listener;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        sides = Arrays.copyOf(sides, capacity);
+        limitPrices = Arrays.copyOf(limitPrices, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        filled = Arrays.copyOf(filled, capacity);
+        wallets = Arrays.copyOf(wallets, capacity);
+        listeners = Arrays.copyOf(listeners, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    /**
+     * @return Orders resting in the book
+     */
+    public int getRestingOrderCount() {
+        return resting.size();
+    }
+
+    /**
+     * @return Highest resting bid, NaN if none
+     */
+    public double getBestBid() {
+        return bids.bestPrice();
+    }
+
+    /**
+     * @return Lowest resting ask, NaN if none
+     */
+    public double getBestAsk() {
+        return asks.bestPrice();
+    }
+
+    /**
+     * @return Submissions waiting for the next candle
+     */
+    public int getQueuedCount() {
+        return ring.size();
+    }
+
+    /**
+     * @return Orders and cancels processed so far
+     */
+    public long getProcessedOrderCount() {
+        return processedOrders;
+    }
+
+    public long getFillCount() {
+        return fillCount;
+    }
+}
@@ -0,0 +1,134 @@
+package com.tradingbot.matching;
+
+import com.tradingbot.domain.Wallet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer / single-consumer queue of order requests in parallel arrays.
+ *
+ * Producers claim a sequence with a CAS (failing fast when the ring is full), write the fields
+ * and publish the entry with a release store of its sequence; the consumer reads entries in
+ * sequence order once they are published. No allocation per request.
+ */
+final class OrderRing {
+    static final byte KIND_CANCEL = -1;
+
+    private final int mask;
+    private final AtomicLongArray published; // Holds sequence + 1 once the entry is readable
+    private final byte[] kinds;
+    private final byte[] sides;
+    private final double[] prices;
+    private final double[] quantities;
+    private final long[] cancelTargets;
+    private final Wallet[] wallets;
+    private final ExecutionListener[] listeners;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private long cursor; // Consumer only
+
+    OrderRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        this.kinds = new byte[capacity];
+        this.sides = new byte[capacity];
+        this.prices = new double[capacity];
+        this.quantities = new double[capacity];
+        this.cancelTargets = new long[capacity];
+        this.wallets = new Wallet[capacity];
+        this.listeners = new ExecutionListener[capacity];
+    }
+
+    /**
+     * @return The claimed sequence, or -1 if the ring is full
+     */
+    long claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed > mask) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    void write(long sequence, byte kind, byte side, double price, double quantity, long cancelTarget,
+               Wallet wallet, ExecutionListener listener) {
+        int index = (int) sequence & mask;
+        kinds[index] = kind;
+        sides[index] = side;
+        prices[index] = price;
+        quantities[index] = quantity;
+        cancelTargets[index] = cancelTarget;
+        wallets[index] = wallet;
+        listeners[index] = listener;
+        published.setRelease(index, sequence + 1);
+    }
+
+    /**
+     * @return Index of the next published entry, or -1 if none is ready
+     */
+    int peek() {
+        int index = (int) cursor & mask;
+        return published.getAcquire(index) == cursor + 1 ? index : -1;
+    }
+
+    /**
+     * Releases the entry returned by {@link #peek()}.
+     */
+    void advance(int index) {
+        wallets[index] = null;
+        listeners[index] = null;
+        cursor++;
+    }
+
+    /**
+     * Makes the consumed entries available to producers again.
+     */
+    void commit() {
+        consumed = cursor;
+    }
+
+    /**
+     * @return Sequence of the entry at the consumer cursor
+     */
+    long sequence() {
+        return cursor;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+
+    byte kind(int index) {
+        return kinds[index];
+    }
+
+    byte side(int index) {
+        return sides[index];
+    }
+
+    double price(int index) {
+        return prices[index];
+    }
+
+    double quantity(int index) {
+        return quantities[index];
+    }
+
+    long cancelTarget(int index) {
+        return cancelTargets[index];
+    }
+
+    Wallet wallet(int index) {
+        return wallets[index];
+    }
+
+    ExecutionListener listener(int index) {
+        return listeners[index];
+    }
+}
@@ -0,0 +1,12 @@
+package com.tradingbot.matching;
+
+/**
+ * Final state of an order.
+ */
+public enum OrderStatus {
+    FILLED,
+    /** Cancelled by request, or the unfilled part of an IOC order. */
+    CANCELLED,
+    /** The wallet could not cover a fill; the unfilled part is dropped. */
+    REJECTED
+}
@@ -0,0 +1,13 @@
+package com.tradingbot.matching;
+
+/**
+ * Order types supported by the {@link MatchingEngine}.
+ */
+public enum OrderType {
+    /** Fills in full at the next open, plus slippage. */
+    MARKET,
+    /** Marketable part fills at the next open; the remainder rests in the book until filled or cancelled. */
+    LIMIT,
+    /** Immediate-or-cancel limit: marketable part fills at the next open, the remainder is cancelled. */
+    IOC
+}
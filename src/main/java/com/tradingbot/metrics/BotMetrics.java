@@ -0,0 +1,50 @@
+package com.tradingbot.metrics;
+
+import com.tradingbot.bot.BotSnapshot;
+
+/**
+ * Pre-aggregated metrics of a single bot.
+ *
+ * Written only by the thread delivering candles to the bot; the latest state is published
+ * as an immutable {@link BotSnapshot} through a volatile reference. Scrapes read that
+ * reference and the histogram without taking any lock the trading thread could wait on.
+ */
+public class BotMetrics {
+    private final String botName;
+    private final LatencyHistogram decisionLatency;
+    private volatile BotSnapshot snapshot;
+
+    public BotMetrics(String botName) {
+        this.botName = botName;
+        this.decisionLatency = new LatencyHistogram();
+        this.snapshot = BotSnapshot.empty(botName);
+    }
+
+    /**
+     * Records the time taken to process one candle (validate, analyze, execute).
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void recordDecisionLatency(long nanos) {
+        decisionLatency.record(nanos);
+    }
+
+    /**
+     * Publishes the bot's latest state.
+     * @param snapshot Immutable snapshot taken on the trading thread
+     */
+    public void publish(BotSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public String getBotName() {
+        return botName;
+    }
+
+    public BotSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public LatencyHistogram getDecisionLatency() {
+        return decisionLatency;
+    }
+}
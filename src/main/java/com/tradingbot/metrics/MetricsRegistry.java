@@ -0,0 +1,194 @@
+package com.tradingbot.metrics;
+
+import com.tradingbot.domain.Signal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Collects per-bot metrics and process-level gauges and renders them in the
+ * Prometheus text exposition format (version 0.0.4).
+ *
+ * Registration is rare and uses copy-on-write lists, so rendering iterates without locks.
+ * Gauges are plain suppliers (e.g. a feed's candle counter or a dispatch queue's size);
+ * they must be safe to call from the scraping thread.
+ */
+public class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final List<BotMetrics> bots = new CopyOnWriteArrayList<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a bot's metrics for export.
+     * @param metrics The bot metrics
+     */
+    public void registerBot(BotMetrics metrics) {
+        if (metrics != null && !bots.contains(metrics)) {
+            bots.add(metrics);
+        }
+    }
+
+    /**
+     * Removes a bot's metrics from export.
+     * @param metrics The bot metrics
+     */
+    public void removeBot(BotMetrics metrics) {
+        bots.remove(metrics);
+    }
+
+    /**
+     * Registers a monotonically increasing counter (e.g. candles published by a feed).
+     * @param name Metric name, should end with "_total"
+     * @param help Help text
+     * @param labels Label pairs rendered verbatim, e.g. {@code feed="BTCUSDT"} (may be empty)
+     * @param supplier Value source
+     */
+    public void registerCounter(String name, String help, String labels, DoubleSupplier supplier) {
+        gauges.add(new Gauge(name, help, "counter", labels, supplier));
+    }
+
+    /**
+     * Registers a gauge (e.g. a queue depth).
+     * @param name Metric name
+     * @param help Help text
+     * @param labels Label pairs rendered verbatim (may be empty)
+     * @param supplier Value source
+     */
+    public void registerGauge(String name, String help, String labels, DoubleSupplier supplier) {
+        gauges.add(new Gauge(name, help, "gauge", labels, supplier));
+    }
+
+    public List<BotMetrics> getBots() {
+        return List.copyOf(bots);
+    }
+
+    /**
+     * Renders every registered metric.
+     * @return Prometheus text format payload
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(1024 + bots.size() * 1024);
+
+        header(out, "tradingbot_wallet_usdt_balance", "USDT balance of the bot wallet", "gauge");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_wallet_usdt_balance", botLabel(bot), bot.getSnapshot().getUsdtBalance());
+        }
+        header(out, "tradingbot_wallet_coin_balance", "Coin balance of the bot wallet", "gauge");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_wallet_coin_balance", botLabel(bot), bot.getSnapshot().getCoinBalance());
+        }
+        header(out, "tradingbot_wallet_total_value", "Total wallet value in USDT at the last price", "gauge");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_wallet_total_value", botLabel(bot), bot.getSnapshot().getTotalValue());
+        }
+        header(out, "tradingbot_pnl_percent", "Profit and loss in percent of the initial balance", "gauge");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_pnl_percent", botLabel(bot), bot.getSnapshot().getPnLPercentage());
+        }
+        header(out, "tradingbot_last_price", "Close price of the last candle seen by the bot", "gauge");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_last_price", botLabel(bot), bot.getSnapshot().getLastPrice());
+        }
+        header(out, "tradingbot_last_signal", "Last signal produced by the strategy (1 = current)", "gauge");
+        for (BotMetrics bot : bots) {
+            Signal last = bot.getSnapshot().getLastSignal();
+            for (Signal signal : Signal.values()) {
+                sample(out, "tradingbot_last_signal", botLabel(bot) + ",signal=\"" + signal + "\"",
+                        signal == last ? 1 : 0);
+            }
+        }
+        header(out, "tradingbot_candles_processed_total", "Candles processed by the bot", "counter");
+        for (BotMetrics bot : bots) {
+            sample(out, "tradingbot_candles_processed_total", botLabel(bot), bot.getSnapshot().getCandleCount());
+        }
+        header(out, "tradingbot_decision_latency_seconds", "Candle processing latency per bot", "summary");
+        for (BotMetrics bot : bots) {
+            LatencyHistogram histogram = bot.getDecisionLatency();
+            String label = botLabel(bot);
+            for (double quantile : QUANTILES) {
+                sample(out, "tradingbot_decision_latency_seconds",
+                        label + ",quantile=\"" + quantile + "\"",
+                        histogram.getValueAtQuantile(quantile) / 1e9);
+            }
+            sample(out, "tradingbot_decision_latency_seconds_sum", label, histogram.getSumNanos() / 1e9);
+            sample(out, "tradingbot_decision_latency_seconds_count", label, histogram.getCount());
+        }
+
+        // Group samples of the same metric under one HELP/TYPE header
+        Map<String, List<Gauge>> byName = new LinkedHashMap<>();
+        for (Gauge gauge : gauges) {
+            byName.computeIfAbsent(gauge.name, k -> new ArrayList<>()).add(gauge);
+        }
+        for (List<Gauge> family : byName.values()) {
+            Gauge first = family.get(0);
+            header(out, first.name, first.help, first.type);
+            for (Gauge gauge : family) {
+                sample(out, gauge.name, gauge.labels, gauge.supplier.getAsDouble());
+            }
+        }
+        return out.toString();
+    }
+
+    private static String botLabel(BotMetrics bot) {
+        return "bot=\"" + escape(bot.getBotName()) + "\"";
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null && !labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        out.append('\n');
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Creates a label string for a single label pair, escaping the value.
+     * @param name Label name
+     * @param value Label value
+     * @return Rendered label pair
+     */
+    public static String label(String name, String value) {
+        return name + "=\"" + escape(value) + "\"";
+    }
+
+    private static final class Gauge {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final String labels;
+        private final DoubleSupplier supplier;
+
+        private Gauge(String name, String help, String type, String labels, DoubleSupplier supplier) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labels = labels;
+            this.supplier = supplier;
+        }
+    }
+}
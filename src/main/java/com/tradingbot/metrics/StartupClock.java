@@ -0,0 +1,71 @@
+package com.tradingbot.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Measures the time from JVM start to the first signal produced by any bot in this JVM, covering
+ * class loading, model loading and feed setup.
+ *
+ * Bots report every decision; only the first one is recorded, so after it the check is a single
+ * volatile read. The JVM start time is looked up (via java.management) only when the result is
+ * first read, so measuring does not itself slow startup. Listeners (e.g. a startup log line) are
+ * told once.
+ */
+public final class StartupClock {
+    private static final AtomicLong firstSignalMillis = new AtomicLong(-1); // Epoch millis
+    private static final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    private StartupClock() {
+    }
+
+    /** Loaded on first use only. */
+    private static final class JvmStart {
+        static final long MILLIS = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Records a signal; only the first call in the process has an effect.
+     */
+    public static void signalProduced() {
+        if (firstSignalMillis.get() >= 0) {
+            return;
+        }
+        if (firstSignalMillis.compareAndSet(-1, System.currentTimeMillis()) && !listeners.isEmpty()) {
+            long millis = getTimeToFirstSignalMillis();
+            for (LongConsumer listener : listeners) {
+                notify(listener, millis);
+            }
+        }
+    }
+
+    /**
+     * @return Milliseconds from JVM start to the first signal, or -1 if none was produced yet
+     */
+    public static long getTimeToFirstSignalMillis() {
+        long first = firstSignalMillis.get();
+        return first < 0 ? -1 : Math.max(0, first - JvmStart.MILLIS);
+    }
+
+    /**
+     * Calls a listener with the time to the first signal once it is known (immediately if it
+     * already is). Invoked on the thread that produced the signal, so it must be cheap.
+     * @param listener Receives the milliseconds from JVM start to the first signal
+     */
+    public static void onFirstSignal(LongConsumer listener) {
+        listeners.add(listener);
+        long millis = getTimeToFirstSignalMillis();
+        if (millis >= 0) {
+            notify(listener, millis);
+        }
+    }
+
+    private static void notify(LongConsumer listener, long millis) {
+        if (listeners.remove(listener)) { // Exactly once, whether registration or the signal came first
+            listener.accept(millis);
+        }
+    }
+}
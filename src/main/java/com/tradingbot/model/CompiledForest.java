@@ -0,0 +1,433 @@
+package com.tradingbot.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tree ensemble classifier compiled into flat primitive arrays and evaluated in pure Java.
+ *
+ * Node n is a split on {@code feature[n]} against {@code threshold[n]}; its children are node
+ * indices, or {@code ~leaf} (negative) for leaves. Leaf votes are stored CSR-style in
+ * {@code leafStart / leafClass / leafWeight}. Evaluation mirrors onnxruntime's
+ * TreeEnsembleClassifier: float thresholds, float score accumulation in tree order, NaN routed by
+ * {@code nodes_missing_value_tracks_true}, and the same label rule for the binary case
+ * (single weighted class: label[1] iff score > 0.5) and the multi-class case (first maximum).
+ * Results are therefore bit-identical to an OrtSession running the tree ensemble sequentially
+ * (intra-op threads = 1; with more threads onnxruntime sums tree batches in a different order).
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class CompiledForest {
+    private static final byte MODE_LEQ = 0;
+    private static final byte MODE_LT = 1;
+    private static final byte MODE_GTE = 2;
+    private static final byte MODE_GT = 3;
+    private static final byte MODE_EQ = 4;
+    private static final byte MODE_NEQ = 5;
+
+    private final int featureCount;
+    private final int[] roots;
+    private final int[] feature;
+    private final float[] threshold;
+    private final int[] trueChild;
+    private final int[] falseChild;
+    private final boolean[] missingTracksTrue;
+    private final byte[] mode;
+    private final boolean allLeq;
+    private final boolean anyMissingTracksTrue;
+    private final int[] leafStart;
+    private final int[] leafClass;
+    private final float[] leafWeight;
+    private final long[] classLabels;
+    private final float[] baseValues;
+    private final boolean binaryCase;
+    private final boolean weightsAllPositive;
+
+    private CompiledForest(int featureCount, int[] roots, int[] feature, float[] threshold, int[] trueChild,
+                           int[] falseChild, boolean[] missingTracksTrue, byte[] mode, int[] leafStart,
+                           int[] leafClass, float[] leafWeight, long[] classLabels, float[] baseValues,
+                           boolean binaryCase, boolean weightsAllPositive) {
+        this.featureCount = featureCount;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.trueChild = trueChild;
+        this.falseChild = falseChild;
+        this.missingTracksTrue = missingTracksTrue;
+        this.mode = mode;
+        this.leafStart = leafStart;
+        this.leafClass = leafClass;
+        this.leafWeight = leafWeight;
+        this.classLabels = classLabels;
+        this.baseValues = baseValues;
+        this.binaryCase = binaryCase;
+        this.weightsAllPositive = weightsAllPositive;
+        boolean leq = true;
+        for (byte m : mode) {
+            leq &= m == MODE_LEQ;
+        }
+        this.allLeq = leq;
+        boolean missing = false;
+        for (boolean m : missingTracksTrue) {
+            missing |= m;
+        }
+        this.anyMissingTracksTrue = missing;
+    }
+
+    /**
+     * Compiles the attribute arrays of an ONNX TreeEnsembleClassifier node.
+     * Node and class attributes are parallel arrays as defined by the ai.onnx.ml operator spec.
+     */
+    static CompiledForest compile(long[] nodeTreeIds, long[] nodeIds, long[] featureIds, float[] values,
+                                  String[] modes, long[] trueIds, long[] falseIds, long[] missingTrue,
+                                  long[] classTreeIds, long[] classNodeIds, long[] classIds, float[] classWeights,
+                                  long[] classLabels, float[] baseValues, String postTransform) {
+        int nodeCount = nodeIds.length;
+        if (nodeTreeIds.length != nodeCount || featureIds.length != nodeCount || values.length != nodeCount
+                || modes.length != nodeCount || trueIds.length != nodeCount || falseIds.length != nodeCount) {
+            throw new IllegalArgumentException("Inconsistent tree ensemble node attributes");
+        }
+        if (!"NONE".equals(postTransform)) {
+            throw new IllegalArgumentException("Unsupported post_transform: " + postTransform);
+        }
+        if (classLabels.length < 2) {
+            throw new IllegalArgumentException("Tree ensemble needs at least two class labels");
+        }
+
+        // Map (tree, node) -> position in the attribute arrays
+        Map<Long, Integer> positionOf = new HashMap<>(nodeCount * 2);
+        Map<Long, Integer> treeOrder = new HashMap<>();
+        for (int i = 0; i < nodeCount; i++) {
+            positionOf.put(key(nodeTreeIds[i], nodeIds[i]), i);
+            treeOrder.putIfAbsent(nodeTreeIds[i], treeOrder.size());
+        }
+
+        // Split nodes keep a dense index; leaves are numbered separately
+        int[] splitIndex = new int[nodeCount];
+        int[] leafIndex = new int[nodeCount];
+        int splits = 0;
+        int leaves = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if ("LEAF".equals(modes[i])) {
+                leafIndex[i] = leaves++;
+                splitIndex[i] = -1;
+            } else {
+                splitIndex[i] = splits++;
+                leafIndex[i] = -1;
+            }
+        }
+
+        int[] feature = new int[splits];
+        float[] threshold = new float[splits];
+        int[] trueChild = new int[splits];
+        int[] falseChild = new int[splits];
+        boolean[] missing = new boolean[splits];
+        byte[] mode = new byte[splits];
+        int featureCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            int s = splitIndex[i];
+            if (s < 0) {
+                continue;
+            }
+            feature[s] = (int) featureIds[i];
+            featureCount = Math.max(featureCount, feature[s] + 1);
+            threshold[s] = values[i];
+            mode[s] = parseMode(modes[i]);
+            missing[s] = missingTrue.length > i && missingTrue[i] != 0;
+            trueChild[s] = childRef(positionOf, nodeTreeIds[i], trueIds[i], splitIndex, leafIndex);
+            falseChild[s] = childRef(positionOf, nodeTreeIds[i], falseIds[i], splitIndex, leafIndex);
+        }
+
+        // Root = node with id 0 of each tree, in order of first appearance (onnxruntime order)
+        int[] roots = new int[treeOrder.size()];
+        for (Map.Entry<Long, Integer> tree : treeOrder.entrySet()) {
+            roots[tree.getValue()] = childRef(positionOf, tree.getKey(), 0, splitIndex, leafIndex);
+        }
+
+        // Leaf votes, CSR layout, preserving attribute order within each leaf
+        int[] counts = new int[leaves + 1];
+        int[] weightLeaf = new int[classIds.length];
+        Set<Long> weightedClasses = new HashSet<>();
+        boolean allPositive = true;
+        for (int k = 0; k < classIds.length; k++) {
+            Integer position = positionOf.get(key(classTreeIds[k], classNodeIds[k]));
+            if (position == null || leafIndex[position] < 0) {
+                throw new IllegalArgumentException("Class weight refers to a non-leaf node: tree "
+                        + classTreeIds[k] + ", node " + classNodeIds[k]);
+            }
+            if (classIds[k] < 0 || classIds[k] >= classLabels.length) {
+                throw new IllegalArgumentException("Class id out of range: " + classIds[k]);
+            }
+            weightLeaf[k] = leafIndex[position];
+            counts[weightLeaf[k] + 1]++;
+            weightedClasses.add(classIds[k]);
+            allPositive &= classWeights[k] >= 0;
+        }
+        int[] leafStart = new int[leaves + 1];
+        for (int l = 0; l < leaves; l++) {
+            leafStart[l + 1] = leafStart[l] + counts[l + 1];
+        }
+        int[] fill = Arrays.copyOf(leafStart, leaves);
+        int[] leafClass = new int[classIds.length];
+        float[] leafWeight = new float[classIds.length];
+        for (int k = 0; k < classIds.length; k++) {
+            int slot = fill[weightLeaf[k]]++;
+            leafClass[slot] = (int) classIds[k];
+            leafWeight[slot] = classWeights[k];
+        }
+
+        boolean binaryCase = classLabels.length == 2 && weightedClasses.size() == 1;
+        if (binaryCase && (baseValues.length > 0 || !weightedClasses.contains(0L))) {
+            throw new IllegalArgumentException("Unsupported binary tree ensemble (base_values or class id != 0)");
+        }
+        return new CompiledForest(featureCount, roots, feature, threshold, trueChild, falseChild, missing, mode,
+                leafStart, leafClass, leafWeight, classLabels.clone(), baseValues.clone(), binaryCase, allPositive);
+    }
+
+    private static long key(long treeId, long nodeId) {
+        return (treeId << 32) ^ nodeId;
+    }
+
+    private static int childRef(Map<Long, Integer> positionOf, long treeId, long nodeId,
+                                int[] splitIndex, int[] leafIndex) {
+        Integer position = positionOf.get(key(treeId, nodeId));
+        if (position == null) {
+            throw new IllegalArgumentException("Missing node " + nodeId + " in tree " + treeId);
+        }
+        return splitIndex[position] >= 0 ? splitIndex[position] : ~leafIndex[position];
+    }
+
+    private static byte parseMode(String mode) {
+        switch (mode) {
+            case "BRANCH_LEQ":
+                return MODE_LEQ;
+            case "BRANCH_LT":
+                return MODE_LT;
+            case "BRANCH_GTE":
+                return MODE_GTE;
+            case "BRANCH_GT":
+                return MODE_GT;
+            case "BRANCH_EQ":
+                return MODE_EQ;
+            case "BRANCH_NEQ":
+                return MODE_NEQ;
+            default:
+                throw new IllegalArgumentException("Unsupported node mode: " + mode);
+        }
+    }
+
+    /**
+     * Walks one tree for one row.
+     * @return The reached leaf index
+     */
+    private int findLeaf(int root, float[] x, int offset) {
+        int n = root;
+        if (allLeq && !anyMissingTracksTrue) {
+            // Common sklearn case: NaN fails "<=" and goes to the false child, as in onnxruntime
+            while (n >= 0) {
+                n = x[offset + feature[n]] <= threshold[n] ? trueChild[n] : falseChild[n];
+            }
+        } else if (allLeq) {
+            while (n >= 0) {
+                float v = x[offset + feature[n]];
+                n = (v <= threshold[n] || (missingTracksTrue[n] && Float.isNaN(v))) ? trueChild[n] : falseChild[n];
+            }
+        } else {
+            while (n >= 0) {
+                float v = x[offset + feature[n]];
+                n = (compare(mode[n], v, threshold[n]) || (missingTracksTrue[n] && Float.isNaN(v)))
+                        ? trueChild[n] : falseChild[n];
+            }
+        }
+        return ~n;
+    }
+
+    private static boolean compare(byte mode, float v, float t) {
+        switch (mode) {
+            case MODE_LEQ:
+                return v <= t;
+            case MODE_LT:
+                return v < t;
+            case MODE_GTE:
+                return v >= t;
+            case MODE_GT:
+                return v > t;
+            case MODE_EQ:
+                return v == t;
+            default:
+                return v != t;
+        }
+    }
+
+    /**
+     * Predicts the class label of one row.
+     * @param features Feature vector (length >= {@link #getFeatureCount()})
+     * @return The predicted label (e.g. 0 = SELL, 1 = BUY)
+     */
+    public long predictLabel(float[] features) {
+        checkRow(features, 0);
+        if (binaryCase) {
+            return binaryLabel(binaryScore(features));
+        }
+        float[] scores = new float[classLabels.length];
+        boolean[] hasScore = new boolean[classLabels.length];
+        accumulate(features, 0, scores, 0, hasScore);
+        return argmaxLabel(scores, 0, hasScore);
+    }
+
+    /**
+     * Computes class probabilities of one row, as returned by onnxruntime's "probabilities" output.
+     * @param features Feature vector
+     * @return One score per class label
+     */
+    public float[] predictProbabilities(float[] features) {
+        checkRow(features, 0);
+        float[] scores = new float[classLabels.length];
+        boolean[] hasScore = new boolean[classLabels.length];
+        accumulate(features, 0, scores, 0, hasScore);
+        return finalizeScores(scores);
+    }
+
+    /**
+     * Predicts labels for a batch of rows. Trees are the outer loop so each tree's nodes stay in
+     * cache across rows; per-row accumulation order is unchanged, so results equal
+     * {@link #predictLabel(float[])}.
+     * @param rows Row-major features, {@code rowCount * getFeatureCount()} values
+     * @param rowCount Number of rows
+     * @param labels Receives one label per row
+     */
+    public void predictLabels(float[] rows, int rowCount, long[] labels) {
+        int classes = classLabels.length;
+        if (rows.length < (long) rowCount * featureCount || labels.length < rowCount) {
+            throw new IllegalArgumentException("Batch arrays too small for " + rowCount + " rows");
+        }
+        float[] scores = new float[rowCount * classes];
+        boolean[] hasScore = new boolean[rowCount * classes];
+        for (int root : roots) {
+            for (int r = 0; r < rowCount; r++) {
+                int leaf = findLeaf(root, rows, r * featureCount);
+                for (int k = leafStart[leaf]; k < leafStart[leaf + 1]; k++) {
+                    scores[r * classes + leafClass[k]] += leafWeight[k];
+                    hasScore[r * classes + leafClass[k]] = true;
+                }
+            }
+        }
+        for (int r = 0; r < rowCount; r++) {
+            labels[r] = binaryCase ? binaryLabel(scores[r * classes]) : argmaxLabel(scores, r * classes, hasScore);
+        }
+    }
+
+    /**
+     * Sum of leaf weights for the binary case. In the common all-LEQ case four trees are walked in
+     * lockstep so their dependent load chains overlap; leaves are still added in tree order, so the
+     * float result is unchanged.
+     */
+    private float binaryScore(float[] x) {
+        float score = 0f;
+        int t = 0;
+        if (allLeq && !anyMissingTracksTrue) {
+            for (; t + 4 <= roots.length; t += 4) {
+                int a = roots[t];
+                int b = roots[t + 1];
+                int c = roots[t + 2];
+                int d = roots[t + 3];
+                while ((a & b & c & d) >= 0) { // at least one walk has not reached a leaf
+                    if (a >= 0) {
+                        a = x[feature[a]] <= threshold[a] ? trueChild[a] : falseChild[a];
+                    }
+                    if (b >= 0) {
+                        b = x[feature[b]] <= threshold[b] ? trueChild[b] : falseChild[b];
+                    }
+                    if (c >= 0) {
+                        c = x[feature[c]] <= threshold[c] ? trueChild[c] : falseChild[c];
+                    }
+                    if (d >= 0) {
+                        d = x[feature[d]] <= threshold[d] ? trueChild[d] : falseChild[d];
+                    }
+                }
+                score = addLeaf(score, ~a);
+                score = addLeaf(score, ~b);
+                score = addLeaf(score, ~c);
+                score = addLeaf(score, ~d);
+            }
+        }
+        for (; t < roots.length; t++) {
+            score = addLeaf(score, findLeaf(roots[t], x, 0));
+        }
+        return score;
+    }
+
+    private float addLeaf(float score, int leaf) {
+        for (int k = leafStart[leaf]; k < leafStart[leaf + 1]; k++) {
+            score += leafWeight[k];
+        }
+        return score;
+    }
+
+    private void accumulate(float[] x, int offset, float[] scores, int scoreOffset, boolean[] hasScore) {
+        for (int root : roots) {
+            int leaf = findLeaf(root, x, offset);
+            for (int k = leafStart[leaf]; k < leafStart[leaf + 1]; k++) {
+                scores[scoreOffset + leafClass[k]] += leafWeight[k];
+                hasScore[scoreOffset + leafClass[k]] = true;
+            }
+        }
+    }
+
+    private long binaryLabel(float score) {
+        if (weightsAllPositive) {
+            return score > 0.5f ? classLabels[1] : classLabels[0];
+        }
+        return score > 0f ? classLabels[1] : classLabels[0];
+    }
+
+    private long argmaxLabel(float[] scores, int offset, boolean[] hasScore) {
+        int best = -1;
+        float bestScore = 0f;
+        for (int c = 0; c < classLabels.length; c++) {
+            float score = scores[offset + c] + (baseValues.length > c ? baseValues[c] : 0f);
+            if ((hasScore[offset + c] || baseValues.length > c) && (best == -1 || score > bestScore)) {
+                best = c;
+                bestScore = score;
+            }
+        }
+        return classLabels[Math.max(best, 0)];
+    }
+
+    private float[] finalizeScores(float[] scores) {
+        if (binaryCase) {
+            float score = scores[0];
+            return weightsAllPositive ? new float[]{1f - score, score} : new float[]{-score, score};
+        }
+        float[] out = new float[scores.length];
+        for (int c = 0; c < scores.length; c++) {
+            out[c] = scores[c] + (baseValues.length > c ? baseValues[c] : 0f);
+        }
+        return out;
+    }
+
+    private void checkRow(float[] features, int offset) {
+        if (features.length - offset < featureCount) {
+            throw new IllegalArgumentException("Expected " + featureCount + " features, got " + features.length);
+        }
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    public int getTreeCount() {
+        return roots.length;
+    }
+
+    public int getSplitCount() {
+        return feature.length;
+    }
+
+    public long[] getClassLabels() {
+        return classLabels.clone();
+    }
+}
@@ -0,0 +1,141 @@
+package com.tradingbot.model;
+
+import java.util.List;
+
+/**
+ * Computes the model's input features from a stream of closes: RSI_14, SMA_Diff (close minus the
+ * 20-period SMA) and 5-period Momentum, in that order.
+ *
+ * This is the single implementation of the features, used for inference by
+ * {@link com.tradingbot.strategy.AIStrategy} and for training sets by {@link TrainingSetExporter},
+ * so a model is trained on exactly the values it sees live. The closes are kept in a fixed ring
+ * buffer and the features are float-for-float identical to the original list-based code, including
+ * its defaults while the history is short (RSI 50, SMA = close, Momentum 0).
+ *
+ * Not thread-safe.
+ */
+public final class FeatureCalculator {
+    public static final int RSI_PERIOD = 14;
+    public static final int SMA_PERIOD = 20;
+    public static final int MOMENTUM_PERIOD = 5;
+    /** Closes needed before every feature is computed from a full window. */
+    public static final int HISTORY_SIZE = Math.max(SMA_PERIOD, Math.max(MOMENTUM_PERIOD, RSI_PERIOD)) + 1;
+    public static final int FEATURE_COUNT = 3;
+    public static final List<String> FEATURE_NAMES = List.of("RSI_14", "SMA_Diff", "Momentum");
+
+    private final double[] prices = new double[HISTORY_SIZE]; // Ring buffer, oldest at start
+    private int start;
+    private int size;
+
+    /**
+     * Appends a close, dropping the oldest once the history is full.
+     * @param close The close
+     */
+    public void add(double close) {
+        if (size < HISTORY_SIZE) {
+            prices[index(size++)] = close;
+        } else {
+            prices[start] = close;
+            start = index(1);
+        }
+    }
+
+    /**
+     * Appends a close and computes the features as of that close.
+     * @param close The close
+     * @param out Receives {@link #FEATURE_COUNT} features
+     * @param offset First index written
+     */
+    public void update(double close, float[] out, int offset) {
+        add(close);
+        compute(out, offset);
+    }
+
+    /**
+     * Computes the features as of the last close.
+     * @param out Receives {@link #FEATURE_COUNT} features
+     * @param offset First index written
+     */
+    public void compute(float[] out, int offset) {
+        double close = size == 0 ? 0.0 : prices[index(size - 1)];
+        out[offset] = (float) rsi();
+        out[offset + 1] = (float) (close - sma());
+        out[offset + 2] = (float) momentum();
+    }
+
+    private double rsi() {
+        if (size < RSI_PERIOD + 1) {
+            return 50.0;
+        }
+        double avgGain = 0.0;
+        double avgLoss = 0.0;
+        for (int i = size - RSI_PERIOD; i < size; i++) {
+            double change = prices[index(i)] - prices[index(i - 1)];
+            if (change > 0) {
+                avgGain += change;
+            } else {
+                avgLoss += -change;
+            }
+        }
+        avgGain /= RSI_PERIOD;
+        avgLoss /= RSI_PERIOD;
+        if (avgLoss == 0) {
+            return 100.0;
+        }
+        double rs = avgGain / avgLoss;
+        return 100.0 - (100.0 / (1.0 + rs));
+    }
+
+    private double sma() {
+        if (size < SMA_PERIOD) {
+            return size == 0 ? 0.0 : prices[index(size - 1)];
+        }
+        double sum = 0.0;
+        for (int i = size - SMA_PERIOD; i < size; i++) {
+            sum += prices[index(i)];
+        }
+        return sum / SMA_PERIOD;
+    }
+
+    private double momentum() {
+        if (size < MOMENTUM_PERIOD + 1) {
+            return 0.0;
+        }
+        return prices[index(size - 1)] - prices[index(size - MOMENTUM_PERIOD - 1)];
+    }
+
+    private int index(int offset) {
+        int i = start + offset;
+        return i >= HISTORY_SIZE ? i - HISTORY_SIZE : i;
+    }
+
+    /**
+     * @return Number of closes held, at most {@link #HISTORY_SIZE}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true once every feature is computed from a full window
+     */
+    public boolean isWarm() {
+        return size == HISTORY_SIZE;
+    }
+
+    /**
+     * @param index 0 = oldest close held
+     * @return The close
+     */
+    public double getPrice(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return prices[index(index)];
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+}
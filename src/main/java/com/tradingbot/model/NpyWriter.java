@@ -0,0 +1,113 @@
+package com.tradingbot.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a little-endian array to a NumPy .npy file (format 1.0) that numpy.load can memory-map.
+ *
+ * The row count is unknown until the end, so the header reserves a fixed {@value #HEADER_LENGTH}
+ * bytes (a multiple of 64, keeping the data aligned) and is rewritten with the final shape on close.
+ *
+ * Not thread-safe.
+ */
+final class NpyWriter implements AutoCloseable {
+    static final int HEADER_LENGTH = 128;
+    private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0};
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final String descr;
+    private final int columns;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long elements;
+    private boolean closed;
+
+    /**
+     * Creates or truncates the file.
+     * @param path The file
+     * @param descr NumPy dtype, e.g. "&lt;f4", "&lt;i8" or "|i1"
+     * @param columns Values per row, or 0 for a one-dimensional array
+     * @throws IOException if the file cannot be created
+     */
+    NpyWriter(Path path, String descr, int columns) throws IOException {
+        if (columns < 0) {
+            throw new IllegalArgumentException("Columns cannot be negative: " + columns);
+        }
+        this.descr = descr;
+        this.columns = columns;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.put(header(0));
+    }
+
+    private ByteBuffer header(long rows) {
+        String shape = columns == 0 ? "(" + rows + ",)" : "(" + rows + ", " + columns + ")";
+        StringBuilder dict = new StringBuilder("{'descr': '").append(descr)
+                .append("', 'fortran_order': False, 'shape': ").append(shape).append(", }");
+        int padding = HEADER_LENGTH - MAGIC.length - 2 - dict.length() - 1;
+        dict.append(" ".repeat(padding)).append('\n');
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putShort((short) (HEADER_LENGTH - MAGIC.length - 2))
+                .put(dict.toString().getBytes(StandardCharsets.US_ASCII));
+        return header.flip();
+    }
+
+    void putFloat(float value) throws IOException {
+        ensure(Float.BYTES).putFloat(value);
+        elements++;
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES).putLong(value);
+        elements++;
+    }
+
+    void putByte(byte value) throws IOException {
+        ensure(Byte.BYTES).put(value);
+        elements++;
+    }
+
+    private ByteBuffer ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        return buffer;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flushes the data and writes the final shape into the header.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            long rows = columns == 0 ? elements : elements / columns;
+            ByteBuffer header = header(rows);
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
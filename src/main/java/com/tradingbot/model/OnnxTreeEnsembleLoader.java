@@ -0,0 +1,203 @@
+package com.tradingbot.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the TreeEnsembleClassifier node (ai.onnx.ml) of an ONNX model, as exported by skl2onnx for
+ * scikit-learn RandomForest/ExtraTrees/DecisionTree classifiers, and compiles it into a
+ * {@link CompiledForest}.
+ *
+ * Only the ModelProto -> GraphProto -> NodeProto -> AttributeProto path is decoded; everything else
+ * (initializers, ZipMap, metadata) is skipped.
+ */
+public final class OnnxTreeEnsembleLoader {
+    private static final String TREE_ENSEMBLE_CLASSIFIER = "TreeEnsembleClassifier";
+
+    // ModelProto / GraphProto / NodeProto / AttributeProto field numbers (onnx.proto3)
+    private static final int MODEL_GRAPH = 7;
+    private static final int GRAPH_NODE = 1;
+    private static final int NODE_OP_TYPE = 4;
+    private static final int NODE_ATTRIBUTE = 5;
+    private static final int ATTR_NAME = 1;
+    private static final int ATTR_F = 2;
+    private static final int ATTR_I = 3;
+    private static final int ATTR_S = 4;
+    private static final int ATTR_FLOATS = 7;
+    private static final int ATTR_INTS = 8;
+    private static final int ATTR_STRINGS = 9;
+
+    private OnnxTreeEnsembleLoader() {
+    }
+
+    /**
+     * Loads and compiles the tree ensemble of an ONNX model file.
+     * @param modelPath Path to the .onnx file
+     * @return The compiled forest
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the model has no supported TreeEnsembleClassifier
+     */
+    public static CompiledForest load(Path modelPath) throws IOException {
+        return load(Files.readAllBytes(modelPath));
+    }
+
+    /**
+     * Compiles the tree ensemble of a serialized ONNX model.
+     * @param modelBytes Serialized ModelProto
+     * @return The compiled forest
+     */
+    public static CompiledForest load(byte[] modelBytes) {
+        Map<String, Attribute> attributes = findTreeEnsemble(modelBytes);
+        if (attributes == null) {
+            throw new IllegalArgumentException("Model contains no " + TREE_ENSEMBLE_CLASSIFIER + " node");
+        }
+        return CompiledForest.compile(
+                longs(attributes, "nodes_treeids"),
+                longs(attributes, "nodes_nodeids"),
+                longs(attributes, "nodes_featureids"),
+                floats(attributes, "nodes_values"),
+                strings(attributes, "nodes_modes"),
+                longs(attributes, "nodes_truenodeids"),
+                longs(attributes, "nodes_falsenodeids"),
+                optionalLongs(attributes, "nodes_missing_value_tracks_true"),
+                longs(attributes, "class_treeids"),
+                longs(attributes, "class_nodeids"),
+                longs(attributes, "class_ids"),
+                floats(attributes, "class_weights"),
+                longs(attributes, "classlabels_int64s"),
+                optionalFloats(attributes, "base_values"),
+                string(attributes, "post_transform", "NONE"));
+    }
+
+    private static Map<String, Attribute> findTreeEnsemble(byte[] modelBytes) {
+        ProtobufReader model = new ProtobufReader(modelBytes);
+        while (model.next()) {
+            if (model.fieldNumber() != MODEL_GRAPH) {
+                model.skip();
+                continue;
+            }
+            ProtobufReader graph = model.readMessage();
+            while (graph.next()) {
+                if (graph.fieldNumber() != GRAPH_NODE) {
+                    graph.skip();
+                    continue;
+                }
+                Map<String, Attribute> attributes = readNode(graph.readMessage());
+                if (attributes != null) {
+                    return attributes;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The node's attributes if it is a TreeEnsembleClassifier, null otherwise
+     */
+    private static Map<String, Attribute> readNode(ProtobufReader node) {
+        String opType = null;
+        List<ProtobufReader> rawAttributes = new ArrayList<>();
+        while (node.next()) {
+            if (node.fieldNumber() == NODE_OP_TYPE) {
+                opType = node.readString();
+            } else if (node.fieldNumber() == NODE_ATTRIBUTE) {
+                rawAttributes.add(node.readMessage());
+            } else {
+                node.skip();
+            }
+        }
+        if (!TREE_ENSEMBLE_CLASSIFIER.equals(opType)) {
+            return null;
+        }
+
+        Map<String, Attribute> attributes = new HashMap<>();
+        for (ProtobufReader raw : rawAttributes) {
+            Attribute attribute = readAttribute(raw);
+            attributes.put(attribute.name, attribute);
+        }
+        return attributes;
+    }
+
+    private static Attribute readAttribute(ProtobufReader reader) {
+        Attribute attribute = new Attribute();
+        ProtobufReader.FloatList floats = new ProtobufReader.FloatList();
+        ProtobufReader.LongList ints = new ProtobufReader.LongList();
+        while (reader.next()) {
+            switch (reader.fieldNumber()) {
+                case ATTR_NAME:
+                    attribute.name = reader.readString();
+                    break;
+                case ATTR_F:
+                    floats.add(reader.readFixed32Float());
+                    break;
+                case ATTR_I:
+                    ints.add(reader.readVarint());
+                    break;
+                case ATTR_S:
+                    attribute.strings.add(reader.readString());
+                    break;
+                case ATTR_FLOATS:
+                    reader.readFloats(floats);
+                    break;
+                case ATTR_INTS:
+                    reader.readLongs(ints);
+                    break;
+                case ATTR_STRINGS:
+                    attribute.strings.add(reader.readString());
+                    break;
+                default:
+                    reader.skip();
+            }
+        }
+        attribute.floats = floats.toArray();
+        attribute.ints = ints.toArray();
+        return attribute;
+    }
+
+    private static Attribute required(Map<String, Attribute> attributes, String name) {
+        Attribute attribute = attributes.get(name);
+        if (attribute == null) {
+            throw new IllegalArgumentException("Unsupported tree ensemble: missing attribute " + name);
+        }
+        return attribute;
+    }
+
+    private static long[] longs(Map<String, Attribute> attributes, String name) {
+        return required(attributes, name).ints;
+    }
+
+    private static long[] optionalLongs(Map<String, Attribute> attributes, String name) {
+        Attribute attribute = attributes.get(name);
+        return attribute == null ? new long[0] : attribute.ints;
+    }
+
+    private static float[] floats(Map<String, Attribute> attributes, String name) {
+        return required(attributes, name).floats;
+    }
+
+    private static float[] optionalFloats(Map<String, Attribute> attributes, String name) {
+        Attribute attribute = attributes.get(name);
+        return attribute == null ? new float[0] : attribute.floats;
+    }
+
+    private static String[] strings(Map<String, Attribute> attributes, String name) {
+        return required(attributes, name).strings.toArray(new String[0]);
+    }
+
+    private static String string(Map<String, Attribute> attributes, String name, String defaultValue) {
+        Attribute attribute = attributes.get(name);
+        return attribute == null || attribute.strings.isEmpty() ? defaultValue : attribute.strings.get(0);
+    }
+
+    private static final class Attribute {
+        private String name;
+        private float[] floats;
+        private long[] ints;
+        private final List<String> strings = new ArrayList<>();
+    }
+}
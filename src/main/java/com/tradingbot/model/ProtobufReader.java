@@ -0,0 +1,201 @@
+package com.tradingbot.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal reader for the protobuf wire format, enough to walk an ONNX ModelProto without
+ * pulling in the protobuf runtime. Supports varint, 64-bit, length-delimited and 32-bit fields;
+ * groups (deprecated) are rejected.
+ */
+final class ProtobufReader {
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_LENGTH_DELIMITED = 2;
+    static final int WIRE_FIXED32 = 5;
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+    private int tag;
+
+    ProtobufReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private ProtobufReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Advances to the next field.
+     * @return false at the end of the message
+     */
+    boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        tag = (int) readVarint();
+        return true;
+    }
+
+    int fieldNumber() {
+        return tag >>> 3;
+    }
+
+    int wireType() {
+        return tag & 7;
+    }
+
+    long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at offset " + position);
+    }
+
+    float readFixed32Float() {
+        return Float.intBitsToFloat(readFixed32());
+    }
+
+    private int readFixed32() {
+        checkAvailable(4);
+        int value = (buffer[position] & 0xFF)
+                | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16
+                | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a length-delimited field as an embedded message.
+     * @return A reader over the embedded message
+     */
+    ProtobufReader readMessage() {
+        int length = readLength();
+        ProtobufReader nested = new ProtobufReader(buffer, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    /**
+     * Reads a repeated float field, packed or not, appending to the list.
+     */
+    void readFloats(FloatList out) {
+        if (wireType() == WIRE_LENGTH_DELIMITED) {
+            int end = position + readLength();
+            while (position < end) {
+                out.add(readFixed32Float());
+            }
+        } else {
+            out.add(readFixed32Float());
+        }
+    }
+
+    /**
+     * Reads a repeated int64 field, packed or not, appending to the list.
+     */
+    void readLongs(LongList out) {
+        if (wireType() == WIRE_LENGTH_DELIMITED) {
+            int end = position + readLength();
+            while (position < end) {
+                out.add(readVarint());
+            }
+        } else {
+            out.add(readVarint());
+        }
+    }
+
+    void skip() {
+        switch (wireType()) {
+            case WIRE_VARINT:
+                readVarint();
+                break;
+            case WIRE_FIXED64:
+                checkAvailable(8);
+                position += 8;
+                break;
+            case WIRE_LENGTH_DELIMITED:
+                int length = readLength();
+                position += length;
+                break;
+            case WIRE_FIXED32:
+                checkAvailable(4);
+                position += 4;
+                break;
+            default:
+                throw new IllegalStateException("Unsupported wire type " + wireType() + " at offset " + position);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalStateException("Invalid length " + length + " at offset " + position);
+        }
+        return (int) length;
+    }
+
+    private byte readByte() {
+        checkAvailable(1);
+        return buffer[position++];
+    }
+
+    private void checkAvailable(int count) {
+        if (limit - position < count) {
+            throw new IllegalStateException("Truncated message at offset " + position);
+        }
+    }
+
+    /**
+     * Growable primitive float list (avoids boxing while parsing large attributes).
+     */
+    static final class FloatList {
+        private float[] values = new float[16];
+        private int size;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = java.util.Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        float[] toArray() {
+            return java.util.Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Growable primitive long list.
+     */
+    static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = java.util.Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return java.util.Arrays.copyOf(values, size);
+        }
+    }
+}
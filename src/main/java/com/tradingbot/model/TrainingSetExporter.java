@@ -0,0 +1,234 @@
+package com.tradingbot.model;
+
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.simulation.GeometricBrownianMotion;
+import com.tradingbot.simulation.SyntheticCandleStream;
+import com.tradingbot.storage.CandleHandler;
+import com.tradingbot.storage.CompressedCandleReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Turns a candle history into a training set for the AI model, computing the features with the
+ * same {@link FeatureCalculator} that {@link com.tradingbot.strategy.AIStrategy} uses live.
+ *
+ * Candles are streamed in time order; nothing but the feature window and the rows waiting for
+ * their label is kept in memory, so the size of a training set is bounded by disk only. Each row
+ * is labelled with the close horizon candles later: 1 (BUY) if it is above close * (1 + threshold),
+ * else 0, the rule train_model.py uses. Rows are written once the feature window is full (the
+ * first {@link FeatureCalculator#HISTORY_SIZE} - 1 candles only warm it up) and while a future close
+ * exists. The output directory receives NumPy arrays for the trainer to memory-map:
+ *
+ * <pre>
+ * features.npy         float32 (rows, 3)  RSI_14, SMA_Diff, Momentum
+ * labels.npy           int8    (rows,)    0 = SELL, 1 = BUY
+ * forward_returns.npy  float32 (rows,)    future close / close - 1
+ * timestamps.npy       int64   (rows,)    candle open time, epoch milliseconds
+ * </pre>
+ *
+ * Usage: java -cp ... com.tradingbot.model.TrainingSetExporter out-dir
+ *     (--candles history.tbcs | --synthetic count [seed]) [--horizon n] [--threshold x]
+ */
+public final class TrainingSetExporter implements CandleHandler, AutoCloseable {
+    public static final int DEFAULT_HORIZON = 1;
+    public static final double DEFAULT_THRESHOLD = 0.005;
+
+    private final int horizon;
+    private final double threshold;
+    private final FeatureCalculator calculator = new FeatureCalculator();
+    private final float[] row = new float[FeatureCalculator.FEATURE_COUNT];
+    private final NpyWriter features;
+    private final NpyWriter labels;
+    private final NpyWriter forwardReturns;
+    private final NpyWriter timestamps;
+
+    // Rows waiting for the close horizon candles later, oldest at head
+    private final float[] pendingFeatures;
+    private final double[] pendingCloses;
+    private final long[] pendingTimestamps;
+    private int head;
+    private int pending;
+    private long rows;
+
+    public TrainingSetExporter(Path directory) throws IOException {
+        this(directory, DEFAULT_HORIZON, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates the directory if needed and truncates the output files.
+     * @param directory Output directory
+     * @param horizon Candles between a row and the close that labels it
+     * @param threshold Minimum forward return of a BUY label (e.g. 0.005 = 0.5%)
+     * @throws IOException if the files cannot be created
+     */
+    public TrainingSetExporter(Path directory, int horizon, double threshold) throws IOException {
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("Horizon must be positive: " + horizon);
+        }
+        if (!(threshold > -1)) {
+            throw new IllegalArgumentException("Threshold must be above -1: " + threshold);
+        }
+        this.horizon = horizon;
+        this.threshold = threshold;
+        this.pendingFeatures = new float[horizon * FeatureCalculator.FEATURE_COUNT];
+        this.pendingCloses = new double[horizon];
+        this.pendingTimestamps = new long[horizon];
+        Files.createDirectories(directory);
+        this.features = new NpyWriter(directory.resolve("features.npy"), "<f4", FeatureCalculator.FEATURE_COUNT);
+        this.labels = new NpyWriter(directory.resolve("labels.npy"), "|i1", 0);
+        this.forwardReturns = new NpyWriter(directory.resolve("forward_returns.npy"), "<f4", 0);
+        this.timestamps = new NpyWriter(directory.resolve("timestamps.npy"), "<i8", 0);
+    }
+
+    /**
+     * Processes the next candle: labels and writes the row horizon candles back, then computes
+     * this candle's features.
+     * @param timestampMillis Open time of the candle
+     * @param close Its close
+     * @throws IOException if writing fails
+     */
+    public void add(long timestampMillis, double close) throws IOException {
+        if (pending == horizon) {
+            writeRow(close);
+        }
+        calculator.update(close, row, 0);
+        if (calculator.isWarm()) {
+            int slot = head + pending < horizon ? head + pending : head + pending - horizon;
+            System.arraycopy(row, 0, pendingFeatures, slot * FeatureCalculator.FEATURE_COUNT,
+                    FeatureCalculator.FEATURE_COUNT);
+            pendingCloses[slot] = close;
+            pendingTimestamps[slot] = timestampMillis;
+            pending++;
+        }
+    }
+
+    private void writeRow(double futureClose) throws IOException {
+        double close = pendingCloses[head];
+        for (int f = 0; f < FeatureCalculator.FEATURE_COUNT; f++) {
+            features.putFloat(pendingFeatures[head * FeatureCalculator.FEATURE_COUNT + f]);
+        }
+        labels.putByte(futureClose > close * (1 + threshold) ? (byte) 1 : (byte) 0);
+        forwardReturns.putFloat((float) (futureClose / close - 1));
+        timestamps.putLong(pendingTimestamps[head]);
+        head = head + 1 == horizon ? 0 : head + 1;
+        pending--;
+        rows++;
+    }
+
+    /**
+     * {@link CandleHandler} entry point, e.g. for {@link CompressedCandleReader#scan}.
+     * @throws UncheckedIOException if writing fails
+     */
+    @Override
+    public void onCandle(long timestampMillis, double open, double high, double low, double close, double volume) {
+        try {
+            add(timestampMillis, close);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Processes every candle of a series.
+     * @param candles The candles, continuing after those already added
+     * @throws IOException if writing fails
+     */
+    public void addAll(CandleColumns candles) throws IOException {
+        for (int i = 0; i < candles.size(); i++) {
+            add(candles.getTimestamp(i), candles.getClose(i));
+        }
+    }
+
+    /**
+     * @return Rows written so far
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Finishes the files; rows still waiting for their label are dropped.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        pending = 0;
+        IOException failure = null;
+        for (NpyWriter writer : new NpyWriter[] {features, labels, forwardReturns, timestamps}) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: TrainingSetExporter <output dir> (--candles <file> | --synthetic <count> [seed])"
+                    + " [--horizon n] [--threshold x]");
+            System.exit(2);
+        }
+        Path out = Paths.get(args[0]);
+        String candleFile = null;
+        long synthetic = 0;
+        long seed = 42;
+        int horizon = DEFAULT_HORIZON;
+        double threshold = DEFAULT_THRESHOLD;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--candles":
+                    candleFile = args[++i];
+                    break;
+                case "--synthetic":
+                    synthetic = Long.parseLong(args[++i]);
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        seed = Long.parseLong(args[++i]);
+                    }
+                    break;
+                case "--horizon":
+                    horizon = Integer.parseInt(args[++i]);
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        long rows;
+        try (TrainingSetExporter exporter = new TrainingSetExporter(out, horizon, threshold)) {
+            if (candleFile != null) {
+                try (CompressedCandleReader reader = new CompressedCandleReader(Paths.get(candleFile))) {
+                    reader.scan(Long.MIN_VALUE, Long.MAX_VALUE, exporter);
+                }
+            } else {
+                // Close to train_model.py's random walk: uniform +-2% moves have a 1.15% standard deviation
+                SyntheticCandleStream stream = new SyntheticCandleStream(new GeometricBrownianMotion(0, 0.0115),
+                        seed, 50000, 5000, 1_704_067_200_000L, 60_000);
+                CandleColumns chunk = new CandleColumns(1 << 16);
+                for (long remaining = synthetic; remaining > 0; remaining -= chunk.size()) {
+                    chunk.clear();
+                    stream.fill(chunk, (int) Math.min(remaining, 1 << 16));
+                    exporter.addAll(chunk);
+                }
+            }
+            rows = exporter.getRowCount();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Exported %d rows to %s in %.1f s (%.1f M rows/s)%n", rows,
+                out.toAbsolutePath(), seconds, rows / seconds / 1e6);
+    }
+}
@@ -1,10 +1,12 @@
 package com.tradingbot.observer;
 
 import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.jfr.CandleDispatchEvent;
+import com.tradingbot.simulation.SyntheticCandleStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents the 'Concrete Subject' in the Observer Pattern.
@@ -15,11 +17,18 @@ import java.util.Random;
  * Reason: Used to create an event-driven market data feed that runs on a separate thread, simulating
  * real-time market updates. This decouples data generation from trading logic and allows multiple
  * strategies to react to the same market events independently.
+ *
+ * By default candles follow a uniform random walk; pass a {@link SyntheticCandleStream} to drive
+ * the feed from a seeded market model (GBM, GARCH, ...) instead.
  */
 public class MarketDataSubject implements Subject, Runnable {
     private final List<Observer> observers;
-    private final Random random;
+    private final SplittableRandom random; // Only used by the feed thread
+    private final SyntheticCandleStream stream; // null = built-in random walk
+    private final String symbol;
+    private final long intervalMillis;
     private volatile boolean running;
+    private volatile long candleCount;
     private Thread dataThread;
     
     // Simulation parameters
@@ -27,9 +36,49 @@ public class MarketDataSubject implements Subject, Runnable {
     private static final double VOLATILITY = 0.02; // 2% volatility per candle
 
     public MarketDataSubject() {
+        this("BTCUSDT", 1000);
+    }
+
+    /**
+     * Creates a simulated feed for the given symbol.
+     * @param symbol The symbol name (informational, e.g. "BTCUSDT")
+     * @param intervalMillis Delay between candles in milliseconds (0 = as fast as possible)
+     */
+    public MarketDataSubject(String symbol, long intervalMillis) {
+        this(symbol, intervalMillis, null);
+    }
+
+    /**
+     * Creates a feed driven by a synthetic candle stream.
+     * @param symbol The symbol name (informational, e.g. "BTCUSDT")
+     * @param intervalMillis Delay between candles in milliseconds (0 = as fast as possible)
+     * @param stream Source of the candles, or null for the built-in random walk
+     */
+    public MarketDataSubject(String symbol, long intervalMillis, SyntheticCandleStream stream) {
+        this(symbol, intervalMillis, stream, new SplittableRandom());
+    }
+
+    /**
+     * Creates a random-walk feed that produces the same prices on every run.
+     * @param symbol The symbol name (informational, e.g. "BTCUSDT")
+     * @param intervalMillis Delay between candles in milliseconds (0 = as fast as possible)
+     * @param seed Seed of the random walk
+     */
+    public MarketDataSubject(String symbol, long intervalMillis, long seed) {
+        this(symbol, intervalMillis, null, new SplittableRandom(seed));
+    }
+
+    private MarketDataSubject(String symbol, long intervalMillis, SyntheticCandleStream stream,
+                              SplittableRandom random) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Interval cannot be negative: " + intervalMillis);
+        }
         this.observers = new ArrayList<>();
-        this.random = new Random();
+        this.random = random;
+        this.stream = stream;
         this.running = false;
+        this.symbol = symbol;
+        this.intervalMillis = intervalMillis;
     }
 
     @Override
@@ -46,21 +95,30 @@ public class MarketDataSubject implements Subject, Runnable {
 
     @Override
     public synchronized void notifyObservers(MarketCandle candle) {
+        CandleDispatchEvent event = new CandleDispatchEvent();
+        event.begin();
         // Create a copy of the list to avoid concurrent modification issues
         List<Observer> observersCopy = new ArrayList<>(observers);
         for (Observer observer : observersCopy) {
             observer.update(candle);
         }
+        candleCount++;
+        if (event.shouldCommit()) {
+            event.symbol = symbol;
+            event.observers = observersCopy.size();
+            event.close = candle.getClose();
+            event.commit();
+        }
     }
 
     /**
      * Starts the market data feed in a separate thread.
-     * Generates a new candle every 1 second.
+     * Generates a new candle every interval (1 second by default).
      */
     public void start() {
         if (!running) {
             running = true;
-            dataThread = new Thread(this, "MarketDataThread");
+            dataThread = new Thread(this, "MarketDataThread-" + symbol);
             dataThread.start();
         }
     }
@@ -84,6 +142,9 @@ public class MarketDataSubject implements Subject, Runnable {
      * @return A new MarketCandle instance
      */
     private MarketCandle generateCandle() {
+        if (stream != null) {
+            return stream.next();
+        }
         // Random price change: -VOLATILITY to +VOLATILITY
         double priceChange = (random.nextDouble() - 0.5) * 2 * VOLATILITY;
         double newPrice = basePrice * (1 + priceChange);
@@ -107,8 +168,11 @@ public class MarketDataSubject implements Subject, Runnable {
             MarketCandle candle = generateCandle();
             notifyObservers(candle);
             
+            if (intervalMillis == 0) {
+                continue;
+            }
             try {
-                Thread.sleep(1000); // Wait 1 second before generating next candle
+                Thread.sleep(intervalMillis); // Wait before generating next candle
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 running = false;
@@ -124,5 +188,21 @@ public class MarketDataSubject implements Subject, Runnable {
     public synchronized int getObserverCount() {
         return observers.size();
     }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Gets the number of candles published so far. Lock-free, safe to call from any thread.
+     * @return The count of published candles
+     */
+    public long getCandleCount() {
+        return candleCount;
+    }
 }
 
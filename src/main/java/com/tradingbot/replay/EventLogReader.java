@@ -0,0 +1,194 @@
+package com.tradingbot.replay;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.risk.RiskLimits;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads an event log written by {@link EventLogWriter}, one event at a time.
+ *
+ * {@link #next()} reads the next event into this reader; the getters of that event's type return
+ * its fields until the following call.
+ */
+public class EventLogReader implements AutoCloseable {
+    public static final int END = -1;
+    public static final int CANDLE = EventLogWriter.CANDLE;
+    public static final int TRADE = EventLogWriter.TRADE;
+    public static final int DECISION = EventLogWriter.DECISION;
+    private static final Signal[] SIGNALS = Signal.values();
+
+    private final DataInputStream in;
+    private final String botName;
+    private final String strategyType;
+    private final String[] params;
+    private final RiskLimits riskLimits;
+    private final byte[] initialSnapshot;
+
+    private long epochSecond;
+    private int nano;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private Signal side;
+    private double price;
+    private double amount;
+    private Signal signal;
+    private long usdtUnits;
+    private long coinUnits;
+
+    /**
+     * Opens a log and reads its header.
+     * @param path The log file
+     * @throws IOException if the file cannot be read or is not an event log
+     */
+    public EventLogReader(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        try {
+            if (in.readInt() != EventLogWriter.MAGIC) {
+                throw new IOException("Not an event log: " + path);
+            }
+            short version = in.readShort();
+            if (version != EventLogWriter.VERSION) {
+                throw new IOException("Unsupported event log version " + version + ": " + path);
+            }
+            this.botName = in.readUTF();
+            this.strategyType = in.readUTF();
+            this.params = new String[in.readUnsignedShort()];
+            for (int i = 0; i < params.length; i++) {
+                params[i] = in.readUTF();
+            }
+            if (in.readBoolean()) {
+                try {
+                    this.riskLimits = new RiskLimits(in.readDouble(), in.readDouble(), in.readLong(), in.readInt(),
+                            in.readDouble(), in.readDouble());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt event log: invalid risk limits in " + path, e);
+                }
+            } else {
+                this.riskLimits = null;
+            }
+            this.initialSnapshot = new byte[in.readInt()];
+            in.readFully(initialSnapshot);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next event.
+     * @return CANDLE, TRADE or DECISION, or END at the end of the log (or of its last complete event)
+     * @throws IOException if the log cannot be read or is corrupt
+     */
+    public int next() throws IOException {
+        int type = in.read();
+        try {
+            switch (type) {
+                case -1:
+                    return END;
+                case CANDLE:
+                    epochSecond = in.readLong();
+                    nano = in.readInt();
+                    open = in.readDouble();
+                    high = in.readDouble();
+                    low = in.readDouble();
+                    close = in.readDouble();
+                    volume = in.readDouble();
+                    return CANDLE;
+                case TRADE:
+                    side = SIGNALS[in.readUnsignedByte()];
+                    price = in.readDouble();
+                    amount = in.readDouble();
+                    return TRADE;
+                case DECISION:
+                    signal = SIGNALS[in.readUnsignedByte()];
+                    usdtUnits = in.readLong();
+                    coinUnits = in.readLong();
+                    return DECISION;
+                default:
+                    throw new IOException("Corrupt event log: unknown event type " + type);
+            }
+        } catch (EOFException e) {
+            return END; // Cut short by a crash
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupt event log: unknown signal");
+        }
+    }
+
+    /**
+     * @return The current CANDLE event as a candle
+     */
+    public MarketCandle getCandle() {
+        return new MarketCandle(open, high, low, close, volume,
+                LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public Signal getTradeSide() {
+        return side;
+    }
+
+    public double getTradePrice() {
+        return price;
+    }
+
+    public double getTradeAmount() {
+        return amount;
+    }
+
+    public Signal getSignal() {
+        return signal;
+    }
+
+    public long getUsdtUnits() {
+        return usdtUnits;
+    }
+
+    public long getCoinUnits() {
+        return coinUnits;
+    }
+
+    public String getBotName() {
+        return botName;
+    }
+
+    public String getStrategyType() {
+        return strategyType;
+    }
+
+    public String[] getParams() {
+        return params.clone();
+    }
+
+    /**
+     * @return The limits of the bot's risk engine during recording, or null if it had none
+     */
+    public RiskLimits getRiskLimits() {
+        return riskLimits;
+    }
+
+    /**
+     * @return The strategy snapshot the recording started from (see BaseTradingStrategy#writeSnapshot)
+     */
+    public byte[] getInitialSnapshot() {
+        return initialSnapshot.clone();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
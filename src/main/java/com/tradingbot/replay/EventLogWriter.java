@@ -0,0 +1,170 @@
+package com.tradingbot.replay;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.risk.RiskLimits;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import com.tradingbot.strategy.TradeListener;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.logging.Logger;
+
+/**
+ * Records one bot's inbound candles and decisions to a compact binary event log, so a session can
+ * be re-run exactly by a {@link Replayer}.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Observer of the strategy's fills (TradeListener).
+ * Reason: Fills are recorded where they happen, including those settled later by a matching
+ * engine or order gateway, without the strategy knowing it is being recorded.
+ *
+ * <pre>
+ * header    int magic "TBEV", short version, UTF bot name, UTF strategy type, short param count,
+ *           UTF params, boolean risk limits present [double max position, double max notional,
+ *           long notional window ms, int max orders per second, double max drawdown %,
+ *           double price band %], int length + strategy snapshot at the start of recording
+ * CANDLE    byte 1, long epoch second (UTC), int nano, double open, high, low, close, volume
+ * TRADE     byte 2, byte side, double price, double amount
+ * DECISION  byte 3, byte signal, long USDT units, long coin units (wallet after the candle)
+ * </pre>
+ * Each candle is followed by the fills it caused and then its decision. A log cut short by a crash
+ * is readable up to its last complete candle.
+ *
+ * Written on the bot's own thread; a write failure disables the log instead of the bot.
+ */
+public class EventLogWriter implements TradeListener, AutoCloseable {
+    private static final Logger logger = Logger.getLogger(EventLogWriter.class.getName());
+    static final int MAGIC = 0x54424556; // "TBEV"
+    static final short VERSION = 2; // 2: risk limits in the header
+    static final byte CANDLE = 1;
+    static final byte TRADE = 2;
+    static final byte DECISION = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final DataOutputStream out;
+    private volatile boolean disabled; // Closed or failed
+
+    /**
+     * Creates the log and writes its header. Call before the strategy receives its next candle.
+     * @param path The log file, replaced if it exists
+     * @param botName Bot name, informational
+     * @param strategyType Factory type the strategy was created with (e.g. "RSI")
+     * @param params Factory parameters the strategy was created with
+     * @param strategy The strategy; its current state and risk limits are the replay's starting point
+     * @throws IOException if the file cannot be created
+     */
+    public EventLogWriter(Path path, String botName, String strategyType, String[] params,
+                          BaseTradingStrategy strategy) throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream(256);
+        strategy.writeSnapshot(new DataOutputStream(snapshot));
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        this.path = path;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(botName);
+        out.writeUTF(strategyType);
+        out.writeShort(params.length);
+        for (String param : params) {
+            out.writeUTF(param);
+        }
+        RiskEngine risk = strategy.getRiskEngine();
+        out.writeBoolean(risk != null);
+        if (risk != null) {
+            RiskLimits limits = risk.getLimits();
+            out.writeDouble(limits.getMaxPosition());
+            out.writeDouble(limits.getMaxNotional());
+            out.writeLong(limits.getNotionalWindowMillis());
+            out.writeInt(limits.getMaxOrdersPerSecond());
+            out.writeDouble(limits.getMaxDrawdownPercent());
+            out.writeDouble(limits.getPriceBandPercent());
+        }
+        out.writeInt(snapshot.size());
+        snapshot.writeTo(out);
+        strategy.addTradeListener(this);
+    }
+
+    /**
+     * Records a candle about to be processed.
+     */
+    public void candle(MarketCandle candle) {
+        if (disabled) {
+            return;
+        }
+        try {
+            out.writeByte(CANDLE);
+            out.writeLong(candle.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(candle.getTimestamp().getNano());
+            out.writeDouble(candle.getOpen());
+            out.writeDouble(candle.getHigh());
+            out.writeDouble(candle.getLow());
+            out.writeDouble(candle.getClose());
+            out.writeDouble(candle.getVolume());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onTrade(Signal side, double price, double amount) {
+        if (disabled) {
+            return;
+        }
+        try {
+            out.writeByte(TRADE);
+            out.writeByte(side.ordinal());
+            out.writeDouble(price);
+            out.writeDouble(amount);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the outcome of the candle last passed to {@link #candle(MarketCandle)}.
+     * @param signal The signal produced
+     * @param wallet The wallet after the candle
+     */
+    public void decision(Signal signal, Wallet wallet) {
+        if (disabled) {
+            return;
+        }
+        try {
+            out.writeByte(DECISION);
+            out.writeByte(signal.ordinal());
+            out.writeLong(wallet.getUsdtUnits());
+            out.writeLong(wallet.getCoinUnits());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        disabled = true;
+        logger.warning("Event log " + path + " disabled: " + e.getMessage());
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flushes and closes the log. Call once the bot receives no more candles.
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void close() throws IOException {
+        disabled = true;
+        out.close();
+    }
+}
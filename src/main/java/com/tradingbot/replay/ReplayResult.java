@@ -0,0 +1,74 @@
+package com.tradingbot.replay;
+
+/**
+ * Outcome of replaying an event log: either every recorded decision was reproduced, or where and
+ * how the replay first diverged.
+ */
+public final class ReplayResult {
+    private final String botName;
+    private final long candleCount;
+    private final long tradeCount;
+    private final long divergedAtCandle;
+    private final String divergence;
+    private final long elapsedNanos;
+
+    ReplayResult(String botName, long candleCount, long tradeCount, long divergedAtCandle, String divergence,
+                 long elapsedNanos) {
+        this.botName = botName;
+        this.candleCount = candleCount;
+        this.tradeCount = tradeCount;
+        this.divergedAtCandle = divergedAtCandle;
+        this.divergence = divergence;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return true if every recorded signal, fill and wallet state was reproduced
+     */
+    public boolean isIdentical() {
+        return divergedAtCandle < 0;
+    }
+
+    public String getBotName() {
+        return botName;
+    }
+
+    /**
+     * @return Candles replayed, up to and including the diverging one
+     */
+    public long getCandleCount() {
+        return candleCount;
+    }
+
+    /**
+     * @return Recorded fills that were reproduced
+     */
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * @return Zero-based index of the first diverging candle, or -1 if identical
+     */
+    public long getDivergedAtCandle() {
+        return divergedAtCandle;
+    }
+
+    /**
+     * @return What differed at the first diverging candle, or null if identical
+     */
+    public String getDivergence() {
+        return divergence;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayResult{bot=" + botName + ", candles=" + candleCount + ", trades=" + tradeCount
+                + (isIdentical() ? ", identical" : ", divergedAt=" + divergedAtCandle + ", " + divergence)
+                + ", elapsedMs=" + elapsedNanos / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,172 @@
+package com.tradingbot.replay;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.risk.RiskLimits;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import com.tradingbot.strategy.TradeListener;
+import com.tradingbot.strategy.TradingStrategy;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-runs a recorded session through a strategy as fast as it can process candles and checks
+ * that it makes the recorded decisions.
+ *
+ * The strategy is restored from the snapshot at the start of the log, then fed every recorded
+ * candle through the template method; its fills, signals and wallet balances are compared with the
+ * recorded ones and the replay stops at the first difference. Replaying one log with two builds
+ * therefore pinpoints the candle where their behaviour splits.
+ *
+ * If the bot had a risk engine, a fresh one with the recorded limits checks the replayed orders,
+ * so position, price band and drawdown rejections replay exactly. Its clock is the candle time:
+ * the order-rate and notional windows match the live session only if candles arrived at the pace
+ * of their timestamps (live they run on the wall clock).
+ *
+ * Exact for strategies that fill on their wallet or through a matching engine fed by the same
+ * strategy thread; venue latency is not reproduced.
+ *
+ * Usage: java -cp ... com.tradingbot.replay.Replayer events/rsi-001.events [...]
+ */
+public final class Replayer {
+
+    private Replayer() {
+    }
+
+    /** A fill produced during replay. */
+    private static final class Fill {
+        final Signal side;
+        final double price;
+        final double amount;
+
+        Fill(Signal side, double price, double amount) {
+            this.side = side;
+            this.price = price;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * Replays a log through a strategy created from the factory type and parameters it recorded.
+     * @param log The event log
+     * @return The outcome
+     * @throws IOException if the log cannot be read or its snapshot does not fit the strategy
+     */
+    public static ReplayResult replay(Path log) throws IOException {
+        String type;
+        String[] params;
+        try (EventLogReader reader = new EventLogReader(log)) {
+            type = reader.getStrategyType();
+            params = reader.getParams();
+        }
+        TradingStrategy strategy = StrategyFactory.getFactory(type).createAndConfigureStrategy(new Wallet(0), params);
+        if (!(strategy instanceof BaseTradingStrategy)) {
+            throw new IOException("Strategy type " + type + " cannot be replayed");
+        }
+        return replay(log, (BaseTradingStrategy) strategy);
+    }
+
+    /**
+     * Replays a log through the given strategy.
+     * @param log The event log
+     * @param strategy A strategy of the recorded type, with default (decimal) wallet precision;
+     *     its state is replaced by the recorded starting state and per-candle output is turned off.
+     *     While the log is replayed its risk engine is replaced by one with the recorded limits
+     * @return The outcome
+     * @throws IOException if the log cannot be read or its snapshot does not fit the strategy
+     */
+    public static ReplayResult replay(Path log, BaseTradingStrategy strategy) throws IOException {
+        long start = System.nanoTime();
+        try (EventLogReader reader = new EventLogReader(log)) {
+            strategy.restoreSnapshot(new DataInputStream(new ByteArrayInputStream(reader.getInitialSnapshot())));
+            strategy.setVerbose(false);
+            Wallet wallet = strategy.getWallet();
+            List<Fill> produced = new ArrayList<>();
+            TradeListener collector = (side, price, amount) -> produced.add(new Fill(side, price, amount));
+            long[] candleNanos = {0};
+            RiskEngine liveRisk = strategy.getRiskEngine();
+            RiskLimits limits = reader.getRiskLimits();
+            strategy.setRiskEngine(limits == null ? null : new RiskEngine(limits, () -> candleNanos[0]));
+            strategy.addTradeListener(collector);
+            try {
+                long candles = 0;
+                long trades = 0;
+                int matched = 0;
+                Signal signal = null;
+                MarketCandle candle = null;
+                int event;
+                while ((event = reader.next()) != EventLogReader.END) {
+                    String divergence = null;
+                    if (event == EventLogReader.CANDLE) {
+                        produced.clear();
+                        matched = 0;
+                        candle = reader.getCandle();
+                        candleNanos[0] = candle.getTimestamp().toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L
+                                + candle.getTimestamp().getNano();
+                        signal = strategy.executeStrategyTemplate(candle);
+                        candles++;
+                    } else if (candle == null) {
+                        throw new IOException("Corrupt event log: event before the first candle");
+                    } else if (event == EventLogReader.TRADE) {
+                        if (matched == produced.size()) {
+                            divergence = String.format("recorded %s %.8f @ %.8f was not executed",
+                                    reader.getTradeSide(), reader.getTradeAmount(), reader.getTradePrice());
+                        } else {
+                            Fill fill = produced.get(matched++);
+                            if (fill.side != reader.getTradeSide() || fill.price != reader.getTradePrice()
+                                    || fill.amount != reader.getTradeAmount()) {
+                                divergence = String.format("recorded %s %.8f @ %.8f, replayed %s %.8f @ %.8f",
+                                        reader.getTradeSide(), reader.getTradeAmount(), reader.getTradePrice(),
+                                        fill.side, fill.amount, fill.price);
+                            } else {
+                                trades++;
+                            }
+                        }
+                    } else if (matched < produced.size()) {
+                        Fill fill = produced.get(matched);
+                        divergence = String.format("replayed %s %.8f @ %.8f was not recorded",
+                                fill.side, fill.amount, fill.price);
+                    } else if (signal != reader.getSignal()) {
+                        divergence = "recorded signal " + reader.getSignal() + ", replayed " + signal;
+                    } else if (wallet.getUsdtUnits() != reader.getUsdtUnits()
+                            || wallet.getCoinUnits() != reader.getCoinUnits()) {
+                        divergence = String.format("recorded wallet %d/%d units, replayed %d/%d",
+                                reader.getUsdtUnits(), reader.getCoinUnits(), wallet.getUsdtUnits(),
+                                wallet.getCoinUnits());
+                    }
+                    if (divergence != null) {
+                        return new ReplayResult(reader.getBotName(), candles, trades, candles - 1,
+                                "candle " + candle.getTimestamp() + ": " + divergence, System.nanoTime() - start);
+                    }
+                }
+                return new ReplayResult(reader.getBotName(), candles, trades, -1, null, System.nanoTime() - start);
+            } finally {
+                strategy.removeTradeListener(collector);
+                strategy.setRiskEngine(liveRisk);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: Replayer <event log> [<event log> ...]");
+            System.exit(2);
+        }
+        boolean identical = true;
+        for (String arg : args) {
+            ReplayResult result = replay(Paths.get(arg));
+            System.out.println(result);
+            identical &= result.isIdentical();
+        }
+        System.exit(identical ? 0 : 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tradingbot.risk;
+
+/**
+ * Exact "at most N events per window" limiter: a ring holding the timestamps of the last N
+ * accepted events. A new event fits if fewer than N are recorded or the oldest has left the window.
+ * O(1) per check, no allocation. Not thread-safe.
+ */
+public final class OrderRateWindow {
+    private final long[] timestamps;
+    private final long windowNanos;
+    private int next;
+    private int count;
+
+    /**
+     * @param maxEvents Events allowed per window
+     * @param windowNanos Window length in nanoseconds
+     */
+    public OrderRateWindow(int maxEvents, long windowNanos) {
+        if (maxEvents <= 0 || windowNanos <= 0) {
+            throw new IllegalArgumentException("Events and window must be positive: " + maxEvents + ", " + windowNanos);
+        }
+        this.timestamps = new long[maxEvents];
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Records an event if it fits in the window.
+     * @param nowNanos Current time from a monotonic clock
+     * @return false if the limit is reached
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (count == timestamps.length) {
+            // next is also the oldest slot once the ring is full
+            if (nowNanos - timestamps[next] < windowNanos) {
+                return false;
+            }
+        } else {
+            count++;
+        }
+        timestamps[next] = nowNanos;
+        next = next + 1 == timestamps.length ? 0 : next + 1;
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tradingbot.risk;
+
+/**
+ * Outcome of a pre-trade risk check. Everything except {@link #ACCEPTED} is a rejection reason.
+ */
+public enum RiskDecision {
+    ACCEPTED,
+    /** Trading halted because the drawdown limit was hit. */
+    KILL_SWITCH,
+    /** Order price too far from the reference (previous candle) price. */
+    PRICE_BAND,
+    /** Order would take the position above the maximum. */
+    POSITION_LIMIT,
+    /** Too many orders in the last second. */
+    ORDER_RATE,
+    /** Order would exceed the traded notional allowed in the sliding window. */
+    NOTIONAL_LIMIT;
+
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+}
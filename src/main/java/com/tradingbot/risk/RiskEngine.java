@@ -0,0 +1,173 @@
+package com.tradingbot.risk;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Pre-trade risk stage of the trading template (validate -> analyze -> risk check -> execute).
+ *
+ * Checks, cheapest first: drawdown kill switch, fat-finger price band, max position, orders per
+ * second, traded notional per sliding window. Counters live in primitive ring buffers, so each
+ * check is O(1) and allocation-free. An accepted check counts as an order for the rate and
+ * notional windows even if the wallet then rejects it. Orders sent asynchronously (e.g. through an
+ * order gateway) can be passed in as pending exposure, so that several orders in flight cannot
+ * each pass the position or notional limit on their own.
+ *
+ * One engine can be shared by several bots trading the same wallet; all methods are synchronized.
+ * The price band reference is the close of the previous distinct candle seen by
+ * {@link #onCandle(MarketCandle, Wallet)}: bots on one feed receive the same candle instance, so
+ * the first of them to see a candle rolls the reference for all.
+ */
+public class RiskEngine {
+    private static final Logger logger = Logger.getLogger(RiskEngine.class.getName());
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int NOTIONAL_BUCKETS = 60;
+
+    private final RiskLimits limits;
+    private final LongSupplier nanoClock;
+    private final OrderRateWindow orderRate;
+    private final SlidingWindowSum notional;
+    private final long[] decisionCounts = new long[RiskDecision.values().length];
+
+    private MarketCandle currentCandle;
+    private double referencePrice = Double.NaN;
+    private double peakEquity = Double.NaN;
+    private boolean killSwitch;
+
+    public RiskEngine(RiskLimits limits) {
+        this(limits, System::nanoTime);
+    }
+
+    /**
+     * @param limits The limits to enforce
+     * @param nanoClock Monotonic clock in nanoseconds used by the rate and notional windows
+     */
+    public RiskEngine(RiskLimits limits, LongSupplier nanoClock) {
+        if (limits == null || nanoClock == null) {
+            throw new IllegalArgumentException("Limits and clock must not be null");
+        }
+        this.limits = limits;
+        this.nanoClock = nanoClock;
+        this.orderRate = limits.getMaxOrdersPerSecond() > 0
+                ? new OrderRateWindow(limits.getMaxOrdersPerSecond(), ONE_SECOND_NANOS) : null;
+        this.notional = limits.getMaxNotional() > 0
+                ? new SlidingWindowSum(TimeUnit.MILLISECONDS.toNanos(limits.getNotionalWindowMillis()),
+                        NOTIONAL_BUCKETS) : null;
+    }
+
+    /**
+     * Marks the wallet to market on every candle: rolls the price band reference, tracks peak
+     * equity and trips the kill switch once the drawdown limit is reached.
+     * @param candle The current candle
+     * @param wallet The wallet being traded
+     */
+    public synchronized void onCandle(MarketCandle candle, Wallet wallet) {
+        if (candle != currentCandle) {
+            referencePrice = currentCandle == null ? Double.NaN : currentCandle.getClose();
+            currentCandle = candle;
+        }
+        if (limits.getMaxDrawdownPercent() <= 0 || killSwitch) {
+            return;
+        }
+        double equity = wallet.getTotalValue(candle.getClose());
+        if (!(equity <= peakEquity)) { // also seeds a NaN peak
+            peakEquity = equity;
+            return;
+        }
+        double drawdownPercent = (peakEquity - equity) / peakEquity * 100.0;
+        if (drawdownPercent >= limits.getMaxDrawdownPercent()) {
+            killSwitch = true;
+            logger.warning(String.format("Kill switch tripped: drawdown %.2f%% (equity %.2f, peak %.2f)",
+                    drawdownPercent, equity, peakEquity));
+        }
+    }
+
+    /**
+     * Checks an order against all limits and, if accepted, records it in the rate and notional windows.
+     * @param side BUY or SELL
+     * @param price Order price
+     * @param amount Coin amount
+     * @param wallet The wallet the order would execute against
+     * @return ACCEPTED or the first violated limit
+     */
+    public RiskDecision check(Signal side, double price, double amount, Wallet wallet) {
+        return check(side, price, amount, wallet, 0, 0);
+    }
+
+    /**
+     * Checks an order against all limits, counting orders still in flight: pending BUY quantity
+     * towards the position limit, and pending notional towards the notional limit. Orders accepted
+     * within the window are already part of the window's sum, so the larger of the two is used.
+     * @param side BUY or SELL
+     * @param price Order price
+     * @param amount Coin amount
+     * @param wallet The wallet the order would execute against
+     * @param pendingBuyQuantity Unfilled quantity of BUY orders in flight
+     * @param pendingNotional Unfilled notional of all orders in flight
+     * @return ACCEPTED or the first violated limit
+     */
+    public synchronized RiskDecision check(Signal side, double price, double amount, Wallet wallet,
+                                           double pendingBuyQuantity, double pendingNotional) {
+        RiskDecision decision = evaluate(side, price, amount, wallet, pendingBuyQuantity, pendingNotional);
+        decisionCounts[decision.ordinal()]++;
+        return decision;
+    }
+
+    private RiskDecision evaluate(Signal side, double price, double amount, Wallet wallet,
+                                  double pendingBuyQuantity, double pendingNotional) {
+        if (killSwitch) {
+            return RiskDecision.KILL_SWITCH;
+        }
+        if (limits.getPriceBandPercent() > 0 && referencePrice > 0
+                && Math.abs(price - referencePrice) > referencePrice * limits.getPriceBandPercent() / 100.0) {
+            return RiskDecision.PRICE_BAND;
+        }
+        if (side == Signal.BUY && limits.getMaxPosition() > 0
+                && wallet.getCoinBalance() + pendingBuyQuantity + amount > limits.getMaxPosition()) {
+            return RiskDecision.POSITION_LIMIT;
+        }
+
+        long now = nanoClock.getAsLong();
+        double orderNotional = price * amount;
+        if (notional != null
+                && Math.max(notional.sum(now), pendingNotional) + orderNotional > limits.getMaxNotional()) {
+            return RiskDecision.NOTIONAL_LIMIT;
+        }
+        // Rate last: acquiring a slot records the order
+        if (orderRate != null && !orderRate.tryAcquire(now)) {
+            return RiskDecision.ORDER_RATE;
+        }
+        if (notional != null) {
+            notional.add(now, orderNotional);
+        }
+        return RiskDecision.ACCEPTED;
+    }
+
+    public synchronized boolean isKillSwitchActive() {
+        return killSwitch;
+    }
+
+    /**
+     * Re-enables trading after the kill switch tripped; peak equity is re-seeded on the next candle.
+     */
+    public synchronized void resetKillSwitch() {
+        killSwitch = false;
+        peakEquity = Double.NaN;
+    }
+
+    /**
+     * @param decision The decision
+     * @return How many checks ended with this decision
+     */
+    public synchronized long getDecisionCount(RiskDecision decision) {
+        return decisionCounts[decision.ordinal()];
+    }
+
+    public RiskLimits getLimits() {
+        return limits;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tradingbot.risk;
+
+/**
+ * Immutable set of pre-trade limits enforced by a {@link RiskEngine}. A limit of 0 disables it.
+ */
+public final class RiskLimits {
+    public static final long DEFAULT_NOTIONAL_WINDOW_MILLIS = 60_000;
+
+    private final double maxPosition;
+    private final double maxNotional;
+    private final long notionalWindowMillis;
+    private final int maxOrdersPerSecond;
+    private final double maxDrawdownPercent;
+    private final double priceBandPercent;
+
+    /**
+     * @param maxPosition Maximum coin position after a BUY
+     * @param maxNotional Maximum traded notional (USDT, buys and sells) per window
+     * @param notionalWindowMillis Length of the notional window
+     * @param maxOrdersPerSecond Maximum accepted orders in any one-second window
+     * @param maxDrawdownPercent Drawdown from peak equity that trips the kill switch
+     * @param priceBandPercent Maximum deviation of the order price from the previous candle close
+     */
+    public RiskLimits(double maxPosition, double maxNotional, long notionalWindowMillis,
+                      int maxOrdersPerSecond, double maxDrawdownPercent, double priceBandPercent) {
+        if (maxPosition < 0 || maxNotional < 0 || maxOrdersPerSecond < 0
+                || maxDrawdownPercent < 0 || priceBandPercent < 0) {
+            throw new IllegalArgumentException("Risk limits must not be negative");
+        }
+        if (maxDrawdownPercent >= 100) {
+            throw new IllegalArgumentException("Drawdown limit must be below 100%, got " + maxDrawdownPercent);
+        }
+        if (maxNotional > 0 && notionalWindowMillis <= 0) {
+            throw new IllegalArgumentException("Notional window must be positive, got " + notionalWindowMillis);
+        }
+        this.maxPosition = maxPosition;
+        this.maxNotional = maxNotional;
+        this.notionalWindowMillis = notionalWindowMillis;
+        this.maxOrdersPerSecond = maxOrdersPerSecond;
+        this.maxDrawdownPercent = maxDrawdownPercent;
+        this.priceBandPercent = priceBandPercent;
+    }
+
+    /**
+     * @return Limits with every check disabled
+     */
+    public static RiskLimits none() {
+        return new RiskLimits(0, 0, DEFAULT_NOTIONAL_WINDOW_MILLIS, 0, 0, 0);
+    }
+
+    public double getMaxPosition() {
+        return maxPosition;
+    }
+
+    public double getMaxNotional() {
+        return maxNotional;
+    }
+
+    public long getNotionalWindowMillis() {
+        return notionalWindowMillis;
+    }
+
+    public int getMaxOrdersPerSecond() {
+        return maxOrdersPerSecond;
+    }
+
+    public double getMaxDrawdownPercent() {
+        return maxDrawdownPercent;
+    }
+
+    public double getPriceBandPercent() {
+        return priceBandPercent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RiskLimits{maxPosition=%s, maxNotional=%s/%dms, maxOrdersPerSecond=%d, "
+                        + "maxDrawdown=%s%%, priceBand=%s%%}", maxPosition, maxNotional, notionalWindowMillis,
+                maxOrdersPerSecond, maxDrawdownPercent, priceBandPercent);
+    }
+}
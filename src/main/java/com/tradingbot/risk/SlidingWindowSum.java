@@ -0,0 +1,57 @@
+package com.tradingbot.risk;
+
+import java.util.Arrays;
+
+/**
+ * Sum of values added during the last window, kept in a ring of fixed-width time buckets.
+ * Values expire a whole bucket at a time, so the window is exact to within one bucket width.
+ * Advancing costs at most one step per elapsed bucket (bounded by the bucket count); no allocation.
+ * Not thread-safe.
+ */
+final class SlidingWindowSum {
+    private final double[] buckets;
+    private final long bucketNanos;
+    private long currentBucket = Long.MIN_VALUE;
+    private double total;
+
+    SlidingWindowSum(long windowNanos, int bucketCount) {
+        this.buckets = new double[bucketCount];
+        this.bucketNanos = Math.max(1, windowNanos / bucketCount);
+    }
+
+    /**
+     * @param nowNanos Current time
+     * @return Sum of the values added within the window ending now
+     */
+    double sum(long nowNanos) {
+        advance(nowNanos);
+        return total;
+    }
+
+    void add(long nowNanos, double value) {
+        advance(nowNanos);
+        buckets[(int) Math.floorMod(currentBucket, (long) buckets.length)] += value;
+        total += value;
+    }
+
+    private void advance(long nowNanos) {
+        long bucket = Math.floorDiv(nowNanos, bucketNanos);
+        if (bucket <= currentBucket) {
+            return;
+        }
+        if (currentBucket == Long.MIN_VALUE || bucket - currentBucket >= buckets.length) {
+            Arrays.fill(buckets, 0.0);
+            total = 0.0;
+        } else {
+            for (long b = currentBucket + 1; b <= bucket; b++) {
+                int slot = (int) Math.floorMod(b, (long) buckets.length);
+                total -= buckets[slot];
+                buckets[slot] = 0.0;
+            }
+            if (total < 0) {
+                total = 0.0; // Rounding drift from repeated add/subtract
+            }
+        }
+        currentBucket = bucket;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradingbot.runner;
+
+import java.util.Arrays;
+
+/**
+ * One bot entry of the headless runner configuration.
+ * A definition with replicas > 1 expands to several identical bots named "name-001", "name-002", ...
+ */
+public class BotDefinition {
+    private final String name;
+    private final String strategyType;
+    private final String[] params;
+    private final double walletSize;
+    private final String symbol;
+    private final int replicas;
+
+    public BotDefinition(String name, String strategyType, String[] params,
+                         double walletSize, String symbol, int replicas) {
+        if (walletSize <= 0) {
+            throw new IllegalArgumentException("Wallet size must be positive for bot " + name);
+        }
+        if (replicas <= 0) {
+            throw new IllegalArgumentException("Replicas must be positive for bot " + name);
+        }
+        this.name = name;
+        this.strategyType = strategyType;
+        this.params = params == null ? new String[0] : params.clone();
+        this.walletSize = walletSize;
+        this.symbol = symbol;
+        this.replicas = replicas;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStrategyType() {
+        return strategyType;
+    }
+
+    /**
+     * Strategy configuration passed to the StrategyFactory (RSI: period, oversold, overbought;
+     * AI: model path, inference engine).
+     * @return A copy of the parameters
+     */
+    public String[] getParams() {
+        return params.clone();
+    }
+
+    public double getWalletSize() {
+        return walletSize;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Name of the i-th replica.
+     * @param index Zero-based replica index
+     * @return The bot name, unchanged when there is a single replica
+     */
+    public String replicaName(int index) {
+        return replicas == 1 ? name : String.format("%s-%03d", name, index + 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BotDefinition{name=%s, strategy=%s, params=%s, wallet=%.2f, symbol=%s, replicas=%d}",
+                name, strategyType, Arrays.toString(params), walletSize, symbol, replicas);
+    }
+}
@@ -0,0 +1,504 @@
+package com.tradingbot.runner;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.bot.BotSnapshot;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.feed.CandleFeedServer;
+import com.tradingbot.feed.RemoteFeedSubject;
+import com.tradingbot.metrics.MetricsHttpServer;
+import com.tradingbot.metrics.MetricsRegistry;
+import com.tradingbot.metrics.StartupClock;
+import com.tradingbot.observer.MarketDataSubject;
+import com.tradingbot.observer.Subject;
+import com.tradingbot.replay.EventLogWriter;
+import com.tradingbot.risk.RiskDecision;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.strategy.AIStrategy;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import com.tradingbot.strategy.CascadingStrategy;
+import com.tradingbot.strategy.TradingStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+/**
+ * Headless entry point: runs every bot declared in a config file without a TTY.
+ *
+ * Bots trading the same symbol share one MarketDataSubject. Depending on the configured
+ * {@link RunnerConfig.ThreadModel}, they either run directly on the feed thread or are
+ * partitioned across a {@link WorkerPool}. On SIGTERM (JVM shutdown hook) the feeds are stopped,
+ * queued candles are drained, and the final state of every bot is flushed to the journal.
+ *
+ * Bots can be sharded across processes: one runner serves its feeds with runner.feed.publish, and
+ * others set runner.feed.remote to receive them through a {@link RemoteFeedSubject} per symbol
+ * instead of generating their own.
+ *
+ * With runner.snapshot.path set, the wallet and indicator history of every bot are restored at
+ * start and saved at shutdown, so a restarted bot trades on its first candle. Scheduled snapshots
+ * ask each bot to capture its state on its own thread after its next candle and save the states
+ * captured since the previous tick, so trading is never paused.
+ *
+ * With runner.eventlog.dir set, every bot records its candles and decisions to its own event log,
+ * which {@link com.tradingbot.replay.Replayer} can re-run to reproduce a session exactly.
+ *
+ * Bots using a {@link CascadingStrategy} report, summed over all of them, how many candles were
+ * decided without the model and what the shadow samples say skipping costs.
+ *
+ * Usage: java -cp ... com.tradingbot.runner.HeadlessRunner [config/bots.properties]
+ */
+public class HeadlessRunner {
+    private static final Logger logger = Logger.getLogger(HeadlessRunner.class.getName());
+    private static final String DEFAULT_CONFIG_PATH = "config/bots.properties";
+    private static final int WORKER_QUEUE_CAPACITY = 1024;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final int FEED_RING_CAPACITY = 1 << 16;
+
+    private final RunnerConfig config;
+    private final List<BotObserver> bots = new ArrayList<>();
+    private final List<BotDefinition> botDefinitions = new ArrayList<>(); // Parallel to bots
+    private final List<EventLogWriter> eventLogs = new ArrayList<>();
+    private final List<RiskEngine> riskEngines = new ArrayList<>();
+    private final List<CascadingStrategy> cascades = new ArrayList<>();
+    private final Map<String, MarketDataSubject> feeds = new LinkedHashMap<>();
+    private final Map<String, RemoteFeedSubject> remoteFeeds = new LinkedHashMap<>();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private WorkerPool workerPool;
+    private MetricsHttpServer metricsServer;
+    private CandleFeedServer feedServer;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public HeadlessRunner(RunnerConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Creates all bots and feeds and starts trading.
+     * @throws IOException if the metrics endpoint or feed server cannot be bound, a remote feed cannot be reached,
+     *     or the snapshot file is unreadable
+     */
+    public void start() throws IOException {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        Map<String, List<BotObserver>> botsBySymbol = new LinkedHashMap<>();
+        for (BotDefinition definition : config.getBots()) {
+            StrategyFactory factory = StrategyFactory.getFactory(definition.getStrategyType());
+            for (int i = 0; i < definition.getReplicas(); i++) {
+                Wallet wallet = new Wallet(definition.getWalletSize());
+                TradingStrategy strategy = factory.createAndConfigureStrategy(wallet, definition.getParams());
+                if (strategy instanceof BaseTradingStrategy) {
+                    BaseTradingStrategy base = (BaseTradingStrategy) strategy;
+                    base.setVerbose(false);
+                    base.setSymbol(definition.getSymbol());
+                    if (config.getRiskLimits() != null) {
+                        RiskEngine riskEngine = new RiskEngine(config.getRiskLimits());
+                        base.setRiskEngine(riskEngine);
+                        riskEngines.add(riskEngine);
+                    }
+                }
+                if (strategy instanceof CascadingStrategy) {
+                    cascades.add((CascadingStrategy) strategy);
+                }
+                BotObserver bot = new BotObserver(definition.replicaName(i), strategy);
+                bots.add(bot);
+                botDefinitions.add(definition);
+                botsBySymbol.computeIfAbsent(definition.getSymbol(), k -> new ArrayList<>()).add(bot);
+                metricsRegistry.registerBot(bot.getMetrics());
+            }
+        }
+        restoreSnapshot();
+        openEventLogs();
+
+        StartupClock.onFirstSignal(millis -> logger.info("Time to first signal: " + millis + " ms after JVM start"));
+        metricsRegistry.registerGauge("tradingbot_time_to_first_signal_seconds",
+                "Time from JVM start to the first bot signal, -1 until then", "", () -> {
+                    long millis = StartupClock.getTimeToFirstSignalMillis();
+                    return millis < 0 ? -1 : millis / 1000.0;
+                });
+        for (RiskDecision decision : RiskDecision.values()) {
+            if (!riskEngines.isEmpty() && !decision.isAccepted()) {
+                metricsRegistry.registerCounter("tradingbot_risk_rejections_total",
+                        "Orders rejected by pre-trade risk checks", MetricsRegistry.label("reason", decision.name()),
+                        () -> countDecisions(decision));
+            }
+        }
+        if (!cascades.isEmpty()) {
+            registerCascadeMetrics();
+        }
+
+        if (config.getThreadModel() == RunnerConfig.ThreadModel.POOL) {
+            workerPool = new WorkerPool(config.getThreadCount(), WORKER_QUEUE_CAPACITY);
+            for (int i = 0; i < workerPool.getThreadCount(); i++) {
+                int index = i;
+                metricsRegistry.registerGauge("tradingbot_worker_queue_depth", "Candle batches waiting per worker",
+                        MetricsRegistry.label("worker", String.valueOf(i)), () -> workerPool.getQueueDepth(index));
+            }
+        }
+
+        if (config.getFeedPublishAddress() != null) {
+            feedServer = new CandleFeedServer(resolve(config.getFeedPublishAddress()), FEED_RING_CAPACITY);
+        }
+        for (Map.Entry<String, List<BotObserver>> entry : botsBySymbol.entrySet()) {
+            Subject feed = createFeed(entry.getKey());
+            if (workerPool != null) {
+                feed.registerObserver(workerPool.createDispatcher(entry.getValue()));
+            } else {
+                for (BotObserver bot : entry.getValue()) {
+                    feed.registerObserver(bot);
+                }
+            }
+        }
+
+        if (config.getMetricsPort() >= 0) {
+            metricsServer = new MetricsHttpServer(metricsRegistry, config.getMetricsPort());
+            metricsServer.start();
+        }
+        if (workerPool != null) {
+            workerPool.start();
+        }
+        if (feedServer != null) {
+            feedServer.start();
+        }
+        for (RemoteFeedSubject feed : remoteFeeds.values()) {
+            feed.start();
+        }
+        for (MarketDataSubject feed : feeds.values()) {
+            feed.start();
+        }
+        if (config.getSnapshotPath() != null && config.getSnapshotIntervalSeconds() > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "SnapshotWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            requestStateCaptures();
+            snapshotScheduler.scheduleWithFixedDelay(this::writeCapturedSnapshot, config.getSnapshotIntervalSeconds(),
+                    config.getSnapshotIntervalSeconds(), TimeUnit.SECONDS);
+        }
+
+        logger.info(String.format("Started %d bots on %d feed(s), thread model %s", bots.size(), feeds.size() + remoteFeeds.size(),
+                config.getThreadModel() == RunnerConfig.ThreadModel.POOL
+                        ? "POOL(" + config.getThreadCount() + ")" : "SINGLE"));
+    }
+
+    /**
+     * Stops feeds, drains pending candles, writes the journal and releases resources.
+     * Safe to call more than once and from a shutdown hook.
+     */
+    public void stop() {
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+                try {
+                    snapshotScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (MarketDataSubject feed : feeds.values()) {
+                feed.stop();
+            }
+            for (RemoteFeedSubject feed : remoteFeeds.values()) {
+                feed.stop();
+            }
+            if (feedServer != null) {
+                feedServer.close();
+            }
+            if (workerPool != null) {
+                workerPool.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+            }
+            writeJournal();
+            writeFinalSnapshot();
+            closeEventLogs();
+            for (BotObserver bot : bots) {
+                if (bot.getStrategy() instanceof AIStrategy) {
+                    ((AIStrategy) bot.getStrategy()).close();
+                }
+            }
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            if (!cascades.isEmpty()) {
+                logger.info(String.format(Locale.ROOT,
+                        "Cascade: %.1f%% of candles decided without the model, %.0f of %.0f shadow samples disagreed"
+                                + " (return delta %+.3f%%)",
+                        skipRatio() * 100, sumCascades(CascadingStrategy::getShadowDisagreementCount),
+                        sumCascades(CascadingStrategy::getShadowInferenceCount),
+                        sumCascades(CascadingStrategy::getShadowReturnDelta)));
+            }
+            logger.info("Runner stopped, " + bots.size() + " bots shut down");
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Blocks until {@link #stop()} has completed.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    public List<BotObserver> getBots() {
+        return List.copyOf(bots);
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Creates the feed of one symbol: received from a remote runner, or generated locally (and
+     * served to other runners if publishing is enabled).
+     */
+    private Subject createFeed(String symbol) {
+        String labels = MetricsRegistry.label("symbol", symbol);
+        if (config.getFeedRemoteAddress() != null) {
+            RemoteFeedSubject feed = RemoteFeedSubject.tcp(resolve(config.getFeedRemoteAddress()), symbol);
+            remoteFeeds.put(symbol, feed);
+            metricsRegistry.registerCounter("tradingbot_feed_candles_total", "Candles published by the feed",
+                    labels, feed::getCandleCount);
+            metricsRegistry.registerCounter("tradingbot_feed_gaps_total", "Feed messages lost in transit",
+                    labels, feed::getGapCount);
+            return feed;
+        }
+        MarketDataSubject feed = new MarketDataSubject(symbol, config.getFeedIntervalMillis());
+        if (feedServer != null) {
+            feed.registerObserver(feedServer.publisher(symbol));
+        }
+        feeds.put(symbol, feed);
+        metricsRegistry.registerCounter("tradingbot_feed_candles_total", "Candles published by the feed",
+                labels, feed::getCandleCount);
+        return feed;
+    }
+
+    private static InetSocketAddress resolve(String hostPort) {
+        InetSocketAddress address = RunnerConfig.parseHostPort(hostPort);
+        return new InetSocketAddress(address.getHostString(), address.getPort());
+    }
+
+    private long countDecisions(RiskDecision decision) {
+        long total = 0;
+        for (RiskEngine engine : riskEngines) {
+            total += engine.getDecisionCount(decision);
+        }
+        return total;
+    }
+
+    private void registerCascadeMetrics() {
+        metricsRegistry.registerCounter("tradingbot_cascade_candles_total", "Candles seen by cascading bots",
+                MetricsRegistry.label("path", "model"), () -> sumCascades(CascadingStrategy::getInferenceCount));
+        metricsRegistry.registerCounter("tradingbot_cascade_candles_total", "Candles seen by cascading bots",
+                MetricsRegistry.label("path", "skipped"), () -> sumCascades(CascadingStrategy::getSkippedCount));
+        metricsRegistry.registerGauge("tradingbot_cascade_skip_ratio",
+                "Fraction of candles decided without the model", "", this::skipRatio);
+        metricsRegistry.registerCounter("tradingbot_cascade_shadow_inferences_total",
+                "Skipped candles also run through the model", "",
+                () -> sumCascades(CascadingStrategy::getShadowInferenceCount));
+        metricsRegistry.registerCounter("tradingbot_cascade_shadow_disagreements_total",
+                "Shadow samples where the model would have decided differently", "",
+                () -> sumCascades(CascadingStrategy::getShadowDisagreementCount));
+        metricsRegistry.registerGauge("tradingbot_cascade_shadow_return_delta_percent",
+                "Next-candle return of the model's decisions minus the cascade's on disagreeing shadow samples", "",
+                () -> sumCascades(CascadingStrategy::getShadowReturnDelta));
+    }
+
+    private double sumCascades(ToDoubleFunction<CascadingStrategy> value) {
+        double total = 0;
+        for (CascadingStrategy cascade : cascades) {
+            total += value.applyAsDouble(cascade);
+        }
+        return total;
+    }
+
+    private double skipRatio() {
+        double skipped = sumCascades(CascadingStrategy::getSkippedCount);
+        double total = skipped + sumCascades(CascadingStrategy::getInferenceCount);
+        return total == 0 ? 0 : skipped / total;
+    }
+
+    private void writeJournal() {
+        if (config.getJournalPath() == null) {
+            return;
+        }
+        Path path = Paths.get(config.getJournalPath());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write("bot,candles,usdt,coin,last_price,total_value,pnl_percent,last_signal");
+                writer.newLine();
+                for (BotObserver bot : bots) {
+                    BotSnapshot s = bot.getSnapshot();
+                    writer.write(String.format(Locale.ROOT, "%s,%d,%.8f,%.8f,%.8f,%.8f,%.6f,%s",
+                            s.getBotName(), s.getCandleCount(), s.getUsdtBalance(), s.getCoinBalance(),
+                            s.getLastPrice(), s.getTotalValue(), s.getPnLPercentage(), s.getLastSignal()));
+                    writer.newLine();
+                }
+                writer.flush();
+            }
+            logger.info("Journal written to " + path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.severe("Failed to write journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restores every bot found in the snapshot file. Bots that are missing or whose state does not
+     * fit their configuration start cold.
+     */
+    private void restoreSnapshot() throws IOException {
+        if (config.getSnapshotPath() == null) {
+            return;
+        }
+        Path path = Paths.get(config.getSnapshotPath());
+        if (!Files.exists(path)) {
+            logger.info("No snapshot at " + path.toAbsolutePath() + ", starting cold");
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, byte[]> states = SnapshotStore.read(path);
+        int restored = 0;
+        for (BotObserver bot : bots) {
+            byte[] state = states.get(bot.getBotName());
+            if (state == null) {
+                continue;
+            }
+            try {
+                bot.restoreState(state);
+                restored++;
+            } catch (IOException e) {
+                logger.warning("Starting " + bot.getBotName() + " cold: " + e.getMessage());
+            }
+        }
+        logger.info(String.format("Restored %d of %d bots from %s in %.1f ms", restored, bots.size(),
+                path.toAbsolutePath(), (System.nanoTime() - start) / 1e6));
+    }
+
+    private void openEventLogs() throws IOException {
+        if (config.getEventLogDir() == null) {
+            return;
+        }
+        Path dir = Paths.get(config.getEventLogDir());
+        for (int i = 0; i < bots.size(); i++) {
+            BotObserver bot = bots.get(i);
+            if (!(bot.getStrategy() instanceof BaseTradingStrategy)) {
+                continue;
+            }
+            BotDefinition definition = botDefinitions.get(i);
+            EventLogWriter log = new EventLogWriter(dir.resolve(bot.getBotName() + ".events"), bot.getBotName(),
+                    definition.getStrategyType(), definition.getParams(), (BaseTradingStrategy) bot.getStrategy());
+            bot.setEventLog(log);
+            eventLogs.add(log);
+        }
+        logger.info("Recording " + eventLogs.size() + " event logs to " + dir.toAbsolutePath());
+    }
+
+    private void closeEventLogs() {
+        for (EventLogWriter log : eventLogs) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close event log " + log.getPath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void requestStateCaptures() {
+        for (BotObserver bot : bots) {
+            bot.requestStateCapture();
+        }
+    }
+
+    /**
+     * Scheduled while running: saves the states captured since the last tick, then asks for new ones.
+     */
+    private void writeCapturedSnapshot() {
+        Map<String, byte[]> states = new LinkedHashMap<>();
+        for (BotObserver bot : bots) {
+            byte[] state = bot.getCapturedState();
+            if (state != null) {
+                states.put(bot.getBotName(), state);
+            }
+        }
+        requestStateCaptures();
+        writeSnapshot(states);
+    }
+
+    /**
+     * Saves the current state of every bot; called once no candle is being processed any more.
+     */
+    private void writeFinalSnapshot() {
+        if (config.getSnapshotPath() == null) {
+            return;
+        }
+        Map<String, byte[]> states = new LinkedHashMap<>();
+        for (BotObserver bot : bots) {
+            try {
+                byte[] state = bot.writeState();
+                if (state != null) {
+                    states.put(bot.getBotName(), state);
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to snapshot " + bot.getBotName() + ": " + e.getMessage());
+            }
+        }
+        writeSnapshot(states);
+    }
+
+    private void writeSnapshot(Map<String, byte[]> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(config.getSnapshotPath());
+        try {
+            SnapshotStore.write(path, states);
+            logger.fine("Snapshot of " + states.size() + " bots written to " + path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.severe("Failed to write snapshot " + path + ": " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path configPath = Paths.get(args.length > 0 ? args[0] : DEFAULT_CONFIG_PATH);
+        RunnerConfig config = RunnerConfig.load(configPath);
+        logger.info("Loaded " + config.getTotalBotCount() + " bot(s) from " + configPath.toAbsolutePath());
+
+        HeadlessRunner runner = new HeadlessRunner(config);
+        Runtime.getRuntime().addShutdownHook(new Thread(runner::stop, "RunnerShutdownHook"));
+        runner.start();
+
+        if (config.getDurationSeconds() > 0) {
+            Thread.sleep(config.getDurationSeconds() * 1000);
+            runner.stop();
+        }
+        runner.awaitTermination();
+    }
+}
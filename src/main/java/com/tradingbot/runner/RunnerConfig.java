@@ -0,0 +1,376 @@
+package com.tradingbot.runner;
+
+import com.tradingbot.risk.RiskLimits;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Configuration of the headless runner, loaded from a properties file.
+ *
+ * Example:
+ * <pre>
+ * # single | pool
+ * runner.threads.model=pool
+ * runner.threads.count=4
+ * runner.feed.intervalMillis=1000
+ * # optional: serve the local feeds to other runners, or take all feeds from a serving runner
+ * runner.feed.publish=127.0.0.1:9500
+ * runner.feed.remote=127.0.0.1:9500
+ * # optional: metrics endpoint, final-state journal, auto-stop after N seconds
+ * runner.metrics.port=9404
+ * runner.journal.path=journal/final-state.csv
+ * runner.durationSeconds=0
+ * # optional: bot state restored at start and saved at shutdown (and every N seconds if > 0)
+ * runner.snapshot.path=state/bots.snapshot
+ * runner.snapshot.intervalSeconds=60
+ * # optional: record every candle and decision per bot for com.tradingbot.replay.Replayer
+ * runner.eventlog.dir=events
+ * # optional pre-trade limits per bot, 0 = disabled (see RiskLimits)
+ * runner.risk.maxPosition=1.0
+ * runner.risk.maxNotional=50000
+ * runner.risk.notionalWindowSeconds=60
+ * runner.risk.maxOrdersPerSecond=5
+ * runner.risk.maxDrawdownPercent=20
+ * runner.risk.priceBandPercent=5
+ *
+ * bots=rsi-fast,ai
+ * bot.rsi-fast.strategy=RSI
+ * bot.rsi-fast.params=7,25,75
+ * bot.rsi-fast.wallet=10000
+ * bot.rsi-fast.symbol=BTCUSDT
+ * bot.rsi-fast.replicas=100
+ * bot.ai.strategy=AI
+ * bot.ai.model=ai_model/trading_model.onnx
+ * # java (compiled forest, default) | onnx (onnxruntime)
+ * bot.ai.engine=java
+ * # Model only for ambiguous candles; params: oversold, overbought, neutral band, regime threshold,
+ * # shadow sampling interval
+ * bot.cascade.strategy=CASCADE
+ * bot.cascade.model=ai_model/trading_model.onnx
+ * bot.cascade.params=30,70,10,0,100
+ * </pre>
+ */
+public class RunnerConfig {
+
+    /**
+     * How bots are scheduled onto threads.
+     */
+    public enum ThreadModel {
+        /** Every bot runs on its feed's thread. */
+        SINGLE,
+        /** Bots are partitioned across a fixed pool of worker threads, each bot pinned to one worker. */
+        POOL
+    }
+
+    public static final double DEFAULT_WALLET_SIZE = 10000.0;
+    private static final String RISK_PREFIX = "runner.risk.";
+    public static final String DEFAULT_SYMBOL = "BTCUSDT";
+
+    private final List<BotDefinition> bots;
+    private final ThreadModel threadModel;
+    private final int threadCount;
+    private final long feedIntervalMillis;
+    private final int metricsPort;
+    private final String journalPath;
+    private final long durationSeconds;
+    private final RiskLimits riskLimits;
+    private final String feedPublishAddress;
+    private final String feedRemoteAddress;
+    private final String snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private final String eventLogDir;
+
+    /**
+     * Parses and validates every option; unset options take their defaults.
+     * @param properties The properties, see the class comment
+     */
+    private RunnerConfig(Properties properties) {
+        this.bots = Collections.unmodifiableList(parseBots(properties));
+
+        String rawModel = properties.getProperty("runner.threads.model", "single").trim();
+        try {
+            this.threadModel = ThreadModel.valueOf(rawModel.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown thread model: " + rawModel);
+        }
+        this.threadCount = (int) parseLong(properties, "runner.threads.count",
+                Runtime.getRuntime().availableProcessors());
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+        }
+        this.feedIntervalMillis = parseLong(properties, "runner.feed.intervalMillis", 1000);
+        this.metricsPort = (int) parseLong(properties, "runner.metrics.port", -1);
+        this.journalPath = parseOptional(properties, "runner.journal.path");
+        this.durationSeconds = parseLong(properties, "runner.durationSeconds", 0);
+        this.riskLimits = parseRiskLimits(properties);
+
+        this.feedPublishAddress = parseOptional(properties, "runner.feed.publish");
+        this.feedRemoteAddress = parseOptional(properties, "runner.feed.remote");
+        if (feedRemoteAddress != null && feedPublishAddress != null) {
+            throw new IllegalArgumentException("A runner cannot both publish and consume remote feeds");
+        }
+        if (feedRemoteAddress != null) {
+            parseHostPort(feedRemoteAddress);
+        }
+        if (feedPublishAddress != null) {
+            parseHostPort(feedPublishAddress);
+        }
+
+        this.snapshotPath = parseOptional(properties, "runner.snapshot.path");
+        this.snapshotIntervalSeconds = parseLong(properties, "runner.snapshot.intervalSeconds", 0);
+        if (snapshotIntervalSeconds < 0) {
+            throw new IllegalArgumentException("Snapshot interval cannot be negative: " + snapshotIntervalSeconds);
+        }
+        this.eventLogDir = parseOptional(properties, "runner.eventlog.dir");
+    }
+
+    /**
+     * Loads the configuration from a properties file.
+     * @param path The file path
+     * @return The parsed configuration
+     * @throws IOException if the file cannot be read
+     */
+    public static RunnerConfig load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties);
+        }
+    }
+
+    /**
+     * Parses the configuration from already loaded properties.
+     * @param properties The properties
+     * @return The parsed configuration
+     */
+    public static RunnerConfig fromProperties(Properties properties) {
+        return new RunnerConfig(properties);
+    }
+
+    /**
+     * @return The bots listed in 'bots', in order
+     */
+    private static List<BotDefinition> parseBots(Properties properties) {
+        String botList = properties.getProperty("bots", "").trim();
+        if (botList.isEmpty()) {
+            throw new IllegalArgumentException("Missing 'bots' property");
+        }
+
+        List<BotDefinition> bots = new ArrayList<>();
+        for (String rawName : botList.split(",")) {
+            String name = rawName.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String prefix = "bot." + name + ".";
+            String strategy = properties.getProperty(prefix + "strategy");
+            if (strategy == null || strategy.isBlank()) {
+                throw new IllegalArgumentException("Missing " + prefix + "strategy");
+            }
+            strategy = strategy.trim().toUpperCase();
+
+            String[] params;
+            String rawParams = properties.getProperty(prefix + "params", "").trim();
+            String[] extraParams = rawParams.isEmpty() ? new String[0] : rawParams.split("\\s*,\\s*");
+            String model = properties.getProperty(prefix + "model");
+            if (model != null && !model.isBlank()) {
+                // Model strategies: model path, engine, then any params (e.g. the cascade's zones)
+                String engine = properties.getProperty(prefix + "engine", "").trim();
+                if (extraParams.length == 0) {
+                    params = engine.isEmpty() ? new String[]{model.trim()} : new String[]{model.trim(), engine};
+                } else {
+                    params = new String[2 + extraParams.length];
+                    params[0] = model.trim();
+                    params[1] = engine;
+                    System.arraycopy(extraParams, 0, params, 2, extraParams.length);
+                }
+            } else {
+                params = extraParams;
+            }
+
+            double wallet = parseDouble(properties, prefix + "wallet", DEFAULT_WALLET_SIZE);
+            String symbol = properties.getProperty(prefix + "symbol", DEFAULT_SYMBOL).trim();
+            int replicas = (int) parseLong(properties, prefix + "replicas", 1);
+            bots.add(new BotDefinition(name, strategy, params, wallet, symbol, replicas));
+        }
+
+        if (bots.isEmpty()) {
+            throw new IllegalArgumentException("At least one bot must be configured");
+        }
+        return bots;
+    }
+
+    /**
+     * Parses host:port.
+     * @param hostPort The address
+     * @return The socket address (unresolved names are resolved on connect)
+     */
+    static InetSocketAddress parseHostPort(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        if (colon <= 0 || colon == hostPort.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port, got " + hostPort);
+        }
+        try {
+            return InetSocketAddress.createUnresolved(hostPort.substring(0, colon),
+                    Integer.parseInt(hostPort.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Expected host:port, got " + hostPort);
+        }
+    }
+
+    /**
+     * @return The runner.risk.* limits, or null if none is set
+     */
+    private static RiskLimits parseRiskLimits(Properties properties) {
+        if (properties.stringPropertyNames().stream().noneMatch(key -> key.startsWith(RISK_PREFIX))) {
+            return null;
+        }
+        return new RiskLimits(
+                parseDouble(properties, RISK_PREFIX + "maxPosition", 0),
+                parseDouble(properties, RISK_PREFIX + "maxNotional", 0),
+                parseLong(properties, RISK_PREFIX + "notionalWindowSeconds",
+                        RiskLimits.DEFAULT_NOTIONAL_WINDOW_MILLIS / 1000) * 1000,
+                (int) parseLong(properties, RISK_PREFIX + "maxOrdersPerSecond", 0),
+                parseDouble(properties, RISK_PREFIX + "maxDrawdownPercent", 0),
+                parseDouble(properties, RISK_PREFIX + "priceBandPercent", 0));
+    }
+
+    /**
+     * @return The trimmed value, or null if unset or blank
+     */
+    private static String parseOptional(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static long parseLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    private static double parseDouble(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    public List<BotDefinition> getBots() {
+        return bots;
+    }
+
+    /**
+     * Total number of bots after expanding replicas.
+     * @return The bot count
+     */
+    public int getTotalBotCount() {
+        int total = 0;
+        for (BotDefinition bot : bots) {
+            total += bot.getReplicas();
+        }
+        return total;
+    }
+
+    public ThreadModel getThreadModel() {
+        return threadModel;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getFeedIntervalMillis() {
+        return feedIntervalMillis;
+    }
+
+    /**
+     * Port of the metrics endpoint.
+     * @return The port, or a negative value if disabled
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Path of the journal written at shutdown.
+     * @return The path, or null if disabled
+     */
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    /**
+     * Run time after which the runner stops by itself.
+     * @return Seconds, or 0 to run until terminated
+     */
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * @return Pre-trade limits for every bot, or null if risk checks are disabled
+     */
+    public RiskLimits getRiskLimits() {
+        return riskLimits;
+    }
+
+    /**
+     * Address the local feeds are served on.
+     * @return host:port, or null if disabled
+     */
+    public String getFeedPublishAddress() {
+        return feedPublishAddress;
+    }
+
+    /**
+     * Address of the runner serving the feeds.
+     * @return host:port, or null if feeds are generated locally
+     */
+    public String getFeedRemoteAddress() {
+        return feedRemoteAddress;
+    }
+
+    /**
+     * File the bot state is restored from and saved to.
+     * @return The path, or null if disabled
+     */
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    /**
+     * Time between scheduled snapshots.
+     * @return Seconds, or 0 to save only at shutdown
+     */
+    public long getSnapshotIntervalSeconds() {
+        return snapshotIntervalSeconds;
+    }
+
+    /**
+     * Directory of the per-bot event logs.
+     * @return The directory, or null if recording is disabled
+     */
+    public String getEventLogDir() {
+        return eventLogDir;
+    }
+}
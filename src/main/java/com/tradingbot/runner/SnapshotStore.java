@@ -0,0 +1,103 @@
+package com.tradingbot.runner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the state of all bots as one binary file.
+ *
+ * Layout: magic, version, bot count, then per bot its name and a length-prefixed state blob (see
+ * {@link com.tradingbot.bot.BotObserver#writeState()}), followed by a CRC32 of everything before it.
+ * Files are written to a temporary sibling and moved into place, so a crash mid-write leaves the
+ * previous snapshot intact. Reading is one sequential pass over the file.
+ */
+public final class SnapshotStore {
+    private static final int MAGIC = 0x54425354; // "TBST"
+    private static final int VERSION = 1;
+
+    private SnapshotStore() {
+    }
+
+    /**
+     * Atomically replaces the snapshot file.
+     * @param path The snapshot file
+     * @param states State blob per bot name
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Map<String, byte[]> states) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + states.size() * 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(states.size());
+        for (Map.Entry<String, byte[]> entry : states.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path target = path.toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a snapshot file.
+     * @param path The snapshot file
+     * @return State blob per bot name, in the order written
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static Map<String, byte[]> read(Path path) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        if (data.length < Long.BYTES) {
+            throw new IOException("Snapshot file is truncated: " + path);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - Long.BYTES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        in.skipNBytes(data.length - Long.BYTES);
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("Snapshot file checksum mismatch: " + path);
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - Long.BYTES));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + path);
+        }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ": " + path);
+        }
+        int count = in.readInt();
+        Map<String, byte[]> states = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            byte[] state = new byte[in.readInt()];
+            in.readFully(state);
+            states.put(name, state);
+        }
+        return states;
+    }
+}
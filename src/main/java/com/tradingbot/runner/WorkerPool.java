@@ -0,0 +1,179 @@
+package com.tradingbot.runner;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fixed pool of worker threads for the POOL thread model.
+ *
+ * Each bot is pinned to exactly one worker, so a bot's strategy and wallet are only ever touched
+ * by a single thread and need no locking. A feed publishes each candle once per worker (not once
+ * per bot) into that worker's bounded queue; when a queue is full the feed blocks, which applies
+ * back-pressure instead of growing memory.
+ */
+public class WorkerPool {
+    private static final Logger logger = Logger.getLogger(WorkerPool.class.getName());
+    private static final Batch POISON = new Batch(new Observer[0], null);
+
+    private final Worker[] workers;
+    private int nextWorker = 0;
+
+    /**
+     * Creates the pool; threads are started by {@link #start()}.
+     * @param threadCount Number of worker threads
+     * @param queueCapacity Capacity of each worker's queue
+     */
+    public WorkerPool(int threadCount, int queueCapacity) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+        }
+        this.workers = new Worker[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Worker("BotWorker-" + i, queueCapacity);
+        }
+    }
+
+    /**
+     * Creates a dispatcher that fans a feed's candles out to the given bots.
+     * Bots are assigned round-robin across workers, continuing from previous dispatchers so that
+     * several feeds spread evenly over the pool.
+     * @param bots The bots subscribed to one feed
+     * @return An observer to register on that feed
+     */
+    public synchronized Observer createDispatcher(List<? extends Observer> bots) {
+        List<List<Observer>> perWorker = new ArrayList<>();
+        for (int i = 0; i < workers.length; i++) {
+            perWorker.add(new ArrayList<>());
+        }
+        for (Observer bot : bots) {
+            perWorker.get(nextWorker).add(bot);
+            nextWorker = (nextWorker + 1) % workers.length;
+        }
+
+        List<Worker> targets = new ArrayList<>();
+        List<Observer[]> groups = new ArrayList<>();
+        for (int i = 0; i < workers.length; i++) {
+            if (!perWorker.get(i).isEmpty()) {
+                targets.add(workers[i]);
+                groups.add(perWorker.get(i).toArray(new Observer[0]));
+            }
+        }
+        return new Dispatcher(targets.toArray(new Worker[0]), groups.toArray(new Observer[0][]));
+    }
+
+    public void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Processes every queued candle, then stops the workers.
+     * Feeds must be stopped before calling this so no new candles arrive.
+     * @param timeoutMillis Maximum time to wait for each worker
+     */
+    public void shutdown(long timeoutMillis) {
+        for (Worker worker : workers) {
+            try {
+                worker.queue.put(POISON);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * Current queue depth of a worker. Lock-free, safe to call from a metrics scrape.
+     * @param index Worker index
+     * @return Number of pending candle batches
+     */
+    public int getQueueDepth(int index) {
+        return workers[index].queue.size();
+    }
+
+    private static final class Batch {
+        private final Observer[] bots;
+        private final MarketCandle candle;
+
+        private Batch(Observer[] bots, MarketCandle candle) {
+            this.bots = bots;
+            this.candle = candle;
+        }
+    }
+
+    private static final class Worker implements Runnable {
+        private final BlockingQueue<Batch> queue;
+        private final Thread thread;
+
+        private Worker(String name, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, name);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Batch batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (batch == POISON) {
+                    return;
+                }
+                for (Observer bot : batch.bots) {
+                    try {
+                        bot.update(batch.candle);
+                    } catch (RuntimeException e) {
+                        // One failing bot must not take down the others sharing this worker
+                        logger.log(Level.SEVERE, "Bot failed on candle " + batch.candle, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Dispatcher implements Observer {
+        private final Worker[] workers;
+        private final Observer[][] groups;
+
+        private Dispatcher(Worker[] workers, Observer[][] groups) {
+            this.workers = workers;
+            this.groups = groups;
+        }
+
+        @Override
+        public void update(MarketCandle candle) {
+            for (int i = 0; i < workers.length; i++) {
+                try {
+                    workers[i].queue.put(new Batch(groups[i], candle));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.tradingbot.simulation;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Subject;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * A growable series of candles stored column-wise in primitive arrays (timestamps in epoch
+ * milliseconds, UTC). Bulk generators and backtests read and write it without allocating a
+ * {@link MarketCandle} per bar; {@link #toCandle(int)} and {@link #publishTo(Subject)} convert at
+ * the boundary to the Observer-based code.
+ *
+ * Not thread-safe.
+ */
+public final class CandleColumns {
+    private long[] timestamps;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] volumes;
+    private int size;
+
+    /**
+     * @param initialCapacity Number of candles to allocate up front
+     */
+    public CandleColumns(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.timestamps = new long[initialCapacity];
+        this.opens = new double[initialCapacity];
+        this.highs = new double[initialCapacity];
+        this.lows = new double[initialCapacity];
+        this.closes = new double[initialCapacity];
+        this.volumes = new double[initialCapacity];
+    }
+
+    /**
+     * Appends one candle.
+     */
+    public void add(long timestampMillis, double open, double high, double low, double close, double volume) {
+        if (size == timestamps.length) {
+            grow(size + 1);
+        }
+        timestamps[size] = timestampMillis;
+        opens[size] = open;
+        highs[size] = high;
+        lows[size] = low;
+        closes[size] = close;
+        volumes[size] = volume;
+        size++;
+    }
+
+    /**
+     * Makes room for at least the given number of candles in total.
+     * @param capacity Required capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > timestamps.length) {
+            grow(capacity);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(16, timestamps.length + (timestamps.length >> 1)));
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[checkIndex(index)];
+    }
+
+    public double getOpen(int index) {
+        return opens[checkIndex(index)];
+    }
+
+    public double getHigh(int index) {
+        return highs[checkIndex(index)];
+    }
+
+    public double getLow(int index) {
+        return lows[checkIndex(index)];
+    }
+
+    public double getClose(int index) {
+        return closes[checkIndex(index)];
+    }
+
+    public double getVolume(int index) {
+        return volumes[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    /**
+     * @param index Candle index
+     * @return The candle as a domain object
+     */
+    public MarketCandle toCandle(int index) {
+        checkIndex(index);
+        long millis = timestamps[index];
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return new MarketCandle(opens[index], highs[index], lows[index], closes[index], volumes[index], timestamp);
+    }
+
+    /**
+     * Replays every candle to a subject's observers, in order, on the calling thread.
+     * @param subject The subject to publish through
+     */
+    public void publishTo(Subject subject) {
+        for (int i = 0; i < size; i++) {
+            subject.notifyObservers(toCandle(i));
+        }
+    }
+}
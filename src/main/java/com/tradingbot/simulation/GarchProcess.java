@@ -0,0 +1,63 @@
+package com.tradingbot.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * GARCH(1,1) returns: the variance of each candle depends on the previous shock and variance,
+ * so calm and turbulent periods cluster like in real markets.
+ *
+ * variance(t) = omega + alpha * shock(t-1)^2 + beta * variance(t-1)
+ */
+public class GarchProcess implements PriceProcess {
+    private final double drift;
+    private final double omega;
+    private final double alpha;
+    private final double beta;
+    private final double longRunVariance;
+    private double variance;
+    private double stepVolatility;
+
+    /**
+     * @param drift Mean log return per candle
+     * @param omega Variance constant, positive
+     * @param alpha Weight of the last squared shock
+     * @param beta Weight of the last variance; alpha + beta must be below 1
+     */
+    public GarchProcess(double drift, double omega, double alpha, double beta) {
+        if (!(omega > 0) || !(alpha >= 0) || !(beta >= 0) || !(alpha + beta < 1)) {
+            throw new IllegalArgumentException("GARCH needs omega > 0, alpha, beta >= 0 and alpha + beta < 1");
+        }
+        this.drift = drift;
+        this.omega = omega;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.longRunVariance = omega / (1 - alpha - beta);
+        this.variance = longRunVariance;
+        this.stepVolatility = Math.sqrt(longRunVariance);
+    }
+
+    @Override
+    public double nextLogReturn(RandomGenerator random) {
+        stepVolatility = Math.sqrt(variance);
+        double shock = stepVolatility * random.nextGaussian();
+        variance = omega + alpha * shock * shock + beta * variance;
+        return drift + shock;
+    }
+
+    @Override
+    public double currentVolatility() {
+        return stepVolatility;
+    }
+
+    @Override
+    public PriceProcess copy() {
+        return new GarchProcess(drift, omega, alpha, beta);
+    }
+
+    /**
+     * @return Unconditional volatility per candle, sqrt(omega / (1 - alpha - beta))
+     */
+    public double getLongRunVolatility() {
+        return Math.sqrt(longRunVariance);
+    }
+}
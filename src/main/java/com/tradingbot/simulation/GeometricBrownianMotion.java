@@ -0,0 +1,48 @@
+package com.tradingbot.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Geometric Brownian motion: normally distributed log returns with constant drift and volatility.
+ */
+public class GeometricBrownianMotion implements PriceProcess {
+    private final double drift;
+    private final double volatility;
+    private final double logDrift;
+
+    /**
+     * @param drift Expected simple return per candle (e.g. 0.0001)
+     * @param volatility Standard deviation of the log return per candle (e.g. 0.01)
+     */
+    public GeometricBrownianMotion(double drift, double volatility) {
+        if (!(volatility >= 0)) {
+            throw new IllegalArgumentException("Volatility cannot be negative: " + volatility);
+        }
+        this.drift = drift;
+        this.volatility = volatility;
+        this.logDrift = drift - 0.5 * volatility * volatility;
+    }
+
+    @Override
+    public double nextLogReturn(RandomGenerator random) {
+        return logDrift + volatility * random.nextGaussian();
+    }
+
+    @Override
+    public double currentVolatility() {
+        return volatility;
+    }
+
+    @Override
+    public PriceProcess copy() {
+        return this; // Stateless
+    }
+
+    public double getDrift() {
+        return drift;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tradingbot.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Merton jump-diffusion: GBM plus a Poisson number of normally distributed log-price jumps per
+ * candle. The drift is compensated for the jumps, so the expected simple return stays at the
+ * given drift.
+ */
+public class JumpDiffusionProcess implements PriceProcess {
+    private final double volatility;
+    private final double jumpIntensity;
+    private final double jumpMean;
+    private final double jumpVolatility;
+    private final double logDrift;
+    private final double noJumpProbability; // exp(-intensity), for Poisson sampling
+
+    /**
+     * @param drift Expected simple return per candle
+     * @param volatility Diffusion volatility of the log return per candle
+     * @param jumpIntensity Expected number of jumps per candle (e.g. 0.01)
+     * @param jumpMean Mean log size of a jump (e.g. -0.03)
+     * @param jumpVolatility Standard deviation of the log size of a jump
+     */
+    public JumpDiffusionProcess(double drift, double volatility, double jumpIntensity, double jumpMean,
+                                double jumpVolatility) {
+        if (!(volatility >= 0) || !(jumpVolatility >= 0)) {
+            throw new IllegalArgumentException("Volatilities cannot be negative");
+        }
+        if (!(jumpIntensity >= 0) || jumpIntensity > 10) {
+            throw new IllegalArgumentException("Jump intensity must be in 0..10: " + jumpIntensity);
+        }
+        this.volatility = volatility;
+        this.jumpIntensity = jumpIntensity;
+        this.jumpMean = jumpMean;
+        this.jumpVolatility = jumpVolatility;
+        double meanJumpReturn = Math.exp(jumpMean + 0.5 * jumpVolatility * jumpVolatility) - 1;
+        this.logDrift = drift - 0.5 * volatility * volatility - jumpIntensity * meanJumpReturn;
+        this.noJumpProbability = Math.exp(-jumpIntensity);
+    }
+
+    @Override
+    public double nextLogReturn(RandomGenerator random) {
+        double logReturn = logDrift + volatility * random.nextGaussian();
+        int jumps = poisson(random);
+        if (jumps > 0) {
+            // Sum of n normal jumps
+            logReturn += jumps * jumpMean + Math.sqrt(jumps) * jumpVolatility * random.nextGaussian();
+        }
+        return logReturn;
+    }
+
+    /** Knuth's method: one uniform per candle for the small intensities used here. */
+    private int poisson(RandomGenerator random) {
+        int count = 0;
+        double product = random.nextDouble();
+        while (product > noJumpProbability) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    @Override
+    public double currentVolatility() {
+        return volatility;
+    }
+
+    @Override
+    public PriceProcess copy() {
+        return this; // Stateless
+    }
+
+    public double getJumpIntensity() {
+        return jumpIntensity;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tradingbot.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A stochastic model of per-candle log returns.
+ *
+ * Pattern Name: Strategy Pattern
+ * Role: Strategy - each implementation (GBM, jump-diffusion, GARCH, regime switching) defines how
+ * the next return is drawn, while {@link SyntheticCandleStream} turns returns into candles.
+ * Reason: Lets stress tests swap the market model without touching candle construction, bulk
+ * generation or the feeds that consume the candles.
+ *
+ * Implementations may keep state (e.g. GARCH variance), so each stream works on its own
+ * {@link #copy()}.
+ */
+public interface PriceProcess {
+    /**
+     * Draws the next log return and advances any internal state.
+     * @param random The stream's random generator
+     * @return ln(close / open) of the next candle
+     */
+    double nextLogReturn(RandomGenerator random);
+
+    /**
+     * @return Diffusion volatility (standard deviation of the log return) of the step just drawn,
+     * used to size the candle's wicks
+     */
+    double currentVolatility();
+
+    /**
+     * @return An independent copy in the initial state
+     */
+    PriceProcess copy();
+}
@@ -0,0 +1,85 @@
+package com.tradingbot.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Markov regime switching: before each candle the market moves between regimes (e.g. calm bull,
+ * volatile bear) according to a transition matrix, and the candle's return is drawn from the
+ * current regime's process.
+ */
+public class RegimeSwitchingProcess implements PriceProcess {
+    private final PriceProcess[] regimes;
+    private final double[][] cumulativeTransitions;
+    private int currentRegime;
+
+    /**
+     * @param regimes Process per regime; the market starts in regime 0
+     * @param transitions transitions[i][j] = probability of moving from regime i to j per candle;
+     * each row must sum to 1
+     */
+    public RegimeSwitchingProcess(PriceProcess[] regimes, double[][] transitions) {
+        if (regimes.length == 0 || transitions.length != regimes.length) {
+            throw new IllegalArgumentException("Need one transition row per regime");
+        }
+        this.regimes = new PriceProcess[regimes.length];
+        this.cumulativeTransitions = new double[regimes.length][];
+        for (int i = 0; i < regimes.length; i++) {
+            if (transitions[i].length != regimes.length) {
+                throw new IllegalArgumentException("Transition row " + i + " must have " + regimes.length + " entries");
+            }
+            double[] cumulative = new double[regimes.length];
+            double sum = 0;
+            for (int j = 0; j < regimes.length; j++) {
+                if (!(transitions[i][j] >= 0)) {
+                    throw new IllegalArgumentException("Transition probabilities cannot be negative");
+                }
+                sum += transitions[i][j];
+                cumulative[j] = sum;
+            }
+            if (Math.abs(sum - 1) > 1e-9) {
+                throw new IllegalArgumentException("Transition row " + i + " sums to " + sum + ", not 1");
+            }
+            cumulative[regimes.length - 1] = 1.0;
+            this.cumulativeTransitions[i] = cumulative;
+            this.regimes[i] = regimes[i].copy();
+        }
+    }
+
+    @Override
+    public double nextLogReturn(RandomGenerator random) {
+        double[] row = cumulativeTransitions[currentRegime];
+        double u = random.nextDouble();
+        int next = 0;
+        while (u >= row[next]) {
+            next++;
+        }
+        currentRegime = next;
+        return regimes[next].nextLogReturn(random);
+    }
+
+    @Override
+    public double currentVolatility() {
+        return regimes[currentRegime].currentVolatility();
+    }
+
+    @Override
+    public PriceProcess copy() {
+        double[][] transitions = new double[regimes.length][regimes.length];
+        for (int i = 0; i < regimes.length; i++) {
+            double previous = 0;
+            for (int j = 0; j < regimes.length; j++) {
+                transitions[i][j] = cumulativeTransitions[i][j] - previous;
+                previous = cumulativeTransitions[i][j];
+            }
+        }
+        return new RegimeSwitchingProcess(regimes, transitions);
+    }
+
+    public int getCurrentRegime() {
+        return currentRegime;
+    }
+
+    public int getRegimeCount() {
+        return regimes.length;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tradingbot.simulation;
+
+import com.tradingbot.domain.MarketCandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the candles of one synthetic symbol from a {@link PriceProcess} and its own random
+ * stream, so symbols can be generated on different threads without sharing state and every
+ * stream is reproducible from its seed.
+ *
+ * Each candle opens at the previous close and closes at open * exp(return). The high and low are
+ * drawn from the exact distribution of the maximum and minimum of a Brownian bridge between open
+ * and close with the process's current volatility. Volume is log-normal around the base volume and
+ * grows with the size of the move.
+ *
+ * Not thread-safe.
+ */
+public class SyntheticCandleStream {
+    private final PriceProcess process;
+    private final SplittableRandom random;
+    private final double baseVolume;
+    private final long stepMillis;
+    private double price;
+    private long timestamp;
+
+    // The candle produced by the last step()
+    private long lastTimestamp;
+    private double lastOpen;
+    private double lastHigh;
+    private double lastLow;
+    private double lastClose;
+    private double lastVolume;
+
+    /**
+     * @param process The return model; used as is, so pass a {@link PriceProcess#copy()} if it is shared
+     * @param seed Seed of this stream's random generator
+     * @param startPrice Open of the first candle
+     * @param baseVolume Typical volume per candle
+     * @param startMillis Timestamp of the first candle in epoch milliseconds
+     * @param stepMillis Candle length in milliseconds
+     */
+    public SyntheticCandleStream(PriceProcess process, long seed, double startPrice, double baseVolume,
+                                 long startMillis, long stepMillis) {
+        if (!(startPrice > 0)) {
+            throw new IllegalArgumentException("Start price must be positive: " + startPrice);
+        }
+        if (!(baseVolume >= 0)) {
+            throw new IllegalArgumentException("Base volume cannot be negative: " + baseVolume);
+        }
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("Step must be positive: " + stepMillis);
+        }
+        this.process = process;
+        this.random = new SplittableRandom(seed);
+        this.price = startPrice;
+        this.baseVolume = baseVolume;
+        this.timestamp = startMillis;
+        this.stepMillis = stepMillis;
+    }
+
+    private void step() {
+        double logReturn = process.nextLogReturn(random);
+        double volatility = process.currentVolatility();
+        double variance = volatility * volatility;
+        // Max / min of a Brownian bridge from 0 to logReturn: (r +- sqrt(r^2 - 2 var ln U)) / 2
+        double r2 = logReturn * logReturn;
+        double up = 0.5 * (logReturn + Math.sqrt(r2 - 2 * variance * Math.log(1 - random.nextDouble())));
+        double down = 0.5 * (logReturn - Math.sqrt(r2 - 2 * variance * Math.log(1 - random.nextDouble())));
+
+        double open = price;
+        double close = open * Math.exp(logReturn);
+        lastTimestamp = timestamp;
+        lastOpen = open;
+        lastClose = close;
+        lastHigh = Math.max(open * Math.exp(up), Math.max(open, close));
+        lastLow = Math.min(open * Math.exp(down), Math.min(open, close));
+        double move = volatility > 0 ? Math.abs(logReturn) / volatility : 0;
+        lastVolume = baseVolume * (0.5 + 0.5 * move) * Math.exp(0.25 * random.nextGaussian());
+
+        price = close;
+        timestamp += stepMillis;
+    }
+
+    /**
+     * Generates the next candle as a domain object.
+     * @return The candle
+     */
+    public MarketCandle next() {
+        step();
+        LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(lastTimestamp, 1000L),
+                (int) Math.floorMod(lastTimestamp, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return new MarketCandle(lastOpen, lastHigh, lastLow, lastClose, lastVolume, time);
+    }
+
+    /**
+     * Appends the next candles to primitive columns without allocating per candle.
+     * @param out Destination
+     * @param count Number of candles
+     */
+    public void fill(CandleColumns out, int count) {
+        out.ensureCapacity(out.size() + count);
+        for (int i = 0; i < count; i++) {
+            step();
+            out.add(lastTimestamp, lastOpen, lastHigh, lastLow, lastClose, lastVolume);
+        }
+    }
+
+    /**
+     * @return Close of the last generated candle (the start price before the first)
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    public PriceProcess getProcess() {
+        return process;
+    }
+}
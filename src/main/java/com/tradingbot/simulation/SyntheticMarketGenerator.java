@@ -0,0 +1,79 @@
+package com.tradingbot.simulation;
+
+import java.util.stream.IntStream;
+
+/**
+ * Creates reproducible synthetic symbols that share a market model.
+ *
+ * Pattern Name: Factory Pattern
+ * Role: Factory - builds a {@link SyntheticCandleStream} per symbol index, each with its own copy of
+ * the {@link PriceProcess} and a seed derived from the generator seed and the index.
+ * Reason: Symbol streams are independent of each other and of generation order, so any subset can
+ * be regenerated alone or in parallel and still produce the same candles.
+ */
+public class SyntheticMarketGenerator {
+    private final PriceProcess process;
+    private final long seed;
+    private final double startPrice;
+    private final double baseVolume;
+    private final long startMillis;
+    private final long stepMillis;
+
+    /**
+     * @param process The return model shared (as copies) by all symbols
+     * @param seed Master seed
+     * @param startPrice Open of each symbol's first candle
+     * @param baseVolume Typical volume per candle
+     * @param startMillis Timestamp of the first candle in epoch milliseconds
+     * @param stepMillis Candle length in milliseconds
+     */
+    public SyntheticMarketGenerator(PriceProcess process, long seed, double startPrice, double baseVolume,
+                                    long startMillis, long stepMillis) {
+        if (process == null) {
+            throw new IllegalArgumentException("Process cannot be null");
+        }
+        this.process = process;
+        this.seed = seed;
+        this.startPrice = startPrice;
+        this.baseVolume = baseVolume;
+        this.startMillis = startMillis;
+        this.stepMillis = stepMillis;
+    }
+
+    /**
+     * @param symbolIndex Symbol number, 0-based
+     * @return A new stream for that symbol, starting at its first candle
+     */
+    public SyntheticCandleStream stream(int symbolIndex) {
+        return new SyntheticCandleStream(process.copy(), symbolSeed(symbolIndex), startPrice, baseVolume,
+                startMillis, stepMillis);
+    }
+
+    /**
+     * Generates the first candles of several symbols in parallel on the common ForkJoin pool.
+     * @param symbols Number of symbols
+     * @param candlesPerSymbol Candles per symbol
+     * @return Columns per symbol index
+     */
+    public CandleColumns[] generate(int symbols, int candlesPerSymbol) {
+        CandleColumns[] result = new CandleColumns[symbols];
+        IntStream.range(0, symbols).parallel().forEach(i -> {
+            CandleColumns columns = new CandleColumns(candlesPerSymbol);
+            stream(i).fill(columns, candlesPerSymbol);
+            result[i] = columns;
+        });
+        return result;
+    }
+
+    /** SplitMix64 finalizer of seed and index, so neighbouring symbols get unrelated streams. */
+    private long symbolSeed(int symbolIndex) {
+        long z = seed + (symbolIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tradingbot.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a big-endian bit stream written by {@link BitOutput} with one unaligned 64-bit load per
+ * read. The buffer must have 8 readable bytes beyond the last byte of the stream.
+ */
+final class BitInput {
+    private ByteBuffer buffer;
+    private long position; // In bits
+
+    /**
+     * @param buffer Big-endian source, read from index 0
+     */
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = 0;
+    }
+
+    /**
+     * @param bits Number of bits, 1 to 64
+     * @return The bits as the low bits of a long
+     */
+    long readBits(int bits) {
+        if (bits > 57) {
+            long high = readBits(bits - 32);
+            return (high << 32) | readBits(32);
+        }
+        long word = buffer.getLong((int) (position >>> 3));
+        long value = (word << (position & 7)) >>> (Long.SIZE - bits);
+        position += bits;
+        return value;
+    }
+
+    boolean readBit() {
+        long word = buffer.getLong((int) (position >>> 3));
+        boolean set = (word << (position & 7)) < 0;
+        position++;
+        return set;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradingbot.storage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable big-endian bit stream, filled 64 bits at a time.
+ */
+final class BitOutput {
+    private long[] words = new long[256];
+    private int wordCount;
+    private long current;
+    private int free = Long.SIZE; // Unused low bits of current
+
+    /**
+     * Appends the low bits of a value, most significant first.
+     * @param value The value
+     * @param bits Number of bits, 1 to 64
+     */
+    void writeBits(long value, int bits) {
+        if (bits < Long.SIZE) {
+            value &= (1L << bits) - 1;
+        }
+        if (bits < free) {
+            free -= bits;
+            current |= value << free;
+            return;
+        }
+        int rest = bits - free;
+        current |= value >>> rest;
+        push(current);
+        free = Long.SIZE - rest;
+        current = rest == 0 ? 0 : value << free;
+    }
+
+    private void push(long word) {
+        if (wordCount == words.length) {
+            words = Arrays.copyOf(words, wordCount * 2);
+        }
+        words[wordCount++] = word;
+    }
+
+    /**
+     * @return Bits written so far
+     */
+    long bitLength() {
+        return (long) wordCount * Long.SIZE + (Long.SIZE - free);
+    }
+
+    /**
+     * @return Whole bytes needed for the bits written so far
+     */
+    int byteLength() {
+        return (int) ((bitLength() + 7) >>> 3);
+    }
+
+    /**
+     * Copies the stream into a buffer, the last byte zero-padded.
+     * @param buffer Big-endian destination with at least {@link #byteLength()} bytes remaining
+     */
+    void copyTo(ByteBuffer buffer) {
+        for (int i = 0; i < wordCount; i++) {
+            buffer.putLong(words[i]);
+        }
+        int tail = (Long.SIZE - free + 7) >>> 3;
+        for (int i = 0; i < tail; i++) {
+            buffer.put((byte) (current >>> (56 - i * 8)));
+        }
+    }
+
+    void clear() {
+        wordCount = 0;
+        current = 0;
+        free = Long.SIZE;
+    }
+}
@@ -0,0 +1,145 @@
+package com.tradingbot.storage;
+
+/**
+ * Gorilla-style compression of one block of candles, one column after the other.
+ *
+ * Timestamps: the first raw, then the delta of deltas with a variable-length prefix, so a regular
+ * series costs one bit per candle. Prices and volumes: the first raw, then the XOR with the
+ * previous value of the same column; a zero XOR costs one bit, otherwise only its meaningful bits
+ * are stored, reusing the previous leading/trailing-zero window when it fits. Opens are XORed with
+ * the previous close instead, which they usually equal. Values round-trip bit for bit, including
+ * NaN and -0.0.
+ */
+final class CandleBlockCodec {
+    static final int VALUE_COLUMNS = 5;
+    static final int OPEN = 0;
+    static final int HIGH = 1;
+    static final int LOW = 2;
+    static final int CLOSE = 3;
+    static final int VOLUME = 4;
+
+    private CandleBlockCodec() {
+    }
+
+    /**
+     * @param columns Open, high, low, close and volume columns, indexed by the constants above
+     */
+    static void encode(long[] timestamps, double[][] columns, int count, BitOutput out) {
+        encodeTimestamps(timestamps, count, out);
+        encodeValues(columns[CLOSE], columns[CLOSE], count, out);
+        encodeValues(columns[OPEN], columns[CLOSE], count, out);
+        encodeValues(columns[HIGH], columns[HIGH], count, out);
+        encodeValues(columns[LOW], columns[LOW], count, out);
+        encodeValues(columns[VOLUME], columns[VOLUME], count, out);
+    }
+
+    static void decode(BitInput in, long[] timestamps, double[][] columns, int count) {
+        decodeTimestamps(in, timestamps, count);
+        decodeValues(in, columns[CLOSE], columns[CLOSE], count);
+        decodeValues(in, columns[OPEN], columns[CLOSE], count);
+        decodeValues(in, columns[HIGH], columns[HIGH], count);
+        decodeValues(in, columns[LOW], columns[LOW], count);
+        decodeValues(in, columns[VOLUME], columns[VOLUME], count);
+    }
+
+    private static void encodeTimestamps(long[] timestamps, int count, BitOutput out) {
+        long previous = timestamps[0];
+        long previousDelta = 0;
+        out.writeBits(previous, 64);
+        for (int i = 1; i < count; i++) {
+            long delta = timestamps[i] - previous;
+            long dod = delta - previousDelta;
+            previous = timestamps[i];
+            previousDelta = delta;
+            if (dod == 0) {
+                out.writeBits(0, 1);
+            } else if (dod >= -64 && dod < 64) {
+                out.writeBits(0b10, 2);
+                out.writeBits(dod, 7);
+            } else if (dod >= -256 && dod < 256) {
+                out.writeBits(0b110, 3);
+                out.writeBits(dod, 9);
+            } else if (dod >= -2048 && dod < 2048) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(dod, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(dod, 64);
+            }
+        }
+    }
+
+    private static void decodeTimestamps(BitInput in, long[] timestamps, int count) {
+        long previous = in.readBits(64);
+        long delta = 0;
+        timestamps[0] = previous;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                int bits;
+                if (!in.readBit()) {
+                    bits = 7;
+                } else if (!in.readBit()) {
+                    bits = 9;
+                } else if (!in.readBit()) {
+                    bits = 12;
+                } else {
+                    bits = 64;
+                }
+                long dod = in.readBits(bits);
+                delta += bits == 64 ? dod : (dod << (64 - bits)) >> (64 - bits);
+            }
+            previous += delta;
+            timestamps[i] = previous;
+        }
+    }
+
+    /**
+     * @param reference Value i is XORed with reference[i - 1]
+     */
+    private static void encodeValues(double[] values, double[] reference, int count, BitOutput out) {
+        out.writeBits(Double.doubleToRawLongBits(values[0]), 64);
+        int leading = -1;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            long xor = Double.doubleToRawLongBits(values[i]) ^ Double.doubleToRawLongBits(reference[i - 1]);
+            if (xor == 0) {
+                out.writeBits(0, 1);
+                continue;
+            }
+            int newLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int newTrailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && newLeading >= leading && newTrailing >= trailing) {
+                out.writeBits(0b10, 2);
+                out.writeBits(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                int significant = 64 - newLeading - newTrailing;
+                out.writeBits(0b11, 2);
+                out.writeBits(newLeading, 5);
+                out.writeBits(significant - 1, 6);
+                out.writeBits(xor >>> newTrailing, significant);
+                leading = newLeading;
+                trailing = newTrailing;
+            }
+        }
+    }
+
+    /**
+     * @param reference Already decoded column value i was XORed with (at i - 1); may be values itself
+     */
+    private static void decodeValues(BitInput in, double[] values, double[] reference, int count) {
+        values[0] = Double.longBitsToDouble(in.readBits(64));
+        int leading = 0;
+        int significant = 64;
+        for (int i = 1; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(reference[i - 1]);
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    significant = (int) in.readBits(6) + 1;
+                }
+                bits ^= in.readBits(significant) << (64 - leading - significant);
+            }
+            values[i] = Double.longBitsToDouble(bits);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tradingbot.storage;
+
+/**
+ * Receives decompressed candles as primitives, without allocating a candle per bar.
+ */
+@FunctionalInterface
+public interface CandleHandler {
+    /**
+     * @param timestampMillis Open time in epoch milliseconds, UTC
+     */
+    void onCandle(long timestampMillis, double open, double high, double low, double close, double volume);
+}
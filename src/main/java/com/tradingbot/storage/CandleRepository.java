@@ -0,0 +1,267 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.observer.Observer;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory candle history per symbol with time-range and as-of lookups.
+ *
+ * Each symbol's candles are appended in time order to parallel primitive arrays. A sparse index
+ * holds every 64th timestamp, so a lookup binary-searches a small, cache-resident array and then
+ * at most 64 neighbouring timestamps: O(log n) without touching the bulk of the history. Queries
+ * return {@link CandleView}s over the stored arrays instead of copies.
+ *
+ * Threading: one writer per symbol (typically its feed thread, see {@link #recorder(String)}) and
+ * any number of concurrent readers. A writer fills the next slot and then publishes the new size;
+ * when the arrays are full it publishes larger copies first, so readers never lock and see every
+ * candle up to the size they read.
+ */
+public class CandleRepository {
+    private static final int SPARSE_SHIFT = 6; // Index every 64th timestamp
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+    private final int initialCapacity;
+
+    public CandleRepository() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity Candles allocated per symbol up front
+     */
+    public CandleRepository(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Appends a candle to a symbol's history.
+     * @param symbol The symbol
+     * @param timestampMillis Open time in epoch milliseconds, UTC
+     * @return false if the candle is not newer than the symbol's last one and was dropped
+     */
+    public boolean append(String symbol, long timestampMillis, double open, double high, double low, double close,
+                          double volume) {
+        return seriesFor(symbol).append(timestampMillis, open, high, low, close, volume);
+    }
+
+    /**
+     * @return An observer that appends every candle of a feed to the symbol's history; candles that
+     *     are not newer than the last one are dropped
+     */
+    public Observer recorder(String symbol) {
+        Series target = seriesFor(symbol);
+        return candle -> target.append(candle.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(), candle.getVolume());
+    }
+
+    /**
+     * @param symbol The symbol
+     * @param fromMillis Start of the range (inclusive)
+     * @param toMillis End of the range (exclusive)
+     * @return The candles with from &lt;= timestamp &lt; to
+     */
+    public CandleView range(String symbol, long fromMillis, long toMillis) {
+        Series s = series.get(symbol);
+        if (s == null || fromMillis >= toMillis) {
+            return CandleView.EMPTY;
+        }
+        int size = s.size; // Read before the arrays, which are published first
+        Columns columns = s.columns;
+        int from = columns.lowerBound(fromMillis, size);
+        int to = columns.lowerBound(toMillis, size);
+        return columns.view(from, to - from);
+    }
+
+    /**
+     * History known at a point in time.
+     * @param symbol The symbol
+     * @param timeMillis The time
+     * @return Every candle with timestamp &lt;= time; the last one is the candle as of that time.
+     *     Empty if there is none
+     */
+    public CandleView asOf(String symbol, long timeMillis) {
+        Series s = series.get(symbol);
+        if (s == null) {
+            return CandleView.EMPTY;
+        }
+        int size = s.size;
+        Columns columns = s.columns;
+        int end = timeMillis == Long.MAX_VALUE ? size : columns.lowerBound(timeMillis + 1, size);
+        return columns.view(0, end);
+    }
+
+    /**
+     * @return Every candle of the symbol stored so far
+     */
+    public CandleView all(String symbol) {
+        return asOf(symbol, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return Number of candles stored for the symbol
+     */
+    public int size(String symbol) {
+        Series s = series.get(symbol);
+        return s == null ? 0 : s.size;
+    }
+
+    public Set<String> getSymbols() {
+        return Set.copyOf(series.keySet());
+    }
+
+    /**
+     * Appends the candles of a compressed file that fall in a time range and are newer than the
+     * symbol's last candle.
+     * @param symbol The symbol
+     * @param reader The file
+     * @param fromMillis Start of the range (inclusive)
+     * @param toMillis End of the range (exclusive)
+     * @return Number of candles stored
+     * @throws IOException if the file cannot be read
+     */
+    public long load(String symbol, CompressedCandleReader reader, long fromMillis, long toMillis) throws IOException {
+        Series target = seriesFor(symbol);
+        long[] stored = {0};
+        reader.scan(fromMillis, toMillis, (t, o, h, l, c, v) -> {
+            if (target.append(t, o, h, l, c, v)) {
+                stored[0]++;
+            }
+        });
+        return stored[0];
+    }
+
+    /**
+     * Writes a symbol's candles to a compressed file.
+     * @param symbol The symbol
+     * @param writer The file, positioned before the symbol's first candle
+     * @throws IOException if writing fails
+     */
+    public void save(String symbol, CompressedCandleWriter writer) throws IOException {
+        CandleView candles = all(symbol);
+        for (int i = 0; i < candles.size(); i++) {
+            writer.add(candles.getTimestamp(i), candles.getOpen(i), candles.getHigh(i), candles.getLow(i),
+                    candles.getClose(i), candles.getVolume(i));
+        }
+    }
+
+    private Series seriesFor(String symbol) {
+        return series.computeIfAbsent(symbol, k -> new Series(new Columns(initialCapacity)));
+    }
+
+    /**
+     * Column arrays plus the sparse index over their timestamps; replaced as a whole when full.
+     */
+    private static final class Columns {
+        final long[] timestamps;
+        final double[] opens;
+        final double[] highs;
+        final double[] lows;
+        final double[] closes;
+        final double[] volumes;
+        final long[] sparse; // sparse[k] == timestamps[k << SPARSE_SHIFT]
+
+        Columns(int capacity) {
+            this.timestamps = new long[capacity];
+            this.opens = new double[capacity];
+            this.highs = new double[capacity];
+            this.lows = new double[capacity];
+            this.closes = new double[capacity];
+            this.volumes = new double[capacity];
+            this.sparse = new long[(capacity >> SPARSE_SHIFT) + 1];
+        }
+
+        Columns(Columns from, int capacity) {
+            this.timestamps = Arrays.copyOf(from.timestamps, capacity);
+            this.opens = Arrays.copyOf(from.opens, capacity);
+            this.highs = Arrays.copyOf(from.highs, capacity);
+            this.lows = Arrays.copyOf(from.lows, capacity);
+            this.closes = Arrays.copyOf(from.closes, capacity);
+            this.volumes = Arrays.copyOf(from.volumes, capacity);
+            this.sparse = Arrays.copyOf(from.sparse, (capacity >> SPARSE_SHIFT) + 1);
+        }
+
+        int capacity() {
+            return timestamps.length;
+        }
+
+        /**
+         * @return Index of the first of the first size candles with timestamp &gt;= key, or size
+         */
+        int lowerBound(long key, int size) {
+            if (size == 0) {
+                return 0;
+            }
+            // Last sampled block starting at or before the key, then the first candle >= key in it
+            int low = 0;
+            int high = ((size - 1) >> SPARSE_SHIFT) + 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sparse[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == 0) {
+                return 0; // Before the first candle
+            }
+            int from = (low - 1) << SPARSE_SHIFT;
+            int to = Math.min(size, low << SPARSE_SHIFT);
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (timestamps[mid] < key) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        CandleView view(int from, int count) {
+            return count == 0 ? CandleView.EMPTY
+                    : new CandleView(timestamps, opens, highs, lows, closes, volumes, from, count);
+        }
+    }
+
+    private static final class Series {
+        volatile Columns columns;
+        volatile int size;
+
+        Series(Columns columns) {
+            this.columns = columns;
+        }
+
+        boolean append(long timestampMillis, double open, double high, double low, double close, double volume) {
+            int n = size;
+            Columns c = columns;
+            if (n > 0 && timestampMillis <= c.timestamps[n - 1]) {
+                return false;
+            }
+            if (n == c.capacity()) {
+                c = new Columns(c, n + (n >> 1) + 1);
+                columns = c; // Published before the size that needs it
+            }
+            c.timestamps[n] = timestampMillis;
+            c.opens[n] = open;
+            c.highs[n] = high;
+            c.lows[n] = low;
+            c.closes[n] = close;
+            c.volumes[n] = volume;
+            if ((n & ((1 << SPARSE_SHIFT) - 1)) == 0) {
+                c.sparse[n >> SPARSE_SHIFT] = timestampMillis;
+            }
+            size = n + 1;
+            return true;
+        }
+    }
+}
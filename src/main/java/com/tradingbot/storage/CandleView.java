@@ -0,0 +1,137 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.simulation.CandleColumns;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A read-only window over candles held by a {@link CandleRepository}, in time order.
+ *
+ * Views share the repository's column arrays instead of copying them. Stored candles are never
+ * modified and the arrays are replaced rather than resized, so a view stays valid and unchanged
+ * while newer candles are appended. Sub-views are free.
+ */
+public final class CandleView {
+    static final CandleView EMPTY = new CandleView(new long[0], new double[0], new double[0], new double[0],
+            new double[0], new double[0], 0, 0);
+
+    private final long[] timestamps;
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final double[] volumes;
+    private final int offset;
+    private final int size;
+
+    CandleView(long[] timestamps, double[] opens, double[] highs, double[] lows, double[] closes,
+               double[] volumes, int offset, int size) {
+        this.timestamps = timestamps;
+        this.opens = opens;
+        this.highs = highs;
+        this.lows = lows;
+        this.closes = closes;
+        this.volumes = volumes;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[checkIndex(index)];
+    }
+
+    public double getOpen(int index) {
+        return opens[checkIndex(index)];
+    }
+
+    public double getHigh(int index) {
+        return highs[checkIndex(index)];
+    }
+
+    public double getLow(int index) {
+        return lows[checkIndex(index)];
+    }
+
+    public double getClose(int index) {
+        return closes[checkIndex(index)];
+    }
+
+    public double getVolume(int index) {
+        return volumes[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return offset + index;
+    }
+
+    /**
+     * @param index Candle index within the view
+     * @return The candle as a domain object
+     */
+    public MarketCandle toCandle(int index) {
+        int i = checkIndex(index);
+        long millis = timestamps[i];
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return new MarketCandle(opens[i], highs[i], lows[i], closes[i], volumes[i], timestamp);
+    }
+
+    /**
+     * @param from First index (inclusive)
+     * @param to Last index (exclusive)
+     * @return A view of part of this view, sharing its storage
+     */
+    public CandleView subView(int from, int to) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range " + from + ".." + to + " out of bounds for size " + size);
+        }
+        return new CandleView(timestamps, opens, highs, lows, closes, volumes, offset + from, to - from);
+    }
+
+    /**
+     * @param count Maximum number of candles
+     * @return The most recent candles of this view
+     */
+    public CandleView tail(int count) {
+        return subView(Math.max(0, size - Math.max(0, count)), size);
+    }
+
+    /**
+     * Copies the candles for APIs that take a {@link CandleColumns}.
+     * @param into Receives the candles, appended
+     */
+    public void copyTo(CandleColumns into) {
+        into.ensureCapacity(into.size() + size);
+        for (int i = offset; i < offset + size; i++) {
+            into.add(timestamps[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+        }
+    }
+
+    /**
+     * Hands every candle to a handler as primitives, in time order.
+     * @param handler The handler
+     */
+    public void forEach(CandleHandler handler) {
+        for (int i = offset; i < offset + size; i++) {
+            handler.onCandle(timestamps[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size == 0 ? "CandleView{size=0}" : "CandleView{size=" + size + ", from=" + timestamps[offset]
+                + ", to=" + timestamps[offset + size - 1] + "}";
+    }
+}
@@ -0,0 +1,243 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.simulation.CandleColumns;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads time ranges from a file written by {@link CompressedCandleWriter}.
+ *
+ * The block index is loaded when the file is opened; a range read binary-searches it and reads and
+ * decompresses only the blocks overlapping the range, each into reusable column arrays from which
+ * candles are appended to a {@link CandleColumns} or handed to a {@link CandleHandler}.
+ *
+ * Not thread-safe: use one reader per thread.
+ */
+public final class CompressedCandleReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final int blockCount;
+    private final long[] firstTimestamps;
+    private final long[] lastTimestamps;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] counts;
+    private final long candleCount;
+
+    // Decoding scratch, sized for the largest block
+    private final ByteBuffer blockBuffer;
+    private final BitInput bits = new BitInput();
+    private final long[] timestamps;
+    private final double[][] columns = new double[CandleBlockCodec.VALUE_COLUMNS][];
+    private long blocksDecoded;
+
+    /**
+     * Opens a file and loads its block index.
+     * @param path The file
+     * @throws IOException if the file cannot be read or is not a complete candle file
+     */
+    public CompressedCandleReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < CompressedCandleWriter.HEADER_LENGTH + CompressedCandleWriter.FOOTER_LENGTH) {
+                throw new IOException("Not a candle file: " + path);
+            }
+            ByteBuffer header = readFully(0, CompressedCandleWriter.HEADER_LENGTH);
+            ByteBuffer footer = readFully(size - CompressedCandleWriter.FOOTER_LENGTH,
+                    CompressedCandleWriter.FOOTER_LENGTH);
+            long indexOffset = footer.getLong();
+            int blocks = footer.getInt();
+            if (header.getInt() != CompressedCandleWriter.MAGIC || footer.getInt() != CompressedCandleWriter.MAGIC) {
+                throw new IOException("Not a candle file or not closed properly: " + path);
+            }
+            short version = header.getShort();
+            if (version != CompressedCandleWriter.VERSION) {
+                throw new IOException("Unsupported candle file version " + version + ": " + path);
+            }
+            int blockCapacity = header.getInt();
+            if (blocks < 0 || blockCapacity <= 0 || indexOffset + (long) blocks * CompressedCandleWriter.INDEX_ENTRY_LENGTH
+                    != size - CompressedCandleWriter.FOOTER_LENGTH) {
+                throw new IOException("Corrupt candle file index: " + path);
+            }
+
+            this.blockCount = blocks;
+            this.firstTimestamps = new long[blocks];
+            this.lastTimestamps = new long[blocks];
+            this.offsets = new long[blocks];
+            this.lengths = new int[blocks];
+            this.counts = new int[blocks];
+            ByteBuffer index = readFully(indexOffset, blocks * CompressedCandleWriter.INDEX_ENTRY_LENGTH);
+            long total = 0;
+            int maxLength = 0;
+            for (int b = 0; b < blocks; b++) {
+                firstTimestamps[b] = index.getLong();
+                lastTimestamps[b] = index.getLong();
+                offsets[b] = index.getLong();
+                lengths[b] = index.getInt();
+                counts[b] = index.getInt();
+                if (counts[b] <= 0 || counts[b] > blockCapacity || offsets[b] + lengths[b] > indexOffset) {
+                    throw new IOException("Corrupt candle file index: " + path);
+                }
+                total += counts[b];
+                maxLength = Math.max(maxLength, lengths[b]);
+            }
+            this.candleCount = total;
+            this.blockBuffer = ByteBuffer.allocate(maxLength + Long.BYTES); // Slack for 64-bit loads
+            this.timestamps = new long[blockCapacity];
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = new double[blockCapacity];
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, offset);
+        return buffer.flip();
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of candle file");
+            }
+        }
+    }
+
+    /**
+     * Appends the candles with from &lt;= timestamp &lt; to.
+     * @param fromMillis Start of the range (inclusive)
+     * @param toMillis End of the range (exclusive)
+     * @param into Receives the candles in time order
+     * @return Number of candles appended
+     * @throws IOException if a block cannot be read
+     */
+    public int read(long fromMillis, long toMillis, CandleColumns into) throws IOException {
+        int added = 0;
+        for (int b = firstBlock(fromMillis); b < blockCount && firstTimestamps[b] < toMillis; b++) {
+            int count = decodeBlock(b);
+            int start = lowerBound(timestamps, count, fromMillis);
+            int end = lowerBound(timestamps, count, toMillis);
+            into.ensureCapacity(into.size() + end - start);
+            double[] opens = columns[CandleBlockCodec.OPEN];
+            double[] highs = columns[CandleBlockCodec.HIGH];
+            double[] lows = columns[CandleBlockCodec.LOW];
+            double[] closes = columns[CandleBlockCodec.CLOSE];
+            double[] volumes = columns[CandleBlockCodec.VOLUME];
+            for (int i = start; i < end; i++) {
+                into.add(timestamps[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+            }
+            added += end - start;
+        }
+        return added;
+    }
+
+    /**
+     * Streams the candles with from &lt;= timestamp &lt; to to a handler.
+     * @param fromMillis Start of the range (inclusive)
+     * @param toMillis End of the range (exclusive)
+     * @param handler Receives the candles in time order
+     * @return Number of candles handled
+     * @throws IOException if a block cannot be read
+     */
+    public long scan(long fromMillis, long toMillis, CandleHandler handler) throws IOException {
+        long handled = 0;
+        for (int b = firstBlock(fromMillis); b < blockCount && firstTimestamps[b] < toMillis; b++) {
+            int count = decodeBlock(b);
+            int start = lowerBound(timestamps, count, fromMillis);
+            int end = lowerBound(timestamps, count, toMillis);
+            double[] opens = columns[CandleBlockCodec.OPEN];
+            double[] highs = columns[CandleBlockCodec.HIGH];
+            double[] lows = columns[CandleBlockCodec.LOW];
+            double[] closes = columns[CandleBlockCodec.CLOSE];
+            double[] volumes = columns[CandleBlockCodec.VOLUME];
+            for (int i = start; i < end; i++) {
+                handler.onCandle(timestamps[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+            }
+            handled += end - start;
+        }
+        return handled;
+    }
+
+    /**
+     * @return Index of the first block whose last candle is at or after the time, or blockCount
+     */
+    private int firstBlock(long millis) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lastTimestamps[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(long[] values, int count, long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int decodeBlock(int block) throws IOException {
+        blockBuffer.clear().limit(lengths[block]);
+        readFully(blockBuffer, offsets[block]);
+        blockBuffer.clear();
+        bits.reset(blockBuffer);
+        int count = counts[block];
+        CandleBlockCodec.decode(bits, timestamps, columns, count);
+        blocksDecoded++;
+        return count;
+    }
+
+    public long getCandleCount() {
+        return candleCount;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return Timestamp of the first candle, or Long.MIN_VALUE if the file is empty
+     */
+    public long getFirstTimestamp() {
+        return blockCount == 0 ? Long.MIN_VALUE : firstTimestamps[0];
+    }
+
+    /**
+     * @return Timestamp of the last candle, or Long.MIN_VALUE if the file is empty
+     */
+    public long getLastTimestamp() {
+        return blockCount == 0 ? Long.MIN_VALUE : lastTimestamps[blockCount - 1];
+    }
+
+    /**
+     * @return Blocks read and decompressed since the file was opened
+     */
+    public long getBlocksDecoded() {
+        return blocksDecoded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.simulation.CandleColumns;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Appends one symbol's candle history to a compressed, block-organized file.
+ *
+ * Candles are buffered into blocks of a fixed number of candles, each compressed with
+ * {@link CandleBlockCodec} and written as soon as it is full. Closing the writer flushes the last
+ * block and appends the block index, so a reader can locate the blocks overlapping a time range
+ * without touching the others.
+ *
+ * <pre>
+ * header  int magic "TBCS", short version, int block capacity
+ * blocks  compressed blocks, back to back
+ * index   per block: long first timestamp, long last timestamp, long offset, int length, int count
+ * footer  long index offset, int block count, int magic
+ * </pre>
+ *
+ * Timestamps must be strictly increasing. Not thread-safe.
+ */
+public final class CompressedCandleWriter implements AutoCloseable {
+    public static final int DEFAULT_BLOCK_CAPACITY = 1024;
+    static final int MAGIC = 0x54424353; // "TBCS"
+    static final short VERSION = 1;
+    static final int HEADER_LENGTH = 10;
+    static final int INDEX_ENTRY_LENGTH = 32;
+    static final int FOOTER_LENGTH = 16;
+
+    private final FileChannel channel;
+    private final int blockCapacity;
+    private final long[] timestamps;
+    private final double[][] columns = new double[CandleBlockCodec.VALUE_COLUMNS][];
+    private final BitOutput bits = new BitOutput();
+    private int buffered;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long candleCount;
+    private long position;
+    private boolean closed;
+
+    // Block index
+    private long[] firstTimestamps = new long[64];
+    private long[] lastTimestamps = new long[64];
+    private long[] offsets = new long[64];
+    private int[] lengths = new int[64];
+    private int[] counts = new int[64];
+    private int blockCount;
+
+    public CompressedCandleWriter(Path path) throws IOException {
+        this(path, DEFAULT_BLOCK_CAPACITY);
+    }
+
+    /**
+     * Creates or truncates the file.
+     * @param path The file
+     * @param blockCapacity Candles per block: smaller blocks make short range reads cheaper, larger
+     *     ones compress slightly better
+     * @throws IOException if the file cannot be created
+     */
+    public CompressedCandleWriter(Path path, int blockCapacity) throws IOException {
+        if (blockCapacity <= 0) {
+            throw new IllegalArgumentException("Block capacity must be positive: " + blockCapacity);
+        }
+        this.blockCapacity = blockCapacity;
+        this.timestamps = new long[blockCapacity];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new double[blockCapacity];
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putShort(VERSION).putInt(blockCapacity).flip();
+        write(header);
+    }
+
+    /**
+     * Appends one candle.
+     * @throws IOException if a full block cannot be written
+     */
+    public void add(long timestampMillis, double open, double high, double low, double close, double volume)
+            throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (timestampMillis <= lastTimestamp) {
+            throw new IllegalArgumentException("Timestamps must be increasing: " + timestampMillis
+                    + " after " + lastTimestamp);
+        }
+        lastTimestamp = timestampMillis;
+        int i = buffered++;
+        timestamps[i] = timestampMillis;
+        columns[CandleBlockCodec.OPEN][i] = open;
+        columns[CandleBlockCodec.HIGH][i] = high;
+        columns[CandleBlockCodec.LOW][i] = low;
+        columns[CandleBlockCodec.CLOSE][i] = close;
+        columns[CandleBlockCodec.VOLUME][i] = volume;
+        candleCount++;
+        if (buffered == blockCapacity) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Appends every candle of a series.
+     * @param candles The candles, continuing after those already written
+     * @throws IOException if a block cannot be written
+     */
+    public void addAll(CandleColumns candles) throws IOException {
+        for (int i = 0; i < candles.size(); i++) {
+            add(candles.getTimestamp(i), candles.getOpen(i), candles.getHigh(i), candles.getLow(i),
+                    candles.getClose(i), candles.getVolume(i));
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (buffered == 0) {
+            return;
+        }
+        bits.clear();
+        CandleBlockCodec.encode(timestamps, columns, buffered, bits);
+        ByteBuffer block = ByteBuffer.allocate(bits.byteLength());
+        bits.copyTo(block);
+        block.flip();
+
+        if (blockCount == offsets.length) {
+            int capacity = blockCount * 2;
+            firstTimestamps = Arrays.copyOf(firstTimestamps, capacity);
+            lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        firstTimestamps[blockCount] = timestamps[0];
+        lastTimestamps[blockCount] = timestamps[buffered - 1];
+        offsets[blockCount] = position;
+        lengths[blockCount] = block.remaining();
+        counts[blockCount] = buffered;
+        blockCount++;
+        write(block);
+        buffered = 0;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    public long getCandleCount() {
+        return candleCount;
+    }
+
+    /**
+     * @return Bytes written to the file so far
+     */
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Flushes the last block and writes the block index.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBlock();
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_LENGTH + FOOTER_LENGTH);
+            for (int b = 0; b < blockCount; b++) {
+                index.putLong(firstTimestamps[b]).putLong(lastTimestamps[b]).putLong(offsets[b])
+                        .putInt(lengths[b]).putInt(counts[b]);
+            }
+            index.putLong(indexOffset).putInt(blockCount).putInt(MAGIC).flip();
+            write(index);
+        } finally {
+            channel.close();
+        }
+    }
+}
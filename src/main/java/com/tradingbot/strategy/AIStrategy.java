@@ -5,12 +5,26 @@ import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtSession;
 import com.tradingbot.domain.MarketCandle;
 import com.tradingbot.domain.Signal;
+import com.tradingbot.jfr.FeatureExtractionEvent;
+import com.tradingbot.jfr.ModelInferenceEvent;
+import com.tradingbot.model.CompiledForest;
+import com.tradingbot.model.FeatureCalculator;
+import com.tradingbot.model.OnnxTreeEnsembleLoader;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Represents the 'Concrete Strategy' in the Strategy Pattern that uses AI/ML for trading decisions.
@@ -21,47 +35,86 @@ import java.util.Map;
  * Reason: Used Strategy Pattern to allow runtime switching between AI and math-based logic.
  * Extends BaseTradingStrategy to leverage the Template Method Pattern for consistent trade execution flow.
  * The AI model inference is encapsulated in the analyze() method, making it interchangeable with other strategies.
+ *
+ * By default the model's tree ensemble is compiled into a {@link CompiledForest} and evaluated in
+ * pure Java (no JNI or tensor marshalling per candle). Models the compiler does not support fall
+ * back to onnxruntime, which can also be selected explicitly with {@link InferenceEngine#ONNX}.
+ *
+ * The model is loaded in the background so that startup continues with feed setup; the first
+ * candle waits for it. A missing model file still fails the constructor, while a model that cannot
+ * be loaded is logged and makes the strategy HOLD.
  */
 public class AIStrategy extends BaseTradingStrategy {
+    /**
+     * How the model is evaluated.
+     */
+    public enum InferenceEngine {
+        /** Compiled tree ensemble evaluated in Java; predictions match onnxruntime bit for bit. */
+        JAVA,
+        /** onnxruntime session via JNI. */
+        ONNX
+    }
+
+    // Loads models off the caller's thread; daemon threads, so a pending load never blocks exit
+    private static final ExecutorService MODEL_LOADER = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "ModelLoader");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Compiled forests are immutable, so bots trading the same model file share one
+    private static final ConcurrentMap<String, CompletableFuture<CompiledForest>> COMPILED_MODELS =
+            new ConcurrentHashMap<>();
+
+    // Written by the loading thread, read after modelLoad completed
     private OrtSession session;
     private OrtEnvironment environment;
+    private CompiledForest forest;
+    private InferenceEngine engine;
+    private final CompletableFuture<Void> modelLoad;
+    private volatile boolean modelLoaded;
     private final String modelPath;
-    private final List<Double> priceHistory;
-    private static final int SMA_PERIOD = 20;
-    private static final int MOMENTUM_PERIOD = 5;
-    private static final int RSI_PERIOD = 14;
+    private final FeatureCalculator features = new FeatureCalculator();
 
     public AIStrategy(com.tradingbot.domain.Wallet wallet, String modelPath) {
+        this(wallet, modelPath, InferenceEngine.JAVA);
+    }
+
+    /**
+     * @param wallet The wallet to trade with
+     * @param modelPath Path to the ONNX model
+     * @param engine Preferred inference engine; JAVA falls back to ONNX if the model cannot be compiled
+     */
+    public AIStrategy(com.tradingbot.domain.Wallet wallet, String modelPath, InferenceEngine engine) {
         super(wallet);
+        if (engine == null) {
+            throw new IllegalArgumentException("Inference engine must not be null");
+        }
         this.modelPath = modelPath;
-        this.priceHistory = new ArrayList<>();
-        this.environment = OrtEnvironment.getEnvironment();
-        loadModel();
+        this.engine = engine;
+        File modelFile = resolveModelFile();
+        this.modelLoad = CompletableFuture.runAsync(() -> loadModel(modelFile), MODEL_LOADER);
     }
 
     /**
-     * Loads the ONNX model from the specified path.
+     * Loads the ONNX model, compiling it when the JAVA engine is selected. Runs on a loader thread
+     * while the caller sets up feeds; onnxruntime and its native library are only initialized here,
+     * for the ONNX engine.
      */
-    private void loadModel() {
-        try {
-            File modelFile = new File(modelPath);
-            
-            // If relative path doesn't exist, try to resolve it
-            if (!modelFile.exists()) {
-                // Try to resolve relative to current working directory
-                String currentDir = System.getProperty("user.dir");
-                File absolutePath = new File(currentDir, modelPath);
-                if (absolutePath.exists()) {
-                    modelFile = absolutePath;
-                    logger.info("Resolved model path to: " + modelFile.getAbsolutePath());
-                } else {
-                    logger.severe("ONNX model file not found at: " + modelPath);
-                    logger.severe("Also tried: " + absolutePath.getAbsolutePath());
-                    logger.severe("Current working directory: " + currentDir);
-                    throw new RuntimeException("Model file not found: " + modelPath);
-                }
+    private void loadModel(File modelFile) {
+        if (engine == InferenceEngine.JAVA) {
+            try {
+                forest = compiledModel(modelFile);
+                return;
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.warning("Cannot compile model, falling back to onnxruntime: " + cause.getMessage());
+                engine = InferenceEngine.ONNX;
             }
-            
+        }
+
+        try {
+            environment = OrtEnvironment.getEnvironment();
             String absoluteModelPath = modelFile.getAbsolutePath();
             logger.info("Loading ONNX model from: " + absoluteModelPath);
             session = environment.createSession(absoluteModelPath);
@@ -74,114 +127,146 @@ public class AIStrategy extends BaseTradingStrategy {
     }
 
     /**
-     * Calculates RSI (Relative Strength Index).
+     * Compiles a model file, or returns the forest another bot compiled from the same file version.
      */
-    private double calculateRSI(List<Double> prices, int period) {
-        if (prices.size() < period + 1) {
-            return 50.0;
+    private CompiledForest compiledModel(File modelFile) throws IOException {
+        String key = modelFile.getAbsolutePath() + '@' + modelFile.lastModified() + '/' + modelFile.length();
+        CompletableFuture<CompiledForest> compiling = new CompletableFuture<>();
+        CompletableFuture<CompiledForest> existing = COMPILED_MODELS.putIfAbsent(key, compiling);
+        if (existing != null) {
+            return existing.join();
         }
-
-        List<Double> gains = new ArrayList<>();
-        List<Double> losses = new ArrayList<>();
-
-        for (int i = 1; i < prices.size(); i++) {
-            double change = prices.get(i) - prices.get(i - 1);
-            if (change > 0) {
-                gains.add(change);
-                losses.add(0.0);
-            } else {
-                gains.add(0.0);
-                losses.add(-change);
-            }
-        }
-
-        double avgGain = 0.0;
-        double avgLoss = 0.0;
-
-        for (int i = gains.size() - period; i < gains.size(); i++) {
-            avgGain += gains.get(i);
-            avgLoss += losses.get(i);
-        }
-
-        avgGain /= period;
-        avgLoss /= period;
-
-        if (avgLoss == 0) {
-            return 100.0;
+        try {
+            CompiledForest compiled = OnnxTreeEnsembleLoader.load(modelFile.toPath());
+            logger.info(String.format("Compiled model: %d trees, %d splits, %d features",
+                    compiled.getTreeCount(), compiled.getSplitCount(), compiled.getFeatureCount()));
+            compiling.complete(compiled);
+            return compiled;
+        } catch (IOException | RuntimeException e) {
+            COMPILED_MODELS.remove(key, compiling); // Let a fixed file be compiled again
+            compiling.completeExceptionally(e);
+            throw e;
         }
-
-        double rs = avgGain / avgLoss;
-        return 100.0 - (100.0 / (1.0 + rs));
     }
 
     /**
-     * Calculates Simple Moving Average (SMA).
+     * Waits until the model is loaded; after the first candle this is a single volatile read.
+     * @return false if no model could be loaded
      */
-    private double calculateSMA(List<Double> prices, int period) {
-        if (prices.size() < period) {
-            return prices.isEmpty() ? 0.0 : prices.get(prices.size() - 1);
-        }
-        double sum = 0.0;
-        for (int i = prices.size() - period; i < prices.size(); i++) {
-            sum += prices.get(i);
+    private boolean awaitModel() {
+        if (!modelLoaded) {
+            try {
+                modelLoad.join();
+            } catch (CompletionException e) {
+                logger.severe("Failed to load model " + modelPath + ": " + e.getCause().getMessage());
+            }
+            modelLoaded = true;
         }
-        return sum / period;
+        return forest != null || session != null;
     }
 
     /**
-     * Calculates Momentum (price change over last N periods).
+     * Resolves the model path, trying the working directory for relative paths.
      */
-    private double calculateMomentum(List<Double> prices, int period) {
-        if (prices.size() < period + 1) {
-            return 0.0;
+    private File resolveModelFile() {
+        File modelFile = new File(modelPath);
+
+        // If relative path doesn't exist, try to resolve it
+        if (!modelFile.exists()) {
+            // Try to resolve relative to current working directory
+            String currentDir = System.getProperty("user.dir");
+            File absolutePath = new File(currentDir, modelPath);
+            if (absolutePath.exists()) {
+                modelFile = absolutePath;
+                logger.info("Resolved model path to: " + modelFile.getAbsolutePath());
+            } else {
+                logger.severe("ONNX model file not found at: " + modelPath);
+                logger.severe("Also tried: " + absolutePath.getAbsolutePath());
+                logger.severe("Current working directory: " + currentDir);
+                throw new RuntimeException("Model file not found: " + modelPath);
+            }
         }
-        double currentPrice = prices.get(prices.size() - 1);
-        double pastPrice = prices.get(prices.size() - period - 1);
-        return currentPrice - pastPrice;
+        return modelFile;
     }
 
     /**
      * Converts MarketCandle to feature vector expected by the ONNX model.
-     * Features: [RSI_14, SMA_Diff, Momentum]
+     * Features: [RSI_14, SMA_Diff, Momentum], computed by {@link FeatureCalculator} exactly as in
+     * the training sets it exports
      * @param candle The market candle
      * @return Feature array
      */
     private float[] extractFeatures(MarketCandle candle) {
-        priceHistory.add(candle.getClose());
-        
-        // Keep sufficient history
-        if (priceHistory.size() > Math.max(SMA_PERIOD, Math.max(MOMENTUM_PERIOD, RSI_PERIOD)) + 1) {
-            priceHistory.remove(0);
-        }
+        float[] row = new float[FeatureCalculator.FEATURE_COUNT];
+        features.update(candle.getClose(), row, 0);
+        return row;
+    }
 
-        // Calculate features
-        double rsi = calculateRSI(priceHistory, RSI_PERIOD);
-        double sma = calculateSMA(priceHistory, SMA_PERIOD);
-        double smaDiff = candle.getClose() - sma;
-        double momentum = calculateMomentum(priceHistory, MOMENTUM_PERIOD);
+    /**
+     * Extracts the features of a candle, recorded as a Flight Recorder event. Must be called for
+     * every candle, in order, since the features depend on the price history.
+     * @param candle The market candle
+     * @return Feature row [RSI_14, SMA_Diff, Momentum]
+     */
+    protected float[] recordFeatures(MarketCandle candle) {
+        FeatureExtractionEvent event = new FeatureExtractionEvent();
+        event.begin();
+        float[] row = extractFeatures(candle);
+        if (event.shouldCommit()) {
+            event.bot = getBotName();
+            event.symbol = getSymbol();
+            event.features = row.length;
+            event.commit();
+        }
+        return row;
+    }
 
-        return new float[]{
-            (float) rsi,
-            (float) smaDiff,
-            (float) momentum
-        };
+    private void commit(ModelInferenceEvent event, Signal signal) {
+        if (event.shouldCommit()) {
+            event.bot = getBotName();
+            event.symbol = getSymbol();
+            event.engine = engine.name();
+            event.signal = signal.name();
+            event.commit();
+        }
     }
 
     @Override
     public Signal analyze(MarketCandle candle) {
-        if (session == null) {
+        return predict(recordFeatures(candle));
+    }
+
+    /**
+     * Runs the model on a feature row.
+     * @param row Features from {@link #recordFeatures}
+     * @return The model's signal, or HOLD if no model is loaded or inference fails
+     */
+    protected Signal predict(float[] row) {
+        if (!awaitModel()) {
             logger.warning("ONNX model not loaded, returning HOLD");
             return Signal.HOLD;
         }
-
+        if (forest != null) {
+            ModelInferenceEvent inference = new ModelInferenceEvent();
+            inference.begin();
+            long label = forest.predictLabel(row);
+            if (verbose) {
+                String msg = String.format("AI Model output (class index): %d", label);
+                logger.info(msg);
+                System.out.println(msg);
+            }
+            Signal signal = toSignal(label, true);
+            commit(inference, signal);
+            return signal;
+        }
         try {
-            // Extract features
-            float[] features = extractFeatures(candle);
+            ModelInferenceEvent inference = new ModelInferenceEvent();
+            inference.begin();
             
             // Create input tensor
             // Expected shape: [1, 3] (batch_size=1, features=3)
-            long[] shape = {1, 3};
-            FloatBuffer buffer = FloatBuffer.wrap(features);
+            long[] shape = {1, FeatureCalculator.FEATURE_COUNT};
+            FloatBuffer buffer = FloatBuffer.wrap(row);
             OnnxTensor inputTensor = OnnxTensor.createTensor(environment, buffer, shape);
 
             // Prepare inputs
@@ -206,31 +291,39 @@ public class AIStrategy extends BaseTradingStrategy {
                 long[] predictions = (long[]) value;
                 prediction = predictions[0]; // 0 = SELL, 1 = BUY
                 isClassIndex = true;
-                String msg = String.format("AI Model output (class index): %d", (long)prediction);
-                logger.info(msg);
-                System.out.println(msg);
+                if (verbose) {
+                    String msg = String.format("AI Model output (class index): %d", (long)prediction);
+                    logger.info(msg);
+                    System.out.println(msg);
+                }
             } else if (value instanceof float[]) {
                 // Probability or score as float[]
                 float[] predictions = (float[]) value;
                 prediction = predictions[0];
-                String msg = String.format("AI Model output (probability): %.4f", prediction);
-                logger.info(msg);
-                System.out.println(msg);
+                if (verbose) {
+                    String msg = String.format("AI Model output (probability): %.4f", prediction);
+                    logger.info(msg);
+                    System.out.println(msg);
+                }
             } else if (value instanceof float[][]) {
                 // 2D array
                 float[][] predictions = (float[][]) value;
                 prediction = predictions[0][0];
-                String msg = String.format("AI Model output (2D float): %.4f", prediction);
-                logger.info(msg);
-                System.out.println(msg);
+                if (verbose) {
+                    String msg = String.format("AI Model output (2D float): %.4f", prediction);
+                    logger.info(msg);
+                    System.out.println(msg);
+                }
             } else if (value instanceof long[][]) {
                 // 2D long array
                 long[][] predictions = (long[][]) value;
                 prediction = predictions[0][0];
                 isClassIndex = true;
-                String msg = String.format("AI Model output (2D class index): %d", (long)prediction);
-                logger.info(msg);
-                System.out.println(msg);
+                if (verbose) {
+                    String msg = String.format("AI Model output (2D class index): %d", (long)prediction);
+                    logger.info(msg);
+                    System.out.println(msg);
+                }
             } else {
                 String msg = "Unexpected output type: " + value.getClass().getName();
                 logger.warning(msg);
@@ -249,56 +342,101 @@ public class AIStrategy extends BaseTradingStrategy {
             outputTensor.close();
             output.close();
 
-            // Map output to signal
-            // Model is returning class indices (0 or 1), so we need to handle it differently
-            Signal signal;
+            Signal signal = toSignal(prediction, isClassIndex);
+            commit(inference, signal);
+            return signal;
+
+        } catch (Exception e) {
+            logger.severe("Error during AI inference: " + e.getMessage());
+            e.printStackTrace();
+            return Signal.HOLD;
+        }
+    }
+
+    /**
+     * Maps a model output to a trading signal.
+     * @param prediction Class index (0 = SELL, 1 = BUY) or BUY probability
+     * @param isClassIndex Whether prediction is a class index
+     * @return The trading signal
+     */
+    private Signal toSignal(float prediction, boolean isClassIndex) {
+        // Map output to signal
+        // Model is returning class indices (0 or 1), so we need to handle it differently
+        Signal signal;
+        
+        if (isClassIndex) {
+            // Direct class prediction: 0 = SELL, 1 = BUY
+            // Since model always returns 0 (SELL), let's add some randomness or use RSI as fallback
+            // For now, if we have no coins and model says SELL, return HOLD instead
+            if (prediction < 0.5 && wallet.getCoinBalance() == 0) {
+                // Can't sell if we have no coins - return HOLD
+                signal = Signal.HOLD;
+            } else {
+                signal = (prediction >= 0.5) ? Signal.BUY : Signal.SELL;
+            }
+        } else {
+            // Probability/score - use confidence threshold
+            final double CONFIDENCE_THRESHOLD = 0.3;
+            double distanceFromNeutral = Math.abs(prediction - 0.5);
             
-            if (isClassIndex) {
-                // Direct class prediction: 0 = SELL, 1 = BUY
-                // Since model always returns 0 (SELL), let's add some randomness or use RSI as fallback
-                // For now, if we have no coins and model says SELL, return HOLD instead
-                if (prediction < 0.5 && wallet.getCoinBalance() == 0) {
-                    // Can't sell if we have no coins - return HOLD
-                    signal = Signal.HOLD;
-                } else {
-                    signal = (prediction >= 0.5) ? Signal.BUY : Signal.SELL;
-                }
+            if (distanceFromNeutral < CONFIDENCE_THRESHOLD) {
+                signal = Signal.HOLD;
+            } else if (prediction >= 0.5) {
+                signal = Signal.BUY;
             } else {
-                // Probability/score - use confidence threshold
-                final double CONFIDENCE_THRESHOLD = 0.3;
-                double distanceFromNeutral = Math.abs(prediction - 0.5);
-                
-                if (distanceFromNeutral < CONFIDENCE_THRESHOLD) {
+                // If SELL but no coins, return HOLD
+                if (wallet.getCoinBalance() == 0) {
                     signal = Signal.HOLD;
-                } else if (prediction >= 0.5) {
-                    signal = Signal.BUY;
                 } else {
-                    // If SELL but no coins, return HOLD
-                    if (wallet.getCoinBalance() == 0) {
-                        signal = Signal.HOLD;
-                    } else {
-                        signal = Signal.SELL;
-                    }
+                    signal = Signal.SELL;
                 }
             }
-            
+        }
+        
+        if (verbose) {
             String decisionMsg = String.format("AI Model decision: %s (prediction: %.4f, confidence: %.2f%%)", 
                     signal, prediction, Math.abs(prediction - 0.5) * 200);
             logger.info(decisionMsg);
             System.out.println(decisionMsg);
-            return signal;
+        }
+        return signal;
+    }
 
-        } catch (Exception e) {
-            logger.severe("Error during AI inference: " + e.getMessage());
-            e.printStackTrace();
-            return Signal.HOLD;
+    /**
+     * Writes the price history the features are computed from.
+     */
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        List<Double> prices = new ArrayList<>(features.size());
+        for (int i = 0; i < features.size(); i++) {
+            prices.add(features.getPrice(i));
         }
+        writePrices(out, prices);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        List<Double> prices = new ArrayList<>();
+        readPrices(in, prices, FeatureCalculator.HISTORY_SIZE);
+        features.clear();
+        for (double price : prices) {
+            features.add(price);
+        }
+    }
+
+    /**
+     * @return The engine actually used (JAVA may have fallen back to ONNX)
+     */
+    public InferenceEngine getEngine() {
+        awaitModel();
+        return engine;
     }
 
     /**
      * Closes the ONNX session and releases resources.
      */
     public void close() {
+        awaitModel();
         try {
             if (session != null) {
                 session.close();
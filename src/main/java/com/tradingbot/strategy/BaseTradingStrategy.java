@@ -3,6 +3,20 @@ package com.tradingbot.strategy;
 import com.tradingbot.domain.MarketCandle;
 import com.tradingbot.domain.Signal;
 import com.tradingbot.domain.Wallet;
+import com.tradingbot.gateway.OrderGateway;
+import com.tradingbot.gateway.OrderListener;
+import com.tradingbot.gateway.OrderOutcome;
+import com.tradingbot.gateway.OrderReport;
+import com.tradingbot.jfr.StrategyDecisionEvent;
+import com.tradingbot.matching.MatchingEngine;
+import com.tradingbot.risk.RiskDecision;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.storage.CandleView;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 /**
@@ -18,10 +32,22 @@ import java.util.logging.Logger;
 public abstract class BaseTradingStrategy implements TradingStrategy {
     protected final Wallet wallet;
     protected final Logger logger;
-    private static final double TRADE_AMOUNT = 0.1; // Amount of coin to trade per signal
+    protected volatile boolean verbose = true; // Per-candle console/log output
+    private final List<TradeListener> tradeListeners = new CopyOnWriteArrayList<>();
+    private volatile RiskEngine riskEngine; // Optional pre-trade checks, null = none
+    private volatile MatchingEngine matchingEngine; // Optional simulated exchange, null = fill on the wallet
+    private volatile OrderGateway orderGateway; // Optional asynchronous venue, null = none
+    private final OrderListener fillForwarder =
+            (orderId, side, price, quantity, fee, maker) -> fireTrade(side, price, quantity);
+    public static final double TRADE_AMOUNT = 0.1; // Amount of coin to trade per signal
+    private static final int SNAPSHOT_VERSION = 2; // 2: int price counts
+    private final long tradeAmountUnits; // TRADE_AMOUNT in the wallet's coin units
+    private volatile String botName = ""; // Labels for Flight Recorder events
+    private volatile String symbol = "";
 
     public BaseTradingStrategy(Wallet wallet) {
         this.wallet = wallet;
+        this.tradeAmountUnits = wallet.toBaseUnits(TRADE_AMOUNT);
         this.logger = Logger.getLogger(this.getClass().getName());
     }
 
@@ -30,24 +56,51 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
      * This method is FINAL to prevent subclasses from overriding the algorithm structure.
      * 
      * @param candle The market candle to process
+     * @return The signal produced by the analysis step (HOLD if the candle was rejected)
      */
-    public final void executeStrategyTemplate(MarketCandle candle) {
+    public final Signal executeStrategyTemplate(MarketCandle candle) {
+        StrategyDecisionEvent event = new StrategyDecisionEvent();
+        event.begin();
+        Signal signal = runTemplate(candle);
+        if (event.shouldCommit()) {
+            event.bot = botName;
+            event.symbol = symbol;
+            event.strategy = getClass().getSimpleName();
+            event.signal = signal.name();
+            event.commit();
+        }
+        return signal;
+    }
+
+    private Signal runTemplate(MarketCandle candle) {
         // Step 1: Validate Data (Concrete implementation)
         if (!validateData(candle)) {
             logger.warning("Invalid candle data received: " + candle);
-            return;
+            return Signal.HOLD;
+        }
+
+        // Settle venue reports received since the last candle before looking at the wallet
+        OrderGateway gateway = orderGateway;
+        if (gateway != null) {
+            gateway.poll();
+        }
+
+        RiskEngine risk = riskEngine;
+        if (risk != null) {
+            risk.onCandle(candle, wallet);
         }
 
         // Step 2: Analyze (Abstract - must be implemented by subclasses)
         Signal signal = analyze(candle);
 
         // Step 3: Risk Check & Execution (Concrete implementation)
-        if (signal != Signal.HOLD) {
+        if (signal != Signal.HOLD && passesRiskCheck(risk, signal, candle)) {
             executeTrade(signal, candle);
         }
 
         // Step 4: Logging (Concrete implementation)
         logExecution(candle, signal);
+        return signal;
     }
 
     /**
@@ -68,6 +121,38 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
         return true;
     }
 
+    /**
+     * Runs the pre-trade risk check for the order executeTrade would place.
+     * @param risk The risk engine, or null to accept everything
+     * @param signal BUY or SELL
+     * @param candle The market candle with current price
+     * @return true if the order may be executed
+     */
+    private boolean passesRiskCheck(RiskEngine risk, Signal signal, MarketCandle candle) {
+        if (risk == null) {
+            return true;
+        }
+        RiskDecision decision;
+        OrderGateway gateway = orderGateway;
+        if (gateway != null) {
+            // Orders still in flight have not reached the wallet yet
+            double pending = gateway.getPendingBuyQuantity() + gateway.getPendingSellQuantity();
+            decision = risk.check(signal, candle.getClose(), TRADE_AMOUNT, wallet,
+                    gateway.getPendingBuyQuantity(), pending * candle.getClose());
+        } else {
+            decision = risk.check(signal, candle.getClose(), TRADE_AMOUNT, wallet);
+        }
+        if (decision.isAccepted()) {
+            return true;
+        }
+        if (verbose) {
+            String msg = String.format("✗ %s rejected by risk check: %s", signal, decision);
+            logger.warning(msg);
+            System.out.println(msg);
+        }
+        return false;
+    }
+
     /**
      * Executes a trade based on the signal.
      * @param signal The trading signal
@@ -77,8 +162,25 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
         double price = candle.getClose();
         boolean success = false;
 
+        OrderGateway gateway = orderGateway;
+        if (gateway != null) {
+            submitOrder(gateway, signal);
+            return;
+        }
+        MatchingEngine engine = matchingEngine;
+        if (engine != null) {
+            submitOrder(engine, signal);
+            return;
+        }
+
         if (signal == Signal.BUY) {
-            success = wallet.buy(price, TRADE_AMOUNT);
+            success = wallet.buyUnits(wallet.toPriceUnits(price), tradeAmountUnits);
+            if (success) {
+                fireTrade(Signal.BUY, price, TRADE_AMOUNT);
+            }
+            if (!verbose) {
+                return;
+            }
             if (success) {
                 String msg = String.format("✓ BUY executed: %.2f coins at price %.2f", TRADE_AMOUNT, price);
                 logger.info(msg);
@@ -89,7 +191,13 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
                 System.out.println(msg);
             }
         } else if (signal == Signal.SELL) {
-            success = wallet.sell(price, TRADE_AMOUNT);
+            success = wallet.sellUnits(wallet.toPriceUnits(price), tradeAmountUnits);
+            if (success) {
+                fireTrade(Signal.SELL, price, TRADE_AMOUNT);
+            }
+            if (!verbose) {
+                return;
+            }
             if (success) {
                 String msg = String.format("✓ SELL executed: %.2f coins at price %.2f", TRADE_AMOUNT, price);
                 logger.info(msg);
@@ -102,12 +210,73 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
         }
     }
 
+    /**
+     * Sends a market order to the matching engine; fills are reported to trade listeners when the
+     * engine executes it on a later candle.
+     * @param engine The matching engine
+     * @param signal BUY or SELL
+     */
+    private void submitOrder(MatchingEngine engine, Signal signal) {
+        long orderId = engine.submitMarket(signal, TRADE_AMOUNT, wallet, fillForwarder);
+        if (!verbose) {
+            return;
+        }
+        if (orderId < 0) {
+            String msg = String.format("✗ %s not submitted: order queue full", signal);
+            logger.warning(msg);
+            System.out.println(msg);
+        } else {
+            String msg = String.format("→ %s order #%d submitted: %.2f coins", signal, orderId, TRADE_AMOUNT);
+            logger.info(msg);
+            System.out.println(msg);
+        }
+    }
+
+    /**
+     * Sends a market order through the order gateway without waiting for the venue; fills are
+     * settled and reported to trade listeners when the gateway is polled on a later candle.
+     * @param gateway The order gateway
+     * @param signal BUY or SELL
+     */
+    private void submitOrder(OrderGateway gateway, Signal signal) {
+        gateway.submit(signal, TRADE_AMOUNT, wallet, fillForwarder).thenAccept(this::logOrderReport);
+    }
+
+    private void logOrderReport(OrderReport report) {
+        if (!verbose) {
+            return;
+        }
+        String msg = String.format("%s %s order #%d %s: %.2f coins", report.getOutcome() == OrderOutcome.FILLED
+                ? "✓" : "✗", report.getSide(), report.getOrderId(), report.getOutcome(), report.getFilledQuantity());
+        if (report.getOutcome() == OrderOutcome.FILLED) {
+            logger.info(msg);
+        } else {
+            logger.warning(msg);
+        }
+        System.out.println(msg);
+    }
+
+    /**
+     * Notifies trade listeners of a fill.
+     * @param side BUY or SELL
+     * @param price Fill price
+     * @param amount Filled amount
+     */
+    protected void fireTrade(Signal side, double price, double amount) {
+        for (TradeListener listener : tradeListeners) {
+            listener.onTrade(side, price, amount);
+        }
+    }
+
     /**
      * Logs the execution details.
      * @param candle The market candle
      * @param signal The generated signal
      */
     protected void logExecution(MarketCandle candle, Signal signal) {
+        if (!verbose) {
+            return;
+        }
         String logMsg = String.format("[%s] Signal: %s | Price: %.2f | USDT: %.2f | Coin: %.2f",
                 this.getClass().getSimpleName(), signal, candle.getClose(), 
                 wallet.getUsdtBalance(), wallet.getCoinBalance());
@@ -116,6 +285,110 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
         System.out.println(logMsg);
     }
 
+    /**
+     * Passes past candles to the analysis step only, without trading, so indicators are primed
+     * before the first live candle (e.g. with a {@link com.tradingbot.storage.CandleRepository}
+     * as-of view).
+     * @param history The candles, oldest first
+     */
+    public void warmUp(CandleView history) {
+        for (int i = 0; i < history.size(); i++) {
+            analyze(history.toCandle(i));
+        }
+    }
+
+    /**
+     * Writes the wallet and the strategy's warm-up state so that a restored copy produces real
+     * signals on the very next candle. Orders still in flight on a gateway or matching engine are
+     * not included.
+     * Must be called on the thread that runs this strategy, or while no candle is being processed.
+     * @param out The destination
+     * @throws IOException if writing fails
+     */
+    public final void writeSnapshot(DataOutput out) throws IOException {
+        out.writeByte(SNAPSHOT_VERSION);
+        out.writeUTF(getClass().getName());
+        wallet.writeSnapshot(out);
+        writeState(out);
+    }
+
+    /**
+     * Restores a snapshot written by {@link #writeSnapshot} into this freshly configured strategy.
+     * Nothing is changed unless the whole snapshot can be read: the wallet section is staged in a
+     * scratch wallet and applied only after the strategy state has been read.
+     * @param in The source
+     * @throws IOException if reading fails or the snapshot does not belong to this strategy type
+     */
+    public final void restoreSnapshot(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported strategy snapshot version " + version);
+        }
+        String type = in.readUTF();
+        if (!type.equals(getClass().getName())) {
+            throw new IOException("Snapshot of " + type + " cannot be restored into " + getClass().getName());
+        }
+        Wallet staged = wallet.emptyCopy();
+        staged.restoreSnapshot(in);
+        readState(in);
+        wallet.restoreFrom(staged);
+    }
+
+    /**
+     * Hook for subclasses to write the state they need to resume, after the wallet.
+     * @param out The destination
+     * @throws IOException if writing fails
+     */
+    protected void writeState(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Hook for subclasses to read what {@link #writeState} wrote. Read everything before changing
+     * any state, so that a truncated or corrupt snapshot leaves the strategy as it was.
+     * @param in The source
+     * @throws IOException if reading fails
+     */
+    protected void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * Writes a price history as a count followed by the prices.
+     * @param out The destination
+     * @param prices The prices, oldest first
+     * @throws IOException if writing fails
+     */
+    protected static void writePrices(DataOutput out, List<Double> prices) throws IOException {
+        out.writeInt(prices.size());
+        for (double price : prices) {
+            out.writeDouble(price);
+        }
+    }
+
+    /**
+     * Reads a price history written by {@link #writePrices}, keeping the most recent ones.
+     * @param in The source
+     * @param prices Cleared, then filled oldest first
+     * @param capacity Maximum number of prices to keep
+     * @throws IOException if reading fails
+     */
+    protected static void readPrices(DataInput in, List<Double> prices, int capacity) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt strategy snapshot: price count " + count);
+        }
+        for (int i = capacity; i < count; i++) {
+            in.readDouble(); // Older than the strategy needs
+        }
+        double[] read = new double[Math.min(count, capacity)];
+        for (int i = 0; i < read.length; i++) {
+            read[i] = in.readDouble();
+        }
+        prices.clear();
+        for (double price : read) {
+            prices.add(price);
+        }
+    }
+
     /**
      * Gets the wallet associated with this strategy.
      * @return The wallet instance
@@ -124,6 +397,93 @@ public abstract class BaseTradingStrategy implements TradingStrategy {
         return wallet;
     }
 
+    /**
+     * Names the bot running this strategy in Flight Recorder events.
+     */
+    public void setBotName(String botName) {
+        this.botName = botName == null ? "" : botName;
+    }
+
+    public String getBotName() {
+        return botName;
+    }
+
+    /**
+     * Names the symbol this strategy trades in Flight Recorder events.
+     */
+    public void setSymbol(String symbol) {
+        this.symbol = symbol == null ? "" : symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Enables or disables per-candle console and log output.
+     * Headless deployments running many bots turn this off; trades still execute normally.
+     * @param verbose true to log every candle and trade
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Sets the pre-trade risk engine. The same engine may be shared by strategies trading one wallet.
+     * @param riskEngine The engine, or null to disable risk checks
+     */
+    public void setRiskEngine(RiskEngine riskEngine) {
+        this.riskEngine = riskEngine;
+    }
+
+    public RiskEngine getRiskEngine() {
+        return riskEngine;
+    }
+
+    /**
+     * Routes orders through a simulated exchange instead of filling them on the wallet at the close.
+     * Orders then execute on the next candle the engine receives, with fees and slippage.
+     * @param matchingEngine The engine, or null to fill directly on the wallet
+     */
+    public void setMatchingEngine(MatchingEngine matchingEngine) {
+        this.matchingEngine = matchingEngine;
+    }
+
+    public MatchingEngine getMatchingEngine() {
+        return matchingEngine;
+    }
+
+    /**
+     * Routes orders through an asynchronous order gateway; takes precedence over a matching engine.
+     * The gateway is polled at the start of every candle, on this strategy's thread.
+     * @param orderGateway The gateway, owned by the thread that runs this strategy, or null for none
+     */
+    public void setOrderGateway(OrderGateway orderGateway) {
+        this.orderGateway = orderGateway;
+    }
+
+    public OrderGateway getOrderGateway() {
+        return orderGateway;
+    }
+
+    /**
+     * Registers a listener notified of every fill executed by this strategy.
+     * @param listener The listener
+     */
+    public void addTradeListener(TradeListener listener) {
+        if (listener != null) {
+            tradeListeners.add(listener);
+        }
+    }
+
+    public void removeTradeListener(TradeListener listener) {
+        tradeListeners.remove(listener);
+    }
+
     /**
      * Abstract method that subclasses must implement.
      * This is the customizable step in the template method pattern.
@@ -0,0 +1,217 @@
+package com.tradingbot.strategy;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+
+/**
+ * Represents a 'Concrete Strategy' in the Strategy Pattern that consults the AI model only when
+ * the cheap indicators are ambiguous.
+ *
+ * Pattern Name: Strategy Pattern & Template Method Pattern (Chain of Responsibility inside analyze)
+ * Role: Concrete Strategy - extends AIStrategy and decides most candles from the model's own RSI
+ * feature before the model is reached.
+ * Reason: Inference dominates the cost of an AI bot, yet most candles sit in a quiet market where
+ * nothing will trade. Cascading cheap checks in front of the model raises the number of AI bots a
+ * core can carry without changing the model or how bots are wired.
+ *
+ * The features are computed for every candle (they need the full price history), then:
+ * <ol>
+ *   <li>in a trending regime (|close - SMA_20| / close at or above regimeThreshold, if enabled)
+ *       the model decides;</li>
+ *   <li>RSI below oversold is a BUY and above overbought a SELL, without the model;</li>
+ *   <li>RSI within neutralBand of 50 is a HOLD, without the model;</li>
+ *   <li>anything else is ambiguous and the model decides.</li>
+ * </ol>
+ *
+ * To show what skipping costs, every shadowEvery-th skipped candle is also run through the model
+ * (0 = never). Disagreements are counted and their effect on PnL is estimated from the next close:
+ * the return of a unit position held in the model's direction minus one held in the cascade's.
+ * Counters are written by the trading thread only and may be read from any thread.
+ */
+public class CascadingStrategy extends AIStrategy {
+    public static final double DEFAULT_OVERSOLD = 30.0;
+    public static final double DEFAULT_OVERBOUGHT = 70.0;
+    public static final double DEFAULT_NEUTRAL_BAND = 10.0;
+    public static final double DEFAULT_REGIME_THRESHOLD = 0.0; // Disabled
+    public static final int DEFAULT_SHADOW_EVERY = 0; // Disabled
+
+    private static final double NEUTRAL_RSI = 50.0;
+
+    private final double oversold;
+    private final double overbought;
+    private final double neutralBand;
+    private final double regimeThreshold;
+    private final int shadowEvery;
+
+    private volatile long inferences;
+    private volatile long skipped;
+    private volatile long shadowInferences;
+    private volatile long shadowDisagreements;
+    private volatile double shadowReturnDelta; // Sum of (model - cascade) unit position returns, percent
+    private int pendingDirection; // Model minus cascade direction of the last shadowed candle, 0 if none
+    private double pendingClose;
+
+    public CascadingStrategy(Wallet wallet, String modelPath) {
+        this(wallet, modelPath, InferenceEngine.JAVA, DEFAULT_OVERSOLD, DEFAULT_OVERBOUGHT, DEFAULT_NEUTRAL_BAND,
+                DEFAULT_REGIME_THRESHOLD, DEFAULT_SHADOW_EVERY);
+    }
+
+    /**
+     * @param wallet The wallet to trade with
+     * @param modelPath Path to the ONNX model
+     * @param engine Preferred inference engine
+     * @param oversold BUY without the model when RSI falls below this level
+     * @param overbought SELL without the model when RSI rises above this level
+     * @param neutralBand HOLD without the model when RSI is within this distance of 50
+     * @param regimeThreshold Relative distance from the 20-period SMA from which every candle goes to
+     *     the model (e.g. 0.01 = 1%), or 0 to disable
+     * @param shadowEvery Also run the model on every n-th skipped candle to measure agreement, or 0
+     */
+    public CascadingStrategy(Wallet wallet, String modelPath, InferenceEngine engine, double oversold,
+                             double overbought, double neutralBand, double regimeThreshold, int shadowEvery) {
+        super(wallet, modelPath, engine);
+        if (neutralBand < 0) {
+            throw new IllegalArgumentException("Neutral band cannot be negative: " + neutralBand);
+        }
+        if (!(oversold < NEUTRAL_RSI - neutralBand && NEUTRAL_RSI + neutralBand < overbought)) {
+            throw new IllegalArgumentException(String.format(
+                    "Levels must satisfy oversold < 50 - neutralBand < 50 + neutralBand < overbought: %s, %s, %s",
+                    oversold, neutralBand, overbought));
+        }
+        if (regimeThreshold < 0) {
+            throw new IllegalArgumentException("Regime threshold cannot be negative: " + regimeThreshold);
+        }
+        if (shadowEvery < 0) {
+            throw new IllegalArgumentException("Shadow sampling interval cannot be negative: " + shadowEvery);
+        }
+        this.oversold = oversold;
+        this.overbought = overbought;
+        this.neutralBand = neutralBand;
+        this.regimeThreshold = regimeThreshold;
+        this.shadowEvery = shadowEvery;
+    }
+
+    @Override
+    public Signal analyze(MarketCandle candle) {
+        double close = candle.getClose();
+        if (pendingDirection != 0) {
+            shadowReturnDelta += pendingDirection * (close / pendingClose - 1) * 100;
+            pendingDirection = 0;
+        }
+
+        float[] row = recordFeatures(candle);
+        Signal cheap = cheapSignal(row, close);
+        if (cheap == null) {
+            inferences++;
+            return predict(row);
+        }
+
+        long skips = ++skipped;
+        if (shadowEvery > 0 && skips % shadowEvery == 0) {
+            Signal model = predict(row);
+            shadowInferences++;
+            if (model != cheap) {
+                shadowDisagreements++;
+                pendingDirection = direction(model) - direction(cheap);
+                pendingClose = close;
+            }
+        }
+        if (verbose) {
+            logger.info(String.format("Cascade: %s without the model (RSI %.2f)", cheap, row[0]));
+        }
+        return cheap;
+    }
+
+    /**
+     * @return The signal decided by the cheap checks, or null if the model has to decide
+     */
+    private Signal cheapSignal(float[] row, double close) {
+        double rsi = row[0];
+        if (regimeThreshold > 0 && Math.abs(row[1]) >= regimeThreshold * close) {
+            return null;
+        }
+        if (rsi < oversold) {
+            return Signal.BUY;
+        }
+        if (rsi > overbought) {
+            // Like the model path: nothing to sell is a HOLD rather than a failed order
+            return wallet.getCoinBalance() == 0 ? Signal.HOLD : Signal.SELL;
+        }
+        if (Math.abs(rsi - NEUTRAL_RSI) <= neutralBand) {
+            return Signal.HOLD;
+        }
+        return null;
+    }
+
+    private static int direction(Signal signal) {
+        return signal == Signal.BUY ? 1 : signal == Signal.SELL ? -1 : 0;
+    }
+
+    /**
+     * @return Candles decided by the model
+     */
+    public long getInferenceCount() {
+        return inferences;
+    }
+
+    /**
+     * @return Candles decided without the model
+     */
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    /**
+     * @return Fraction of candles decided without the model, 0 before the first candle
+     */
+    public double getSkipRatio() {
+        long skips = skipped;
+        long total = skips + inferences;
+        return total == 0 ? 0.0 : (double) skips / total;
+    }
+
+    /**
+     * @return Skipped candles that were also run through the model
+     */
+    public long getShadowInferenceCount() {
+        return shadowInferences;
+    }
+
+    /**
+     * @return Shadowed candles where the model would have decided differently
+     */
+    public long getShadowDisagreementCount() {
+        return shadowDisagreements;
+    }
+
+    /**
+     * Estimated PnL impact of skipping on the shadowed candles: the sum over disagreements of the
+     * next-candle return of a unit position in the model's direction minus one in the cascade's.
+     * Positive means the model would have done better.
+     * @return Return difference in percent
+     */
+    public double getShadowReturnDelta() {
+        return shadowReturnDelta;
+    }
+
+    public double getOversold() {
+        return oversold;
+    }
+
+    public double getOverbought() {
+        return overbought;
+    }
+
+    public double getNeutralBand() {
+        return neutralBand;
+    }
+
+    public double getRegimeThreshold() {
+        return regimeThreshold;
+    }
+
+    public int getShadowEvery() {
+        return shadowEvery;
+    }
+}
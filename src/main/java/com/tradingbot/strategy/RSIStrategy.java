@@ -2,6 +2,9 @@ package com.tradingbot.strategy;
 
 import com.tradingbot.domain.MarketCandle;
 import com.tradingbot.domain.Signal;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,14 +18,37 @@ import java.util.List;
  * Extends BaseTradingStrategy to leverage the Template Method Pattern for consistent trade execution flow.
  */
 public class RSIStrategy extends BaseTradingStrategy {
-    private static final int RSI_PERIOD = 14;
-    private static final double RSI_OVERSOLD = 30.0; // Buy signal when RSI < 30
-    private static final double RSI_OVERBOUGHT = 70.0; // Sell signal when RSI > 70
-    
+    public static final int DEFAULT_RSI_PERIOD = 14;
+    public static final double DEFAULT_RSI_OVERSOLD = 30.0; // Buy signal when RSI < 30
+    public static final double DEFAULT_RSI_OVERBOUGHT = 70.0; // Sell signal when RSI > 70
+
+    private final int rsiPeriod;
+    private final double rsiOversold;
+    private final double rsiOverbought;
     private final List<Double> priceHistory;
 
     public RSIStrategy(com.tradingbot.domain.Wallet wallet) {
+        this(wallet, DEFAULT_RSI_PERIOD, DEFAULT_RSI_OVERSOLD, DEFAULT_RSI_OVERBOUGHT);
+    }
+
+    /**
+     * Creates an RSI strategy with custom parameters.
+     * @param wallet The wallet to trade with
+     * @param rsiPeriod RSI look-back period (must be positive)
+     * @param rsiOversold BUY when RSI falls below this level
+     * @param rsiOverbought SELL when RSI rises above this level
+     */
+    public RSIStrategy(com.tradingbot.domain.Wallet wallet, int rsiPeriod, double rsiOversold, double rsiOverbought) {
         super(wallet);
+        if (rsiPeriod <= 0) {
+            throw new IllegalArgumentException("RSI period must be positive: " + rsiPeriod);
+        }
+        if (rsiOversold >= rsiOverbought) {
+            throw new IllegalArgumentException("Oversold level must be below overbought level");
+        }
+        this.rsiPeriod = rsiPeriod;
+        this.rsiOversold = rsiOversold;
+        this.rsiOverbought = rsiOverbought;
         this.priceHistory = new ArrayList<>();
     }
 
@@ -77,32 +103,65 @@ public class RSIStrategy extends BaseTradingStrategy {
         // Add current price to history
         priceHistory.add(candle.getClose());
         
-        // Keep only recent prices (need RSI_PERIOD + 1 for calculation)
-        if (priceHistory.size() > RSI_PERIOD + 1) {
+        // Keep only recent prices (need rsiPeriod + 1 for calculation)
+        if (priceHistory.size() > rsiPeriod + 1) {
             priceHistory.remove(0);
         }
 
-        // Need at least RSI_PERIOD + 1 prices to calculate RSI
-        if (priceHistory.size() < RSI_PERIOD + 1) {
-            logger.info(String.format("RSI Strategy: Waiting for more data (%d/%d candles)", 
-                    priceHistory.size(), RSI_PERIOD + 1));
+        // Need at least rsiPeriod + 1 prices to calculate RSI
+        if (priceHistory.size() < rsiPeriod + 1) {
+            if (verbose) {
+                logger.info(String.format("RSI Strategy: Waiting for more data (%d/%d candles)", 
+                        priceHistory.size(), rsiPeriod + 1));
+            }
             return Signal.HOLD;
         }
 
-        double rsi = calculateRSI(priceHistory, RSI_PERIOD);
-        logger.info(String.format("RSI calculated: %.2f (Oversold: <%.1f, Overbought: >%.1f)", 
-                rsi, RSI_OVERSOLD, RSI_OVERBOUGHT));
+        double rsi = calculateRSI(priceHistory, rsiPeriod);
+        if (verbose) {
+            logger.info(String.format("RSI calculated: %.2f (Oversold: <%.1f, Overbought: >%.1f)", 
+                    rsi, rsiOversold, rsiOverbought));
+        }
 
         // Generate signal based on RSI
-        if (rsi < RSI_OVERSOLD) {
-            logger.info("RSI Strategy: BUY signal (oversold)");
+        if (rsi < rsiOversold) {
+            if (verbose) {
+                logger.info("RSI Strategy: BUY signal (oversold)");
+            }
             return Signal.BUY;
-        } else if (rsi > RSI_OVERBOUGHT) {
-            logger.info("RSI Strategy: SELL signal (overbought)");
+        } else if (rsi > rsiOverbought) {
+            if (verbose) {
+                logger.info("RSI Strategy: SELL signal (overbought)");
+            }
             return Signal.SELL;
         } else {
             return Signal.HOLD;
         }
     }
-}
 
+    /**
+     * Writes the price history; a restore keeps the last rsiPeriod + 1 prices, so a bot restarted
+     * with other levels or a shorter period is still warm.
+     */
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        writePrices(out, priceHistory);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        readPrices(in, priceHistory, rsiPeriod + 1);
+    }
+
+    public int getRsiPeriod() {
+        return rsiPeriod;
+    }
+
+    public double getRsiOversold() {
+        return rsiOversold;
+    }
+
+    public double getRsiOverbought() {
+        return rsiOverbought;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tradingbot.strategy;
+
+import com.tradingbot.domain.Signal;
+
+/**
+ * Callback for fills executed by a strategy (e.g. to mark trades on a chart or journal them).
+ * Invoked synchronously on the thread that executed the trade, so implementations must be cheap.
+ */
+public interface TradeListener {
+    /**
+     * Called after a trade was filled against the wallet.
+     * @param side BUY or SELL
+     * @param price Fill price
+     * @param amount Filled coin amount
+     */
+    void onTrade(Signal side, double price, double amount);
+}
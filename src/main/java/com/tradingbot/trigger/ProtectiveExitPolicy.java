@@ -0,0 +1,70 @@
+package com.tradingbot.trigger;
+
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.strategy.TradeListener;
+
+/**
+ * Attaches protective exits to every position a strategy opens.
+ *
+ * Registered as a {@link TradeListener} on a strategy: each BUY fill places the configured
+ * stop-loss, take-profit and trailing stop for the bought amount in the shared
+ * {@link TriggerEngine}, linked one-cancels-other. Percentages are relative to the fill price;
+ * 0 disables an exit.
+ */
+public class ProtectiveExitPolicy implements TradeListener {
+    private final TriggerEngine engine;
+    private final Wallet wallet;
+    private final double stopLossPercent;
+    private final double takeProfitPercent;
+    private final double trailingPercent;
+
+    /**
+     * @param engine Trigger engine of the strategy's symbol
+     * @param wallet The strategy's wallet
+     * @param stopLossPercent Stop distance below the fill price in percent, 0 = none
+     * @param takeProfitPercent Take-profit distance above the fill price in percent, 0 = none
+     * @param trailingPercent Trailing stop percentage, 0 = none
+     */
+    public ProtectiveExitPolicy(TriggerEngine engine, Wallet wallet, double stopLossPercent,
+                                double takeProfitPercent, double trailingPercent) {
+        if (engine == null || wallet == null) {
+            throw new IllegalArgumentException("Engine and wallet must not be null");
+        }
+        if (stopLossPercent < 0 || stopLossPercent >= 100 || takeProfitPercent < 0
+                || trailingPercent < 0 || trailingPercent >= 100) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid exit percentages: stop %.4f, take-profit %.4f, trailing %.4f",
+                    stopLossPercent, takeProfitPercent, trailingPercent));
+        }
+        this.engine = engine;
+        this.wallet = wallet;
+        this.stopLossPercent = stopLossPercent;
+        this.takeProfitPercent = takeProfitPercent;
+        this.trailingPercent = trailingPercent;
+    }
+
+    @Override
+    public void onTrade(Signal side, double price, double amount) {
+        if (side != Signal.BUY) {
+            return;
+        }
+        long previous = -1;
+        if (stopLossPercent > 0) {
+            previous = link(previous, engine.placeStopLoss(wallet, amount, price * (1 - stopLossPercent / 100)));
+        }
+        if (takeProfitPercent > 0) {
+            previous = link(previous, engine.placeTakeProfit(wallet, amount, price * (1 + takeProfitPercent / 100)));
+        }
+        if (trailingPercent > 0) {
+            link(previous, engine.placeTrailingStopPercent(wallet, amount, trailingPercent, price));
+        }
+    }
+
+    private long link(long previous, long id) {
+        if (previous >= 0) {
+            engine.linkOco(previous, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tradingbot.trigger;
+
+import java.util.Arrays;
+
+/**
+ * Trigger slots sorted ascending by a price key, in parallel primitive arrays.
+ * Keys are chosen so that the triggers crossed by a bar always form a suffix: finding it is a
+ * binary search and removing it just shrinks the size. Inserting shifts the tail (placement only,
+ * never on the per-candle path). Not thread-safe.
+ */
+final class SortedTriggerArray {
+    private double[] keys = new double[16];
+    private int[] slots = new int[16];
+    private int size;
+
+    /**
+     * Inserts after any equal keys.
+     */
+    void insert(double key, int slot) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        int pos = upperBound(key);
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+        keys[pos] = key;
+        slots[pos] = slot;
+        size++;
+    }
+
+    /**
+     * @return Index of the first key &gt;= key (size if none)
+     */
+    int lowerBound(double key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(double key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double keyAt(int index) {
+        return keys[index];
+    }
+
+    int slotAt(int index) {
+        return slots[index];
+    }
+
+    void set(int index, double key, int slot) {
+        keys[index] = key;
+        slots[index] = slot;
+    }
+
+    void truncate(int newSize) {
+        size = newSize;
+    }
+}
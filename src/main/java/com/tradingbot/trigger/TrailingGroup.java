@@ -0,0 +1,162 @@
+package com.tradingbot.trigger;
+
+/**
+ * All trailing stops sharing one trail offset (absolute distance or percentage).
+ *
+ * Within a group the stop price is a monotonic function of the peak, so stops are kept as
+ * distinct peak levels sorted ascending in {@code [start, end)}, each level owning a linked list of
+ * slots (links live in the engine's {@code next} array). A new high lifts every level below it to
+ * the same peak: those levels are a prefix and are merged into one list in O(1) each, and each
+ * level is created once, so raising is amortized O(log n). Triggered levels are a suffix.
+ * Not thread-safe.
+ */
+final class TrailingGroup {
+    private final boolean percent;
+    private final double offset;
+    private final double factor; // 1 - offset / 100 for percentage trails
+
+    private double[] peaks = new double[16];
+    private int[] heads = new int[16];
+    private int[] tails = new int[16];
+    private int start;
+    private int end;
+    int liveCount;
+    int garbageCount;
+
+    TrailingGroup(boolean percent, double offset) {
+        this.percent = percent;
+        this.offset = offset;
+        this.factor = 1.0 - offset / 100.0;
+    }
+
+    double stopPrice(double peak) {
+        return percent ? peak * factor : peak - offset;
+    }
+
+    void add(int slot, double peak, int[] next) {
+        next[slot] = -1;
+        int pos = lowerBound(peak);
+        if (pos < end && peaks[pos] == peak) {
+            next[tails[pos]] = slot;
+            tails[pos] = slot;
+            return;
+        }
+        if (end == peaks.length) {
+            int count = end - start;
+            int capacity = start > count ? peaks.length : peaks.length * 2;
+            double[] newPeaks = new double[capacity];
+            int[] newHeads = new int[capacity];
+            int[] newTails = new int[capacity];
+            System.arraycopy(peaks, start, newPeaks, 0, count);
+            System.arraycopy(heads, start, newHeads, 0, count);
+            System.arraycopy(tails, start, newTails, 0, count);
+            peaks = newPeaks;
+            heads = newHeads;
+            tails = newTails;
+            pos -= start;
+            start = 0;
+            end = count;
+        }
+        System.arraycopy(peaks, pos, peaks, pos + 1, end - pos);
+        System.arraycopy(heads, pos, heads, pos + 1, end - pos);
+        System.arraycopy(tails, pos, tails, pos + 1, end - pos);
+        peaks[pos] = peak;
+        heads[pos] = slot;
+        tails[pos] = slot;
+        end++;
+    }
+
+    /**
+     * Lifts every peak below high to high.
+     */
+    void raise(double high, int[] next) {
+        int i = lowerBound(high);
+        if (i == start) {
+            return;
+        }
+        int head = heads[start];
+        int tail = tails[start];
+        for (int level = start + 1; level < i; level++) {
+            next[tail] = heads[level];
+            tail = tails[level];
+        }
+        if (i < end && peaks[i] == high) {
+            next[tail] = heads[i];
+            heads[i] = head;
+            start = i;
+        } else {
+            start = i - 1;
+            peaks[start] = high;
+            heads[start] = head;
+            tails[start] = tail;
+        }
+    }
+
+    /**
+     * Removes every level whose stop price is at or above low and appends its slots to out,
+     * highest stop first, recording each slot's stop price.
+     * @return The new number of slots in out
+     */
+    int popTriggered(double low, int[] next, double[] stopPrices, int[] out, int outCount) {
+        if (start == end) {
+            return outCount;
+        }
+        int j = lowerBound(percent ? low / factor : low + offset);
+        // The inverse above is rounded; settle the boundary on the exact stop price
+        while (j > start && stopPrice(peaks[j - 1]) >= low) {
+            j--;
+        }
+        while (j < end && stopPrice(peaks[j]) < low) {
+            j++;
+        }
+        for (int level = end - 1; level >= j; level--) {
+            double stop = stopPrice(peaks[level]);
+            for (int slot = heads[level]; slot >= 0; slot = next[slot]) {
+                stopPrices[slot] = stop;
+                out[outCount++] = slot;
+            }
+        }
+        end = j;
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+        return outCount;
+    }
+
+    /**
+     * Appends every slot in the group to out and empties the group (used for compaction).
+     * @return The new number of slots in out
+     */
+    int drainAll(int[] next, double[] peaksOut, int[] out, int outCount) {
+        for (int level = start; level < end; level++) {
+            for (int slot = heads[level]; slot >= 0; slot = next[slot]) {
+                peaksOut[outCount] = peaks[level];
+                out[outCount++] = slot;
+            }
+        }
+        start = 0;
+        end = 0;
+        return outCount;
+    }
+
+    private int lowerBound(double peak) {
+        int lo = start;
+        int hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (peaks[mid] < peak) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public String toString() {
+        return "TrailingGroup{" + (percent ? offset + "%" : String.valueOf(offset))
+                + ", levels=" + (end - start) + ", live=" + liveCount + ", garbage=" + garbageCount + "}";
+    }
+}
@@ -0,0 +1,464 @@
+package com.tradingbot.trigger;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.observer.Observer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the protective exits (stop-loss, take-profit, trailing stop) of every bot trading one
+ * symbol and fills them through each bot's {@link Wallet}.
+ *
+ * Pattern Name: Observer Pattern
+ * Role: Concrete Observer - registered on the symbol's feed; each candle fires the exits its
+ * high/low range crossed.
+ * Reason: One engine per feed lets thousands of exits from many bots be checked together:
+ * stops and take-profits are kept price-sorted in primitive arrays and trailing stops in
+ * per-offset groups, so a candle costs O(log n + k) for k fired exits instead of a scan.
+ *
+ * Per candle, stops (fixed, then trailing) are checked against the low before trailing peaks are
+ * raised to the high, then take-profits against the high. A stop that gaps through fills at the
+ * open, as does a take-profit. Exits linked with {@link #linkOco(long, long)} cancel each other.
+ * The sold amount is capped at the wallet's coin balance.
+ *
+ * Not thread-safe: the engine must run on the same thread as the bots whose wallets it trades,
+ * e.g. registered on the feed before them so exits fire before the strategies see the candle.
+ */
+public class TriggerEngine implements Observer {
+    private static final byte FREE = 0;
+    private static final byte ACTIVE = 1;     // In an index, waiting
+    private static final byte CANCELLED = 2;  // In an index, to be dropped on pop or compaction
+    private static final byte PENDING = 3;    // Popped, about to fill
+    private static final byte DROPPED = 4;    // Popped, cancelled before its fill
+    private static final int MIN_GARBAGE_FOR_COMPACTION = 64;
+    private static final TriggerType[] TYPES = TriggerType.values();
+
+    // Slot storage (structure of arrays), indexed by slot
+    private Wallet[] wallets = new Wallet[64];
+    private double[] amounts = new double[64];
+    private double[] prices = new double[64];    // Stop / limit price; trailing: stop price when popped
+    private byte[] types = new byte[64];
+    private byte[] states = new byte[64];
+    private int[] generations = new int[64];
+    private int[] ocoNext = new int[64];          // Circular OCO ring, self when unlinked
+    private int[] next = new int[64];             // Trailing group member lists
+    private TrailingGroup[] groups = new TrailingGroup[64];
+    private int[] pending = new int[64];          // Scratch: popped slots of the current candle
+    private int[] scratchSlots = new int[64];     // Scratch: trailing group compaction
+    private double[] scratchPeaks = new double[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+    private int activeCount;
+
+    // Stop key = stop price, fires when low <= price: a suffix.
+    private final SortedTriggerArray stops = new SortedTriggerArray();
+    // Take-profit key = -limit, fires when high >= limit, i.e. key >= -high: a suffix.
+    private final SortedTriggerArray takeProfits = new SortedTriggerArray();
+    private int stopGarbage;
+    private int takeProfitGarbage;
+    private final Map<Double, TrailingGroup> trailingByDistance = new HashMap<>();
+    private final Map<Double, TrailingGroup> trailingByPercent = new HashMap<>();
+    private final List<TrailingGroup> trailingGroups = new ArrayList<>();
+
+    private final List<TriggerListener> listeners = new CopyOnWriteArrayList<>();
+    private long fillCount;
+
+    /**
+     * Places a stop-loss.
+     * @param wallet Wallet to sell from
+     * @param amount Coin amount to sell
+     * @param stopPrice Fires when the low reaches this price
+     * @return Trigger id
+     */
+    public long placeStopLoss(Wallet wallet, double amount, double stopPrice) {
+        validate(wallet, amount, stopPrice);
+        int slot = allocate(wallet, amount, TriggerType.STOP_LOSS);
+        prices[slot] = stopPrice;
+        stops.insert(stopPrice, slot);
+        return id(slot);
+    }
+
+    /**
+     * Places a take-profit.
+     * @param wallet Wallet to sell from
+     * @param amount Coin amount to sell
+     * @param limitPrice Fires when the high reaches this price
+     * @return Trigger id
+     */
+    public long placeTakeProfit(Wallet wallet, double amount, double limitPrice) {
+        validate(wallet, amount, limitPrice);
+        int slot = allocate(wallet, amount, TriggerType.TAKE_PROFIT);
+        prices[slot] = limitPrice;
+        takeProfits.insert(-limitPrice, slot);
+        return id(slot);
+    }
+
+    /**
+     * Places a trailing stop at a fixed price distance below the highest price since placement.
+     * @param wallet Wallet to sell from
+     * @param amount Coin amount to sell
+     * @param distance Trail distance in quote currency
+     * @param referencePrice Initial peak, usually the entry price
+     * @return Trigger id
+     */
+    public long placeTrailingStop(Wallet wallet, double amount, double distance, double referencePrice) {
+        validate(wallet, amount, referencePrice);
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("Trail distance must be positive, got " + distance);
+        }
+        return placeTrailing(wallet, amount, trailingGroup(trailingByDistance, false, distance), referencePrice);
+    }
+
+    /**
+     * Places a trailing stop at a percentage below the highest price since placement.
+     * @param wallet Wallet to sell from
+     * @param amount Coin amount to sell
+     * @param percent Trail percentage, between 0 and 100
+     * @param referencePrice Initial peak, usually the entry price
+     * @return Trigger id
+     */
+    public long placeTrailingStopPercent(Wallet wallet, double amount, double percent, double referencePrice) {
+        validate(wallet, amount, referencePrice);
+        if (!(percent > 0 && percent < 100)) {
+            throw new IllegalArgumentException("Trail percentage must be in (0, 100), got " + percent);
+        }
+        return placeTrailing(wallet, amount, trailingGroup(trailingByPercent, true, percent), referencePrice);
+    }
+
+    private long placeTrailing(Wallet wallet, double amount, TrailingGroup group, double referencePrice) {
+        int slot = allocate(wallet, amount, TriggerType.TRAILING_STOP);
+        groups[slot] = group;
+        group.add(slot, referencePrice, next);
+        group.liveCount++;
+        return id(slot);
+    }
+
+    private TrailingGroup trailingGroup(Map<Double, TrailingGroup> byOffset, boolean percent, double offset) {
+        TrailingGroup group = byOffset.get(offset);
+        if (group == null) {
+            group = new TrailingGroup(percent, offset);
+            byOffset.put(offset, group);
+            trailingGroups.add(group);
+        }
+        return group;
+    }
+
+    /**
+     * Links two triggers so that filling either one cancels the other (and anything already
+     * linked to them), e.g. the stop-loss and take-profit of one position.
+     * @return false if either id is not active or they are already linked
+     */
+    public boolean linkOco(long firstId, long secondId) {
+        int first = activeSlot(firstId);
+        int second = activeSlot(secondId);
+        if (first < 0 || second < 0 || first == second) {
+            return false;
+        }
+        for (int s = ocoNext[first]; s != first; s = ocoNext[s]) {
+            if (s == second) {
+                return false;
+            }
+        }
+        // Splicing two distinct circular lists merges them
+        int tmp = ocoNext[first];
+        ocoNext[first] = ocoNext[second];
+        ocoNext[second] = tmp;
+        return true;
+    }
+
+    /**
+     * Cancels a trigger.
+     * @param triggerId Id returned when the trigger was placed
+     * @return true if the trigger was active
+     */
+    public boolean cancel(long triggerId) {
+        int slot = activeSlot(triggerId);
+        if (slot < 0) {
+            return false;
+        }
+        cancelSlot(slot);
+        return true;
+    }
+
+    private void cancelSlot(int slot) {
+        activeCount--;
+        if (states[slot] == PENDING) {
+            states[slot] = DROPPED;
+            return;
+        }
+        states[slot] = CANCELLED;
+        switch (TYPES[types[slot]]) {
+            case STOP_LOSS:
+                if (++stopGarbage > Math.max(MIN_GARBAGE_FOR_COMPACTION, stops.size() - stopGarbage)) {
+                    compact(stops);
+                    stopGarbage = 0;
+                }
+                break;
+            case TAKE_PROFIT:
+                if (++takeProfitGarbage > Math.max(MIN_GARBAGE_FOR_COMPACTION,
+                        takeProfits.size() - takeProfitGarbage)) {
+                    compact(takeProfits);
+                    takeProfitGarbage = 0;
+                }
+                break;
+            default:
+                TrailingGroup group = groups[slot];
+                group.liveCount--;
+                if (++group.garbageCount > Math.max(MIN_GARBAGE_FOR_COMPACTION, group.liveCount)) {
+                    compact(group);
+                }
+        }
+    }
+
+    /**
+     * Fires every trigger crossed by the candle.
+     * @param candle The new market candle
+     */
+    @Override
+    public void update(MarketCandle candle) {
+        double open = candle.getOpen();
+        double low = candle.getLow();
+        double high = candle.getHigh();
+        int[] fired = pending;
+
+        // Stop-losses: stop >= low, highest first
+        int count = 0;
+        int from = stops.lowerBound(low);
+        for (int i = stops.size() - 1; i >= from; i--) {
+            count = collect(stops.slotAt(i), fired, count);
+        }
+        stops.truncate(from);
+
+        // Trailing stops against peaks from before this candle
+        for (int g = 0; g < trailingGroups.size(); g++) {
+            TrailingGroup group = trailingGroups.get(g);
+            int before = count;
+            count = group.popTriggered(low, next, prices, fired, count);
+            for (int i = before; i < count; i++) {
+                int slot = fired[i];
+                if (states[slot] == CANCELLED) {
+                    group.garbageCount--;
+                } else {
+                    group.liveCount--;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = fired[i];
+            if (states[slot] == ACTIVE) {
+                states[slot] = PENDING;
+            } else if (states[slot] == CANCELLED) {
+                states[slot] = DROPPED;
+            }
+        }
+        for (int g = 0; g < trailingGroups.size(); g++) {
+            trailingGroups.get(g).raise(high, next);
+        }
+
+        // Take-profits: limit <= high, lowest first
+        int stopCount = count;
+        from = takeProfits.lowerBound(-high);
+        for (int i = takeProfits.size() - 1; i >= from; i--) {
+            count = collect(takeProfits.slotAt(i), fired, count);
+        }
+        takeProfits.truncate(from);
+
+        // Fill in trigger order; listeners may place or cancel triggers meanwhile
+        for (int i = 0; i < count; i++) {
+            int slot = fired[i];
+            if (states[slot] == PENDING) {
+                double price = i < stopCount ? Math.min(prices[slot], open) : Math.max(prices[slot], open);
+                fill(slot, price);
+            }
+            release(slot);
+        }
+    }
+
+    /**
+     * Moves a popped stop or take-profit slot into the fired list, updating garbage counts.
+     */
+    private int collect(int slot, int[] fired, int count) {
+        if (states[slot] == CANCELLED) {
+            if (types[slot] == TriggerType.STOP_LOSS.ordinal()) {
+                stopGarbage--;
+            } else {
+                takeProfitGarbage--;
+            }
+            states[slot] = DROPPED;
+        } else {
+            states[slot] = PENDING;
+        }
+        fired[count] = slot;
+        return count + 1;
+    }
+
+    private void fill(int slot, double price) {
+        states[slot] = DROPPED;
+        activeCount--;
+        for (int s = ocoNext[slot]; s != slot; s = ocoNext[s]) {
+            if (states[s] == ACTIVE || states[s] == PENDING) {
+                cancelSlot(s);
+            }
+        }
+
+        Wallet wallet = wallets[slot];
+        double amount = Math.min(amounts[slot], wallet.getCoinBalance());
+        if (amount > 0 && wallet.sell(price, amount)) {
+            fillCount++;
+            long id = id(slot);
+            TriggerType type = TYPES[types[slot]];
+            for (TriggerListener listener : listeners) {
+                listener.onTriggerFill(id, type, wallet, price, amount);
+            }
+        }
+    }
+
+    private void compact(SortedTriggerArray index) {
+        int kept = 0;
+        for (int i = 0; i < index.size(); i++) {
+            int slot = index.slotAt(i);
+            if (states[slot] == ACTIVE) {
+                index.set(kept++, index.keyAt(i), slot);
+            } else {
+                release(slot);
+            }
+        }
+        index.truncate(kept);
+    }
+
+    private void compact(TrailingGroup group) {
+        int count = group.drainAll(next, scratchPeaks, scratchSlots, 0);
+        for (int i = 0; i < count; i++) {
+            int slot = scratchSlots[i];
+            if (states[slot] == ACTIVE) {
+                group.add(slot, scratchPeaks[i], next);
+            } else {
+                release(slot);
+            }
+        }
+        group.garbageCount = 0;
+    }
+
+    private int allocate(Wallet wallet, double amount, TriggerType type) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == wallets.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+        wallets[slot] = wallet;
+        amounts[slot] = amount;
+        types[slot] = (byte) type.ordinal();
+        states[slot] = ACTIVE;
+        generations[slot]++;
+        ocoNext[slot] = slot;
+        activeCount++;
+        return slot;
+    }
+
+    /**
+     * Returns a slot that is no longer referenced by any index to the free list.
+     */
+    private void release(int slot) {
+        if (states[slot] == FREE) {
+            return;
+        }
+        // Unlink from the OCO ring so a reused slot is never cancelled by its old partners
+        int prev = slot;
+        while (ocoNext[prev] != slot) {
+            prev = ocoNext[prev];
+        }
+        ocoNext[prev] = ocoNext[slot];
+        ocoNext[slot] = slot;
+
+        states[slot] = FREE;
+        wallets[slot] = null;
+        groups[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void grow() {
+        int capacity = wallets.length * 2;
+        wallets = Arrays.copyOf(wallets, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        types = Arrays.copyOf(types, capacity);
+        states = Arrays.copyOf(states, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        ocoNext = Arrays.copyOf(ocoNext, capacity);
+        next = Arrays.copyOf(next, capacity);
+        groups = Arrays.copyOf(groups, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        scratchSlots = Arrays.copyOf(scratchSlots, capacity);
+        scratchPeaks = Arrays.copyOf(scratchPeaks, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    private long id(int slot) {
+        return ((long) generations[slot] << 32) | slot;
+    }
+
+    /**
+     * @return The slot of an active (not yet filled or cancelled) trigger, or -1
+     */
+    private int activeSlot(long triggerId) {
+        int slot = (int) triggerId;
+        if (slot < 0 || slot >= slotCount || generations[slot] != (int) (triggerId >>> 32)) {
+            return -1;
+        }
+        return states[slot] == ACTIVE || states[slot] == PENDING ? slot : -1;
+    }
+
+    private static void validate(Wallet wallet, double amount, double price) {
+        if (wallet == null) {
+            throw new IllegalArgumentException("Wallet must not be null");
+        }
+        if (!(amount > 0)) {
+            throw new IllegalArgumentException("Amount must be positive, got " + amount);
+        }
+        if (!(price > 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("Price must be positive, got " + price);
+        }
+    }
+
+    /**
+     * @param triggerId Id returned when the trigger was placed
+     * @return true if the trigger has neither filled nor been cancelled
+     */
+    public boolean isActive(long triggerId) {
+        return activeSlot(triggerId) >= 0;
+    }
+
+    public void addTriggerListener(TriggerListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeTriggerListener(TriggerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return Number of triggers waiting to fire
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return Number of exits filled so far
+     */
+    public long getFillCount() {
+        return fillCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tradingbot.trigger;
+
+import com.tradingbot.domain.Wallet;
+
+/**
+ * Notified when a trigger fills. Called on the thread that delivers candles to the {@link TriggerEngine}.
+ */
+public interface TriggerListener {
+    /**
+     * @param triggerId Id returned when the trigger was placed
+     * @param type Kind of trigger
+     * @param wallet The wallet the exit was executed against
+     * @param price Fill price
+     * @param amount Coin amount sold
+     */
+    void onTriggerFill(long triggerId, TriggerType type, Wallet wallet, double price, double amount);
+}
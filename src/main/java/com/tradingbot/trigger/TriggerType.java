@@ -0,0 +1,13 @@
+package com.tradingbot.trigger;
+
+/**
+ * Kinds of protective exit held by a {@link TriggerEngine}. All of them sell (close a long position).
+ */
+public enum TriggerType {
+    /** Sells when the price falls to the stop price. */
+    STOP_LOSS,
+    /** Sells when the price rises to the limit price. */
+    TAKE_PROFIT,
+    /** Stop that follows the highest price seen since placement at a fixed distance or percentage. */
+    TRAILING_STOP
+}
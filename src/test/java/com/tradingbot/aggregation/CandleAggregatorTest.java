@@ -0,0 +1,124 @@
+package com.tradingbot.aggregation;
+
+import com.tradingbot.domain.MarketCandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleAggregatorTest {
+
+    private static List<MarketCandle> record(TimeframeSubject subject) {
+        List<MarketCandle> candles = new ArrayList<>();
+        subject.registerObserver(candles::add);
+        return candles;
+    }
+
+    @Test
+    void testTicksFormSecondCandles() {
+        CandleAggregator aggregator = new CandleAggregator("BTCUSDT", 1_000L, 60_000L);
+        List<MarketCandle> seconds = record(aggregator.getTimeframe(1_000L));
+
+        aggregator.onTick(10_100, 100.0, 1.0);
+        aggregator.onTick(10_500, 105.0, 2.0);
+        aggregator.onTick(10_900, 95.0, 0.5);
+        aggregator.onTick(10_999, 101.0, 1.0);
+        assertTrue(seconds.isEmpty()); // Still open
+        aggregator.onTick(12_000, 102.0, 1.0); // Second 11 had no ticks: no candle
+
+        assertEquals(1, seconds.size());
+        MarketCandle candle = seconds.get(0);
+        assertEquals(100.0, candle.getOpen());
+        assertEquals(105.0, candle.getHigh());
+        assertEquals(95.0, candle.getLow());
+        assertEquals(101.0, candle.getClose());
+        assertEquals(4.5, candle.getVolume());
+        assertEquals(LocalDateTime.ofEpochSecond(10, 0, ZoneOffset.UTC), candle.getTimestamp());
+    }
+
+    @Test
+    void testAllTimeframesMatchDirectAggregation() {
+        long[] timeframes = CandleAggregator.STANDARD_TIMEFRAMES;
+        CandleAggregator aggregator = new CandleAggregator("BTCUSDT");
+        List<List<MarketCandle>> published = new ArrayList<>();
+        for (long timeframe : timeframes) {
+            published.add(record(aggregator.getTimeframe(timeframe)));
+        }
+
+        // Expected candles per timeframe: bucket start -> {open, high, low, close, volume}
+        List<TreeMap<Long, double[]>> expected = new ArrayList<>();
+        for (int i = 0; i < timeframes.length; i++) {
+            expected.add(new TreeMap<>());
+        }
+        Random random = new Random(42);
+        long time = 1_700_000_000_000L;
+        double price = 50_000.0;
+        for (int i = 0; i < 200_000; i++) {
+            time += random.nextInt(random.nextInt(50) == 0 ? 20_000 : 300);
+            price += random.nextGaussian() * 5;
+            double quantity = random.nextInt(100) / 100.0;
+            aggregator.onTick(time, price, quantity);
+            for (int t = 0; t < timeframes.length; t++) {
+                long start = Math.floorDiv(time, timeframes[t]) * timeframes[t];
+                double[] bar = expected.get(t).get(start);
+                if (bar == null) {
+                    expected.get(t).put(start, new double[] {price, price, price, price, quantity});
+                } else {
+                    bar[1] = Math.max(bar[1], price);
+                    bar[2] = Math.min(bar[2], price);
+                    bar[3] = price;
+                    bar[4] += quantity;
+                }
+            }
+        }
+        aggregator.flush();
+
+        for (int t = 0; t < timeframes.length; t++) {
+            List<MarketCandle> candles = published.get(t);
+            assertEquals(expected.get(t).size(), candles.size(), "timeframe " + timeframes[t]);
+            int i = 0;
+            for (var entry : expected.get(t).entrySet()) {
+                MarketCandle candle = candles.get(i++);
+                double[] bar = entry.getValue();
+                assertEquals(entry.getKey(), candle.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+                assertEquals(bar[0], candle.getOpen());
+                assertEquals(bar[1], candle.getHigh());
+                assertEquals(bar[2], candle.getLow());
+                assertEquals(bar[3], candle.getClose());
+                assertEquals(bar[4], candle.getVolume(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void testCascadeOrderAndAdvanceTime() {
+        CandleAggregator aggregator = new CandleAggregator("BTCUSDT", 1_000L, 60_000L);
+        List<String> order = new ArrayList<>();
+        aggregator.getTimeframe(1_000L).registerObserver(candle -> order.add("1s"));
+        aggregator.getTimeframe(60_000L).registerObserver(candle -> order.add("1m"));
+
+        aggregator.onTick(59_500, 10.0, 1.0);
+        aggregator.advanceTime(59_999);
+        assertTrue(order.isEmpty());
+        aggregator.advanceTime(60_000); // Quiet market: timer closes both buckets
+        assertEquals(List.of("1s", "1m"), order);
+
+        aggregator.onTick(61_000, 11.0, 1.0);
+        aggregator.flush();
+        assertEquals(List.of("1s", "1m", "1s", "1m"), order);
+        assertEquals(2, aggregator.getTimeframe(60_000L).getCandleCount());
+    }
+
+    @Test
+    void testInvalidTimeframes() {
+        assertThrows(IllegalArgumentException.class, () -> new CandleAggregator("X", new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new CandleAggregator("X", 1_000L, 1_500L));
+        assertThrows(IllegalArgumentException.class, () -> new CandleAggregator("X", 60_000L, 1_000L));
+        assertThrows(IllegalArgumentException.class, () -> new CandleAggregator("X", 0L));
+        assertThrows(IllegalArgumentException.class, () -> new CandleAggregator("X").getTimeframe(2_000L));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.simulation.GeometricBrownianMotion;
+import com.tradingbot.simulation.SyntheticMarketGenerator;
+import com.tradingbot.strategy.RSIStrategy;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloRunnerTest {
+
+    private static MonteCarloRunner runner(ForkJoinPool pool) {
+        SyntheticMarketGenerator generator = new SyntheticMarketGenerator(
+                new GeometricBrownianMotion(0, 0.01), 99L, 50_000.0, 1000.0, 0L, 60_000L);
+        return new MonteCarloRunner(generator, RSIStrategy::new, 10_000.0, 500, pool);
+    }
+
+    @Test
+    void testAggregatesMatchSequentialRuns() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MonteCarloRunner runner = runner(pool);
+            AtomicInteger seen = new AtomicInteger();
+            runner.setPathListener(result -> seen.incrementAndGet());
+            MonteCarloSummary summary = runner.run(64);
+
+            StreamingStatistics pnl = new StreamingStatistics(-100, 100, 800);
+            long losing = 0;
+            for (int i = 0; i < 64; i++) {
+                BacktestResult result = runner.runPath(i);
+                pnl.add(result.getPnlPercent());
+                losing += result.getPnlPercent() < 0 ? 1 : 0;
+                assertTrue(result.getMaxDrawdownPercent() >= 0);
+            }
+            assertEquals(64, seen.get());
+            assertEquals(64, summary.getCompletedPaths());
+            assertEquals(pnl.getMean(), summary.getPnlPercent().getMean(), 1e-9);
+            assertEquals(pnl.getMin(), summary.getPnlPercent().getMin());
+            assertEquals(pnl.getMax(), summary.getPnlPercent().getMax());
+            assertEquals((double) losing / 64, summary.getLossProbability());
+            assertTrue(summary.getTradeCount().getMean() > 0);
+
+            // Same seed, same distribution
+            assertEquals(summary.getPnlPercent().getMean(), runner.run(64).getPnlPercent().getMean(), 1e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testStreamingStatisticsMergeAndQuantiles() {
+        Random random = new Random(3);
+        StreamingStatistics all = new StreamingStatistics(0, 1, 1000);
+        StreamingStatistics left = new StreamingStatistics(0, 1, 1000);
+        StreamingStatistics right = new StreamingStatistics(0, 1, 1000);
+        for (int i = 0; i < 100_000; i++) {
+            double value = random.nextDouble();
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMean(), left.getMean(), 1e-12);
+        assertEquals(all.getStandardDeviation(), left.getStandardDeviation(), 1e-12);
+        assertEquals(Math.sqrt(1.0 / 12), all.getStandardDeviation(), 1e-3);
+        assertEquals(0.5, all.getQuantile(0.5), 0.01);
+        assertEquals(0.95, all.getQuantile(0.95), 0.01);
+        assertEquals(all.getMin(), all.getQuantile(0), 1e-12);
+
+        assertThrows(IllegalArgumentException.class, () -> all.merge(new StreamingStatistics(0, 2, 1000)));
+        assertTrue(Double.isNaN(new StreamingStatistics(0, 1, 10).getQuantile(0.5)));
+    }
+
+    @Test
+    void testHistogramGrowsPastItsInitialRange() {
+        Random random = new Random(5);
+        StreamingStatistics all = new StreamingStatistics(0, 1, 1000);
+        StreamingStatistics small = new StreamingStatistics(0, 1, 1000);
+        StreamingStatistics large = new StreamingStatistics(0, 1, 1000);
+        for (int i = 0; i < 100_000; i++) {
+            double value = i % 2 == 0 ? random.nextDouble() : 1 + random.nextDouble() * 9;
+            all.add(value);
+            (value < 1 ? small : large).add(value);
+        }
+        assertEquals(16, all.getUpperBound());
+        assertEquals(1, small.getUpperBound());
+        assertEquals(1.0, all.getQuantile(0.5), 0.05);
+        assertEquals(5.5, all.getQuantile(0.75), 0.05);
+
+        // The finer summary is coarsened to the other's bins before merging
+        small.merge(large);
+        assertEquals(all.getCount(), small.getCount());
+        assertEquals(all.getUpperBound(), small.getUpperBound());
+        assertEquals(all.getMean(), small.getMean(), 1e-12);
+        for (double quantile = 0; quantile <= 1; quantile += 0.05) {
+            assertEquals(all.getQuantile(quantile), small.getQuantile(quantile), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.simulation.GarchProcess;
+import com.tradingbot.simulation.SyntheticMarketGenerator;
+import com.tradingbot.strategy.RSIStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsiVariantEngineTest {
+
+    @Test
+    void testMatchesOneStrategyAndWalletPerVariant() {
+        List<RsiParameters> variants = RsiParameters.grid(new int[] {2, 5, 14, 21, 33},
+                new double[] {20, 30, 45}, new double[] {55, 70, 80});
+        CandleColumns history = new SyntheticMarketGenerator(new GarchProcess(0, 4e-6, 0.1, 0.85), 11L,
+                50_000.0, 1000.0, 0L, 60_000L).generate(1, 3_000)[0];
+
+        RsiVariantEngine engine = new RsiVariantEngine(variants, 20_000.0);
+        engine.run(history);
+
+        List<RSIStrategy> strategies = new ArrayList<>();
+        List<int[]> trades = new ArrayList<>();
+        for (RsiParameters parameters : variants) {
+            RSIStrategy strategy = parameters.createStrategy(new Wallet(20_000.0));
+            int[] counter = new int[1];
+            strategy.addTradeListener((side, price, amount) -> counter[0]++);
+            strategies.add(strategy);
+            trades.add(counter);
+        }
+        for (int i = 0; i < history.size(); i++) {
+            for (RSIStrategy strategy : strategies) {
+                strategy.executeStrategyTemplate(history.toCandle(i));
+            }
+        }
+
+        double lastClose = history.getClose(history.size() - 1);
+        boolean anyTraded = false;
+        for (int v = 0; v < variants.size(); v++) {
+            Wallet wallet = strategies.get(v).getWallet();
+            assertEquals(wallet.getUsdtUnits(), engine.getUsdtUnits(v), variants.get(v).toString());
+            assertEquals(wallet.getCoinUnits(), engine.getCoinUnits(v), variants.get(v).toString());
+            assertEquals(trades.get(v)[0], engine.getTradeCount(v));
+            assertEquals(wallet.getPnLPercentage(lastClose), engine.getPnLPercentage(v, lastClose));
+            anyTraded |= engine.getTradeCount(v) > 0;
+        }
+        assertTrue(anyTraded);
+
+        int best = engine.getBestVariant();
+        for (int v = 0; v < variants.size(); v++) {
+            assertTrue(engine.getTotalValue(best, lastClose) >= engine.getTotalValue(v, lastClose));
+        }
+    }
+
+    @Test
+    void testWarmUpHoldsPerPeriod() {
+        RsiVariantEngine engine = new RsiVariantEngine(
+                List.of(new RsiParameters(2, 30, 70), new RsiParameters(4, 30, 70)), 1_000.0);
+        engine.onClose(100);
+        engine.onClose(99);
+        engine.onClose(98); // Period 2 has its 3 prices: RSI 0, BUY
+        assertEquals(1, engine.getTradeCount(0));
+        assertEquals(0, engine.getTradeCount(1));
+        engine.onClose(97);
+        engine.onClose(96);
+        assertEquals(3, engine.getTradeCount(0));
+        assertEquals(1, engine.getTradeCount(1));
+    }
+}
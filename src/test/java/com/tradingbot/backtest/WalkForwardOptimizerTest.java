@@ -0,0 +1,92 @@
+package com.tradingbot.backtest;
+
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.simulation.GarchProcess;
+import com.tradingbot.simulation.SyntheticMarketGenerator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalkForwardOptimizerTest {
+    private static final List<RsiParameters> GRID = RsiParameters.grid(
+            new int[] {7, 14}, new double[] {20, 30}, new double[] {70, 80});
+
+    private static CandleColumns history() {
+        return new SyntheticMarketGenerator(new GarchProcess(0, 2e-6, 0.1, 0.85), 5L, 50_000.0, 1000.0, 0L, 60_000L)
+                .generate(1, 2_300)[0];
+    }
+
+    @Test
+    void testWindowsAndStitchedCurve() {
+        CandleColumns history = history();
+        WalkForwardResult result = new WalkForwardOptimizer(history, 1_000, 300, GRID, 10_000.0).run();
+
+        List<WalkForwardWindow> windows = result.getWindows();
+        assertEquals(5, windows.size()); // Test slices start at 1000, 1300, 1600, 1900, 2200
+        assertEquals(1_000, windows.get(0).getTestFrom());
+        assertEquals(2_200, windows.get(4).getTestFrom());
+        assertEquals(2_300, windows.get(4).getTestTo());
+        for (int i = 1; i < windows.size(); i++) {
+            assertEquals(windows.get(i - 1).getTestTo(), windows.get(i).getTestFrom());
+        }
+
+        double[] equity = result.getOutOfSampleEquity();
+        assertEquals(1_300, equity.length);
+        // Compounded window returns
+        double capital = 10_000.0;
+        for (WalkForwardWindow window : windows) {
+            capital *= window.getTestResult().getFinalValue() / 10_000.0;
+        }
+        assertEquals(capital, equity[equity.length - 1], 1e-6);
+        assertEquals((capital - 10_000.0) / 100.0, result.getOutOfSamplePnlPercent(), 1e-9);
+        assertTrue(result.getParameterChangeRate() >= 0 && result.getParameterChangeRate() <= 1);
+    }
+
+    @Test
+    void testChoosesBestInSampleParameters() {
+        CandleColumns history = history();
+        WalkForwardOptimizer optimizer = new WalkForwardOptimizer(history, 1_000, 300, GRID, 10_000.0);
+        optimizer.setObjective(r -> r.getPnlPercent() - r.getMaxDrawdownPercent());
+        WalkForwardWindow window = optimizer.run().getWindows().get(1);
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        RsiParameters best = null;
+        for (RsiParameters parameters : GRID) {
+            BacktestResult train = Backtester.run(0, parameters.createStrategy(new Wallet(10_000.0)), history,
+                    300, 300, 1_300, null);
+            double score = train.getPnlPercent() - train.getMaxDrawdownPercent();
+            if (score > bestScore) {
+                bestScore = score;
+                best = parameters;
+            }
+        }
+        assertEquals(best, window.getParameters());
+    }
+
+    @Test
+    void testParallelMatchesSingleThread() {
+        CandleColumns history = history();
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            WalkForwardResult sequential = new WalkForwardOptimizer(history, 800, 250, GRID, 10_000.0, single).run();
+            WalkForwardResult parallel = new WalkForwardOptimizer(history, 800, 250, GRID, 10_000.0).run();
+            assertArrayEquals(sequential.getOutOfSampleEquity(), parallel.getOutOfSampleEquity());
+            for (int i = 0; i < sequential.getWindows().size(); i++) {
+                assertEquals(sequential.getWindows().get(i).getParameters(), parallel.getWindows().get(i).getParameters());
+            }
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void testRejectsShortHistory() {
+        CandleColumns history = history();
+        assertThrows(IllegalArgumentException.class,
+                () -> new WalkForwardOptimizer(history, 5_000, 100, GRID, 10_000.0).run());
+        assertEquals(8, GRID.size());
+        assertThrows(IllegalArgumentException.class, () -> new RsiParameters(14, 70, 30));
+    }
+}
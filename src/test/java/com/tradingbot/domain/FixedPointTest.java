@@ -0,0 +1,40 @@
+package com.tradingbot.domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointTest {
+
+    @Test
+    void testToUnitsRoundsToNearest() {
+        assertEquals(10_000_000L, FixedPoint.toUnits(0.1, FixedPoint.scale(8)));
+        assertEquals(30_000_000L, FixedPoint.toUnits(0.3, FixedPoint.scale(8)));
+        assertEquals(0.1, FixedPoint.toDouble(10_000_000L, FixedPoint.scale(8)));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint.toUnits(Double.NaN, 100));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint.toUnits(1e18, FixedPoint.scale(6)));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint.scale(19));
+    }
+
+    @Test
+    void testMultiplyDivideRoundingDirection() {
+        assertEquals(5, FixedPoint.multiplyDivide(7, 3, 5, true)); // 4.2
+        assertEquals(4, FixedPoint.multiplyDivide(7, 3, 5, false));
+        assertEquals(6, FixedPoint.multiplyDivide(7, 3, 4, true)); // 5.25
+        assertEquals(5, FixedPoint.multiplyDivide(7, 3, 4, false));
+        assertEquals(-5, FixedPoint.multiplyDivide(-7, 3, 4, true)); // -5.25
+        assertEquals(-6, FixedPoint.multiplyDivide(-7, 3, 4, false));
+        assertEquals(6, FixedPoint.multiplyDivide(2, 3, 1, true));
+    }
+
+    @Test
+    void testMultiplyDivideOverflowFallsBackExactly() {
+        long a = 5_000_000_000L; // a * a = 2.5e19 does not fit in a long
+        assertEquals(3_571_428_571_428_571_429L, FixedPoint.multiplyDivide(a, a, 7, true));
+        assertEquals(3_571_428_571_428_571_428L, FixedPoint.multiplyDivide(a, a, 7, false));
+        assertEquals(-3_571_428_571_428_571_428L, FixedPoint.multiplyDivide(-a, a, 7, true));
+        assertEquals(-3_571_428_571_428_571_429L, FixedPoint.multiplyDivide(-a, a, 7, false));
+        assertEquals(25_000_000_000L, FixedPoint.multiplyDivide(a, a, 1_000_000_000L, true));
+        assertThrows(ArithmeticException.class,
+                () -> FixedPoint.multiplyDivide(Long.MAX_VALUE, Long.MAX_VALUE, 2, false));
+    }
+}
@@ -77,5 +77,35 @@ class WalletTest {
         // Should be positive since price increased
         assertTrue(pnl > 0);
     }
-}
 
+    @Test
+    void testRepeatedFillsDoNotDrift() {
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(wallet.buy(0.1, 0.1));
+            assertTrue(wallet.sell(0.1, 0.1));
+        }
+        assertEquals(INITIAL_BALANCE, wallet.getUsdtBalance());
+        assertEquals(0.0, wallet.getCoinBalance());
+        assertEquals(10_000_000_000L, wallet.getUsdtUnits());
+    }
+
+    @Test
+    void testCostRoundsUpAndProceedsRoundDown() {
+        // 0.3333 * 0.00000003 = 0.0000000099999 USDT, below one quote unit
+        long price = wallet.toPriceUnits(0.3333);
+        long amount = wallet.toBaseUnits(0.00000003);
+        assertTrue(wallet.buyUnits(price, amount));
+        assertEquals(10_000_000_000L - 1, wallet.getUsdtUnits());
+        assertTrue(wallet.sellUnits(price, amount));
+        assertEquals(10_000_000_000L - 1, wallet.getUsdtUnits());
+        assertEquals(0, wallet.getCoinUnits());
+    }
+
+    @Test
+    void testExactBalanceCheck() {
+        Wallet exact = new Wallet(5000.0);
+        assertTrue(exact.buy(50000.0, 0.1));
+        assertEquals(0, exact.getUsdtUnits());
+        assertFalse(exact.buyUnits(exact.toPriceUnits(50000.0), 1));
+    }
+}
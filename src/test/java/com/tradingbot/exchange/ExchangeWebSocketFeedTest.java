@@ -0,0 +1,224 @@
+package com.tradingbot.exchange;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.simulation.CandleColumns;
+import org.junit.jupiter.api.Test;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeWebSocketFeedTest {
+    private static final long MINUTE = 60_000;
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % MINUTE;
+
+    @Test
+    void testParsesKlineTradeAndRestMessages() {
+        ExchangeMessageParser parser = new ExchangeMessageParser(List.of("BNBBTC", "btcusdt"));
+        String kline = "{\"e\":\"kline\",\"E\":1672515782136,\"s\":\"BNBBTC\",\"k\":{\"t\":1672515780000,"
+                + "\"T\":1672515839999,\"s\":\"BNBBTC\",\"i\":\"1m\",\"f\":100,\"L\":200,\"o\":\"0.0010\","
+                + "\"c\":\"0.0020\",\"h\":\"0.0025\",\"l\":\"0.0015\",\"v\":\"1000\",\"n\":100,\"x\":false,"
+                + "\"q\":\"1.0000\",\"V\":\"500\",\"Q\":\"0.500\",\"B\":\"123456\"}}";
+        assertEquals(ExchangeMessageParser.KLINE, parser.parse(kline));
+        assertEquals(0, parser.getSymbolId());
+        assertEquals(1672515780000L, parser.getOpenTime());
+        assertEquals(0.0010, parser.getOpen());
+        assertEquals(0.0025, parser.getHigh());
+        assertEquals(0.0015, parser.getLow());
+        assertEquals(0.0020, parser.getClose());
+        assertEquals(1000.0, parser.getVolume());
+        assertFalse(parser.isClosed());
+
+        String wrapped = "{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"E\":1672515782136,"
+                + "\"s\":\"BTCUSDT\",\"t\":12345,\"p\":\"16500.12\",\"q\":\"0.25\",\"T\":1672515782130,"
+                + "\"m\":true,\"M\":true}}";
+        assertEquals(ExchangeMessageParser.TRADE, parser.parse(wrapped));
+        assertEquals(1, parser.getSymbolId());
+        assertEquals(1672515782130L, parser.getTradeTime());
+        assertEquals(16500.12, parser.getPrice());
+        assertEquals(0.25, parser.getQuantity());
+
+        assertEquals(ExchangeMessageParser.NONE, parser.parse("{\"result\":null,\"id\":1}"));
+        assertEquals(ExchangeMessageParser.TRADE, parser.parse(wrapped.replace("BTCUSDT", "ETHUSDT")));
+        assertEquals(-1, parser.getSymbolId());
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"e\":\"kline\",\"k\":{\"t\":"));
+
+        List<double[]> rows = new ArrayList<>();
+        int count = parser.parseKlines("[[1499040000000,\"0.01634790\",\"0.80000000\",\"0.01575800\","
+                        + "\"0.01577100\",\"148976.11427815\",1499644799999,\"2434.19055334\",308,"
+                        + "\"1756.87402397\",\"28.46694368\",\"0\"], [1499644800000,\"1\",\"2\",\"0.5\",\"1.5\",\"10\","
+                        + "1500249599999,\"0\",1,\"0\",\"0\",\"0\"]]",
+                (openTime, closeTime, open, high, low, close, volume) ->
+                        rows.add(new double[]{openTime, closeTime, open, high, low, close, volume}));
+        assertEquals(2, count);
+        assertArrayEquals(new double[]{1499040000000L, 1499644799999L, 0.01634790, 0.8, 0.015758, 0.015771,
+                148976.11427815}, rows.get(0));
+        assertEquals(1.5, rows.get(1)[5]);
+    }
+
+    @Test
+    void testDecimalsMatchDoubleParsing() {
+        ExchangeMessageParser parser = new ExchangeMessageParser(List.of("X"));
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            String value = switch (i % 4) {
+                case 0 -> String.format("%.8f", random.nextDouble() * 100_000);
+                case 1 -> Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(-6, 12)));
+                case 2 -> "-" + random.nextLong(1, Long.MAX_VALUE) + "." + random.nextInt(1000);
+                default -> Long.toString(random.nextLong(0, 1L << 60));
+            };
+            parser.parse("{\"e\":\"trade\",\"s\":\"X\",\"p\":\"" + value + "\",\"q\":" + value + "}");
+            assertEquals(Double.parseDouble(value), parser.getPrice(), value);
+            assertEquals(Double.parseDouble(value), parser.getQuantity(), value);
+        }
+    }
+
+    @Test
+    void testStreamsKlinesForManySymbolsOnOneConnection() throws Exception {
+        Map<String, CandleColumns> history = history(200, 20);
+        try (MockExchangeServer exchange = new MockExchangeServer(MockExchangeServer.recordKlines(history, MINUTE, 3))) {
+            exchange.start();
+            try (ExchangeWebSocketFeed connected = new ExchangeWebSocketFeed(exchange.getWebSocketUri(), null,
+                    ExchangeWebSocketFeed.StreamType.KLINE, MINUTE, history.keySet())) {
+                List<MarketCandle> received = new ArrayList<>();
+                connected.getSubject("sym7usdt").registerObserver(received::add);
+                connected.start();
+                assertTrue(exchange.awaitSubscribers(1, 5000));
+
+                assertEquals(200 * 20 * 3, exchange.replayAll());
+                awaitCandles(connected, history.keySet(), 20);
+
+                assertEquals(20, received.size());
+                CandleColumns expected = history.get("SYM7USDT");
+                for (int i = 0; i < 20; i++) {
+                    MarketCandle candle = received.get(i);
+                    assertEquals(expected.getTimestamp(i), candle.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+                    assertEquals(expected.getClose(i), candle.getClose());
+                    assertEquals(expected.getVolume(i), candle.getVolume());
+                }
+                assertEquals(0, connected.getParseErrorCount());
+                assertEquals(200, connected.getSymbolCount());
+            }
+        }
+    }
+
+    @Test
+    void testReconnectFillsGapFromRest() throws Exception {
+        Map<String, CandleColumns> history = history(20, 30);
+        List<String> frames = MockExchangeServer.recordKlines(history, MINUTE, 2);
+        int framesPerCandle = 20 * 2;
+        try (MockExchangeServer exchange = new MockExchangeServer(frames)) {
+            exchange.start();
+            try (ExchangeWebSocketFeed connected = new ExchangeWebSocketFeed(exchange.getWebSocketUri(),
+                    exchange.getRestUri(), ExchangeWebSocketFeed.StreamType.KLINE, MINUTE, history.keySet())) {
+                List<MarketCandle> received = new ArrayList<>();
+                connected.getSubject("SYM3USDT").registerObserver(received::add);
+                connected.start();
+                assertTrue(exchange.awaitSubscribers(1, 5000));
+
+                exchange.replay(10 * framesPerCandle);
+                awaitCandles(connected, history.keySet(), 10);
+                exchange.dropConnections();
+                exchange.replay(8 * framesPerCandle); // Nobody is connected: these candles are missed
+                assertTrue(exchange.awaitSubscribers(1, 10_000), "feed did not reconnect");
+                exchange.replayAll();
+                awaitCandles(connected, history.keySet(), 30);
+
+                assertEquals(30, received.size());
+                for (int i = 0; i < 30; i++) {
+                    assertEquals(history.get("SYM3USDT").getTimestamp(i),
+                            received.get(i).getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+                assertTrue(connected.getReconnectCount() >= 1);
+                assertTrue(connected.getRecoveredCount() >= 20 * 8, "recovered " + connected.getRecoveredCount());
+            }
+        }
+    }
+
+    @Test
+    void testAggregatesTradesIntoCandles() throws Exception {
+        List<String> frames = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            long time = START + i * 1000L; // One trade per second for 10 minutes
+            frames.add(MockExchangeServer.tradeFrame("BTCUSDT", i, time, 50_000 + i, 0.5));
+            frames.add(MockExchangeServer.tradeFrame("ETHUSDT", i, time, 3_000 - i, 2.0));
+        }
+        try (MockExchangeServer exchange = new MockExchangeServer(frames)) {
+            exchange.start();
+            try (ExchangeWebSocketFeed feed = new ExchangeWebSocketFeed(exchange.getWebSocketUri(), null,
+                    ExchangeWebSocketFeed.StreamType.TRADE, MINUTE, List.of("BTCUSDT"))) {
+                List<MarketCandle> received = new ArrayList<>();
+                feed.getSubject("BTCUSDT").registerObserver(received::add);
+                feed.start();
+                assertTrue(exchange.awaitSubscribers(1, 5000));
+                exchange.replayAll();
+                awaitCandles(feed, List.of("BTCUSDT"), 9); // The 10th minute stays open
+
+                MarketCandle first = received.get(0);
+                assertEquals(50_000, first.getOpen());
+                assertEquals(50_059, first.getHigh());
+                assertEquals(50_059, first.getClose());
+                assertEquals(30.0, first.getVolume(), 1e-9);
+                assertEquals(0, feed.getParseErrorCount());
+            }
+        }
+    }
+
+    @Test
+    void testTimerClosesTradeCandlesInAQuietMarket() throws Exception {
+        long now = System.currentTimeMillis();
+        List<String> frames = List.of(
+                MockExchangeServer.tradeFrame("BTCUSDT", 1, now, 50_000, 0.5),
+                MockExchangeServer.tradeFrame("BTCUSDT", 2, now, 50_010, 0.25));
+        try (MockExchangeServer exchange = new MockExchangeServer(frames)) {
+            exchange.start();
+            try (ExchangeWebSocketFeed feed = new ExchangeWebSocketFeed(exchange.getWebSocketUri(), null,
+                    ExchangeWebSocketFeed.StreamType.TRADE, 1000, List.of("BTCUSDT"))) {
+                List<MarketCandle> received = new ArrayList<>();
+                feed.getSubject("BTCUSDT").registerObserver(received::add);
+                feed.start();
+                assertTrue(exchange.awaitSubscribers(1, 5000));
+                exchange.replayAll();
+
+                // No later trade arrives: only the timer can close the second
+                awaitCandles(feed, List.of("BTCUSDT"), 1);
+                assertEquals(50_010, received.get(0).getClose());
+                assertEquals(0.75, received.get(0).getVolume(), 1e-9);
+                assertEquals(now - now % 1000, received.get(0).getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+        }
+    }
+
+    private static Map<String, CandleColumns> history(int symbols, int candles) {
+        Map<String, CandleColumns> history = new LinkedHashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int s = 0; s < symbols; s++) {
+            CandleColumns columns = new CandleColumns(candles);
+            double price = 100 + s;
+            for (int i = 0; i < candles; i++) {
+                double close = price * (1 + (random.nextDouble() - 0.5) * 0.02);
+                columns.add(START + i * MINUTE, price, Math.max(price, close) * 1.001, Math.min(price, close) * 0.999,
+                        close, 1 + random.nextDouble() * 10);
+                price = close;
+            }
+            history.put("SYM" + s + "USDT", columns);
+        }
+        return history;
+    }
+
+    private static void awaitCandles(ExchangeWebSocketFeed feed, Iterable<String> symbols, long count)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        for (String symbol : symbols) {
+            ExchangeSymbolSubject subject = feed.getSubject(symbol);
+            while (subject.getCandleCount() < count) {
+                assertTrue(System.currentTimeMillis() < deadline,
+                        symbol + " received " + subject.getCandleCount() + " of " + count + " candles");
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.tradingbot.feed;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.Observer;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleFeedServerTest {
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress("127.0.0.1", 0);
+
+    private static MarketCandle candle(int i) {
+        return new MarketCandle(100 + i, 101 + i, 99 + i, 100.5 + i, 10 + i,
+                LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<MarketCandle> record(RemoteFeedSubject feed) {
+        List<MarketCandle> candles = new ArrayList<>();
+        feed.registerObserver(candle -> {
+            synchronized (candles) {
+                candles.add(candle);
+            }
+        });
+        return candles;
+    }
+
+    @Test
+    void testFlyweightRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2 * CandleMessage.LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        CandleMessage message = new CandleMessage();
+        message.wrap(buffer, 0).encodeSymbol(3, 7, "ETHUSDT");
+        message.wrap(buffer, CandleMessage.LENGTH).encodeCandle(3, 8, candle(5));
+
+        message.wrap(buffer, 0);
+        assertEquals(CandleMessage.TEMPLATE_SYMBOL, message.getTemplate());
+        assertEquals("ETHUSDT", message.getSymbolName());
+        message.wrap(buffer, CandleMessage.LENGTH);
+        assertEquals(CandleMessage.TEMPLATE_CANDLE, message.getTemplate());
+        assertEquals(8, message.getSequence());
+        MarketCandle decoded = message.toCandle();
+        assertEquals(candle(5).getTimestamp(), decoded.getTimestamp());
+        assertEquals(105.5, decoded.getClose());
+        assertEquals(15, decoded.getVolume());
+        assertThrows(IllegalArgumentException.class, () -> message.wrap(ByteBuffer.allocate(64), 0));
+    }
+
+    @Test
+    void testTcpClientsReceiveTheirSymbolInOrder() throws Exception {
+        try (CandleFeedServer server = new CandleFeedServer(LOOPBACK, 1 << 16)) {
+            server.start();
+            Observer btc = server.publisher("BTCUSDT");
+            Observer eth = server.publisher("ETHUSDT");
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getLocalPort());
+            RemoteFeedSubject btcFeed = RemoteFeedSubject.tcp(address, "BTCUSDT");
+            RemoteFeedSubject allFeed = RemoteFeedSubject.tcp(address, null);
+            List<MarketCandle> btcCandles = record(btcFeed);
+            btcFeed.start();
+            allFeed.start();
+            await(() -> server.getClientCount() == 2);
+
+            int count = 20_000;
+            for (int i = 0; i < count; i++) {
+                (i % 2 == 0 ? btc : eth).update(candle(i));
+            }
+            await(() -> allFeed.getCandleCount() == count && btcFeed.getCandleCount() == count / 2);
+
+            synchronized (btcCandles) {
+                for (int i = 0; i < count / 2; i++) {
+                    assertEquals(candle(2 * i).getClose(), btcCandles.get(i).getClose());
+                    assertEquals(candle(2 * i).getTimestamp(), btcCandles.get(i).getTimestamp());
+                }
+            }
+            assertEquals(0, btcFeed.getGapCount());
+            assertEquals(0, allFeed.getGapCount());
+            btcFeed.stop();
+            allFeed.stop();
+        }
+    }
+
+    @Test
+    void testUdpSubscriber() throws Exception {
+        try (CandleFeedServer server = new CandleFeedServer(LOOPBACK, 1024)) {
+            server.start();
+            Observer btc = server.publisher("BTCUSDT");
+            Observer eth = server.publisher("ETHUSDT");
+            DatagramChannel probe = DatagramChannel.open().bind(LOOPBACK);
+            InetSocketAddress target = (InetSocketAddress) probe.getLocalAddress();
+            probe.close();
+            RemoteFeedSubject udpFeed = RemoteFeedSubject.udp(target, "ETHUSDT");
+            udpFeed.start();
+            server.addUdpSubscriber(target);
+
+            for (int i = 0; i < 200; i++) {
+                (i % 2 == 0 ? btc : eth).update(candle(i));
+                if (i % 20 == 0) {
+                    Thread.sleep(1);
+                }
+            }
+            // Best effort: every ETH candle is either received or counted as a gap
+            await(() -> udpFeed.getCandleCount() == 100 || udpFeed.getGapCount() > 0);
+            assertTrue(udpFeed.getCandleCount() > 0);
+            udpFeed.stop();
+        }
+    }
+
+    @Test
+    void testSlowClientIsDisconnected() throws Exception {
+        try (CandleFeedServer server = new CandleFeedServer(LOOPBACK, 1024)) {
+            server.start();
+            Observer btc = server.publisher("BTCUSDT");
+            try (Socket stalled = new Socket("127.0.0.1", server.getLocalPort())) {
+                stalled.setReceiveBufferSize(4096);
+                await(() -> server.getClientCount() == 1);
+                Thread.sleep(50);
+                MarketCandle candle = candle(1);
+                for (int i = 0; i < 2_000_000 && server.getSlowClientDisconnects() == 0; i++) {
+                    btc.update(candle);
+                }
+                await(() -> server.getSlowClientDisconnects() == 1 && server.getClientCount() == 0);
+                InputStream in = stalled.getInputStream();
+                byte[] sink = new byte[65536];
+                while (in.read(sink) >= 0) {
+                    // Drain until the server's close arrives
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLapBoundaryLeavesRoomForTheMessageBeingEncoded() {
+        long ring = 4L * CandleMessage.LENGTH;
+        long start = 10L * CandleMessage.LENGTH;
+        assertFalse(CandleFeedServer.isLapped(start, start + 2L * CandleMessage.LENGTH, ring));
+        // The next publish encodes into start's slot before committing
+        assertTrue(CandleFeedServer.isLapped(start, start + 3L * CandleMessage.LENGTH, ring));
+        assertTrue(CandleFeedServer.isLapped(start, start + ring, ring));
+    }
+
+    @Test
+    void testClientLappedByExactlyOneRingIsDisconnectedBeforeTheWrite() throws Exception {
+        int capacity = 8;
+        try (CandleFeedServer server = new CandleFeedServer(LOOPBACK, capacity)) {
+            server.start();
+            Observer btc = server.publisher("BTCUSDT");
+            try (Socket slow = new Socket("127.0.0.1", server.getLocalPort())) {
+                await(() -> server.getClientCount() == 1);
+                InputStream in = slow.getInputStream();
+                byte[] preamble = in.readNBytes(CandleMessage.LENGTH); // The symbol definition
+                assertEquals(CandleMessage.LENGTH, preamble.length);
+
+                Socket second = null;
+                try {
+                    synchronized (server) {
+                        // Accepting takes the publish lock, so this parks the selector thread before its next flush
+                        second = new Socket("127.0.0.1", server.getLocalPort());
+                        await(() -> Thread.getAllStackTraces().keySet().stream().anyMatch(
+                                t -> t.getName().equals("CandleFeedServer") && t.getState() == Thread.State.BLOCKED));
+                        // Fill the ring exactly: the slot of the slow client's next message is the next one encoded
+                        for (int i = 0; i < capacity; i++) {
+                            btc.update(candle(i));
+                        }
+                    }
+                    await(() -> server.getSlowClientDisconnects() == 1);
+                    assertEquals(-1, in.read(), "No byte of the lapped range may be sent");
+                } finally {
+                    if (second != null) {
+                        second.close();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.tradingbot.gateway;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.risk.RiskLimits;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderGatewayTest {
+
+    /** Records orders; the test plays the venue by calling the listener. */
+    private static class ManualVenue implements Venue {
+        final List<Long> sent = new ArrayList<>();
+        final List<Long> cancelled = new ArrayList<>();
+        VenueListener listener;
+
+        @Override
+        public void send(long clientOrderId, Signal side, double quantity, VenueListener listener) {
+            sent.add(clientOrderId);
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel(long clientOrderId) {
+            cancelled.add(clientOrderId);
+        }
+    }
+
+    private static MarketCandle candle(double close) {
+        return new MarketCandle(close, close, close, close, 1000, LocalDateTime.now());
+    }
+
+    @Test
+    void testAckAndFillsCompleteOnPoll() {
+        long[] now = {0};
+        ManualVenue venue = new ManualVenue();
+        OrderGateway gateway = new OrderGateway(venue, 8, 0, 1000, () -> now[0]);
+        Wallet wallet = new Wallet(10_000);
+        List<String> events = new ArrayList<>();
+        OrderListener listener = new OrderListener() {
+            @Override
+            public void onAck(long orderId, long latencyNanos) {
+                events.add("ack " + orderId + " " + latencyNanos);
+            }
+
+            @Override
+            public void onFill(long orderId, Signal side, double price, double quantity, double fee, boolean maker) {
+                events.add("fill " + orderId + " " + side + " " + price + " " + quantity);
+            }
+        };
+
+        CompletableFuture<OrderReport> future = gateway.submit(Signal.BUY, 0.2, wallet, listener);
+        assertEquals(List.of(1L), venue.sent);
+        assertEquals(1, gateway.getInFlightCount());
+
+        now[0] = 500;
+        venue.listener.onAck(1);
+        venue.listener.onFill(1, 100.0, 0.05, 0.01);
+        assertFalse(future.isDone(), "reports apply only when polled");
+        assertEquals(10_000.0, wallet.getUsdtBalance());
+
+        assertEquals(2, gateway.poll());
+        assertEquals(List.of("ack 1 500", "fill 1 BUY 100.0 0.05"), events);
+        assertFalse(future.isDone());
+        assertEquals(0.05, wallet.getCoinBalance(), 1e-12);
+
+        now[0] = 900;
+        venue.listener.onFill(1, 110.0, 0.15, 0.03);
+        gateway.poll();
+        OrderReport report = future.getNow(null);
+        assertNotNull(report);
+        assertEquals(OrderOutcome.FILLED, report.getOutcome());
+        assertEquals(0.2, report.getFilledQuantity(), 1e-12);
+        assertEquals(107.5, report.getAveragePrice(), 1e-9);
+        assertEquals(0.04, report.getFees(), 1e-12);
+        assertEquals(900, report.getLatencyNanos());
+        // Price plus fees: 0.05 * 100 + 0.15 * 110 + 0.04
+        assertEquals(10_000 - 21.54, wallet.getUsdtBalance(), 1e-6);
+        assertEquals(0, gateway.getInFlightCount());
+        assertEquals(1, gateway.getFilledCount());
+    }
+
+    @Test
+    void testTimeoutCancelsAndIgnoresLateReports() {
+        long[] now = {0};
+        ManualVenue venue = new ManualVenue();
+        OrderGateway gateway = new OrderGateway(venue, 8, 0, 5, () -> now[0]);
+        Wallet wallet = new Wallet(10_000);
+        CompletableFuture<OrderReport> slow = gateway.submit(Signal.BUY, 0.1, wallet, null);
+        now[0] = TimeUnit.MILLISECONDS.toNanos(3);
+        CompletableFuture<OrderReport> fast = gateway.submit(Signal.BUY, 0.1, wallet, null);
+
+        now[0] = TimeUnit.MILLISECONDS.toNanos(5);
+        gateway.poll();
+        assertEquals(OrderOutcome.TIMED_OUT, slow.getNow(null).getOutcome());
+        assertFalse(fast.isDone());
+        assertEquals(List.of(1L), venue.cancelled);
+
+        venue.listener.onFill(1, 100, 0.1, 0);
+        venue.listener.onReject(2);
+        gateway.poll();
+        assertEquals(1, gateway.getLateReportCount());
+        assertEquals(OrderOutcome.REJECTED, fast.getNow(null).getOutcome());
+        assertEquals(10_000.0, wallet.getUsdtBalance());
+        assertEquals(1, gateway.getTimedOutCount());
+        assertEquals(1, gateway.getRejectedCount());
+    }
+
+    @Test
+    void testRateLimitAndFullTableRefuseWithoutSending() {
+        long[] now = {0};
+        ManualVenue venue = new ManualVenue();
+        Wallet wallet = new Wallet(10_000);
+
+        OrderGateway limited = new OrderGateway(venue, 16, 3, 1000, () -> now[0]);
+        for (int i = 0; i < 3; i++) {
+            assertFalse(limited.submit(Signal.SELL, 0.1, wallet, null).isDone());
+        }
+        assertEquals(OrderOutcome.RATE_LIMITED, limited.submit(Signal.SELL, 0.1, wallet, null).join().getOutcome());
+        now[0] = TimeUnit.SECONDS.toNanos(1);
+        assertFalse(limited.submit(Signal.SELL, 0.1, wallet, null).isDone());
+        assertEquals(4, venue.sent.size());
+
+        OrderGateway small = new OrderGateway(venue, 4, 0, 1000, () -> now[0]);
+        for (int i = 0; i < 4; i++) {
+            small.submit(Signal.BUY, 0.1, wallet, null);
+        }
+        OrderReport refused = small.submit(Signal.BUY, 0.1, wallet, null).join();
+        assertEquals(OrderOutcome.TABLE_FULL, refused.getOutcome());
+        assertFalse(refused.getOutcome().wasSent());
+        assertEquals(1, small.getTableFullCount());
+        assertEquals(4, small.getInFlightCount());
+    }
+
+    @Test
+    void testStrategyTradesThroughSimulatedVenueWithoutBlocking() throws Exception {
+        try (SimulatedVenue venue = new SimulatedVenue(Duration.ofMillis(50), Duration.ofMillis(5), 0.001, 1)) {
+            Wallet wallet = new Wallet(10_000);
+            BaseTradingStrategy strategy = new BaseTradingStrategy(wallet) {
+                private int candles;
+
+                @Override
+                public Signal analyze(MarketCandle candle) {
+                    return candles++ == 0 ? Signal.BUY : Signal.HOLD;
+                }
+            };
+            strategy.setVerbose(false);
+            OrderGateway gateway = new OrderGateway(venue);
+            strategy.setOrderGateway(gateway);
+            List<Double> trades = new ArrayList<>();
+            strategy.addTradeListener((side, price, amount) -> trades.add(price));
+
+            MarketCandle first = candle(100);
+            venue.update(first);
+            assertEquals(Signal.BUY, strategy.executeStrategyTemplate(first));
+            // Returned before the venue's first report was even due
+            assertEquals(1, gateway.getInFlightCount());
+            assertEquals(0.0, wallet.getCoinBalance());
+
+            venue.update(candle(101)); // The market moves while the order travels
+            long deadline = System.currentTimeMillis() + 5000;
+            while (gateway.getInFlightCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+                strategy.executeStrategyTemplate(candle(101));
+            }
+            assertEquals(0.1, wallet.getCoinBalance(), 1e-12);
+            assertEquals(List.of(101.0), trades);
+            assertEquals(10_000 - 0.1 * 101 * 1.001, wallet.getUsdtBalance(), 1e-6);
+        }
+    }
+
+    @Test
+    void testFullReportQueueNeverBlocksNorDropsFills() {
+        ReportRing ring = new ReportRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(ReportRing.FILL, 1, 100, 0.01, 0));
+        }
+        assertFalse(ring.offer(ReportRing.ACK, 2, 0, 0, 0));
+        assertTrue(ring.offer(ReportRing.FILL, 1, 101, 0.01, 0));
+        assertEquals(1, ring.getDroppedCount());
+        assertEquals(1, ring.getOverflowCount());
+        ring.advance();
+        // Room again, but the REJECT must queue behind the overflowed FILL
+        assertTrue(ring.offer(ReportRing.REJECT, 1, 0, 0, 0));
+        assertEquals(2, ring.getOverflowCount());
+        assertTrue(ring.offer(ReportRing.ACK, 2, 0, 0, 0));
+        assertEquals(101, ring.pollOverflow().price);
+        assertEquals(ReportRing.REJECT, ring.pollOverflow().kind);
+        assertNull(ring.pollOverflow());
+
+        // A venue reporting inside send() runs on the polling thread: it must not wait for poll()
+        long[] now = {0};
+        List<Long> cancelled = new ArrayList<>();
+        Venue synchronous = new Venue() {
+            @Override
+            public void send(long clientOrderId, Signal side, double quantity, VenueListener listener) {
+                listener.onAck(clientOrderId);
+                for (int i = 0; i < 10; i++) {
+                    listener.onFill(clientOrderId, 100, quantity / 10, 0);
+                }
+            }
+
+            @Override
+            public void cancel(long clientOrderId) {
+                cancelled.add(clientOrderId);
+            }
+        };
+        OrderGateway gateway = new OrderGateway(synchronous, 1, 0, 1000, () -> now[0]);
+        Wallet wallet = new Wallet(10_000);
+        CompletableFuture<OrderReport> future = gateway.submit(Signal.BUY, 1.0, wallet, null);
+        assertEquals(7, gateway.getOverflowReportCount()); // 11 reports, room for 4
+        assertEquals(0, gateway.getDroppedReportCount());
+        assertEquals(11, gateway.poll());
+        assertEquals(1.0, wallet.getCoinBalance(), 1e-12);
+        assertEquals(OrderOutcome.FILLED, future.getNow(null).getOutcome());
+
+        now[0] = TimeUnit.SECONDS.toNanos(2);
+        gateway.poll();
+        assertTrue(cancelled.isEmpty(), "a filled order must not be cancelled");
+        assertEquals(0.0, gateway.getPendingBuyQuantity());
+    }
+
+    @Test
+    void testOrdersInFlightCountTowardsRiskLimits() {
+        ManualVenue venue = new ManualVenue();
+        Wallet wallet = new Wallet(10_000);
+        BaseTradingStrategy strategy = new BaseTradingStrategy(wallet) {
+            @Override
+            public Signal analyze(MarketCandle candle) {
+                return Signal.BUY;
+            }
+        };
+        strategy.setVerbose(false);
+        OrderGateway gateway = new OrderGateway(venue, 8, 0, 60_000, System::nanoTime);
+        strategy.setOrderGateway(gateway);
+        // Room for two orders of 0.1 coin, or 2500 USDT of notional
+        strategy.setRiskEngine(new RiskEngine(new RiskLimits(0.25, 0, 60_000, 0, 0, 0)));
+
+        for (int i = 0; i < 3; i++) {
+            strategy.executeStrategyTemplate(candle(100));
+        }
+        assertEquals(2, venue.sent.size(), "The third BUY exceeds the position once in-flight orders count");
+        assertEquals(0.2, gateway.getPendingBuyQuantity(), 1e-12);
+
+        venue.listener.onFill(1, 100, 0.1, 0);
+        venue.listener.onFill(2, 100, 0.1, 0);
+        gateway.poll();
+        assertEquals(0.0, gateway.getPendingBuyQuantity());
+        assertEquals(0.2, wallet.getCoinBalance(), 1e-12);
+
+        RiskEngine notional = new RiskEngine(new RiskLimits(0, 25, 1, 0, 0, 0), () -> 0L);
+        assertTrue(notional.check(Signal.SELL, 100, 0.1, wallet, 0, 10).isAccepted());
+        assertFalse(notional.check(Signal.SELL, 100, 0.1, wallet, 0, 20).isAccepted());
+    }
+}
@@ -0,0 +1,118 @@
+package com.tradingbot.gui;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRingBufferTest {
+
+    @Test
+    void testReaderWithinTheRingSeesEveryLineAcrossWraparound() {
+        LogRingBuffer ring = new LogRingBuffer(4);
+        StringBuilder out = new StringBuilder();
+        ring.add("a");
+        ring.add("b");
+        ring.add("c");
+        long cursor = ring.drainSince(0, out);
+        assertEquals("a\nb\nc\n", out.toString());
+        assertEquals(3, cursor);
+
+        // Slots 3, 0 and 1: the write position wraps past the end of the array
+        ring.add("d");
+        ring.add("e");
+        ring.add("f");
+        out.setLength(0);
+        assertEquals(0, ring.lostSince(cursor));
+        cursor = ring.drainSince(cursor, out);
+        assertEquals("d\ne\nf\n", out.toString());
+        assertEquals(6, cursor);
+        assertEquals(6, ring.getSequence());
+
+        out.setLength(0);
+        assertEquals(6, ring.drainSince(cursor, out));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    void testOverwritesOldestLinesWhenTheReaderFallsBehind() {
+        LogRingBuffer ring = new LogRingBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            ring.add("line " + i);
+        }
+        assertEquals(6, ring.lostSince(0));
+        assertEquals(3, ring.lostSince(3));
+        assertEquals(0, ring.lostSince(6));
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(10, ring.drainSince(0, out));
+        assertEquals("line 6\nline 7\nline 8\nline 9\n", out.toString());
+        assertEquals(0, ring.lostSince(10));
+
+        assertThrows(IllegalArgumentException.class, () -> new LogRingBuffer(0));
+    }
+
+    @Test
+    void testConcurrentProducersAndReaderLoseNothingButOverwrittenLines() throws Exception {
+        int producers = 4;
+        int linesPerProducer = 50_000;
+        LogRingBuffer ring = new LogRingBuffer(64);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            String prefix = p + ":";
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < linesPerProducer; i++) {
+                    ring.add(prefix + i);
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        long cursor = 0;
+        long received = 0;
+        long lost = 0;
+        StringBuilder out = new StringBuilder();
+        start.countDown();
+        boolean producing = true;
+        while (producing) {
+            producing = false;
+            for (Thread thread : threads) {
+                producing |= thread.isAlive();
+            }
+            out.setLength(0);
+            long next = ring.drainSince(cursor, out);
+            int lines = 0;
+            for (String line : out.toString().split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                int producer = Integer.parseInt(line.substring(0, colon));
+                int index = Integer.parseInt(line.substring(colon + 1));
+                assertTrue(index > lastSeen[producer], "line " + line + " repeated or out of order");
+                lastSeen[producer] = index;
+                lines++;
+            }
+            assertTrue(lines <= ring.getCapacity());
+            received += lines;
+            lost += next - cursor - lines;
+            cursor = next;
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) producers * linesPerProducer, ring.getSequence());
+        assertEquals(ring.getSequence(), cursor);
+        assertEquals(ring.getSequence(), received + lost);
+        assertTrue(received >= ring.getCapacity());
+    }
+}
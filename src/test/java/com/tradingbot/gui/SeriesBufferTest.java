@@ -0,0 +1,48 @@
+package com.tradingbot.gui;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesBufferTest {
+
+    @Test
+    void testMemoryStaysBoundedAndExtremesSurvive() {
+        SeriesBuffer series = new SeriesBuffer(64);
+        for (int i = 0; i < 1_000_000; i++) {
+            double price = 100.0 + (i % 10);
+            double high = i == 500_000 ? 10_000.0 : price + 1; // single spike
+            series.append(price, high, price - 1, price, 1000.0 + i, Double.NaN, Double.NaN);
+        }
+
+        SeriesBuffer.View view = series.newView();
+        series.copyTo(view);
+        assertEquals(1_000_000, view.getTotalBars());
+        assertTrue(view.getSize() <= 64);
+
+        int columns = view.decimate(10);
+        assertEquals(10, columns);
+        double maxHigh = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < columns; c++) {
+            maxHigh = Math.max(maxHigh, view.colHigh[c]);
+        }
+        assertEquals(10_000.0, maxHigh, "min/max decimation must keep the spike");
+        assertEquals(1000.0, view.colEquityMin[0]);
+        assertEquals(1000.0 + 999_999, view.colEquityMax[columns - 1]);
+    }
+
+    @Test
+    void testFillMarkersKeptAcrossCompaction() {
+        SeriesBuffer series = new SeriesBuffer(4);
+        series.append(10, 11, 9, 10, 100, 10.0, Double.NaN);
+        for (int i = 0; i < 20; i++) {
+            series.append(10, 11, 9, 10, 100, Double.NaN, Double.NaN);
+        }
+        series.append(10, 11, 9, 10.5, 100, Double.NaN, 10.5);
+
+        SeriesBuffer.View view = series.newView();
+        series.copyTo(view);
+        int columns = view.decimate(100);
+        assertEquals(10.0, view.colBuy[0]);
+        assertEquals(10.5, view.colSell[columns - 1]);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tradingbot.jfr;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.observer.MarketDataSubject;
+import com.tradingbot.strategy.AIStrategy;
+import com.tradingbot.strategy.RSIStrategy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradingEventsTest {
+    private static final String[] EVENTS = {"com.tradingbot.CandleDispatch", "com.tradingbot.StrategyDecision",
+            "com.tradingbot.FeatureExtraction", "com.tradingbot.ModelInference", "com.tradingbot.WalletTrade"};
+
+    private static List<RecordedEvent> record(Path dir, Runnable workload) throws Exception {
+        Path file = dir.resolve("trading.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    @Test
+    void testPipelineEventsCarryBotSymbolAndSignal(@TempDir Path dir) throws Exception {
+        RSIStrategy strategy = new RSIStrategy(new Wallet(10000), 3, 30, 70);
+        strategy.setVerbose(false);
+        strategy.setSymbol("ETHUSDT");
+        MarketDataSubject feed = new MarketDataSubject("ETHUSDT", 0, 7L);
+        feed.registerObserver(new BotObserver("rsi-001", strategy));
+
+        List<RecordedEvent> events = record(dir, () -> {
+            LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+            double[] closes = {100, 99, 98, 97, 96, 95, 110, 120, 130, 140};
+            for (int i = 0; i < closes.length; i++) {
+                feed.notifyObservers(new MarketCandle(closes[i], closes[i] + 1, closes[i] - 1, closes[i], 5,
+                        time.plusMinutes(i)));
+            }
+        });
+
+        List<RecordedEvent> dispatches = named(events, "com.tradingbot.CandleDispatch");
+        assertEquals(10, dispatches.size());
+        assertEquals("ETHUSDT", dispatches.get(0).getString("symbol"));
+        assertEquals(1, dispatches.get(0).getInt("observers"));
+
+        List<RecordedEvent> decisions = named(events, "com.tradingbot.StrategyDecision");
+        assertEquals(10, decisions.size());
+        RecordedEvent decision = decisions.get(0);
+        assertEquals("rsi-001", decision.getString("bot"));
+        assertEquals("ETHUSDT", decision.getString("symbol"));
+        assertEquals("RSIStrategy", decision.getString("strategy"));
+        assertNotNull(decision.getString("signal"));
+        assertFalse(decision.getDuration().isNegative());
+
+        List<RecordedEvent> trades = named(events, "com.tradingbot.WalletTrade");
+        assertFalse(trades.isEmpty(), "Falling then rising closes should trade");
+        assertTrue(trades.stream().anyMatch(e -> e.getBoolean("executed")));
+    }
+
+    @Test
+    void testModelEventsSeparateFeaturesFromInference(@TempDir Path dir) throws Exception {
+        AIStrategy strategy = new AIStrategy(new Wallet(10000), "ai_model/trading_model.onnx",
+                AIStrategy.InferenceEngine.ONNX);
+        strategy.setVerbose(false);
+        strategy.setBotName("ai-001");
+        try {
+            List<RecordedEvent> events = record(dir, () -> {
+                LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+                for (int i = 0; i < 5; i++) {
+                    strategy.executeStrategyTemplate(new MarketCandle(100, 101, 99, 100 + i, 5, time.plusMinutes(i)));
+                }
+            });
+
+            assertEquals(5, named(events, "com.tradingbot.FeatureExtraction").size());
+            List<RecordedEvent> inferences = named(events, "com.tradingbot.ModelInference");
+            assertEquals(5, inferences.size());
+            assertEquals("ONNX", inferences.get(0).getString("engine"));
+            assertEquals("ai-001", inferences.get(0).getString("bot"));
+        } finally {
+            strategy.close();
+        }
+    }
+}
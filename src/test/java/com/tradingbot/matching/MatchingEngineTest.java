@@ -0,0 +1,163 @@
+package com.tradingbot.matching;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingEngineTest {
+    private MatchingEngine engine;
+    private Recorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        // maker 10 bps, taker 20 bps, impact 0.1 per (quantity / volume), 50% participation
+        engine = new MatchingEngine(0.001, 0.002, 0.1, 0.5, 1024);
+        recorder = new Recorder();
+    }
+
+    private static MarketCandle candle(double open, double high, double low, double close, double volume) {
+        return new MarketCandle(open, high, low, close, volume, LocalDateTime.now());
+    }
+
+    @Test
+    void testMarketOrderFillsAtNextOpenWithSlippageAndFee() {
+        Wallet wallet = new Wallet(10000.0);
+        long id = engine.submitMarket(Signal.BUY, 1.0, wallet, recorder);
+        assertEquals(10000.0, wallet.getUsdtBalance()); // Nothing happens until the next candle
+
+        engine.update(candle(100, 110, 90, 105, 10));
+        assertEquals(101.0, recorder.lastPrice.get(id), 1e-9); // 100 * (1 + 0.1 * 1 / 10)
+        assertEquals(0.202, recorder.fees, 1e-9);
+        assertEquals(10000.0 - 101.0 * 1.002, wallet.getUsdtBalance(), 1e-9);
+        assertEquals(1.0, wallet.getCoinBalance(), 1e-12);
+        assertEquals(OrderStatus.FILLED, recorder.status.get(id));
+    }
+
+    @Test
+    void testLimitOrderRestsAndFillsWithinParticipation() {
+        Wallet wallet = new Wallet(10000.0);
+        long id = engine.submit(OrderType.LIMIT, Signal.BUY, 95.0, 2.0, wallet, recorder);
+
+        engine.update(candle(100, 101, 94, 96, 2)); // Budget 0.5 * 2 = 1 coin
+        assertEquals(1.0, wallet.getCoinBalance(), 1e-12);
+        assertEquals(1, engine.getRestingOrderCount());
+        assertEquals(95.0, engine.getBestBid());
+        assertFalse(recorder.status.containsKey(id));
+
+        engine.update(candle(96, 97, 95, 96, 10)); // Touches but does not trade through
+        assertEquals(1.0, wallet.getCoinBalance(), 1e-12);
+
+        engine.update(candle(96, 97, 94.5, 96, 10));
+        assertEquals(2.0, wallet.getCoinBalance(), 1e-12);
+        assertEquals(OrderStatus.FILLED, recorder.status.get(id));
+        assertEquals(2.0, recorder.filled.get(id), 1e-12);
+        assertEquals(0, engine.getRestingOrderCount());
+        assertTrue(recorder.allMaker);
+    }
+
+    @Test
+    void testIocTakesOnlyQuantityWithinLimit() {
+        Wallet wallet = new Wallet(0.0);
+        wallet.buy(0.0, 5.0);
+        long id = engine.submit(OrderType.IOC, Signal.SELL, 99.0, 5.0, wallet, recorder);
+
+        engine.update(candle(100, 101, 95, 97, 10));
+        // 100 * (1 - 0.01 * q) >= 99  =>  q <= 1
+        assertEquals(1.0, recorder.filled.get(id), 1e-9);
+        assertEquals(99.0, recorder.lastPrice.get(id), 1e-9);
+        assertEquals(OrderStatus.CANCELLED, recorder.status.get(id));
+        assertEquals(4.0, wallet.getCoinBalance(), 1e-9);
+        assertEquals(0, engine.getRestingOrderCount());
+    }
+
+    @Test
+    void testCancelAndReject() {
+        Wallet wallet = new Wallet(50.0);
+        long resting = engine.submit(OrderType.LIMIT, Signal.BUY, 10.0, 1.0, wallet, recorder);
+        long unaffordable = engine.submitMarket(Signal.BUY, 1.0, wallet, recorder);
+        engine.update(candle(100, 101, 99, 100, 10));
+        assertEquals(OrderStatus.REJECTED, recorder.status.get(unaffordable));
+        assertEquals(1, engine.getRestingOrderCount());
+
+        assertTrue(engine.cancel(resting));
+        engine.update(candle(100, 101, 5, 100, 10));
+        assertEquals(OrderStatus.CANCELLED, recorder.status.get(resting));
+        assertEquals(50.0, wallet.getUsdtBalance());
+    }
+
+    @Test
+    void testQueueFullRejectsSubmission() {
+        MatchingEngine small = new MatchingEngine(0, 0, 0, 1, 4);
+        Wallet wallet = new Wallet(1e9);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(small.submitMarket(Signal.BUY, 1.0, wallet, null) > 0);
+        }
+        assertEquals(-1, small.submitMarket(Signal.BUY, 1.0, wallet, null));
+        small.update(candle(100, 100, 100, 100, 10));
+        assertEquals(4.0, wallet.getCoinBalance(), 1e-12);
+        assertTrue(small.submitMarket(Signal.BUY, 1.0, wallet, null) > 0);
+    }
+
+    @Test
+    void testConcurrentSubmission() throws Exception {
+        MatchingEngine shared = new MatchingEngine(0, 0, 0, 1, 1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        Wallet[] wallets = new Wallet[producers];
+        for (int p = 0; p < producers; p++) {
+            Wallet wallet = new Wallet(1e12);
+            wallets[p] = wallet;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ids.add(shared.submitMarket(Signal.BUY, 0.001, wallet, null));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, ids.size());
+        assertFalse(ids.contains(-1L));
+
+        shared.update(candle(100, 100, 100, 100, 1000));
+        assertEquals(producers * perProducer, shared.getProcessedOrderCount());
+        for (Wallet wallet : wallets) {
+            assertEquals(perProducer * 0.001, wallet.getCoinBalance(), 1e-9);
+        }
+    }
+
+    private static final class Recorder implements ExecutionListener {
+        final Map<Long, Double> lastPrice = new HashMap<>();
+        final Map<Long, Double> filled = new HashMap<>();
+        final Map<Long, OrderStatus> status = new HashMap<>();
+        double fees;
+        boolean allMaker = true;
+
+        @Override
+        public void onFill(long orderId, Signal side, double price, double quantity, double fee, boolean maker) {
+            lastPrice.put(orderId, price);
+            fees += fee;
+            allMaker &= maker;
+        }
+
+        @Override
+        public void onOrderClosed(long orderId, OrderStatus orderStatus, double filledQuantity) {
+            assertNull(status.put(orderId, orderStatus), "closed twice");
+            filled.put(orderId, filledQuantity);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.tradingbot.metrics;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.strategy.RSIStrategy;
+import org.junit.jupiter.api.Test;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testHistogramQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        long p50 = histogram.getValueAtQuantile(0.5);
+        long p99 = histogram.getValueAtQuantile(0.99);
+        // Buckets have ~12.5% relative precision
+        assertEquals(500_000, p50, 500_000 * 0.125);
+        assertEquals(990_000, p99, 990_000 * 0.125);
+        assertTrue(p50 <= p99);
+    }
+
+    @Test
+    void testStartupClockReportsFirstSignalOnce() {
+        BotObserver bot = new BotObserver("RSI-Bot", new RSIStrategy(new Wallet(10000.0)));
+        bot.update(new MarketCandle(50000, 51000, 49000, 50500, 1000, LocalDateTime.now()));
+        long first = StartupClock.getTimeToFirstSignalMillis();
+        assertTrue(first >= 0);
+
+        List<Long> reported = new ArrayList<>();
+        StartupClock.onFirstSignal(reported::add);
+        bot.update(new MarketCandle(50500, 51000, 49000, 50200, 1000, LocalDateTime.now()));
+
+        assertEquals(List.of(first), reported, "Known already: reported on registration, not again");
+        assertEquals(first, StartupClock.getTimeToFirstSignalMillis());
+    }
+
+    @Test
+    void testRenderPublishesBotSnapshot() {
+        BotObserver bot = new BotObserver("RSI-Bot", new RSIStrategy(new Wallet(10000.0)));
+        bot.update(new MarketCandle(50000, 51000, 49000, 50500, 1000, LocalDateTime.now()));
+
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.registerBot(bot.getMetrics());
+        registry.registerCounter("tradingbot_feed_candles_total", "Candles", "", () -> 42);
+        String text = registry.render();
+
+        assertTrue(text.contains("tradingbot_wallet_usdt_balance{bot=\"RSI-Bot\"} 10000"));
+        assertTrue(text.contains("tradingbot_last_signal{bot=\"RSI-Bot\",signal=\"HOLD\"} 1"));
+        assertTrue(text.contains("tradingbot_candles_processed_total{bot=\"RSI-Bot\"} 1"));
+        assertTrue(text.contains("tradingbot_decision_latency_seconds_count{bot=\"RSI-Bot\"} 1"));
+        assertTrue(text.contains("tradingbot_feed_candles_total 42"));
+    }
+
+    @Test
+    void testHttpEndpoint() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.registerGauge("tradingbot_test_gauge", "Test", "", () -> 7);
+
+        try (MetricsHttpServer server = new MetricsHttpServer(registry, 0)) {
+            server.start();
+            HttpURLConnection connection = (HttpURLConnection)
+                    new URL("http://127.0.0.1:" + server.getPort() + "/metrics").openConnection();
+            assertEquals(200, connection.getResponseCode());
+            try (InputStream in = connection.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("tradingbot_test_gauge 7"));
+            }
+        }
+    }
+}
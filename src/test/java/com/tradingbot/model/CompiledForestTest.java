@@ -0,0 +1,74 @@
+package com.tradingbot.model;
+
+import ai.onnxruntime.OnnxMap;
+import ai.onnxruntime.OnnxSequence;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtSession;
+import org.junit.jupiter.api.Test;
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledForestTest {
+    private static final Path MODEL = Paths.get("ai_model/trading_model.onnx");
+
+    @Test
+    void testLoadsShippedModel() throws Exception {
+        CompiledForest forest = OnnxTreeEnsembleLoader.load(MODEL);
+        assertEquals(3, forest.getFeatureCount());
+        assertEquals(100, forest.getTreeCount());
+        assertArrayEquals(new long[]{0, 1}, forest.getClassLabels());
+    }
+
+    @Test
+    void testBitIdenticalToOrtSession() throws Exception {
+        CompiledForest forest = OnnxTreeEnsembleLoader.load(MODEL);
+        int rows = 5000;
+        float[] batch = new float[rows * 3];
+        Random random = new Random(7);
+        for (int r = 0; r < rows; r++) {
+            batch[r * 3] = (float) (random.nextDouble() * 100.0);          // RSI
+            batch[r * 3 + 1] = (float) (random.nextGaussian() * 1500.0);   // SMA diff
+            batch[r * 3 + 2] = (float) (random.nextGaussian() * 2000.0);   // momentum
+        }
+        batch[0] = Float.NaN; // missing value routing
+
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        options.setIntraOpNumThreads(1);
+        long[] ortLabels;
+        List<Map<?, ?>> ortProbabilities = new ArrayList<>();
+        try (OrtSession session = environment.createSession(MODEL.toString(), options);
+             OnnxTensor input = OnnxTensor.createTensor(environment, FloatBuffer.wrap(batch), new long[]{rows, 3});
+             OrtSession.Result result = session.run(Map.of(session.getInputNames().iterator().next(), input))) {
+            ortLabels = (long[]) result.get(0).getValue();
+            for (Object map : ((OnnxSequence) result.get(1)).getValue()) {
+                ortProbabilities.add(((OnnxMap) map).getValue());
+            }
+        }
+
+        long[] labels = new long[rows];
+        forest.predictLabels(batch, rows, labels);
+        for (int r = 0; r < rows; r++) {
+            float[] row = {batch[r * 3], batch[r * 3 + 1], batch[r * 3 + 2]};
+            assertEquals(ortLabels[r], labels[r], "batch label mismatch at row " + r);
+            assertEquals(ortLabels[r], forest.predictLabel(row), "label mismatch at row " + r);
+
+            Map<?, ?> expected = ortProbabilities.get(r);
+            float[] probabilities = forest.predictProbabilities(row);
+            assertEquals(Float.floatToIntBits((Float) expected.get(0L)), Float.floatToIntBits(probabilities[0]));
+            assertEquals(Float.floatToIntBits((Float) expected.get(1L)), Float.floatToIntBits(probabilities[1]));
+        }
+    }
+
+    @Test
+    void testRejectsModelWithoutTreeEnsemble() {
+        assertThrows(IllegalArgumentException.class, () -> OnnxTreeEnsembleLoader.load(new byte[0]));
+    }
+}
@@ -0,0 +1,80 @@
+package com.tradingbot.model;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureCalculatorTest {
+
+    /** The list-based feature code AIStrategy used before FeatureCalculator, kept as the reference. */
+    private static float[] reference(List<Double> prices, double close) {
+        double rsi = 50.0;
+        if (prices.size() >= 15) {
+            double avgGain = 0.0;
+            double avgLoss = 0.0;
+            for (int i = prices.size() - 14; i < prices.size(); i++) {
+                double change = prices.get(i) - prices.get(i - 1);
+                avgGain += change > 0 ? change : 0.0;
+                avgLoss += change > 0 ? 0.0 : -change;
+            }
+            avgGain /= 14;
+            avgLoss /= 14;
+            rsi = avgLoss == 0 ? 100.0 : 100.0 - (100.0 / (1.0 + avgGain / avgLoss));
+        }
+        double sma = prices.get(prices.size() - 1);
+        if (prices.size() >= 20) {
+            double sum = 0.0;
+            for (int i = prices.size() - 20; i < prices.size(); i++) {
+                sum += prices.get(i);
+            }
+            sma = sum / 20;
+        }
+        double momentum = prices.size() < 6 ? 0.0 : prices.get(prices.size() - 1) - prices.get(prices.size() - 6);
+        return new float[]{(float) rsi, (float) (close - sma), (float) momentum};
+    }
+
+    @Test
+    void testMatchesListBasedFeaturesExactly() {
+        FeatureCalculator calculator = new FeatureCalculator();
+        List<Double> history = new ArrayList<>();
+        Random random = new Random(11);
+        double close = 50000;
+        float[] row = new float[FeatureCalculator.FEATURE_COUNT];
+        for (int i = 0; i < 5000; i++) {
+            close *= 1 + random.nextGaussian() * 0.01;
+            if (i % 97 == 0) {
+                close = Math.rint(close); // Flat runs exercise the zero-loss RSI branch
+            }
+            history.add(close);
+            if (history.size() > FeatureCalculator.HISTORY_SIZE) {
+                history.remove(0);
+            }
+            calculator.update(close, row, 0);
+            assertArrayEquals(reference(history, close), row, 0f, "candle " + i);
+            assertEquals(history.size(), calculator.size());
+        }
+        assertEquals(history.get(0), calculator.getPrice(0));
+    }
+
+    @Test
+    void testWarmUpDefaultsAndClear() {
+        FeatureCalculator calculator = new FeatureCalculator();
+        float[] row = new float[4];
+        calculator.update(100, row, 1);
+        assertArrayEquals(new float[]{0f, 50f, 0f, 0f}, row);
+        for (int i = 1; i < FeatureCalculator.HISTORY_SIZE; i++) {
+            assertFalse(calculator.isWarm());
+            calculator.add(100 + i);
+        }
+        assertTrue(calculator.isWarm());
+        calculator.compute(row, 0);
+        assertEquals(100f, row[0]); // Only gains
+        assertEquals(5f, row[2]);
+        assertThrows(IndexOutOfBoundsException.class, () -> calculator.getPrice(FeatureCalculator.HISTORY_SIZE));
+
+        calculator.clear();
+        assertEquals(0, calculator.size());
+    }
+}
@@ -0,0 +1,67 @@
+package com.tradingbot.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingSetExporterTest {
+
+    private static ByteBuffer npy(Path file, String expectedHeader) throws Exception {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals((byte) 0x93, data.get(0));
+        int headerLength = data.getShort(8);
+        String header = new String(data.array(), 10, headerLength, StandardCharsets.US_ASCII);
+        assertEquals(expectedHeader, header.trim());
+        assertEquals(0, (10 + headerLength) % 64, "Data must stay aligned");
+        return data.position(10 + headerLength).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    void testWritesWarmRowsWithForwardLabels(@TempDir Path dir) throws Exception {
+        int candles = 40;
+        int horizon = 2;
+        double[] closes = new double[candles];
+        FeatureCalculator calculator = new FeatureCalculator();
+        float[][] expected = new float[candles][FeatureCalculator.FEATURE_COUNT];
+        try (TrainingSetExporter exporter = new TrainingSetExporter(dir, horizon, 0.01)) {
+            for (int i = 0; i < candles; i++) {
+                closes[i] = 100 + (i % 3 == 0 ? 3 : -1) * i * 0.1;
+                calculator.update(closes[i], expected[i], 0);
+                exporter.add(1000L * i, closes[i]);
+            }
+        }
+
+        int first = FeatureCalculator.HISTORY_SIZE - 1;
+        int rows = candles - first - horizon;
+        ByteBuffer features = npy(dir.resolve("features.npy"),
+                "{'descr': '<f4', 'fortran_order': False, 'shape': (" + rows + ", 3), }");
+        ByteBuffer labels = npy(dir.resolve("labels.npy"),
+                "{'descr': '|i1', 'fortran_order': False, 'shape': (" + rows + ",), }");
+        ByteBuffer returns = npy(dir.resolve("forward_returns.npy"),
+                "{'descr': '<f4', 'fortran_order': False, 'shape': (" + rows + ",), }");
+        ByteBuffer timestamps = npy(dir.resolve("timestamps.npy"),
+                "{'descr': '<i8', 'fortran_order': False, 'shape': (" + rows + ",), }");
+        assertEquals(rows * 3 * Float.BYTES, features.remaining());
+
+        for (int r = 0; r < rows; r++) {
+            int i = first + r;
+            for (int f = 0; f < FeatureCalculator.FEATURE_COUNT; f++) {
+                assertEquals(expected[i][f], features.getFloat(), "row " + r);
+            }
+            double future = closes[i + horizon];
+            assertEquals(future > closes[i] * 1.01 ? 1 : 0, labels.get(), "row " + r);
+            assertEquals((float) (future / closes[i] - 1), returns.getFloat());
+            assertEquals(1000L * i, timestamps.getLong());
+        }
+    }
+
+    @Test
+    void testRejectsInvalidHorizon(@TempDir Path dir) {
+        assertThrows(IllegalArgumentException.class, () -> new TrainingSetExporter(dir, 0, 0.005));
+    }
+}
@@ -0,0 +1,119 @@
+package com.tradingbot.replay;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.risk.RiskDecision;
+import com.tradingbot.risk.RiskEngine;
+import com.tradingbot.risk.RiskLimits;
+import com.tradingbot.strategy.BaseTradingStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayerTest {
+    private static final String[] PARAMS = {"7", "30", "70"};
+
+    private static BaseTradingStrategy rsi(String... params) {
+        return (BaseTradingStrategy) StrategyFactory.getFactory("RSI")
+                .createAndConfigureStrategy(new Wallet(10000), params);
+    }
+
+    private static Path record(Path dir, int candles) throws Exception {
+        return record(dir, candles, null);
+    }
+
+    /**
+     * Records a bot trading a seeded random walk.
+     */
+    private static Path record(Path dir, int candles, RiskEngine risk) throws Exception {
+        BaseTradingStrategy strategy = rsi(PARAMS);
+        strategy.setVerbose(false);
+        strategy.setRiskEngine(risk);
+        BotObserver bot = new BotObserver("rsi-001", strategy);
+        Path log = dir.resolve("rsi-001.events");
+        try (EventLogWriter writer = new EventLogWriter(log, "rsi-001", "RSI", PARAMS, strategy)) {
+            bot.setEventLog(writer);
+            Random random = new Random(42);
+            LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+            double price = 50000;
+            for (int i = 0; i < candles; i++) {
+                double open = price;
+                price *= 1 + (random.nextDouble() - 0.5) * 0.02;
+                bot.update(new MarketCandle(open, Math.max(open, price) * 1.001, Math.min(open, price) * 0.999,
+                        price, 10 + random.nextDouble(), time.plusMinutes(i)));
+            }
+        }
+        return log;
+    }
+
+    @Test
+    void testReplayReproducesRecordedSession(@TempDir Path dir) throws Exception {
+        Path log = record(dir, 2000);
+
+        try (EventLogReader reader = new EventLogReader(log)) {
+            assertEquals("rsi-001", reader.getBotName());
+            assertEquals("RSI", reader.getStrategyType());
+            assertArrayEquals(PARAMS, reader.getParams());
+        }
+        ReplayResult result = Replayer.replay(log);
+
+        assertTrue(result.isIdentical(), result.toString());
+        assertEquals(2000, result.getCandleCount());
+        assertTrue(result.getTradeCount() > 0, "The walk should trigger trades");
+        assertEquals(-1, result.getDivergedAtCandle());
+    }
+
+    @Test
+    void testReplayAppliesRecordedRiskLimits(@TempDir Path dir) throws Exception {
+        // One 0.1 BUY fits under the position limit, a second one does not
+        RiskLimits limits = new RiskLimits(0.15, 0, RiskLimits.DEFAULT_NOTIONAL_WINDOW_MILLIS, 0, 5, 0.5);
+        RiskEngine live = new RiskEngine(limits);
+        Path log = record(dir, 2000, live);
+        assertTrue(live.getDecisionCount(RiskDecision.POSITION_LIMIT) > 0, "The walk should hit the position limit");
+
+        try (EventLogReader reader = new EventLogReader(log)) {
+            assertEquals(limits.toString(), reader.getRiskLimits().toString());
+        }
+        BaseTradingStrategy replayed = rsi(PARAMS);
+        ReplayResult result = Replayer.replay(log, replayed);
+
+        assertTrue(result.isIdentical(), result.toString());
+        assertEquals(2000, result.getCandleCount());
+        assertTrue(result.getTradeCount() > 0);
+        assertNull(replayed.getRiskEngine(), "The strategy's own risk engine is put back");
+    }
+
+    @Test
+    void testReplayReportsFirstDivergence(@TempDir Path dir) throws Exception {
+        Path log = record(dir, 2000);
+
+        ReplayResult result = Replayer.replay(log, rsi("7", "35", "65"));
+
+        assertFalse(result.isIdentical());
+        assertTrue(result.getDivergedAtCandle() >= 0);
+        assertEquals(result.getDivergedAtCandle() + 1, result.getCandleCount(), "Replay stops at the divergence");
+        assertNotNull(result.getDivergence());
+    }
+
+    @Test
+    void testTruncatedLogReplaysUpToLastCompleteEvent(@TempDir Path dir) throws Exception {
+        Path log = record(dir, 500);
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 7); // Crash in the middle of a record
+        }
+
+        ReplayResult result = Replayer.replay(log);
+
+        assertTrue(result.isIdentical(), result.toString());
+        assertTrue(result.getCandleCount() > 0 && result.getCandleCount() <= 500);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tradingbot.risk;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskEngineTest {
+    private Wallet wallet;
+    private long nowNanos;
+
+    @BeforeEach
+    void setUp() {
+        wallet = new Wallet(10000.0);
+        nowNanos = TimeUnit.HOURS.toNanos(1);
+    }
+
+    private RiskEngine engine(RiskLimits limits) {
+        return new RiskEngine(limits, () -> nowNanos);
+    }
+
+    private static MarketCandle candle(double close) {
+        return new MarketCandle(close, close, close, close, 1.0, LocalDateTime.now());
+    }
+
+    @Test
+    void testNoLimitsAcceptsEverything() {
+        RiskEngine risk = engine(RiskLimits.none());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+        }
+        assertEquals(1000, risk.getDecisionCount(RiskDecision.ACCEPTED));
+    }
+
+    @Test
+    void testMaxPositionOnlyLimitsBuys() {
+        RiskEngine risk = engine(new RiskLimits(0.25, 0, 60_000, 0, 0, 0));
+        assertTrue(wallet.buy(100.0, 0.2));
+        assertEquals(RiskDecision.POSITION_LIMIT, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.SELL, 100.0, 0.1, wallet));
+    }
+
+    @Test
+    void testOrderRateSlidesWithClock() {
+        RiskEngine risk = engine(new RiskLimits(0, 0, 60_000, 3, 0, 0));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+            nowNanos += TimeUnit.MILLISECONDS.toNanos(100);
+        }
+        assertEquals(RiskDecision.ORDER_RATE, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+
+        // First order leaves the window one second after it was placed
+        nowNanos += TimeUnit.MILLISECONDS.toNanos(700);
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+        assertEquals(RiskDecision.ORDER_RATE, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+    }
+
+    @Test
+    void testNotionalWindowExpires() {
+        RiskEngine risk = engine(new RiskLimits(0, 25.0, 60_000, 0, 0, 0));
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.SELL, 100.0, 0.1, wallet));
+        assertEquals(RiskDecision.NOTIONAL_LIMIT, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+
+        nowNanos += TimeUnit.SECONDS.toNanos(30);
+        assertEquals(RiskDecision.NOTIONAL_LIMIT, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+        nowNanos += TimeUnit.SECONDS.toNanos(31);
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+    }
+
+    @Test
+    void testPriceBandUsesPreviousCandle() {
+        RiskEngine risk = engine(new RiskLimits(0, 0, 60_000, 0, 0, 5.0));
+        MarketCandle first = candle(100.0);
+        risk.onCandle(first, wallet);
+        risk.onCandle(first, wallet); // second bot on the same feed does not roll the reference
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 100.0, 0.1, wallet));
+
+        MarketCandle spike = candle(120.0);
+        risk.onCandle(spike, wallet);
+        assertEquals(RiskDecision.PRICE_BAND, risk.check(Signal.BUY, 120.0, 0.1, wallet));
+
+        risk.onCandle(candle(121.0), wallet);
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.BUY, 121.0, 0.1, wallet));
+    }
+
+    @Test
+    void testDrawdownTripsKillSwitch() {
+        RiskEngine risk = engine(new RiskLimits(0, 0, 60_000, 0, 0.5, 0));
+        assertTrue(wallet.buy(10000.0, 1.0)); // All-in: equity follows the price
+        risk.onCandle(candle(10000.0), wallet);
+        risk.onCandle(candle(9960.0), wallet);
+        assertFalse(risk.isKillSwitchActive());
+
+        risk.onCandle(candle(9940.0), wallet);
+        assertTrue(risk.isKillSwitchActive());
+        assertEquals(RiskDecision.KILL_SWITCH, risk.check(Signal.SELL, 9940.0, 0.1, wallet));
+
+        // Stays latched on recovery until reset
+        risk.onCandle(candle(10100.0), wallet);
+        assertEquals(RiskDecision.KILL_SWITCH, risk.check(Signal.SELL, 10100.0, 0.1, wallet));
+        risk.resetKillSwitch();
+        assertEquals(RiskDecision.ACCEPTED, risk.check(Signal.SELL, 10100.0, 0.1, wallet));
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RiskLimits(-1, 0, 60_000, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RiskLimits(0, 0, 60_000, 0, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RiskLimits(0, 100, 0, 0, 0, 0));
+    }
+}
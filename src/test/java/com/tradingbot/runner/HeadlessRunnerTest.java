@@ -0,0 +1,172 @@
+package com.tradingbot.runner;
+
+import com.tradingbot.bot.BotObserver;
+import com.tradingbot.replay.ReplayResult;
+import com.tradingbot.replay.Replayer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessRunnerTest {
+
+    private static Properties baseProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("bots", "rsi, fast");
+        properties.setProperty("bot.rsi.strategy", "rsi");
+        properties.setProperty("bot.rsi.replicas", "3");
+        properties.setProperty("bot.fast.strategy", "RSI");
+        properties.setProperty("bot.fast.params", "7, 25, 75");
+        properties.setProperty("bot.fast.wallet", "5000");
+        properties.setProperty("bot.fast.symbol", "ETHUSDT");
+        return properties;
+    }
+
+    @Test
+    void testParseConfig() {
+        RunnerConfig config = RunnerConfig.fromProperties(baseProperties());
+
+        assertEquals(2, config.getBots().size());
+        assertEquals(4, config.getTotalBotCount());
+        assertEquals(RunnerConfig.ThreadModel.SINGLE, config.getThreadModel());
+
+        BotDefinition fast = config.getBots().get(1);
+        assertEquals("RSI", fast.getStrategyType());
+        assertArrayEquals(new String[]{"7", "25", "75"}, fast.getParams());
+        assertEquals(5000.0, fast.getWalletSize());
+        assertEquals("ETHUSDT", fast.getSymbol());
+        assertEquals("rsi-002", config.getBots().get(0).replicaName(1));
+    }
+
+    @Test
+    void testModelBotParamsFollowModelAndEngine() {
+        Properties properties = new Properties();
+        properties.setProperty("bots", "cascade");
+        properties.setProperty("bot.cascade.strategy", "cascade");
+        properties.setProperty("bot.cascade.model", "ai_model/trading_model.onnx");
+        properties.setProperty("bot.cascade.params", "25, 75, 5, 0, 100");
+        RunnerConfig config = RunnerConfig.fromProperties(properties);
+
+        assertArrayEquals(new String[]{"ai_model/trading_model.onnx", "", "25", "75", "5", "0", "100"},
+                config.getBots().get(0).getParams());
+    }
+
+    @Test
+    void testRejectsMissingStrategy() {
+        Properties properties = new Properties();
+        properties.setProperty("bots", "x");
+        assertThrows(IllegalArgumentException.class, () -> RunnerConfig.fromProperties(properties));
+    }
+
+    @Test
+    void testPoolRunnerProcessesCandlesAndWritesJournal(@TempDir Path dir) throws Exception {
+        Properties properties = baseProperties();
+        properties.setProperty("runner.threads.model", "pool");
+        properties.setProperty("runner.threads.count", "2");
+        properties.setProperty("runner.feed.intervalMillis", "1");
+        Path journal = dir.resolve("journal.csv");
+        properties.setProperty("runner.journal.path", journal.toString());
+        properties.setProperty("runner.eventlog.dir", dir.resolve("events").toString());
+
+        HeadlessRunner runner = new HeadlessRunner(RunnerConfig.fromProperties(properties));
+        runner.start();
+        Thread.sleep(200);
+        runner.stop();
+        runner.awaitTermination();
+
+        for (BotObserver bot : runner.getBots()) {
+            assertTrue(bot.getSnapshot().getCandleCount() > 0, bot.getBotName() + " saw no candles");
+        }
+        List<String> lines = Files.readAllLines(journal);
+        assertEquals(1 + 4, lines.size());
+        assertTrue(lines.get(1).startsWith("rsi-001,"));
+        for (BotObserver bot : runner.getBots()) {
+            ReplayResult replay = Replayer.replay(dir.resolve("events").resolve(bot.getBotName() + ".events"));
+            assertTrue(replay.isIdentical(), replay.toString());
+            assertEquals(bot.getSnapshot().getCandleCount(), replay.getCandleCount());
+        }
+    }
+
+    @Test
+    void testRestartResumesBotsFromSnapshot(@TempDir Path dir) throws Exception {
+        Properties properties = baseProperties();
+        properties.setProperty("runner.threads.model", "pool");
+        properties.setProperty("runner.threads.count", "2");
+        properties.setProperty("runner.feed.intervalMillis", "1");
+        Path snapshot = dir.resolve("state/bots.snapshot");
+        properties.setProperty("runner.snapshot.path", snapshot.toString());
+        properties.setProperty("runner.snapshot.intervalSeconds", "1");
+        RunnerConfig config = RunnerConfig.fromProperties(properties);
+
+        HeadlessRunner first = new HeadlessRunner(config);
+        first.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(snapshot) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(4, SnapshotStore.read(snapshot).size(), "scheduled snapshot while running");
+        first.stop();
+        first.awaitTermination();
+
+        Map<String, byte[]> saved = SnapshotStore.read(snapshot);
+        HeadlessRunner second = new HeadlessRunner(config);
+        second.start();
+        second.stop();
+        second.awaitTermination();
+
+        Map<String, byte[]> resumed = SnapshotStore.read(snapshot);
+        assertEquals(saved.keySet(), resumed.keySet());
+        for (BotObserver bot : first.getBots()) {
+            long candles = ByteBuffer.wrap(saved.get(bot.getBotName())).getLong();
+            assertEquals(bot.getSnapshot().getCandleCount(), candles);
+            assertTrue(candles > 0);
+            // The candle count carries on from the first run instead of restarting at zero
+            assertTrue(ByteBuffer.wrap(resumed.get(bot.getBotName())).getLong() >= candles, bot.getBotName());
+        }
+    }
+
+    @Test
+    void testRejectsPublishAndRemoteTogether() {
+        Properties properties = baseProperties();
+        properties.setProperty("runner.feed.publish", "127.0.0.1:9500");
+        properties.setProperty("runner.feed.remote", "127.0.0.1:9501");
+        assertThrows(IllegalArgumentException.class, () -> RunnerConfig.fromProperties(properties));
+        properties.remove("runner.feed.publish");
+        properties.setProperty("runner.feed.remote", "127.0.0.1");
+        assertThrows(IllegalArgumentException.class, () -> RunnerConfig.fromProperties(properties));
+    }
+
+    @Test
+    void testRemoteRunnerReceivesPublishedFeeds() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Properties publisherProperties = baseProperties();
+        publisherProperties.setProperty("runner.feed.intervalMillis", "1");
+        publisherProperties.setProperty("runner.feed.publish", "127.0.0.1:" + port);
+        Properties remoteProperties = baseProperties();
+        remoteProperties.setProperty("runner.feed.remote", "127.0.0.1:" + port);
+
+        HeadlessRunner publisher = new HeadlessRunner(RunnerConfig.fromProperties(publisherProperties));
+        HeadlessRunner remote = new HeadlessRunner(RunnerConfig.fromProperties(remoteProperties));
+        publisher.start();
+        try {
+            remote.start();
+            Thread.sleep(300);
+        } finally {
+            remote.stop();
+            publisher.stop();
+        }
+
+        for (BotObserver bot : remote.getBots()) {
+            assertTrue(bot.getSnapshot().getCandleCount() > 0, bot.getBotName() + " saw no remote candles");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.tradingbot.simulation;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.observer.MarketDataSubject;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMarketGeneratorTest {
+    private static final long START = 1_700_000_000_000L;
+
+    private static SyntheticMarketGenerator generator(PriceProcess process) {
+        return new SyntheticMarketGenerator(process, 7L, 100.0, 1000.0, START, 60_000L);
+    }
+
+    private static double[] logReturns(CandleColumns columns) {
+        double[] returns = new double[columns.size()];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = Math.log(columns.getClose(i) / columns.getOpen(i));
+        }
+        return returns;
+    }
+
+    @Test
+    void testStreamsAreReproducibleAndIndependentOfOrder() {
+        SyntheticMarketGenerator generator = generator(new GarchProcess(0, 1e-6, 0.1, 0.85));
+        CandleColumns[] parallel = generator.generate(8, 1000);
+
+        CandleColumns single = new CandleColumns(0);
+        generator.stream(5).fill(single, 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(single.getClose(i), parallel[5].getClose(i));
+            assertEquals(single.getVolume(i), parallel[5].getVolume(i));
+        }
+        assertNotEquals(parallel[4].getClose(999), parallel[5].getClose(999));
+
+        // The object API yields the same candles as bulk generation
+        SyntheticCandleStream stream = generator.stream(5);
+        MarketCandle first = stream.next();
+        assertEquals(single.getHigh(0), first.getHigh());
+        assertEquals(single.toCandle(1).getClose(), stream.next().getClose());
+    }
+
+    @Test
+    void testCandlesAreConsistent() {
+        PriceProcess regimes = new RegimeSwitchingProcess(
+                new PriceProcess[] {new GeometricBrownianMotion(0.0005, 0.005),
+                        new JumpDiffusionProcess(-0.001, 0.02, 0.05, -0.05, 0.02)},
+                new double[][] {{0.99, 0.01}, {0.05, 0.95}});
+        CandleColumns columns = generator(regimes).generate(1, 50_000)[0];
+        assertEquals(50_000, columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            assertTrue(columns.getHigh(i) >= Math.max(columns.getOpen(i), columns.getClose(i)));
+            assertTrue(columns.getLow(i) <= Math.min(columns.getOpen(i), columns.getClose(i)));
+            assertTrue(columns.getLow(i) > 0);
+            assertTrue(columns.getVolume(i) > 0);
+            assertEquals(START + i * 60_000L, columns.getTimestamp(i));
+            if (i > 0) {
+                assertEquals(columns.getClose(i - 1), columns.getOpen(i));
+            }
+        }
+    }
+
+    @Test
+    void testGbmMoments() {
+        double[] returns = logReturns(generator(new GeometricBrownianMotion(0.001, 0.01)).generate(1, 200_000)[0]);
+        double mean = 0;
+        for (double r : returns) {
+            mean += r;
+        }
+        mean /= returns.length;
+        double variance = 0;
+        for (double r : returns) {
+            variance += (r - mean) * (r - mean);
+        }
+        variance /= returns.length;
+        assertEquals(0.001 - 0.5 * 0.01 * 0.01, mean, 1e-4);
+        assertEquals(0.01, Math.sqrt(variance), 2e-4);
+    }
+
+    @Test
+    void testGarchClustersVolatilityAndJumpsFattenTails() {
+        double[] garch = logReturns(generator(new GarchProcess(0, 2e-6, 0.15, 0.8)).generate(1, 200_000)[0]);
+        double[] gbm = logReturns(generator(new GeometricBrownianMotion(0, 0.01)).generate(1, 200_000)[0]);
+        assertTrue(squaredReturnAutocorrelation(garch) > 0.1);
+        assertEquals(0, squaredReturnAutocorrelation(gbm), 0.02);
+
+        double[] jumps = logReturns(generator(new JumpDiffusionProcess(0, 0.01, 0.02, 0, 0.05)).generate(1, 200_000)[0]);
+        assertTrue(kurtosis(jumps) > 5);
+        assertEquals(3, kurtosis(gbm), 0.1);
+    }
+
+    @Test
+    void testMarketDataSubjectUsesStream() throws InterruptedException {
+        SyntheticCandleStream stream = generator(new GeometricBrownianMotion(0, 0.01)).stream(0);
+        MarketDataSubject feed = new MarketDataSubject("SYN", 1, stream);
+        List<MarketCandle> candles = new ArrayList<>();
+        feed.registerObserver(candle -> {
+            synchronized (candles) {
+                candles.add(candle);
+            }
+        });
+        feed.start();
+        for (int i = 0; i < 200 && feed.getCandleCount() < 10; i++) {
+            Thread.sleep(10);
+        }
+        feed.stop();
+
+        CandleColumns expected = new CandleColumns(0);
+        generator(new GeometricBrownianMotion(0, 0.01)).stream(0).fill(expected, 10);
+        synchronized (candles) {
+            assertTrue(candles.size() >= 10);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(expected.getClose(i), candles.get(i).getClose());
+            }
+        }
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new GarchProcess(0, 1e-6, 0.5, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new GeometricBrownianMotion(0, -0.1));
+        assertThrows(IllegalArgumentException.class, () -> new RegimeSwitchingProcess(
+                new PriceProcess[] {new GeometricBrownianMotion(0, 0.01)}, new double[][] {{0.5}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticCandleStream(new GeometricBrownianMotion(0, 0.01), 1, -1, 1, 0, 1));
+    }
+
+    private static double squaredReturnAutocorrelation(double[] returns) {
+        int n = returns.length;
+        double mean = 0;
+        for (double r : returns) {
+            mean += r * r;
+        }
+        mean /= n;
+        double numerator = 0;
+        double denominator = 0;
+        for (int i = 0; i < n; i++) {
+            double x = returns[i] * returns[i] - mean;
+            denominator += x * x;
+            if (i > 0) {
+                numerator += x * (returns[i - 1] * returns[i - 1] - mean);
+            }
+        }
+        return numerator / denominator;
+    }
+
+    private static double kurtosis(double[] returns) {
+        double mean = 0;
+        for (double r : returns) {
+            mean += r;
+        }
+        mean /= returns.length;
+        double m2 = 0;
+        double m4 = 0;
+        for (double r : returns) {
+            double d = (r - mean) * (r - mean);
+            m2 += d;
+            m4 += d * d;
+        }
+        m2 /= returns.length;
+        m4 /= returns.length;
+        return m4 / (m2 * m2);
+    }
+}
@@ -0,0 +1,132 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.observer.Observer;
+import com.tradingbot.strategy.RSIStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleRepositoryTest {
+
+    @Test
+    void testRangeAndAsOfMatchLinearScan() {
+        CandleRepository repository = new CandleRepository(16);
+        SplittableRandom random = new SplittableRandom(3);
+        long[] times = new long[5_000];
+        long time = 1_000;
+        for (int i = 0; i < times.length; i++) {
+            time += 1 + random.nextInt(120_000);
+            times[i] = time;
+            assertTrue(repository.append("BTC", time, i, i + 1, i - 1, i + 0.5, 10));
+        }
+        assertFalse(repository.append("BTC", time, 0, 0, 0, 0, 0), "not newer");
+        assertEquals(times.length, repository.size("BTC"));
+
+        for (int q = 0; q < 2_000; q++) {
+            long from = times[0] - 10 + random.nextLong(time - times[0] + 20);
+            long to = from + random.nextLong(5_000_000);
+            int first = 0;
+            while (first < times.length && times[first] < from) {
+                first++;
+            }
+            int end = first;
+            while (end < times.length && times[end] < to) {
+                end++;
+            }
+            CandleView range = repository.range("BTC", from, to);
+            assertEquals(end - first, range.size());
+            if (!range.isEmpty()) {
+                assertEquals(times[first], range.getTimestamp(0));
+                assertEquals(first + 0.5, range.getClose(0));
+            }
+
+            int known = 0;
+            while (known < times.length && times[known] <= from) {
+                known++;
+            }
+            CandleView asOf = repository.asOf("BTC", from);
+            assertEquals(known, asOf.size());
+            if (known > 0) {
+                assertEquals(times[known - 1], asOf.getTimestamp(asOf.size() - 1));
+            }
+        }
+        assertEquals(1, repository.asOf("BTC", times[0]).size());
+        assertTrue(repository.asOf("BTC", times[0] - 1).isEmpty());
+        assertTrue(repository.range("ETH", 0, Long.MAX_VALUE).isEmpty());
+
+        // Views are not copies, yet stay unchanged while the history grows
+        CandleView tail = repository.all("BTC").tail(3);
+        for (int i = 1; i <= 1_000; i++) {
+            repository.append("BTC", time + i, -1, -1, -1, -1, -1);
+        }
+        assertEquals(3, tail.size());
+        assertEquals(times[times.length - 1], tail.getTimestamp(2));
+        assertEquals(times.length - 1 + 0.5, tail.getClose(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tail.getClose(3));
+    }
+
+    @Test
+    void testReadersSeeConsistentHistoryWhileFeedAppends() throws Exception {
+        CandleRepository repository = new CandleRepository(8);
+        Observer recorder = repository.recorder("ETHUSDT");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                int seen = 0;
+                while (seen < 20_000) {
+                    CandleView view = repository.all("ETHUSDT");
+                    assertTrue(view.size() >= seen);
+                    for (int i = Math.max(0, view.size() - 100); i < view.size(); i++) {
+                        assertEquals(1_000.0 + i, view.getClose(i));
+                        assertEquals(i * 60_000L, view.getTimestamp(i));
+                    }
+                    seen = view.size();
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(i * 60L, 0, ZoneOffset.UTC);
+            recorder.update(new MarketCandle(1, 1, 1, 1_000.0 + i, 1, timestamp));
+        }
+        reader.join(10_000);
+        assertNull(failure.get());
+        assertFalse(reader.isAlive());
+    }
+
+    @Test
+    void testLoadsFromCompressedFileAndWarmsUpStrategy(@TempDir Path dir) throws Exception {
+        CandleRepository live = new CandleRepository();
+        for (int i = 0; i < 100; i++) {
+            double price = 50_000 - i * 100; // Falling: RSI oversold
+            live.append("BTCUSDT", i * 60_000L, price, price + 100, price - 100, price, 1_000);
+        }
+        Path file = dir.resolve("BTCUSDT.tbcs");
+        try (CompressedCandleWriter writer = new CompressedCandleWriter(file, 32)) {
+            live.save("BTCUSDT", writer);
+        }
+
+        CandleRepository restored = new CandleRepository();
+        try (CompressedCandleReader reader = new CompressedCandleReader(file)) {
+            assertEquals(60, restored.load("BTCUSDT", reader, 40 * 60_000L, Long.MAX_VALUE));
+        }
+        assertEquals(40 * 60_000L, restored.all("BTCUSDT").getTimestamp(0));
+
+        RSIStrategy strategy = new RSIStrategy(new Wallet(10_000));
+        strategy.setVerbose(false);
+        strategy.warmUp(restored.asOf("BTCUSDT", 99 * 60_000L).tail(RSIStrategy.DEFAULT_RSI_PERIOD));
+        assertEquals(10_000.0, strategy.getWallet().getUsdtBalance(), "warm-up does not trade");
+        MarketCandle next = new MarketCandle(40_000, 40_100, 39_900, 40_000, 1_000, LocalDateTime.now());
+        assertEquals(Signal.BUY, strategy.executeStrategyTemplate(next));
+    }
+}
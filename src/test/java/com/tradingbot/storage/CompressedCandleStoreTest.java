@@ -0,0 +1,139 @@
+package com.tradingbot.storage;
+
+import com.tradingbot.simulation.CandleColumns;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedCandleStoreTest {
+    private static final long MINUTE = 60_000;
+    private static final long START = 1_700_000_040_000L;
+
+    /** One-minute candles with cent prices, a few gaps and one irregular timestamp. */
+    private static CandleColumns history(int candles, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CandleColumns columns = new CandleColumns(candles);
+        double price = 30_000;
+        long time = START;
+        for (int i = 0; i < candles; i++) {
+            double open = price;
+            double close = Math.round(price * (1 + (random.nextDouble() - 0.5) * 0.004) * 100) / 100.0;
+            double high = Math.max(open, close) + Math.round(random.nextDouble() * 500) / 100.0;
+            double low = Math.min(open, close) - Math.round(random.nextDouble() * 500) / 100.0;
+            columns.add(time, open, high, low, close, Math.round(random.nextDouble() * 1e6) / 1e4);
+            price = close;
+            time += i % 997 == 996 ? 37 * MINUTE : i == 1234 ? MINUTE + 7 : MINUTE;
+        }
+        return columns;
+    }
+
+    private static void assertSameCandles(CandleColumns expected, int from, CandleColumns actual) {
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(expected.getTimestamp(from + i), actual.getTimestamp(i));
+            assertEquals(Double.doubleToRawLongBits(expected.getOpen(from + i)), Double.doubleToRawLongBits(actual.getOpen(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getHigh(from + i)), Double.doubleToRawLongBits(actual.getHigh(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getLow(from + i)), Double.doubleToRawLongBits(actual.getLow(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getClose(from + i)), Double.doubleToRawLongBits(actual.getClose(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getVolume(from + i)), Double.doubleToRawLongBits(actual.getVolume(i)));
+        }
+    }
+
+    @Test
+    void testRoundTripsBitForBitAndCompresses(@TempDir Path dir) throws IOException {
+        CandleColumns candles = history(20_000, 1);
+        Path file = dir.resolve("BTCUSDT.tbcs");
+        try (CompressedCandleWriter writer = new CompressedCandleWriter(file, 512)) {
+            writer.addAll(candles);
+            assertEquals(20_000, writer.getCandleCount());
+        }
+        long raw = 48L * candles.size();
+        assertTrue(Files.size(file) < raw * 0.6, "compressed " + Files.size(file) + " of " + raw + " bytes");
+
+        try (CompressedCandleReader reader = new CompressedCandleReader(file)) {
+            assertEquals(20_000, reader.getCandleCount());
+            assertEquals(40, reader.getBlockCount());
+            assertEquals(START, reader.getFirstTimestamp());
+            assertEquals(candles.getTimestamp(19_999), reader.getLastTimestamp());
+            CandleColumns all = new CandleColumns(0);
+            assertEquals(20_000, reader.read(Long.MIN_VALUE, Long.MAX_VALUE, all));
+            assertEquals(20_000, all.size());
+            assertSameCandles(candles, 0, all);
+        }
+
+        Path special = dir.resolve("special.tbcs");
+        double[] values = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE,
+                1e-300, 123456.789, 123456.789, Double.longBitsToDouble(0x7ff8_dead_beef_0001L)};
+        CandleColumns odd = new CandleColumns(values.length);
+        for (int i = 0; i < values.length; i++) {
+            odd.add(-5_000_000_000L + (long) i * i * 1_000_003, values[i], values[(i + 3) % values.length],
+                    values[(i + 5) % values.length], values[values.length - 1 - i], values[(i * 7) % values.length]);
+        }
+        try (CompressedCandleWriter writer = new CompressedCandleWriter(special, 3)) {
+            writer.addAll(odd);
+        }
+        try (CompressedCandleReader reader = new CompressedCandleReader(special)) {
+            CandleColumns read = new CandleColumns(0);
+            reader.read(Long.MIN_VALUE, Long.MAX_VALUE, read);
+            assertEquals(values.length, read.size());
+            assertSameCandles(odd, 0, read);
+        }
+    }
+
+    @Test
+    void testRangeReadsDecodeOnlyOverlappingBlocks(@TempDir Path dir) throws IOException {
+        CandleColumns candles = history(10_000, 2);
+        Path file = dir.resolve("ETHUSDT.tbcs");
+        try (CompressedCandleWriter writer = new CompressedCandleWriter(file, 256)) {
+            writer.addAll(candles);
+        }
+        try (CompressedCandleReader reader = new CompressedCandleReader(file)) {
+            CandleColumns slice = new CandleColumns(0);
+            long from = candles.getTimestamp(5_000);
+            long to = candles.getTimestamp(5_100);
+            assertEquals(100, reader.read(from, to, slice));
+            assertSameCandles(candles, 5_000, slice);
+            assertTrue(reader.getBlocksDecoded() <= 2, reader.getBlocksDecoded() + " blocks decoded");
+
+            // Bounds that fall between candles, scanned without materializing
+            long[] first = {0};
+            double[] sum = {0};
+            long count = reader.scan(from + 1, to + 1, (t, o, h, l, c, v) -> {
+                if (first[0] == 0) {
+                    first[0] = t;
+                }
+                sum[0] += c;
+            });
+            assertEquals(100, count);
+            assertEquals(candles.getTimestamp(5_001), first[0]);
+            double expected = 0;
+            for (int i = 5_001; i <= 5_100; i++) {
+                expected += candles.getClose(i);
+            }
+            assertEquals(expected, sum[0]);
+
+            long decoded = reader.getBlocksDecoded();
+            assertEquals(0, reader.read(candles.getTimestamp(9_999) + 1, Long.MAX_VALUE, slice));
+            assertEquals(0, reader.read(0, START, slice));
+            assertEquals(decoded, reader.getBlocksDecoded());
+        }
+    }
+
+    @Test
+    void testRejectsUnorderedCandlesAndUnclosedFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("bad.tbcs");
+        try (CompressedCandleWriter writer = new CompressedCandleWriter(file)) {
+            writer.add(START, 1, 1, 1, 1, 1);
+            assertThrows(IllegalArgumentException.class, () -> writer.add(START, 1, 1, 1, 1, 1));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        assertThrows(IOException.class, () -> new CompressedCandleReader(file));
+    }
+}
@@ -0,0 +1,96 @@
+package com.tradingbot.strategy;
+
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import com.tradingbot.factory.StrategyFactory;
+import com.tradingbot.simulation.CandleColumns;
+import com.tradingbot.simulation.GeometricBrownianMotion;
+import com.tradingbot.simulation.SyntheticCandleStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CascadingStrategyTest {
+    private static final String MODEL = "ai_model/trading_model.onnx";
+
+    private static CandleColumns candles(int count) {
+        CandleColumns candles = new CandleColumns(count);
+        new SyntheticCandleStream(new GeometricBrownianMotion(0, 0.0115), 42, 50000, 5000, 0, 60_000)
+                .fill(candles, count);
+        return candles;
+    }
+
+    @Test
+    void testModelDecidesOnlyAmbiguousCandles() {
+        CandleColumns candles = candles(2000);
+        AIStrategy model = new AIStrategy(new Wallet(10000), MODEL);
+        CascadingStrategy cascade = new CascadingStrategy(new Wallet(10000), MODEL);
+        model.setVerbose(false);
+        cascade.setVerbose(false);
+        try {
+            int agreeing = 0;
+            for (int i = 0; i < candles.size(); i++) {
+                Signal expected = model.analyze(candles.toCandle(i));
+                long inferences = cascade.getInferenceCount();
+                Signal signal = cascade.analyze(candles.toCandle(i));
+                if (cascade.getInferenceCount() > inferences) {
+                    assertEquals(expected, signal, "Inferred candle " + i + " must match the plain model");
+                    agreeing++;
+                } else {
+                    assertNotNull(signal);
+                }
+            }
+            assertEquals(candles.size(), cascade.getSkippedCount() + cascade.getInferenceCount());
+            assertEquals(agreeing, cascade.getInferenceCount());
+            assertTrue(cascade.getSkipRatio() > 0.5, "Most candles should skip the model: " + cascade.getSkipRatio());
+            assertEquals(0, cascade.getShadowInferenceCount());
+        } finally {
+            model.close();
+            cascade.close();
+        }
+    }
+
+    @Test
+    void testShadowSamplingComparesSkippedCandlesWithModel() {
+        CandleColumns candles = candles(2000);
+        CascadingStrategy cascade = new CascadingStrategy(new Wallet(10000), MODEL, AIStrategy.InferenceEngine.JAVA,
+                30, 70, 10, 0, 1);
+        cascade.setVerbose(false);
+        try {
+            for (int i = 0; i < candles.size(); i++) {
+                cascade.analyze(candles.toCandle(i));
+            }
+            assertEquals(cascade.getSkippedCount(), cascade.getShadowInferenceCount());
+            assertTrue(cascade.getShadowDisagreementCount() > 0);
+            assertTrue(cascade.getShadowDisagreementCount() <= cascade.getShadowInferenceCount());
+            assertTrue(Double.isFinite(cascade.getShadowReturnDelta()));
+        } finally {
+            cascade.close();
+        }
+    }
+
+    @Test
+    void testRegimeThresholdAndFactoryParameters() {
+        CascadingStrategy trending = (CascadingStrategy) StrategyFactory.getFactory("cascade")
+                .createStrategy(new Wallet(10000), MODEL, "java", "25", "75", "5", "0.000001", "50");
+        assertEquals(25, trending.getOversold());
+        assertEquals(75, trending.getOverbought());
+        assertEquals(5, trending.getNeutralBand());
+        assertEquals(50, trending.getShadowEvery());
+        trending.setVerbose(false);
+        try {
+            CandleColumns candles = candles(500);
+            for (int i = 0; i < candles.size(); i++) {
+                trending.analyze(candles.toCandle(i));
+            }
+            // A tiny threshold makes every candle off its SMA count as trending
+            assertTrue(trending.getSkipRatio() < 0.1, "Skip ratio: " + trending.getSkipRatio());
+        } finally {
+            trending.close();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new CascadingStrategy(new Wallet(10000), MODEL,
+                AIStrategy.InferenceEngine.JAVA, 45, 70, 10, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CascadingStrategy(new Wallet(10000), MODEL,
+                AIStrategy.InferenceEngine.JAVA, 30, 70, 10, 0, -1));
+    }
+}
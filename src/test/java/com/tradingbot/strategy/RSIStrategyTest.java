@@ -5,7 +5,15 @@ import com.tradingbot.domain.Signal;
 import com.tradingbot.domain.Wallet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 class RSIStrategyTest {
@@ -49,5 +57,90 @@ class RSIStrategyTest {
         // Should not throw exception even with invalid/incomplete data
         assertDoesNotThrow(() -> strategy.executeStrategyTemplate(candle));
     }
-}
 
+    @Test
+    void testSnapshotRestoresWarmStrategyAndWallet() throws IOException {
+        strategy.setVerbose(false);
+        for (int i = 0; i < 20; i++) {
+            strategy.executeStrategyTemplate(candle(50000 - i * 100)); // Falling: buys
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        strategy.writeSnapshot(new DataOutputStream(bytes));
+
+        Wallet restoredWallet = new Wallet(10000.0);
+        RSIStrategy restored = new RSIStrategy(restoredWallet);
+        restored.setVerbose(false);
+        restored.restoreSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(wallet.getUsdtUnits(), restoredWallet.getUsdtUnits());
+        assertEquals(wallet.getCoinUnits(), restoredWallet.getCoinUnits());
+        assertEquals(wallet.getInitialUsdtBalance(), restoredWallet.getInitialUsdtBalance());
+
+        // The very next candle already yields a real signal, identical to the uninterrupted strategy
+        MarketCandle next = candle(50000 - 20 * 100);
+        assertEquals(Signal.BUY, restored.executeStrategyTemplate(next));
+        assertEquals(Signal.BUY, strategy.executeStrategyTemplate(next));
+        for (int i = 0; i < 15; i++) {
+            MarketCandle rising = candle(48000 + i * 150);
+            assertEquals(strategy.executeStrategyTemplate(rising), restored.executeStrategyTemplate(rising));
+        }
+        assertEquals(wallet.getUsdtUnits(), restoredWallet.getUsdtUnits());
+        assertEquals(wallet.getCoinUnits(), restoredWallet.getCoinUnits());
+
+        // A shorter period keeps only the prices it needs; another strategy type is refused untouched
+        RSIStrategy shorter = new RSIStrategy(new Wallet(10000.0), 5, 30, 70);
+        shorter.restoreSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(Signal.BUY, shorter.analyze(next));
+        Wallet other = new Wallet(10000.0);
+        BaseTradingStrategy hold = new BaseTradingStrategy(other) {
+            @Override
+            public Signal analyze(MarketCandle candle) {
+                return Signal.HOLD;
+            }
+        };
+        assertThrows(IOException.class,
+                () -> hold.restoreSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertEquals(0, other.getCoinUnits());
+    }
+
+    @Test
+    void testTruncatedSnapshotChangesNothing() throws IOException {
+        strategy.setVerbose(false);
+        for (int i = 0; i < 20; i++) {
+            strategy.executeStrategyTemplate(candle(50000 - i * 100));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        strategy.writeSnapshot(new DataOutputStream(bytes));
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 4);
+
+        Wallet restoredWallet = new Wallet(500.0);
+        RSIStrategy restored = new RSIStrategy(restoredWallet);
+        restored.setVerbose(false);
+        assertThrows(IOException.class,
+                () -> restored.restoreSnapshot(new DataInputStream(new ByteArrayInputStream(truncated))));
+        assertEquals(500.0, restoredWallet.getUsdtBalance());
+        assertEquals(0, restoredWallet.getCoinUnits());
+        assertEquals(Signal.HOLD, restored.analyze(candle(48000)), "The price history must still be empty");
+    }
+
+    @Test
+    void testPriceHistoryBeyondShortRangeRoundTrips() throws IOException {
+        List<Double> history = new ArrayList<>();
+        for (int i = 0; i < 70_000; i++) {
+            history.add(1000.0 + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        BaseTradingStrategy.writePrices(out, history);
+        out.writeInt(42); // The next field must still line up
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        List<Double> kept = new ArrayList<>();
+        BaseTradingStrategy.readPrices(in, kept, 3);
+        assertEquals(List.of(70_997.0, 70_998.0, 70_999.0), kept);
+        assertEquals(42, in.readInt());
+    }
+
+    private static MarketCandle candle(double price) {
+        return new MarketCandle(price, price + 100, price - 100, price, 1000, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,200 @@
+package com.tradingbot.trigger;
+
+import com.tradingbot.domain.MarketCandle;
+import com.tradingbot.domain.Signal;
+import com.tradingbot.domain.Wallet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriggerEngineTest {
+    private TriggerEngine engine;
+    private Map<Long, Double> fills;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TriggerEngine();
+        fills = new HashMap<>();
+        engine.addTriggerListener((id, type, wallet, price, amount) -> fills.put(id, price));
+    }
+
+    private static MarketCandle candle(double open, double high, double low, double close) {
+        return new MarketCandle(open, high, low, close, 1.0, LocalDateTime.now());
+    }
+
+    private static Wallet walletWithCoins(double coins) {
+        Wallet wallet = new Wallet(1_000_000.0);
+        assertTrue(wallet.buy(100.0, coins));
+        return wallet;
+    }
+
+    @Test
+    void testStopLossFillsAtStopOrGapOpen() {
+        Wallet wallet = walletWithCoins(2.0);
+        long stop = engine.placeStopLoss(wallet, 1.0, 95.0);
+        long gapped = engine.placeStopLoss(wallet, 1.0, 90.0);
+
+        engine.update(candle(100, 101, 96, 97));
+        assertTrue(fills.isEmpty());
+
+        engine.update(candle(97, 98, 94, 95));
+        assertEquals(95.0, fills.get(stop));
+        engine.update(candle(85, 86, 80, 82));
+        assertEquals(85.0, fills.get(gapped)); // Opened below the stop
+        assertEquals(0.0, wallet.getCoinBalance(), 1e-12);
+        assertEquals(0, engine.getActiveCount());
+    }
+
+    @Test
+    void testOcoBracketCancelsTakeProfit() {
+        Wallet wallet = walletWithCoins(1.0);
+        long stop = engine.placeStopLoss(wallet, 1.0, 95.0);
+        long takeProfit = engine.placeTakeProfit(wallet, 1.0, 110.0);
+        assertTrue(engine.linkOco(stop, takeProfit));
+
+        // Bar touches both: the stop is evaluated first
+        engine.update(candle(100, 111, 94, 105));
+        assertEquals(95.0, fills.get(stop));
+        assertFalse(fills.containsKey(takeProfit));
+        assertFalse(engine.isActive(takeProfit));
+        assertFalse(engine.cancel(takeProfit));
+    }
+
+    @Test
+    void testTrailingStopFollowsHigh() {
+        Wallet wallet = walletWithCoins(1.0);
+        long trailing = engine.placeTrailingStop(wallet, 1.0, 5.0, 100.0);
+
+        engine.update(candle(100, 120, 99, 118)); // Stop was 95; peak rises to 120
+        assertTrue(fills.isEmpty());
+        engine.update(candle(118, 119, 116, 117)); // Stop 115 not reached
+        assertTrue(fills.isEmpty());
+        engine.update(candle(117, 117, 110, 112));
+        assertEquals(115.0, fills.get(trailing));
+    }
+
+    @Test
+    void testCancelledTriggersNeverFire() {
+        Wallet wallet = walletWithCoins(1.0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(engine.placeStopLoss(wallet, 0.001, 90.0 + i * 0.01));
+            ids.add(engine.placeTrailingStopPercent(wallet, 0.001, 10.0, 100.0));
+        }
+        for (long id : ids) {
+            assertTrue(engine.cancel(id));
+        }
+        assertEquals(0, engine.getActiveCount());
+        engine.update(candle(100, 100, 1, 1));
+        assertTrue(fills.isEmpty());
+        assertEquals(1.0, wallet.getCoinBalance(), 1e-12);
+    }
+
+    @Test
+    void testProtectiveExitPolicyAttachesBracketOnBuy() {
+        Wallet wallet = walletWithCoins(0.1);
+        ProtectiveExitPolicy policy = new ProtectiveExitPolicy(engine, wallet, 2.0, 5.0, 0);
+        policy.onTrade(Signal.BUY, 100.0, 0.1);
+        policy.onTrade(Signal.SELL, 100.0, 0.1); // Ignored
+        assertEquals(2, engine.getActiveCount());
+
+        engine.update(candle(100, 106, 99, 105));
+        assertEquals(1, fills.size());
+        assertEquals(105.0, fills.values().iterator().next(), 1e-9);
+        assertEquals(0, engine.getActiveCount());
+    }
+
+    @Test
+    void testMatchesBruteForceScan() {
+        Random random = new Random(42);
+        List<Reference> references = new ArrayList<>();
+        double price = 100.0;
+        int fired = 0;
+
+        for (int bar = 0; bar < 2000; bar++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                Reference r = new Reference();
+                r.wallet = walletWithCoins(10.0);
+                r.type = TriggerType.values()[random.nextInt(3)];
+                switch (r.type) {
+                    case STOP_LOSS:
+                        r.level = price * (0.9 + random.nextDouble() * 0.1);
+                        r.id = engine.placeStopLoss(r.wallet, 1.0, r.level);
+                        break;
+                    case TAKE_PROFIT:
+                        r.level = price * (1.0 + random.nextDouble() * 0.1);
+                        r.id = engine.placeTakeProfit(r.wallet, 1.0, r.level);
+                        break;
+                    default:
+                        r.peak = price;
+                        r.percent = random.nextBoolean();
+                        r.offset = r.percent ? 1 + random.nextInt(3) : 1 + random.nextInt(3) * 0.5;
+                        r.id = r.percent ? engine.placeTrailingStopPercent(r.wallet, 1.0, r.offset, price)
+                                : engine.placeTrailingStop(r.wallet, 1.0, r.offset, price);
+                }
+                references.add(r);
+            }
+            if (!references.isEmpty() && random.nextInt(4) == 0) {
+                Reference r = references.remove(random.nextInt(references.size()));
+                assertTrue(engine.cancel(r.id));
+            }
+
+            double open = price;
+            double close = price * Math.exp(random.nextGaussian() * 0.01);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.005);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.005);
+            price = close;
+
+            Map<Long, Double> expected = new HashMap<>();
+            List<Reference> survivors = new ArrayList<>();
+            for (Reference r : references) {
+                Double fill = r.fire(open, high, low);
+                if (fill != null) {
+                    expected.put(r.id, fill);
+                } else {
+                    survivors.add(r);
+                }
+            }
+            references = survivors;
+
+            fills.clear();
+            engine.update(candle(open, high, low, close));
+            assertEquals(expected, fills, "bar " + bar);
+            assertEquals(references.size(), engine.getActiveCount());
+            fired += expected.size();
+        }
+        assertTrue(fired > 1000, "only " + fired + " triggers fired");
+    }
+
+    private static final class Reference {
+        long id;
+        Wallet wallet;
+        TriggerType type;
+        double level;
+        double peak;
+        double offset;
+        boolean percent;
+
+        Double fire(double open, double high, double low) {
+            switch (type) {
+                case STOP_LOSS:
+                    return low <= level ? Math.min(level, open) : null;
+                case TAKE_PROFIT:
+                    return high >= level ? Math.max(level, open) : null;
+                default:
+                    double stop = percent ? peak * (1.0 - offset / 100.0) : peak - offset;
+                    if (low <= stop) {
+                        return Math.min(stop, open);
+                    }
+                    peak = Math.max(peak, high);
+                    return null;
+            }
+        }
+    }
+}